@@ -0,0 +1,67 @@
+package IRPact_modellierung.benchmark;
+
+import IRPact_modellierung.agents.consumerAgents.ConsumerAgent;
+import IRPact_modellierung.events.DiscreteEventScheduler;
+import IRPact_modellierung.events.Event;
+import IRPact_modellierung.events.NeedEvent;
+import IRPact_modellierung.needs.Need;
+import IRPact_modellierung.simulation.SimulationContainer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of scheduling the need events of all agents with an unsatisfied need
+ * (half of the agents of the scenario) at random times within a year, and popping them again.
+ *
+ * @author Simon Johanning
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EventSchedulingBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int noAgents;
+
+    private SimulationContainer container;
+    private List<Event> events;
+
+    @Setup
+    public void setUp() throws IOException {
+        container = new SyntheticScenario(noAgents).createSimulation();
+        Need need = SyntheticScenario.findNeed(container);
+        Random random = new Random(SyntheticScenario.MASTERSEED);
+        events = new ArrayList<Event>();
+        for(ConsumerAgent agent : SyntheticScenario.pickAgents(container.getConsumerAgents(), noAgents)) {
+            if(!agent.needAlreadySatisfied(need)) events.add(new NeedEvent(random.nextDouble(), agent, need, container));
+        }
+    }
+
+    @Benchmark
+    public double scheduleAndPopEvents() {
+        //the scheduler refuses events scheduled before, so a fresh one is needed every invocation
+        DiscreteEventScheduler scheduler = new DiscreteEventScheduler(container);
+        for(Event event : events) scheduler.scheduleEvent(event);
+        double checksum = 0.0;
+        while(scheduler.existsNextEvent()) checksum += scheduler.popNextEvent().getScheduledForTime();
+        return checksum;
+    }
+}
@@ -0,0 +1,68 @@
+package IRPact_modellierung.benchmark;
+
+import IRPact_modellierung.agents.consumerAgents.ConsumerAgent;
+import IRPact_modellierung.messaging.MessageScheme;
+import IRPact_modellierung.simulation.SimulationContainer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the creation of the messages of a consumer agent (three per agent)
+ * through the DefaultConsumerAgentMessageScheme, reported per sending agent.
+ *
+ * @author Simon Johanning
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MessageCreationBenchmark {
+
+    private static final int SAMPLESIZE = 1000;
+
+    @Param({"1000", "10000", "100000"})
+    public int noAgents;
+
+    private SimulationContainer container;
+    private List<ConsumerAgent> senders;
+
+    @Setup
+    public void setUp() throws IOException {
+        container = new SyntheticScenario(noAgents).createSimulation();
+        senders = SyntheticScenario.pickAgents(container.getConsumerAgents(), SAMPLESIZE);
+    }
+
+    //the simulation stream is bound to the thread creating the simulation, which needn't be the one running the benchmark
+    @Setup(Level.Iteration)
+    public void bindRandomStream() {
+        container.getSimulationConfiguration().getRandomNumberService().bindToCurrentThread();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLESIZE)
+    public int createMessages() {
+        int noMessages = 0;
+        for(ConsumerAgent sender : senders) {
+            MessageScheme messageScheme = sender.getCorrespondingConsumerAgentGroup().getCommunicationScheme().getCorrespondingMessageScheme();
+            noMessages += messageScheme.createMessages(container, sender).size();
+        }
+        return noMessages;
+    }
+}
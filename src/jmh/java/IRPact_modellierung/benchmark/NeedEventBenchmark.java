@@ -0,0 +1,92 @@
+package IRPact_modellierung.benchmark;
+
+import IRPact_modellierung.agents.consumerAgents.ConsumerAgent;
+import IRPact_modellierung.events.DiscreteEventScheduler;
+import IRPact_modellierung.events.NeedEvent;
+import IRPact_modellierung.needs.Need;
+import IRPact_modellierung.products.AdoptedProduct;
+import IRPact_modellierung.simulation.SimulationContainer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of processing need events (filtering the eligible products and deciding on one of them)
+ * with each of the configurable decision processes, reported per event.
+ *
+ * The events concern agents with an unsatisfied need, whose adoption is reverted after each event,
+ * so every invocation works on the same state.
+ *
+ * @author Simon Johanning
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class NeedEventBenchmark {
+
+    private static final int SAMPLESIZE = 1000;
+
+    @Param({"1000", "10000", "100000"})
+    public int noAgents;
+
+    @Param({"Kiesling", "TakeTheBest", "SchwarzTakeTheBest", "DeliberativeDecision"})
+    public String decisionProcess;
+
+    private SimulationContainer container;
+    private Need need;
+    private List<ConsumerAgent> consumers;
+
+    @Setup
+    public void setUp() throws IOException {
+        SyntheticScenario scenario = new SyntheticScenario(noAgents);
+        scenario.setDecisionProcess(decisionProcess);
+        container = scenario.createSimulation();
+        need = SyntheticScenario.findNeed(container);
+        List<ConsumerAgent> unsatisfiedConsumers = new ArrayList<ConsumerAgent>();
+        for(ConsumerAgent agent : container.getConsumerAgents()) {
+            if(!agent.needAlreadySatisfied(need)) unsatisfiedConsumers.add(agent);
+        }
+        consumers = SyntheticScenario.pickAgents(unsatisfiedConsumers, SAMPLESIZE);
+    }
+
+    //events scheduled by the need development scheme would pile up otherwise;
+    //the simulation stream is bound to the thread creating the simulation, which needn't be the one running the benchmark
+    @Setup(Level.Iteration)
+    public void resetEventScheduler() {
+        container.setEventScheduler(new DiscreteEventScheduler(container));
+        container.getSimulationConfiguration().getRandomNumberService().bindToCurrentThread();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLESIZE)
+    public int processNeedEvents() {
+        int noAdoptions = 0;
+        for(ConsumerAgent consumer : consumers) {
+            new NeedEvent(0.0, consumer, need, container).processEvent(0.0);
+            //the consumers didn't own any product before
+            for(AdoptedProduct adoptedProduct : new ArrayList<AdoptedProduct>(consumer.getAdoptedProducts())) {
+                consumer.removeAdoptedProduct(adoptedProduct);
+                noAdoptions++;
+            }
+        }
+        return noAdoptions;
+    }
+}
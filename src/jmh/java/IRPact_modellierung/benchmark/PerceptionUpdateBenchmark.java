@@ -0,0 +1,82 @@
+package IRPact_modellierung.benchmark;
+
+import IRPact_modellierung.agents.consumerAgents.ConsumerAgent;
+import IRPact_modellierung.products.Product;
+import IRPact_modellierung.products.ProductAttribute;
+import IRPact_modellierung.simulation.SimulationContainer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of updating the histogram perception of a product attribute of random agents
+ * (as done when processing a perception manipulation message) and evaluating the updated perception,
+ * reported per update.
+ *
+ * @author Simon Johanning
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PerceptionUpdateBenchmark {
+
+    private static final int NOUPDATES = 4096;
+
+    @Param({"1000", "10000", "100000"})
+    public int noAgents;
+
+    private ConsumerAgent[] agents;
+    private ProductAttribute[] attributes;
+    private double[] values;
+    private double[] timeStamps;
+
+    @Setup
+    public void setUp() throws IOException {
+        SyntheticScenario scenario = new SyntheticScenario(noAgents);
+        scenario.setPerceptionScheme("perceptionHistogram");
+        SimulationContainer container = scenario.createSimulation();
+        List<ConsumerAgent> consumers = SyntheticScenario.pickAgents(container.getConsumerAgents(), noAgents);
+        List<ProductAttribute> productAttributes = new ArrayList<ProductAttribute>();
+        for(Product product : container.getProducts()) productAttributes.addAll(product.getProductAttributes());
+        Random random = new Random(SyntheticScenario.MASTERSEED);
+        agents = new ConsumerAgent[NOUPDATES];
+        attributes = new ProductAttribute[NOUPDATES];
+        values = new double[NOUPDATES];
+        timeStamps = new double[NOUPDATES];
+        for(int index = 0; index < NOUPDATES; index++) {
+            agents[index] = consumers.get(random.nextInt(consumers.size()));
+            attributes[index] = productAttributes.get(random.nextInt(productAttributes.size()));
+            values[index] = random.nextDouble();
+            timeStamps[index] = index / (double) NOUPDATES;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NOUPDATES)
+    public double updatePerceptions() {
+        double perceptionSum = 0.0;
+        for(int index = 0; index < NOUPDATES; index++) {
+            agents[index].addPerceivedProductAttributeValue(attributes[index], values[index], timeStamps[index], 1.0);
+            perceptionSum += agents[index].getPerceivedProductAttributeValues().get(attributes[index]).calculateProductAttributePerception(timeStamps[index]);
+        }
+        return perceptionSum;
+    }
+}
@@ -0,0 +1,90 @@
+package IRPact_modellierung.benchmark;
+
+import IRPact_modellierung.io.sQLiteHandling.SQLiteAdoptionWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of writing the adoption patterns of a simulation to SQLite with the SQLiteAdoptionWriter,
+ * writing either synchronously or in the background. Closing the writer (i.e. waiting for all rows
+ * to be written) is part of the measurement.
+ * Every iteration writes to a fresh data base; creating it isn't measured.
+ *
+ * @author Simon Johanning
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SQLiteAdoptionWriterBenchmark {
+
+    private static final int NOSTEPS = 1000;
+    private static final int NOGROUPS = 10;
+    private static final int NOPRODUCTS = 20;
+    private static final String TABLENAME = "ADOPTIONS";
+
+    @Param({"false", "true"})
+    public boolean backgroundWriting;
+
+    private File directory;
+    private String[] groupNames;
+    private String[] productNames;
+    private int[][] noAdopters;
+    private SQLiteAdoptionWriter writer;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("irpactSQLiteBenchmark").toFile();
+        groupNames = new String[NOGROUPS * NOPRODUCTS];
+        productNames = new String[NOGROUPS * NOPRODUCTS];
+        for(int group = 0; group < NOGROUPS; group++) {
+            for(int product = 0; product < NOPRODUCTS; product++) {
+                groupNames[group * NOPRODUCTS + product] = "ConsumerGroup" + group;
+                productNames[group * NOPRODUCTS + product] = "Product" + product;
+            }
+        }
+        noAdopters = new int[NOSTEPS][groupNames.length];
+        for(int step = 0; step < NOSTEPS; step++) {
+            for(int row = 0; row < groupNames.length; row++) noAdopters[step][row] = step * row;
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void createWriter() throws SQLException {
+        File databaseFile = new File(directory, TABLENAME + ".db");
+        databaseFile.delete();
+        writer = new SQLiteAdoptionWriter(databaseFile.getPath(), TABLENAME, backgroundWriting);
+    }
+
+    @Benchmark
+    public SQLiteAdoptionWriter writeAdoptionPatterns() {
+        for(int step = 0; step < NOSTEPS; step++) writer.writeAdoptionRows(step, groupNames, productNames, noAdopters[step]);
+        writer.close();
+        return writer;
+    }
+
+    @TearDown
+    public void deleteDatabases() {
+        for(File file : directory.listFiles()) file.delete();
+        directory.delete();
+    }
+}
@@ -0,0 +1,50 @@
+package IRPact_modellierung.benchmark;
+
+import IRPact_modellierung.simulation.SimulationContainer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of simulating a full year (one step of the discrete time model with the Kiesling process model),
+ * i.e. of all phases of all agents including communication, need events and output.
+ * Every iteration simulates a freshly created container; its set up isn't measured.
+ *
+ * @author Simon Johanning
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SimulatedYearBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int noAgents;
+
+    private SimulationContainer container;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        container = new SyntheticScenario(noAgents).createSimulation();
+    }
+
+    @Benchmark
+    public SimulationContainer simulateYear() {
+        container.getTimeModel().startSimulation();
+        return container;
+    }
+}
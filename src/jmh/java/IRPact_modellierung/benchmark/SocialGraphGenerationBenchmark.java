@@ -0,0 +1,75 @@
+package IRPact_modellierung.benchmark;
+
+import IRPact_modellierung.agents.consumerAgents.ConsumerAgent;
+import IRPact_modellierung.network.SNConfiguration;
+import IRPact_modellierung.network.SNFactory;
+import IRPact_modellierung.network.SNNode;
+import IRPact_modellierung.network.SocialGraph;
+import IRPact_modellierung.simulation.SimulationContainer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the generation of the social graph (including its compressed representation)
+ * for every topology the SNFactory can create, with an average degree of about ten.
+ *
+ * The topologies without a (spatial) kernel or special generation scheme take time quadratic in the number of agents,
+ * so for large numbers of agents the topologies should be restricted (e.g. -p topology=RegularCommunicationGraph).
+ *
+ * @author Simon Johanning
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class SocialGraphGenerationBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int noAgents;
+
+    @Param({"GilbertCommunicationGraph", "ErdosRenyiCommunicationGraph", "RegularCommunicationGraph",
+            "HeterogeneousRegularCommunicationGraph", "HeterogeneousSmallWorldCommunicationGraph",
+            "NewtonianInversePowerlawCommunicationGraph", "ExponentialDecayCommunicationGraph",
+            "MannaSenYookCommunicationGraph", "MannaSenYookPseudoCountCommunicationGraph"})
+    public String topology;
+
+    private SimulationContainer container;
+    private SNConfiguration sNConfiguration;
+    private Set<SNNode> nodes;
+
+    @Setup
+    public void setUp() throws IOException {
+        container = new SyntheticScenario(noAgents).createSimulation();
+        sNConfiguration = SyntheticScenario.createSNConfiguration(topology, noAgents);
+        nodes = new HashSet<SNNode>(container.getConsumerAgents().size());
+        for(ConsumerAgent agent : container.getConsumerAgents()) nodes.add(agent.getCorrespondingNodeInSN());
+    }
+
+    //the simulation stream is bound to the thread creating the simulation, which needn't be the one running the benchmark
+    @Setup(Level.Iteration)
+    public void bindRandomStream() {
+        container.getSimulationConfiguration().getRandomNumberService().bindToCurrentThread();
+    }
+
+    @Benchmark
+    public SocialGraph createSocialGraph() {
+        return SNFactory.createSocialGraph(container, sNConfiguration, nodes);
+    }
+}
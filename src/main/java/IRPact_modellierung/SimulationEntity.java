@@ -2,13 +2,15 @@ package IRPact_modellierung;
 
 import IRPact_modellierung.simulation.SimulationContainer;
 
+import java.io.Serializable;
+
 /**
  * The SimulationEntity serves as abstraction for entities within the framework.
  * It basically ensures that every entity has access to the simulation container.
  *
  * @author Simon Johanning
  */
-public abstract class SimulationEntity {
+public abstract class SimulationEntity implements Serializable {
 
 	protected SimulationContainer associatedSimulationContainer;
 
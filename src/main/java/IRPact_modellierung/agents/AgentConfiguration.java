@@ -1,5 +1,6 @@
 package IRPact_modellierung.agents;
 
+import java.io.Serializable;
 import java.util.Map;
 import java.util.Set;
 
@@ -16,7 +17,7 @@ import IRPact_modellierung.messaging.ConsumerAgentMessageScheme;
  *
  * @author Simon Johanning
  */
-public class AgentConfiguration {
+public class AgentConfiguration implements Serializable {
 
 	private Set<ConsumerAgentGroup> consumerAgentGroups;
 	private Map<ConsumerAgentGroup, Integer> noAgentsPerGroup;
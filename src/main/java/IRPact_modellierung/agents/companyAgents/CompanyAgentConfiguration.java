@@ -2,6 +2,8 @@ package IRPact_modellierung.agents.companyAgents;
 
 import IRPact_modellierung.agents.companyAgents.advertisement.AdvertisementScheme;
 
+import java.io.Serializable;
+
 /**
  * The CompanyAgentConfiguration (CAC) describes the configuration of a CompanyAgent in the simulation.
  * It exhibits the relevant schemes; The products the CompanyAgent described in the
@@ -9,7 +11,7 @@ import IRPact_modellierung.agents.companyAgents.advertisement.AdvertisementSchem
  *
  * @author Simon Johanning
  */
-public class CompanyAgentConfiguration {
+public class CompanyAgentConfiguration implements Serializable {
 
     private ProductQualityManipulationScheme productQualityManipulationScheme;
     private ManagementDecisionScheme managementDecisionScheme;
@@ -1,5 +1,7 @@
 package IRPact_modellierung.agents.companyAgents;
 
+import java.io.Serializable;
+
 /**
  * The ManagementDecisionScheme formalizes the management processes within the company agent.
  * Through this a large range of processes within the respective company can be layed out under a common framework.
@@ -7,7 +9,7 @@ package IRPact_modellierung.agents.companyAgents;
  *
  * @author Simon Johanning
  */
-public abstract class ManagementDecisionScheme {
+public abstract class ManagementDecisionScheme implements Serializable {
 
     /**
      * This method describes the decision making process for management decisions within the company agent.
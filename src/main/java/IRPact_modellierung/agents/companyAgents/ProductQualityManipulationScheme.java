@@ -1,5 +1,7 @@
 package IRPact_modellierung.agents.companyAgents;
 
+import java.io.Serializable;
+
 /**
  * A ProductQualityManipulationScheme describes how a company agent changes the quality of the managed products within the simulation.
  * It should allow a company agent to evaluate their portfolio and encapsulate measures that change the qualities of the products.
@@ -7,7 +9,7 @@ package IRPact_modellierung.agents.companyAgents;
  *
  * @author Simon Johanning
  */
-public abstract class ProductQualityManipulationScheme {
+public abstract class ProductQualityManipulationScheme implements Serializable {
 
     /**
      * This method describes the process of the quality evaluation and measures of quality manipulation.
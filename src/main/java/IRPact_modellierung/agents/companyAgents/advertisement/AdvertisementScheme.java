@@ -3,13 +3,15 @@ package IRPact_modellierung.agents.companyAgents.advertisement;
 import IRPact_modellierung.agents.companyAgents.CompanyAgent;
 import IRPact_modellierung.messaging.CompanyAgentMessageScheme;
 
+import java.io.Serializable;
+
 /**
  * The advertisement scheme formalizes the promotive processes the company agent engages in in order to promote the products in their portfolio.
  * An advertisement scheme should specify what products are evaluated on the market in which way, and what measures are taken in order to promote these products.
  *
  * @author Simon Johanning
  */
-public abstract class AdvertisementScheme {
+public abstract class AdvertisementScheme implements Serializable {
 
     protected CompanyAgentMessageScheme messageScheme;
 
@@ -0,0 +1,159 @@
+package IRPact_modellierung.agents.consumerAgents;
+
+import IRPact_modellierung.products.Product;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * The AdoptionTally keeps track of the number of adopters and aware consumers per ConsumerAgentGroup and Product.
+ *
+ * Rather than deriving these numbers by scanning all agents, the tally is updated by the ConsumerAgents
+ * themselves whenever they adopt, unadopt, become aware of or forget a product.
+ * Counts are held in primitive arrays indexed by group and product; indices are assigned on first use,
+ * so products introduced during the simulation are tracked without further ado.
+ *
+ * The tally is thread-safe, so agents can report to it from parallel phases of the simulation.
+ *
+ * @author Simon Johanning
+ */
+public class AdoptionTally implements Serializable {
+
+    private static final int INITIALCAPACITY = 8;
+
+    private HashMap<ConsumerAgentGroup, Integer> groupIndices;
+    private HashMap<Product, Integer> productIndices;
+    private int[][] adopters;
+    private int[][] awareConsumers;
+
+    public AdoptionTally() {
+        groupIndices = new HashMap<ConsumerAgentGroup, Integer>();
+        productIndices = new HashMap<Product, Integer>();
+        adopters = new int[INITIALCAPACITY][INITIALCAPACITY];
+        awareConsumers = new int[INITIALCAPACITY][INITIALCAPACITY];
+    }
+
+    /**
+     * Registers the adoption of a product by a consumer of the group
+     *
+     * @param cag The group of the adopting consumer
+     * @param product The product adopted
+     */
+    public synchronized void registerAdoption(ConsumerAgentGroup cag, Product product) {
+        int groupIndex = indexOf(cag);
+        int productIndex = indexOf(product);
+        adopters[groupIndex][productIndex]++;
+    }
+
+    /**
+     * Registers that a consumer of the group ceased to use a product
+     *
+     * @param cag The group of the consumer
+     * @param product The product no longer adopted
+     */
+    public synchronized void registerUnadoption(ConsumerAgentGroup cag, Product product) {
+        int groupIndex = indexOf(cag);
+        int productIndex = indexOf(product);
+        adopters[groupIndex][productIndex]--;
+    }
+
+    /**
+     * Registers that a consumer of the group became aware of a product
+     *
+     * @param cag The group of the consumer
+     * @param product The product the consumer became aware of
+     */
+    public synchronized void registerAwareness(ConsumerAgentGroup cag, Product product) {
+        int groupIndex = indexOf(cag);
+        int productIndex = indexOf(product);
+        awareConsumers[groupIndex][productIndex]++;
+    }
+
+    /**
+     * Registers that a consumer of the group, who was aware of a product before, forgot about it
+     *
+     * @param cag The group of the consumer
+     * @param product The product the consumer forgot about
+     */
+    public synchronized void registerUnawareness(ConsumerAgentGroup cag, Product product) {
+        int groupIndex = indexOf(cag);
+        int productIndex = indexOf(product);
+        awareConsumers[groupIndex][productIndex]--;
+    }
+
+    /**
+     * Method to retrieve the number of consumers of the group currently having adopted the product
+     *
+     * @param cag The group of interest
+     * @param product The product of interest
+     * @return The number of adopters of the product in the group
+     */
+    public synchronized int getNoAdopters(ConsumerAgentGroup cag, Product product) {
+        Integer groupIndex = groupIndices.get(cag);
+        Integer productIndex = productIndices.get(product);
+        return (groupIndex == null || productIndex == null) ? 0 : adopters[groupIndex][productIndex];
+    }
+
+    /**
+     * Method to retrieve the number of consumers of the group currently aware of the product
+     *
+     * @param cag The group of interest
+     * @param product The product of interest
+     * @return The number of consumers in the group aware of the product
+     */
+    public synchronized int getNoAwareConsumers(ConsumerAgentGroup cag, Product product) {
+        Integer groupIndex = groupIndices.get(cag);
+        Integer productIndex = productIndices.get(product);
+        return (groupIndex == null || productIndex == null) ? 0 : awareConsumers[groupIndex][productIndex];
+    }
+
+    /**
+     * Creates a snapshot of the number of adopters for the given groups and products,
+     * taking time linear in the number of group-product combinations.
+     *
+     * @param groups The groups to be part of the snapshot
+     * @param products The products to be part of the snapshot
+     * @return A map of the number of adopters per group and product
+     */
+    public synchronized Map<ConsumerAgentGroup, Map<Product, Integer>> getAdoptersPerCAGperProduct(Collection<ConsumerAgentGroup> groups, Collection<Product> products) {
+        Map<ConsumerAgentGroup, Map<Product, Integer>> adoptersPerCAGperProduct = new HashMap<ConsumerAgentGroup, Map<Product, Integer>>();
+        for(ConsumerAgentGroup cag : groups) {
+            Map<Product, Integer> productMap = new HashMap<Product, Integer>();
+            for(Product product : products) productMap.put(product, getNoAdopters(cag, product));
+            adoptersPerCAGperProduct.put(cag, productMap);
+        }
+        return adoptersPerCAGperProduct;
+    }
+
+    private int indexOf(ConsumerAgentGroup cag) {
+        Integer groupIndex = groupIndices.get(cag);
+        if(groupIndex == null) {
+            groupIndex = groupIndices.size();
+            groupIndices.put(cag, groupIndex);
+            if(groupIndex == adopters.length) {
+                adopters = Arrays.copyOf(adopters, 2 * groupIndex);
+                awareConsumers = Arrays.copyOf(awareConsumers, 2 * groupIndex);
+                for(int index = groupIndex; index < adopters.length; index++) {
+                    adopters[index] = new int[adopters[0].length];
+                    awareConsumers[index] = new int[awareConsumers[0].length];
+                }
+            }
+        }
+        return groupIndex;
+    }
+
+    private int indexOf(Product product) {
+        Integer productIndex = productIndices.get(product);
+        if(productIndex == null) {
+            productIndex = productIndices.size();
+            productIndices.put(product, productIndex);
+            if(productIndex == adopters[0].length) {
+                for(int index = 0; index < adopters.length; index++) {
+                    adopters[index] = Arrays.copyOf(adopters[index], 2 * productIndex);
+                    awareConsumers[index] = Arrays.copyOf(awareConsumers[index], 2 * productIndex);
+                }
+            }
+        }
+        return productIndex;
+    }
+}
@@ -11,7 +11,8 @@ import IRPact_modellierung.needs.Need;
 import IRPact_modellierung.network.SNConsumerNode;
 
 import java.awt.geom.Point2D;
-import java.util.HashSet;
+import java.util.BitSet;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import IRPact_modellierung.agents.SpatialAgent;
 import java.util.Set;
@@ -19,8 +20,12 @@ import java.util.Set;
 import IRPact_modellierung.preference.Preference;
 import IRPact_modellierung.preference.Value;
 import IRPact_modellierung.products.AdoptedProduct;
+import IRPact_modellierung.products.AdoptedProductExpirationQueue;
 import IRPact_modellierung.products.Product;
 import IRPact_modellierung.products.ProductAttribute;
+import IRPact_modellierung.products.ProductBitSetView;
+import IRPact_modellierung.products.ProductEligibilityIndex;
+import IRPact_modellierung.simulation.RandomStream;
 import IRPact_modellierung.simulation.SimulationContainer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -35,8 +40,8 @@ public abstract class ConsumerAgent extends SpatialInformationAgent {
 
 	private static final Logger fooLog = LogManager.getLogger("debugConsoleLogger");
 
-	private Set<ConsumerAgentAttribute> attributes;
-	private Set<Preference> preferences;
+	//index of the agent in the ConsumerAgentStore of its simulation, which holds its attributes and preferences
+	private int agentIndex;
 	private SNConsumerNode correspondingNodeInSN;
 	private Set<AdoptedProduct> adoptedProducts;
 	private Map<ProductAttribute, ProductAttributePerceptionScheme> perceivedProductAttributeValues;
@@ -44,6 +49,13 @@ public abstract class ConsumerAgent extends SpatialInformationAgent {
 	private ConsumerAgentGroup correspondingConsumerAgentGroup;
 	private ConsumerAgentAdoptionDecisionProcess decisionProcessEmployed;
 	private String agentID;
+	//ordinals of the products the agent is aware of and has adopted (see ProductEligibilityIndex)
+	private BitSet awareProductOrdinals;
+	private BitSet adoptedProductOrdinals;
+	//reused for every decision of the agent, so it is not part of checkpoints
+	private transient ProductBitSetView eligibleProducts;
+	//part of checkpoints, so a restored agent continues to draw the same numbers
+	private RandomStream randomStream;
 
 	/**
 	 * Since ConsumerAgents intend to cover numerous, heterogeneous aspects of the simulation, a variety of concepts if found in their attributes.
@@ -63,26 +75,75 @@ public abstract class ConsumerAgent extends SpatialInformationAgent {
 	 */
 	public ConsumerAgent(SimulationContainer simulationContainer, Set<ConsumerAgentAttribute> attributes, Set<Preference> preferences, SNConsumerNode correspondingNodeInSN, Set<Product> adoptedProducts, Map<ProductAttribute, ProductAttributePerceptionScheme> perceivedProductAttributeValues, Map<Product, Boolean> productAwarenessMap, ConsumerAgentGroup correspondingConsumerAgentGroup, ConsumerAgentAdoptionDecisionProcess decisionProcessEmployed, Point2D spatialPosition, String agentID) {
 		super(simulationContainer, spatialPosition, correspondingConsumerAgentGroup.getInformationAuthority());
-		this.attributes = attributes;
-		this.preferences = preferences;
+		this.agentIndex = getAgentStore().registerAgent(attributes, preferences);
 		this.correspondingNodeInSN = correspondingNodeInSN;
 		this.perceivedProductAttributeValues = perceivedProductAttributeValues;
 		this.productAwarenessMap = productAwarenessMap;
 		this.correspondingConsumerAgentGroup = correspondingConsumerAgentGroup;
 		this.decisionProcessEmployed = decisionProcessEmployed;
 		this.agentID = agentID;
-		this.adoptedProducts = new HashSet<>();
+		if(simulationContainer.getSimulationConfiguration() != null) this.randomStream = simulationContainer.getSimulationConfiguration().getRandomNumberService().createStream(agentID);
+		this.awareProductOrdinals = new BitSet();
+		this.adoptedProductOrdinals = new BitSet();
+		this.adoptedProducts = new LinkedHashSet<>();
 		for(Product currentProduct : adoptedProducts){
 			adoptProduct(currentProduct);
 		}
+		for(Map.Entry<Product, Boolean> awarenessEntry : productAwarenessMap.entrySet()){
+			if(awarenessEntry.getValue()) {
+				getAdoptionTally().registerAwareness(correspondingConsumerAgentGroup, awarenessEntry.getKey());
+				awareProductOrdinals.set(getProductIndex().getOrdinal(awarenessEntry.getKey()));
+			}
+		}
 	}
 
+	/**
+	 * @return The attributes of the agent (read-only, created from the ConsumerAgentStore)
+	 */
 	public Set<ConsumerAgentAttribute> getAttributes() {
-		return this.attributes;
+		return getAgentStore().getAttributes(agentIndex);
 	}
 
+	/**
+	 * Method to retrieve the value of an attribute of the agent
+	 *
+	 * @param attributeName The name of the attribute of interest
+	 * @return The value of the attribute for this agent
+	 * @throws IllegalArgumentException Will be thrown when the agent doesn't dispose of an attribute of this name
+	 */
+	public double getAttributeValue(String attributeName) throws IllegalArgumentException {
+		ConsumerAgentStore agentStore = getAgentStore();
+		int column = agentStore.getAttributeColumn(attributeName);
+		if(!agentStore.hasAttribute(agentIndex, column)) throw new IllegalArgumentException("Attribute "+attributeName+" is not set for agent "+this+"!!");
+		return agentStore.getAttributeValue(agentIndex, column);
+	}
+
+	/**
+	 * @return The preferences of the agent (read-only set; changing the strength of its preferences changes the preferences of the agent)
+	 */
 	public Set<Preference> getPreferences() {
-		return this.preferences;
+		return getAgentStore().getPreferences(agentIndex);
+	}
+
+	/**
+	 * Method to retrieve the strength of the preference of the agent for a value
+	 *
+	 * @param value The value of interest
+	 * @return The strength of the preference of the agent for the value
+	 * @throws IllegalArgumentException Will be thrown when the agent has no preference for the value
+	 */
+	public double getPreferenceStrength(Value value) throws IllegalArgumentException {
+		ConsumerAgentStore agentStore = getAgentStore();
+		int column = agentStore.getPreferenceColumn(value);
+		if(!agentStore.hasPreference(agentIndex, column)) throw new IllegalArgumentException("Agent "+this+" has no preference for value "+value.getName()+"!!");
+		return agentStore.getPreferenceStrength(agentIndex, column);
+	}
+
+	/**
+	 * @return The index of the agent in the ConsumerAgentStore of its simulation
+	 */
+	public int getAgentIndex() {
+		return agentIndex;
 	}
 
 	public SNConsumerNode getCorrespondingNodeInSN() {
@@ -113,6 +174,45 @@ public abstract class ConsumerAgent extends SpatialInformationAgent {
 		return agentID;
 	}
 
+	/**
+	 * @return The ordinals of the products the agent is aware of (not to be modified)
+	 */
+	public BitSet getAwareProductOrdinals() {
+		return awareProductOrdinals;
+	}
+
+	/**
+	 * @return The ordinals of the products the agent has adopted (not to be modified)
+	 */
+	public BitSet getAdoptedProductOrdinals() {
+		return adoptedProductOrdinals;
+	}
+
+	/**
+	 * Method to select the products eligible for a decision of the agent on the given need,
+	 * i.e. products the agent is aware of, that are introduced to the market, that satisfy the need and that are adoptable
+	 * (see ProductEligibilityIndex).
+	 * The set returned is a view reused for every decision of the agent, so it is only valid until the next call of this method.
+	 *
+	 * @param need The need the decision is made on
+	 * @return A (read-only) view of the eligible products
+	 */
+	public Set<Product> selectEligibleProducts(Need need) {
+		if(eligibleProducts == null) eligibleProducts = new ProductBitSetView(getProductIndex(), new BitSet());
+		getProductIndex().selectEligibleProducts(this, need, eligibleProducts.getProductOrdinals());
+		return eligibleProducts;
+	}
+
+	/**
+	 * Method to retrieve the random stream of the agent, derived from the master seed of the simulation and the ID of the agent.
+	 * The process model binds it while processing the agent (see RandomNumberService).
+	 *
+	 * @return The random stream of the agent, or null if the simulation has no configuration
+	 */
+	public RandomStream getRandomStream() {
+		return randomStream;
+	}
+
 	/**
 	 * Changes the preference of the agent for the given value by an absolute value given by amount
 	 *
@@ -177,7 +277,13 @@ public abstract class ConsumerAgent extends SpatialInformationAgent {
 		fooLog.debug(adoptedProducts);
 		fooLog.debug("time: {}",this.associatedSimulationContainer.getTimeModel().getSimulationTime());
 		fooLog.debug("lifetime {} ",productToAdopt.getProductLifetimeDistribution().draw());
-		adoptedProducts.add(new AdoptedProduct(productToAdopt, this, this.associatedSimulationContainer.getTimeModel().getSimulationTime(), productToAdopt.getProductLifetimeDistribution().draw()));
+		AdoptedProduct adoptedProduct = new AdoptedProduct(productToAdopt, this, this.associatedSimulationContainer.getTimeModel().getSimulationTime(), productToAdopt.getProductLifetimeDistribution().draw());
+		adoptedProducts.add(adoptedProduct);
+		int productOrdinal = getProductIndex().getOrdinal(productToAdopt);
+		adoptedProductOrdinals.set(productOrdinal);
+		getExpirationQueue().add(adoptedProduct);
+		getAdoptionTally().registerAdoption(correspondingConsumerAgentGroup, productToAdopt);
+		associatedSimulationContainer.getNeighbourhoodAdoptionIndex().registerAdoption(this, productOrdinal);
 	}
 
 	/**
@@ -189,7 +295,14 @@ public abstract class ConsumerAgent extends SpatialInformationAgent {
 	 */
 	public void removeAdoptedProduct(AdoptedProduct adoptedProduct) throws IllegalArgumentException{
 		if(!adoptedProducts.contains(adoptedProduct)) throw new IllegalArgumentException("Product "+adoptedProduct+" that is to be unadopted is not even adopted by ConsumerAgent "+this);
-		else adoptedProducts.remove(adoptedProduct);
+		else {
+			adoptedProducts.remove(adoptedProduct);
+			int productOrdinal = getProductIndex().getOrdinal(adoptedProduct.getCorrespondingProduct());
+			adoptedProductOrdinals.clear(productOrdinal);
+			getExpirationQueue().remove(adoptedProduct);
+			getAdoptionTally().registerUnadoption(correspondingConsumerAgentGroup, adoptedProduct.getCorrespondingProduct());
+			associatedSimulationContainer.getNeighbourhoodAdoptionIndex().registerUnadoption(this, productOrdinal);
+		}
 	}
 
 	/**
@@ -214,7 +327,12 @@ public abstract class ConsumerAgent extends SpatialInformationAgent {
 	 * @throws IllegalArgumentException Is thrown when product is not part of a ConsumerAgents productAwarenessMap
 	 */
 	public void makeAwareOfProduct(Product product) throws IllegalArgumentException{
-		if(productAwarenessMap.keySet().contains(product)) productAwarenessMap.put(product, true);
+		if(productAwarenessMap.keySet().contains(product)) {
+			if(!productAwarenessMap.put(product, true)) {
+				getAdoptionTally().registerAwareness(correspondingConsumerAgentGroup, product);
+				awareProductOrdinals.set(getProductIndex().getOrdinal(product));
+			}
+		}
 		else throw new IllegalArgumentException("Product "+product+" is not part of ConsumerAgents "+this+" productAwarenessMap");
 	}
 
@@ -246,7 +364,15 @@ public abstract class ConsumerAgent extends SpatialInformationAgent {
 	 * @throws IllegalArgumentException Will be throws when productToBeRemoved is not in the consumers productAwarenessMap or contains an attribute not in its perceivedProductAttributeValues
 	 */
 	public void wipeProduct(Product productToBeRemoved) throws IllegalArgumentException{
-		if(LazynessHelper.anyAdoptedProductRefersToProduct(adoptedProducts, productToBeRemoved)) adoptedProducts.remove(LazynessHelper.getCorrespondingAdoptedProduct(adoptedProducts, productToBeRemoved));
+		if(LazynessHelper.anyAdoptedProductRefersToProduct(adoptedProducts, productToBeRemoved)) {
+			AdoptedProduct adoptedProduct = LazynessHelper.getCorrespondingAdoptedProduct(adoptedProducts, productToBeRemoved);
+			adoptedProducts.remove(adoptedProduct);
+			int productOrdinal = getProductIndex().getOrdinal(productToBeRemoved);
+			adoptedProductOrdinals.clear(productOrdinal);
+			getExpirationQueue().remove(adoptedProduct);
+			getAdoptionTally().registerUnadoption(correspondingConsumerAgentGroup, productToBeRemoved);
+			associatedSimulationContainer.getNeighbourhoodAdoptionIndex().registerUnadoption(this, productOrdinal);
+		}
 		try {
 			forgetProduct(productToBeRemoved);
 		} catch (IllegalArgumentException e) {
@@ -263,7 +389,10 @@ public abstract class ConsumerAgent extends SpatialInformationAgent {
 	 * @throws IllegalArgumentException Will be throws when productToBeRemoved is not in the consumers productAwarenessMap or contains an attribute not in its perceivedProductAttributeValues
 	 */
 	public void forgetProduct(Product productToBeRemoved) throws IllegalArgumentException{
-		if(productAwarenessMap.keySet().contains(productToBeRemoved)) productAwarenessMap.remove(productToBeRemoved);
+		if(productAwarenessMap.keySet().contains(productToBeRemoved)) {
+			if(productAwarenessMap.remove(productToBeRemoved)) getAdoptionTally().registerUnawareness(correspondingConsumerAgentGroup, productToBeRemoved);
+			awareProductOrdinals.clear(getProductIndex().getOrdinal(productToBeRemoved));
+		}
 		else throw new IllegalArgumentException("Product "+productToBeRemoved+" to be wiped from ConsumerAgent "+this+" is not in its awareness map!");
 		for(ProductAttribute attribute : productToBeRemoved.getProductAttributes()){
 			if(perceivedProductAttributeValues.keySet().contains(attribute)) perceivedProductAttributeValues.remove(attribute);
@@ -271,6 +400,22 @@ public abstract class ConsumerAgent extends SpatialInformationAgent {
 		}
 	}
 
+	private ConsumerAgentStore getAgentStore() {
+		return associatedSimulationContainer.getConsumerAgentStore();
+	}
+
+	private AdoptionTally getAdoptionTally() {
+		return associatedSimulationContainer.getAdoptionTally();
+	}
+
+	private AdoptedProductExpirationQueue getExpirationQueue() {
+		return associatedSimulationContainer.getExpirationQueue();
+	}
+
+	private ProductEligibilityIndex getProductIndex() {
+		return associatedSimulationContainer.getProductEligibilityIndex();
+	}
+
     /**
      * Method to model how information is processed by the ConsumerAgent.
      * Depending on the type of information (and potentially other factors such as the ConsumerAgentGroup),
@@ -1,12 +1,14 @@
 package IRPact_modellierung.agents.consumerAgents;
 
+import java.io.Serializable;
+
 /**
  * Data structure to use a variety of consumer agent attributes not hard coded in the simulation.
  * See callers for semantics of this construct
  *
  * @author Simon Johanning
  */
-public class ConsumerAgentAttribute {
+public class ConsumerAgentAttribute implements Serializable {
 
 	private String attributeName;
 	private double attributeValue;
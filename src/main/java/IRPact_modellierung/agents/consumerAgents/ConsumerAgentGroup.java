@@ -1,5 +1,6 @@
 package IRPact_modellierung.agents.consumerAgents;
 
+import java.io.Serializable;
 import java.util.Set;
 import java.util.Map;
 
@@ -21,7 +22,7 @@ import IRPact_modellierung.products.*;
  *
  * @author Simon Johanning
  */
-public class ConsumerAgentGroup {
+public class ConsumerAgentGroup implements Serializable {
 
 
 	private Set<ConsumerAgentGroupAttribute> consumerAgentGroupAttributes;
@@ -1,17 +1,25 @@
 package IRPact_modellierung.agents.consumerAgents;
 
+import IRPact_modellierung.helper.AliasSampler;
+import IRPact_modellierung.helper.OrderHelper;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
  * Class to model the affinity between different ConsumerAgentGroups, conceptually as matrix of ConsumerAgentGroup to other ConsumerAgentGroup.
  * Is implemented as a Map of ConsumerAgentGroup and Map of ConsumerAgentGroup and
- * Class is purely a data structure and does not provide any functionality
+ * Besides holding the data, it allows to draw target groups proportional to the affinities (see drawTargetGroup).
  *
  * @author Simon Johanning
  */
-public class ConsumerAgentGroupAffinities {
+public class ConsumerAgentGroupAffinities implements Serializable {
 
     private Map<ConsumerAgentGroup, Map<ConsumerAgentGroup, Double>> affinities;
+    //samplers for the target groups of a group, built when first drawn from
+    private final Map<ConsumerAgentGroup, AliasSampler<ConsumerAgentGroup>> targetGroupSamplers = new HashMap<ConsumerAgentGroup, AliasSampler<ConsumerAgentGroup>>();
 
     /**
      *
@@ -29,4 +37,31 @@ public class ConsumerAgentGroupAffinities {
     public Map<ConsumerAgentGroup, Map<ConsumerAgentGroup, Double>> getAffinities() {
         return affinities;
     }
+
+    /**
+     * Draws a target group for a source group, with probabilities proportional to the affinities of the source group.
+     * The sampler for a source group is built on the first draw and reused afterwards,
+     * so a draw takes constant time (the affinities are assumed not to change).
+     *
+     * @param sourceConsumerAgentGroup The group to draw a target group for
+     * @return The target group chosen proportional to the affinity between the groups
+     * @throws IllegalArgumentException Will be thrown when there are no affinities for the source group or one of its affinities is negative
+     */
+    public synchronized ConsumerAgentGroup drawTargetGroup(ConsumerAgentGroup sourceConsumerAgentGroup) throws IllegalArgumentException {
+        AliasSampler<ConsumerAgentGroup> targetGroupSampler = targetGroupSamplers.get(sourceConsumerAgentGroup);
+        if(targetGroupSampler == null) {
+            if(!affinities.containsKey(sourceConsumerAgentGroup)) throw new IllegalArgumentException("The affinities don't have an entry for the CAG to find a target consumer agent group for!!");
+            Map<ConsumerAgentGroup, Double> targetAffinities = affinities.get(sourceConsumerAgentGroup);
+            for(ConsumerAgentGroup targetConsumerAgentGroup : targetAffinities.keySet()) {
+                if(targetAffinities.get(targetConsumerAgentGroup) < 0.0) throw new IllegalArgumentException("One of the affinities (between "+sourceConsumerAgentGroup+" and "+targetConsumerAgentGroup+" is negative!! \n This should not be allowed, since affinities are supposed to be non-negative!!");
+            }
+            //the alias table is built over the groups in the order of their names, so the drawn groups only depend on the seed
+            List<ConsumerAgentGroup> targetConsumerAgentGroups = OrderHelper.sortConsumerAgentGroups(targetAffinities.keySet());
+            double[] targetWeights = new double[targetConsumerAgentGroups.size()];
+            for(int index = 0; index < targetWeights.length; index++) targetWeights[index] = targetAffinities.get(targetConsumerAgentGroups.get(index));
+            targetGroupSampler = new AliasSampler<ConsumerAgentGroup>(targetConsumerAgentGroups, targetWeights);
+            targetGroupSamplers.put(sourceConsumerAgentGroup, targetGroupSampler);
+        }
+        return targetGroupSampler.draw();
+    }
 }
@@ -2,13 +2,15 @@ package IRPact_modellierung.agents.consumerAgents;
 
 import IRPact_modellierung.distributions.UnivariateDistribution;
 
+import java.io.Serializable;
+
 /**
  * A ConsumerAgentGroupAttribute is the generalization of a ConsumerAgentAttribute.
  * It associates a UnivariateDistribution to a String and has no fixed semantics within this simulation, since the thought behind it is to enable the modeler to flexibly add more semantics to his data.
  *
  * @author Simon Johanning
  */
-public class ConsumerAgentGroupAttribute {
+public class ConsumerAgentGroupAttribute implements Serializable {
 
 	private String name;
 	private UnivariateDistribution value;
@@ -0,0 +1,287 @@
+package IRPact_modellierung.agents.consumerAgents;
+
+import IRPact_modellierung.preference.Preference;
+import IRPact_modellierung.preference.Value;
+
+import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The ConsumerAgentStore holds the attributes and preferences of all ConsumerAgents of a simulation in columns,
+ * rather than as sets of objects per agent.
+ *
+ * Every agent registered is assigned a dense index. Every attribute (by name) and every preference (by value)
+ * forms a column of doubles indexed by the agents, together with a bit set of the agents disposing of it.
+ * This costs 8 bytes per agent and column (plus a bit), instead of a set entry and an object per agent,
+ * and allows to run through an attribute or preference of all agents sequentially (see getAttributeColumn and getPreferenceColumn).
+ * The ConsumerAgents themselves only keep their index and read and write their attributes and preferences through the store.
+ *
+ * Agents and columns are registered when the agents are created; reading and writing values
+ * doesn't synchronize, so it is safe from parallel phases as long as no agents are registered meanwhile.
+ *
+ * @author Simon Johanning
+ */
+public class ConsumerAgentStore implements Serializable {
+
+    private static final int INITIALCAPACITY = 64;
+
+    private int noAgents;
+    private int capacity;
+    private HashMap<String, Integer> attributeColumns;
+    private ArrayList<String> attributeNames;
+    private ArrayList<double[]> attributeValues;
+    private ArrayList<BitSet> agentsWithAttribute;
+    private HashMap<Value, Integer> preferenceColumns;
+    private ArrayList<Value> preferenceValues;
+    private ArrayList<double[]> preferenceStrengths;
+    private ArrayList<BitSet> agentsWithPreference;
+
+    public ConsumerAgentStore() {
+        noAgents = 0;
+        capacity = INITIALCAPACITY;
+        attributeColumns = new HashMap<String, Integer>();
+        attributeNames = new ArrayList<String>();
+        attributeValues = new ArrayList<double[]>();
+        agentsWithAttribute = new ArrayList<BitSet>();
+        preferenceColumns = new HashMap<Value, Integer>();
+        preferenceValues = new ArrayList<Value>();
+        preferenceStrengths = new ArrayList<double[]>();
+        agentsWithPreference = new ArrayList<BitSet>();
+    }
+
+    /**
+     * Registers an agent with the store, storing its attributes and preferences in the respective columns
+     * (columns for attributes and values not seen before are created).
+     *
+     * @param attributes The attributes of the agent
+     * @param preferences The preferences of the agent
+     * @return The index of the agent in the store
+     * @throws IllegalArgumentException Will be thrown when the agent has several attributes of the same name or several preferences for the same value
+     */
+    public synchronized int registerAgent(Iterable<ConsumerAgentAttribute> attributes, Iterable<Preference> preferences) throws IllegalArgumentException {
+        if(noAgents == capacity) grow();
+        int agentIndex = noAgents++;
+        for(ConsumerAgentAttribute attribute : attributes) {
+            int column = getOrCreateAttributeColumn(attribute.getAttributeName());
+            if(agentsWithAttribute.get(column).get(agentIndex)) throw new IllegalArgumentException("Attribute "+attribute.getAttributeName()+" is given several times for the agent with index "+agentIndex+"!!");
+            attributeValues.get(column)[agentIndex] = attribute.getAttributeValue();
+            agentsWithAttribute.get(column).set(agentIndex);
+        }
+        for(Preference preference : preferences) {
+            int column = getOrCreatePreferenceColumn(preference.getValue());
+            if(agentsWithPreference.get(column).get(agentIndex)) throw new IllegalArgumentException("Several preferences for value "+preference.getValue().getName()+" are given for the agent with index "+agentIndex+"!!");
+            preferenceStrengths.get(column)[agentIndex] = preference.getStrength();
+            agentsWithPreference.get(column).set(agentIndex);
+        }
+        return agentIndex;
+    }
+
+    public int getNoAgents() {
+        return noAgents;
+    }
+
+    /**
+     * @param attributeName The name of the attribute of interest
+     * @return The column of the attribute, -1 if no agent disposes of the attribute
+     */
+    public int getAttributeColumn(String attributeName) {
+        Integer column = attributeColumns.get(attributeName);
+        return column == null ? -1 : column;
+    }
+
+    /**
+     * @param value The value of interest
+     * @return The column of the preference for the value, -1 if no agent has a preference for it
+     */
+    public int getPreferenceColumn(Value value) {
+        Integer column = preferenceColumns.get(value);
+        return column == null ? -1 : column;
+    }
+
+    /**
+     * @return The number of preference columns, i.e. of values any agent has a preference for
+     */
+    public int getNoPreferenceColumns() {
+        return preferenceValues.size();
+    }
+
+    /**
+     * @param column The preference column of interest
+     * @return The value the preferences in the column are for
+     */
+    public Value getPreferenceValue(int column) {
+        return preferenceValues.get(column);
+    }
+
+    public boolean hasAttribute(int agentIndex, int column) {
+        return column >= 0 && agentsWithAttribute.get(column).get(agentIndex);
+    }
+
+    public double getAttributeValue(int agentIndex, int column) {
+        return attributeValues.get(column)[agentIndex];
+    }
+
+    public boolean hasPreference(int agentIndex, int column) {
+        return column >= 0 && agentsWithPreference.get(column).get(agentIndex);
+    }
+
+    public double getPreferenceStrength(int agentIndex, int column) {
+        return preferenceStrengths.get(column)[agentIndex];
+    }
+
+    public void setPreferenceStrength(int agentIndex, int column, double strength) {
+        preferenceStrengths.get(column)[agentIndex] = strength;
+    }
+
+    /**
+     * Method to retrieve the attributes of an agent as a (read-only) set, in the order of the columns
+     *
+     * @param agentIndex The index of the agent of interest
+     * @return The attributes of the agent
+     */
+    public AbstractSet<ConsumerAgentAttribute> getAttributes(final int agentIndex) {
+        return new ColumnSet<ConsumerAgentAttribute>(agentsWithAttribute, agentIndex) {
+            protected ConsumerAgentAttribute element(int column) {
+                return new ConsumerAgentAttribute(attributeNames.get(column), attributeValues.get(column)[agentIndex]);
+            }
+        };
+    }
+
+    /**
+     * Method to retrieve the preferences of an agent as a (read-only) set, in the order of the columns.
+     * The preferences are views of the store, so changing their strength changes the preference of the agent.
+     *
+     * @param agentIndex The index of the agent of interest
+     * @return The preferences of the agent
+     */
+    public AbstractSet<Preference> getPreferences(final int agentIndex) {
+        return new ColumnSet<Preference>(agentsWithPreference, agentIndex) {
+            protected Preference element(int column) {
+                return new StoredPreference(ConsumerAgentStore.this, agentIndex, column);
+            }
+        };
+    }
+
+    private int getOrCreateAttributeColumn(String attributeName) {
+        Integer column = attributeColumns.get(attributeName);
+        if(column == null) {
+            column = attributeNames.size();
+            attributeColumns.put(attributeName, column);
+            attributeNames.add(attributeName);
+            attributeValues.add(new double[capacity]);
+            agentsWithAttribute.add(new BitSet(capacity));
+        }
+        return column;
+    }
+
+    private int getOrCreatePreferenceColumn(Value value) {
+        Integer column = preferenceColumns.get(value);
+        if(column == null) {
+            column = preferenceValues.size();
+            preferenceColumns.put(value, column);
+            preferenceValues.add(value);
+            preferenceStrengths.add(new double[capacity]);
+            agentsWithPreference.add(new BitSet(capacity));
+        }
+        return column;
+    }
+
+    private void grow() {
+        capacity *= 2;
+        for(int column = 0; column < attributeValues.size(); column++) {
+            attributeValues.set(column, Arrays.copyOf(attributeValues.get(column), capacity));
+        }
+        for(int column = 0; column < preferenceStrengths.size(); column++) {
+            preferenceStrengths.set(column, Arrays.copyOf(preferenceStrengths.get(column), capacity));
+        }
+    }
+
+    /**
+     * Read-only set of the elements of the columns an agent disposes of
+     */
+    private static abstract class ColumnSet<E> extends AbstractSet<E> {
+
+        private final ArrayList<BitSet> agentsInColumns;
+        private final int agentIndex;
+
+        private ColumnSet(ArrayList<BitSet> agentsInColumns, int agentIndex) {
+            this.agentsInColumns = agentsInColumns;
+            this.agentIndex = agentIndex;
+        }
+
+        protected abstract E element(int column);
+
+        private int nextColumn(int fromColumn) {
+            for(int column = fromColumn; column < agentsInColumns.size(); column++) {
+                if(agentsInColumns.get(column).get(agentIndex)) return column;
+            }
+            return -1;
+        }
+
+        public Iterator<E> iterator() {
+            return new Iterator<E>() {
+                private int nextColumn = nextColumn(0);
+
+                public boolean hasNext() {
+                    return nextColumn >= 0;
+                }
+
+                public E next() {
+                    if(nextColumn < 0) throw new NoSuchElementException();
+                    E element = element(nextColumn);
+                    nextColumn = nextColumn(nextColumn + 1);
+                    return element;
+                }
+            };
+        }
+
+        public int size() {
+            int size = 0;
+            for(BitSet agentsInColumn : agentsInColumns) {
+                if(agentsInColumn.get(agentIndex)) size++;
+            }
+            return size;
+        }
+    }
+
+    /**
+     * Preference whose strength is read from and written to the store
+     */
+    private static class StoredPreference extends Preference {
+
+        private final ConsumerAgentStore store;
+        private final int agentIndex;
+        private final int column;
+
+        private StoredPreference(ConsumerAgentStore store, int agentIndex, int column) {
+            super(store.preferenceValues.get(column), Double.NaN);
+            this.store = store;
+            this.agentIndex = agentIndex;
+            this.column = column;
+        }
+
+        public double getStrength() {
+            return store.getPreferenceStrength(agentIndex, column);
+        }
+
+        public void setStrength(double strength) {
+            store.setPreferenceStrength(agentIndex, column, strength);
+        }
+
+        public boolean equals(Object object) {
+            if(!(object instanceof StoredPreference)) return false;
+            StoredPreference otherPreference = (StoredPreference) object;
+            return store == otherPreference.store && agentIndex == otherPreference.agentIndex && column == otherPreference.column;
+        }
+
+        public int hashCode() {
+            return 31 * agentIndex + column;
+        }
+    }
+}
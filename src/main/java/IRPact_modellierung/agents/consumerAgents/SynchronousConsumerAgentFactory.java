@@ -9,6 +9,7 @@ import IRPact_modellierung.perception.TrueValueProductAttributePerception;
 import IRPact_modellierung.distributions.UnivariateDistribution;
 import IRPact_modellierung.helper.FilterHelper;
 import IRPact_modellierung.helper.LazynessHelper;
+import IRPact_modellierung.helper.OrderHelper;
 import IRPact_modellierung.helper.ValueConversionHelper;
 import IRPact_modellierung.network.SNConsumerNode;
 import IRPact_modellierung.preference.Preference;
@@ -31,7 +32,6 @@ public class SynchronousConsumerAgentFactory {
 
 	private static final org.apache.logging.log4j.Logger fooLog = LogManager.getLogger("debugConsoleLogger");
 
-	private static int agentBatchNumber = 0;
 	//TODO think whether to join with the ASyncCAFactory in a CAFactory
 	//TODO implement post-SNcreation agent adding
 	/**
@@ -72,8 +72,13 @@ public class SynchronousConsumerAgentFactory {
 	 * @return batch of SynchronousConsumerAgent that are linked to other entities of the simulation with corresponding batch number in the ID
 	 */
 	private static Set<SynchronousConsumerAgent> createConsumerAgents(ConsumerAgentGroup correspondingConsumerAgentGroup, int numberOfConsumersToCreate, SimulationContainer simulationContainer, Configuration configuration) {
-		//Set to contain agents to create
-		HashSet<SynchronousConsumerAgent> agents = new HashSet<SynchronousConsumerAgent>();
+		//batches are numbered per simulation, so simulations running side by side get the same IDs as when run on their own
+		int agentBatchNumber = simulationContainer.nextAgentBatchNumber();
+		//Set to contain agents to create (in the order they are created)
+		LinkedHashSet<SynchronousConsumerAgent> agents = new LinkedHashSet<SynchronousConsumerAgent>();
+		//attributes and preferences are drawn in the order of their names, so every copy of the group draws the same values
+		List<ConsumerAgentGroupAttribute> groupAttributes = OrderHelper.sortConsumerAgentGroupAttributes(correspondingConsumerAgentGroup.getConsumerAgentGroupAttributes());
+		List<Value> groupValues = OrderHelper.sortValues(correspondingConsumerAgentGroup.getConsumerAgentGroupPreferences().keySet());
 		//set initiallyAdoptedProducts map to use for initially adopted products
 		Map<FixedProductDescription, UnivariateDistribution> initialProductConfiguration = correspondingConsumerAgentGroup.getInitialProductConfiguration();
 		Map<Integer, Set<FixedProductDescription>> initiallyAdoptedFPDs = LazynessHelper.determineInitiallyAdoptedProducts(numberOfConsumersToCreate, initialProductConfiguration);
@@ -81,14 +86,14 @@ public class SynchronousConsumerAgentFactory {
 		//create numberOfConsumersToCreate agents individually
 		for (int index = 0; index < numberOfConsumersToCreate; index++) {
 			//setup the agent attributes...
-			HashSet<ConsumerAgentAttribute> attributes = new HashSet<ConsumerAgentAttribute>(correspondingConsumerAgentGroup.getConsumerAgentGroupAttributes().size());
+			LinkedHashSet<ConsumerAgentAttribute> attributes = new LinkedHashSet<ConsumerAgentAttribute>(correspondingConsumerAgentGroup.getConsumerAgentGroupAttributes().size());
 			//...as realizations of ConsumerAgentGroupAttributes
-			for (ConsumerAgentGroupAttribute caga : correspondingConsumerAgentGroup.getConsumerAgentGroupAttributes()) {
+			for (ConsumerAgentGroupAttribute caga : groupAttributes) {
 				attributes.add(new ConsumerAgentAttribute(caga.getName(), caga.getValue().draw()));
 			}
 			//setup the agents preferences as realizations of consumerAgentGroupValues
-			HashSet<Preference> consumerPreferences = new HashSet<Preference>(correspondingConsumerAgentGroup.getConsumerAgentGroupPreferences().keySet().size());
-			for (Value value : correspondingConsumerAgentGroup.getConsumerAgentGroupPreferences().keySet()) {
+			LinkedHashSet<Preference> consumerPreferences = new LinkedHashSet<Preference>(correspondingConsumerAgentGroup.getConsumerAgentGroupPreferences().keySet().size());
+			for (Value value : groupValues) {
 				consumerPreferences.add(new Preference(value, correspondingConsumerAgentGroup.getConsumerAgentGroupPreferences().get(value).draw()));
 			}
 			//setup the reference to the node in the social network.
@@ -96,13 +101,14 @@ public class SynchronousConsumerAgentFactory {
 			SNConsumerNode associatedSNNode = new SNConsumerNode("SynchronousConsumerAgent_" + Integer.toString(agentBatchNumber) + "_" + Integer.toString(index));
 			//set the product awareness for each product
 			Set<Product> productsInSimulation = simulationContainer.getProducts();
-			HashMap<Product, Boolean> productAwarenessMap = new HashMap<Product, Boolean>(productsInSimulation.size());
+			//linked, so the products are considered in the same order in every copy of the simulation (such as one restored from a checkpoint)
+			LinkedHashMap<Product, Boolean> productAwarenessMap = new LinkedHashMap<Product, Boolean>(productsInSimulation.size());
 			for (Product product : productsInSimulation) {
 				productAwarenessMap.put(product, ValueConversionHelper.signToBoolean(correspondingConsumerAgentGroup.getProductGroupAwarenessDistribution().get(product.getPartOfProductGroup()).draw()));
 			}
 			Set<Product> productsAwareOf = FilterHelper.selectKnownProducts(productAwarenessMap);
 			fooLog.debug("Agent is aware of {} products",productsAwareOf.size());
-			HashMap<ProductAttribute, ProductAttributePerceptionScheme> perceivedProductAttributeValues = new HashMap<ProductAttribute, ProductAttributePerceptionScheme>();
+			LinkedHashMap<ProductAttribute, ProductAttributePerceptionScheme> perceivedProductAttributeValues = new LinkedHashMap<ProductAttribute, ProductAttributePerceptionScheme>();
 			//set papHistogram for all products the consumer is aware of
 			for(Product awaredProduct : productsAwareOf){
 				//set up the productAttribute perception histogram for each product attribute
@@ -130,7 +136,6 @@ public class SynchronousConsumerAgentFactory {
 			simulationContainer.addSNNodeConsumerAgentMapping(associatedSNNode, instantiatedAgent);
 			agents.add(instantiatedAgent);
 		}
-		agentBatchNumber++;
 		return agents;
 	}
 }
\ No newline at end of file
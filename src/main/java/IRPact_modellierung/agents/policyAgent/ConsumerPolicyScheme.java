@@ -2,6 +2,8 @@ package IRPact_modellierung.agents.policyAgent;
 
 import IRPact_modellierung.simulation.SimulationContainer;
 
+import java.io.Serializable;
+
 /**
  * A ConsumerPolicyScheme describes what policies are used by the policy agent(s) for influencing consumer agents.
  * These represent campaigns, laws and incentives to influence consumer attitudes and behaviors.
@@ -9,7 +11,7 @@ import IRPact_modellierung.simulation.SimulationContainer;
  *
  * @author Simon Johanning
  */
-public abstract class ConsumerPolicyScheme {
+public abstract class ConsumerPolicyScheme implements Serializable {
 
     /**
      * This method invokes the processes of devising and implementing consumer-directed policies.
@@ -2,6 +2,8 @@ package IRPact_modellierung.agents.policyAgent;
 
 import IRPact_modellierung.simulation.SimulationContainer;
 
+import java.io.Serializable;
+
 /**
  * The market evaluation scheme describes the perceptive end of the policy agent.
  * It describes how the policy agent derives information about the market and its actors for other activities,
@@ -11,7 +13,7 @@ import IRPact_modellierung.simulation.SimulationContainer;
  *
  * @author Simon Johanning
  */
-public abstract class MarketEvaluationScheme {
+public abstract class MarketEvaluationScheme implements Serializable {
 
     /**
      * Method to formalize the market evaluation process of the policy agent.
@@ -1,6 +1,8 @@
 package IRPact_modellierung.agents.policyAgent;
 
-public class PolicyAgentConfiguration {
+import java.io.Serializable;
+
+public class PolicyAgentConfiguration implements Serializable {
 
     private ProductPolicyScheme productPolicyScheme;
     private ConsumerPolicyScheme consumerPolicyScheme;
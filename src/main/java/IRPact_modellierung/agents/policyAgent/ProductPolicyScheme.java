@@ -2,6 +2,8 @@ package IRPact_modellierung.agents.policyAgent;
 
 import IRPact_modellierung.simulation.SimulationContainer;
 
+import java.io.Serializable;
+
 /**
  * A ProductPolicyScheme represents the policies that lawmakers and corporate agents employ for controlling
  the quality of products. Through these policy schemes, product attributes values are
@@ -9,7 +11,7 @@ import IRPact_modellierung.simulation.SimulationContainer;
  *
  * @author Simon Johanning
  */
-public abstract class ProductPolicyScheme {
+public abstract class ProductPolicyScheme implements Serializable {
 
     /**
      * Invoking this method formalizes the processes of devising and implementing product policies.
@@ -3,6 +3,7 @@ package IRPact_modellierung.agents.policyAgent;
 import IRPact_modellierung.products.Product;
 import IRPact_modellierung.simulation.SimulationContainer;
 
+import java.io.Serializable;
 import java.util.Set;
 
 /**
@@ -13,7 +14,7 @@ import java.util.Set;
  legal acts and the corresponding response of company agents in discontinu-
  ing products that don't conform to said standards.
  */
-public abstract class RegulatoryPolicyScheme {
+public abstract class RegulatoryPolicyScheme implements Serializable {
 
     /**
      * Method to formalize the process of formation and evaluation of the regulatory policy.
@@ -5,6 +5,7 @@ import IRPact_modellierung.distributions.SpatialDistribution;
 import IRPact_modellierung.distributions.UnivariateDistribution;
 import IRPact_modellierung.products.ProductGroup;
 
+import java.io.Serializable;
 import java.util.Map;
 
 /**
@@ -12,7 +13,7 @@ import java.util.Map;
  *
  * @author Simon Johanning
  */
-public class POSAgentConfiguration {
+public class POSAgentConfiguration implements Serializable {
 
     private Map<ProductGroup, BooleanDistribution> productGroupAvailability;
     private Map<ProductGroup, UnivariateDistribution> productGroupPriceFactor;
@@ -4,6 +4,7 @@ import IRPact_modellierung.agents.consumerAgents.ConsumerAgent;
 import IRPact_modellierung.products.Product;
 import IRPact_modellierung.products.ProductGroup;
 
+import java.io.Serializable;
 import java.util.Set;
 
 /**
@@ -16,7 +17,7 @@ import java.util.Set;
  * @author Simon Johanning
  *
  */
-public abstract class PurchaseProcessScheme {
+public abstract class PurchaseProcessScheme implements Serializable {
 
     protected POSAgent correspondingPOS;
 
@@ -2,6 +2,7 @@ package IRPact_modellierung.decision;
 
 import org.apache.logging.log4j.LogManager;
 
+import java.io.Serializable;
 import java.util.Map;
 
 /**
@@ -15,7 +16,7 @@ import java.util.Map;
  *
  * @author Simon Johanning
  */
-public class DecisionConfiguration {
+public class DecisionConfiguration implements Serializable {
 
     private static final org.apache.logging.log4j.Logger fooLog = LogManager.getLogger("debugConsoleLogger");
 
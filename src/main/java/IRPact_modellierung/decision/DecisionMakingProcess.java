@@ -1,5 +1,7 @@
 package IRPact_modellierung.decision;
 
+import java.io.Serializable;
+
 /**
  * Abstraction to represent a decision making process.
  * Offers the abstraction to make a decision.
@@ -8,6 +10,6 @@ package IRPact_modellierung.decision;
  */
 
 
-public abstract class DecisionMakingProcess {
+public abstract class DecisionMakingProcess implements Serializable {
 
 }
\ No newline at end of file
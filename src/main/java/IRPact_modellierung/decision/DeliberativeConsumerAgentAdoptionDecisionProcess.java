@@ -153,6 +153,7 @@ public class DeliberativeConsumerAgentAdoptionDecisionProcess extends Utilitaria
      * @throws IllegalStateException Will be thrown when the importanceAttitudeProtoMap lacks relevant entries
      */
     private void setupImportanceAttitudeMap(SimulationContainer simulationContainer) throws IllegalStateException{
+        importanceAttitudeMap = new HashMap<>();
         for(ConsumerAgentGroup cag : simulationContainer.getSimulationConfiguration().getAgentConfiguration().getConsumerAgentGroups()){
             if(!importanceAttitudeProtoMap.containsKey(cag.getGroupName())) throw new IllegalStateException("No importanceAttitude was configured for ConsumerAgentGroup "+cag.getGroupName()+" in the configuration of the Deliberate Decision process!!");
             Map<String, Double> importanceProtoMap = importanceAttitudeProtoMap.get(cag.getGroupName());
@@ -1,5 +1,6 @@
 package IRPact_modellierung.decision;
 
+import IRPact_modellierung.simulation.RandomNumberService;
 import IRPact_modellierung.agents.consumerAgents.ConsumerAgent;
 import IRPact_modellierung.helper.FilterHelper;
 import IRPact_modellierung.products.Product;
@@ -130,7 +131,7 @@ public class KieslingUtilitarianConsumerAgentAdoptionDecisionProcess extends Uti
             if(product.getName().contains("takeOver")) fooLog.debug("perceived productAttribute {} for {} is {}", productAttribute, product.getName(), consumerAgent.getPerceivedProductAttributeValues().get(productAttribute).calculateProductAttributePerception(systemTime));
         }
         //pertubate the utility by a value within [-rangeEpsilon, rangeEpsilon]
-        utility += (Math.random() * 2.0 - 1.0) * rangeEpsilon;
+        utility += (RandomNumberService.nextDouble() * 2.0 - 1.0) * rangeEpsilon;
         fooLog.debug("maxUtility in calcultateUtility is {}",maxUtility);
         //normalize utility
         double normalizedUtility = utility / maxUtility;
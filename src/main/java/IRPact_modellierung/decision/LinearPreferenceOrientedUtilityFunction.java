@@ -1,15 +1,13 @@
 package IRPact_modellierung.decision;
 
 import IRPact_modellierung.agents.consumerAgents.ConsumerAgent;
-import IRPact_modellierung.preference.Preference;
+import IRPact_modellierung.agents.consumerAgents.ConsumerAgentStore;
+import IRPact_modellierung.preference.PreferenceConfiguration;
 import IRPact_modellierung.preference.Value;
-import IRPact_modellierung.helper.LazynessHelper;
 import IRPact_modellierung.products.ProductAttribute;
 import IRPact_modellierung.products.ProductGroupAttribute;
 import org.apache.logging.log4j.LogManager;
 
-import java.util.Map;
-
 /**
  * Utility function that calculates the utility of a product attribute as the sum of partial utilities of
  * the preferences (contributing to it).
@@ -27,21 +25,37 @@ public class LinearPreferenceOrientedUtilityFunction extends UtilityFunction {
 
     /**
      * Calculates the partial utility of a product attribute based on the preferences of the corresponding agent.
+     * The mapping strengths between product group attributes and values are taken from the (precomputed)
+     * matrix of the preference configuration, and the perception of the product attribute is derived once per call.
      *
      * @param correspondingAgent The agent who evaluates the product attribute
      * @param correspondingProductAttribute The product attribute that is to be evaluated
      * @param systemTime The time of the simulation at the evaluation
      *
      * @return the partial utility with which this product attribute contributes
+     * @throws IllegalStateException Will be thrown when no mapping strength is configured for the product group attribute and one of the values of the agent's preferences
      */
-    public double calculatePartialUtility(ConsumerAgent correspondingAgent, ProductAttribute correspondingProductAttribute, double systemTime) {
+    public double calculatePartialUtility(ConsumerAgent correspondingAgent, ProductAttribute correspondingProductAttribute, double systemTime) throws IllegalStateException{
         double cumulatedUtility = 0.0;
-        Map<ProductGroupAttribute, Map<Value, Double>> pgaPreferenceMap = LazynessHelper.derivePGAPreferenceMap(correspondingAgent.getAssociatedSimulationContainer().getSimulationConfiguration().getPreferenceConfiguration());
-        for(Preference currentPreference : correspondingAgent.getPreferences()){
+        PreferenceConfiguration preferenceConfiguration = correspondingAgent.getAssociatedSimulationContainer().getSimulationConfiguration().getPreferenceConfiguration();
+        ProductGroupAttribute productGroupAttribute = correspondingProductAttribute.getCorrespondingProductGroupAttribute();
+        int pgaIndex = preferenceConfiguration.getProductGroupAttributeIndex(productGroupAttribute);
+        if(pgaIndex < 0) throw new IllegalStateException("No preference mapping is configured for product group attribute "+productGroupAttribute.getName()+"!!");
+        double[] mappingStrengths = preferenceConfiguration.getMappingStrengthMatrix()[pgaIndex];
+        double perceivedValue = correspondingAgent.getPerceivedProductAttributeValues().get(correspondingProductAttribute).calculateProductAttributePerception(systemTime);
+        //the preferences are read from the columns of the store (in column order), so no preference objects are created
+        ConsumerAgentStore agentStore = correspondingAgent.getAssociatedSimulationContainer().getConsumerAgentStore();
+        int agentIndex = correspondingAgent.getAgentIndex();
+        for(int column = 0; column < agentStore.getNoPreferenceColumns(); column++){
+            if(!agentStore.hasPreference(agentIndex, column)) continue;
+            Value value = agentStore.getPreferenceValue(column);
+            double preferenceStrength = agentStore.getPreferenceStrength(agentIndex, column);
+            int valueIndex = preferenceConfiguration.getValueIndex(value);
+            double mappingStrength = valueIndex < 0 ? Double.NaN : mappingStrengths[valueIndex];
+            if(Double.isNaN(mappingStrength)) throw new IllegalStateException("No preference mapping is configured between product group attribute "+productGroupAttribute.getName()+" and value "+value.getName()+"!!");
             //for each preference, add the preference strength*pgaPreference value (how well does pa correspond to this)*quality of this product attribute to the cumulated utility
-            cumulatedUtility += currentPreference.getStrength()*(pgaPreferenceMap.get(correspondingProductAttribute.getCorrespondingProductGroupAttribute()).get(currentPreference.getValue())*correspondingAgent.getPerceivedProductAttributeValues().get(correspondingProductAttribute).calculateProductAttributePerception(systemTime));
-            fooLog.debug("pref ({}: {}) increases cumUt for agent {} with respect to pa {} with value {} by {}", currentPreference.getValue().getName(), currentPreference.getStrength(), correspondingAgent.getAgentID(), correspondingProductAttribute.getCorrespondingProductGroupAttribute().getName(), correspondingProductAttribute.getValue(), currentPreference.getStrength()*(pgaPreferenceMap.get(correspondingProductAttribute.getCorrespondingProductGroupAttribute()).get(currentPreference.getValue())*correspondingAgent.getPerceivedProductAttributeValues().get(correspondingProductAttribute).calculateProductAttributePerception(systemTime)));
-            //fooLog.info("Preference strength for preference {} is {} (.strength is {})", currentPreference.getValue(), (pgaPreferenceMap.get(correspondingProductAttribute.getCorrespondingProductGroupAttribute()).get(currentPreference.getValue())), currentPreference.getStrength());
+            cumulatedUtility += preferenceStrength*mappingStrength*perceivedValue;
+            if(fooLog.isDebugEnabled()) fooLog.debug("pref ({}: {}) increases cumUt for agent {} with respect to pa {} with value {} by {}", value.getName(), preferenceStrength, correspondingAgent.getAgentID(), productGroupAttribute.getName(), correspondingProductAttribute.getValue(), preferenceStrength*mappingStrength*perceivedValue);
         }
         return cumulatedUtility;
     }
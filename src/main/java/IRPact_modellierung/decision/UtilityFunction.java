@@ -3,13 +3,15 @@ package IRPact_modellierung.decision;
 import IRPact_modellierung.agents.consumerAgents.ConsumerAgent;
 import IRPact_modellierung.products.ProductAttribute;
 
+import java.io.Serializable;
+
 /**
  * An abstraction of a utility function to calculate the (partial) utility of a product attribute for a consumer agent at a given time.
  * Is used in utilitarian decision processes in order to allow more flexible modeling
  *
  * @author Simon Johanning
  */
-public abstract class UtilityFunction {
+public abstract class UtilityFunction implements Serializable {
 
     /**
      * Method to calculate the partial utility of correspondingProductAttribute for correspondingAgent at systemTime
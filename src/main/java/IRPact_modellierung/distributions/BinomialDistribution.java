@@ -1,5 +1,6 @@
 package IRPact_modellierung.distributions;
 
+import IRPact_modellierung.simulation.RandomNumberService;
 import cern.jet.random.Binomial;
 import cern.jet.random.engine.RandomEngine;
 import org.apache.logging.log4j.LogManager;
@@ -42,7 +43,7 @@ public class BinomialDistribution extends DiscreteDistribution {
 		if(n<0) throw new IllegalArgumentException("The number of (independent) trials can not be negative!!");
 		else if((p<0.0) || (p>1.0)) throw new IllegalArgumentException("Value for p must be within 0.0 and 1.0, is"+p+".\n Value will not be reset and "+p+" will be retained!");
 		else{
-			RandomEngine generator = new cern.jet.random.engine.MersenneTwister(new java.util.Date());
+			RandomEngine generator = RandomNumberService.getRandomEngine();
 			coltDistribution = new Binomial(n,p,generator);
 			this.n = n;
 			this.p = p;
@@ -56,8 +57,8 @@ public class BinomialDistribution extends DiscreteDistribution {
 	 *
 	 * @return integer value in [0:n] drawn with the probability of the binomial distribution
 	 */
-	public double draw(){
-		double uniformRandomDraw = Math.random();
+	public synchronized double draw(){
+		double uniformRandomDraw = RandomNumberService.nextDouble();
 		//see which k corresponds to a uniformly drawn value in the cumulative distribution
 		for(int k=0;k<n;k++) {
 			if ((double) coltDistribution.cdf(k) >= uniformRandomDraw) {
@@ -79,7 +80,7 @@ public class BinomialDistribution extends DiscreteDistribution {
 			this.n = n;
 			//replace aspects of the distribution linked to this parameter
 			if (defaultBounds) upperBound = n;
-			this.coltDistribution = new Binomial(n, p, new cern.jet.random.engine.MersenneTwister(new java.util.Date()));
+			this.coltDistribution = new Binomial(n, p, RandomNumberService.getRandomEngine());
 		}
 	}
 
@@ -93,7 +94,7 @@ public class BinomialDistribution extends DiscreteDistribution {
 		if((p<0.0) || (p>1.0)) throw new IllegalArgumentException("Value for p must be within 0.0 and 1.0, is"+p+".\n Value will not be reset and "+p+" will be retained!");
 		else{
 			this.p=p;
-			this.coltDistribution = new Binomial(n, p, new cern.jet.random.engine.MersenneTwister(new java.util.Date()));
+			this.coltDistribution = new Binomial(n, p, RandomNumberService.getRandomEngine());
 		}
 	}*/
 
@@ -1,5 +1,7 @@
 package IRPact_modellierung.distributions;
 
+import IRPact_modellierung.simulation.RandomNumberService;
+
 /**
  * A distribution with two mass points (named true and false)
  * in one variable.
@@ -42,7 +44,7 @@ public class BooleanDistribution extends UnivariateDistribution{
      * @return double value encoding true (1.0) and false (0.0)
      */
     public double draw() {
-        if(Math.random() < massTrue) return 1.0;
+        if(RandomNumberService.nextDouble() < massTrue) return 1.0;
         else return 0.0;
     }
 }
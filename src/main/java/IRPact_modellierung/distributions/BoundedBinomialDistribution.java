@@ -1,5 +1,6 @@
 package IRPact_modellierung.distributions;
 
+import IRPact_modellierung.simulation.RandomNumberService;
 import cern.jet.random.Binomial;
 import cern.jet.random.engine.RandomEngine;
 import org.apache.logging.log4j.LogManager;
@@ -52,7 +53,7 @@ public class BoundedBinomialDistribution extends BoundedDiscreteDistribution {
             if(lowerBound < 0) logger.warn("The lower bound entered for the binomial distribution "+name+" < 0, which is out of the range of the probability distribution anyways (will return values in [0,"+n+"]). This might indicate a modeling error.");
             if(upperBound > n) logger.warn("The upper bound entered for the binomial distribution "+name+" > n, which is out of the range of the probability distribution anyways (will return values in [0,"+n+"]). This might indicate a modeling error.");
             defaultBounds = false;
-            RandomEngine generator = new cern.jet.random.engine.MersenneTwister(new java.util.Date());
+            RandomEngine generator = RandomNumberService.getRandomEngine();
             coltDistribution = new Binomial(n,p,generator);
             this.n = n;
             this.p = p;
@@ -76,7 +77,7 @@ public class BoundedBinomialDistribution extends BoundedDiscreteDistribution {
         else {
             this.n = n;
             this.p = p;
-            RandomEngine generator = new cern.jet.random.engine.MersenneTwister(new java.util.Date());
+            RandomEngine generator = RandomNumberService.getRandomEngine();
             this.coltDistribution = new Binomial(n, p, generator);
         }
     }
@@ -89,7 +90,7 @@ public class BoundedBinomialDistribution extends BoundedDiscreteDistribution {
      * @return integer value in [0:n] drawn with the probability of the binomial distribution
      */
     public double drawValue(){
-        double uniformRandomDraw = Math.random();
+        double uniformRandomDraw = RandomNumberService.nextDouble();
         //see which k corresponds to a uniformly drawn value in the cumulative distribution
         for(int k=0;k<n;k++) {
             if ((double) coltDistribution.cdf(k) >= uniformRandomDraw) {
@@ -112,7 +113,7 @@ public class BoundedBinomialDistribution extends BoundedDiscreteDistribution {
             this.n = n;
             //replace aspects of the distribution linked to this parameter
             if (defaultBounds) upperBound = n;
-            this.coltDistribution = new Binomial(n, p, new cern.jet.random.engine.MersenneTwister(new java.util.Date()));
+            this.coltDistribution = new Binomial(n, p, RandomNumberService.getRandomEngine());
         }
     }
 
@@ -126,7 +127,7 @@ public class BoundedBinomialDistribution extends BoundedDiscreteDistribution {
         if((p<0.0) || (p>1.0)) throw new IllegalArgumentException("Value for p must be within 0.0 and 1.0, is"+p+".\n Value will not be reset and "+p+" will be retained!");
         else{
             this.p=p;
-            this.coltDistribution = new Binomial(n, p, new cern.jet.random.engine.MersenneTwister(new java.util.Date()));
+            this.coltDistribution = new Binomial(n, p, RandomNumberService.getRandomEngine());
         }
     }*/
 
@@ -24,7 +24,7 @@ public abstract class BurrDistribution extends COLTContinuousDistribution {
 		this.r = r;
 	}
 
-	public double draw(){
+	public synchronized double draw(){
 		return drawValue();
 	}
 
@@ -1,5 +1,6 @@
 package IRPact_modellierung.distributions;
 
+import IRPact_modellierung.simulation.RandomNumberService;
 import cern.jet.random.engine.RandomEngine;
 
 //TODO check if a continuous distribution should be bounded (like it used to), and why!
@@ -18,6 +19,6 @@ public abstract class COLTContinuousDistribution extends ContinuousDistribution
 
     public COLTContinuousDistribution(String name) {
         super(name);
-        generator = new cern.jet.random.engine.MersenneTwister(new java.util.Date());
+        generator = RandomNumberService.getRandomEngine();
     }
 }
\ No newline at end of file
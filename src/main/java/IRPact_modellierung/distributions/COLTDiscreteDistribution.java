@@ -1,5 +1,6 @@
 package IRPact_modellierung.distributions;
 
+import IRPact_modellierung.simulation.RandomNumberService;
 import cern.jet.random.engine.RandomEngine;
 
 /**
@@ -17,6 +18,6 @@ public abstract class COLTDiscreteDistribution extends DiscreteDistribution{
 
     public COLTDiscreteDistribution(String name) {
         super(name);
-        generator = new cern.jet.random.engine.MersenneTwister(new java.util.Date());
+        generator = RandomNumberService.getRandomEngine();
     }
 }
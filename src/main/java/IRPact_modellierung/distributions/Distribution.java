@@ -1,12 +1,14 @@
 package IRPact_modellierung.distributions;
 
+import java.io.Serializable;
+
 /**
  * Abstraction to model a probability distribution.
  * Due to the richness of distributions, few semantics is given to this abstraction.
  *
  * @author Simon Johanning
  */
-public abstract class Distribution {
+public abstract class Distribution implements Serializable {
 
 	protected String name;
 
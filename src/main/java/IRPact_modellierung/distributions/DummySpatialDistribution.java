@@ -1,5 +1,6 @@
 package IRPact_modellierung.distributions;
 
+import IRPact_modellierung.simulation.RandomNumberService;
 import IRPact_modellierung.space.RectangularSpatialModel;
 import IRPact_modellierung.space.SpatialModel;
 
@@ -25,8 +26,8 @@ public class DummySpatialDistribution extends SpatialDistribution {
     public Point2D.Double draw(SpatialModel spatialModel) {
         if(spatialModel instanceof RectangularSpatialModel){
             RectangularSpatialModel correspondingModel = (RectangularSpatialModel) spatialModel;
-            double xCoordinate = correspondingModel.getLongitudeCentred()+ (Math.random()*2.0-1.0)*correspondingModel.getWidth();
-            double yCoordinate = correspondingModel.getLatitudeCentred()+ (Math.random()*2.0-1.0)*correspondingModel.getHeight();
+            double xCoordinate = correspondingModel.getLongitudeCentred()+ (RandomNumberService.nextDouble()*2.0-1.0)*correspondingModel.getWidth();
+            double yCoordinate = correspondingModel.getLatitudeCentred()+ (RandomNumberService.nextDouble()*2.0-1.0)*correspondingModel.getHeight();
             return new Point2D.Double(xCoordinate, yCoordinate);
         }
         return new Point2D.Double(0.0,0.0);
@@ -120,7 +120,7 @@ public class ErlangDistribution extends COLTContinuousDistribution {
 		return k/Math.pow(lambda,2);
 	}
 
-	public double draw() {
+	public synchronized double draw() {
 		return drawValue();
 	}
 }
\ No newline at end of file
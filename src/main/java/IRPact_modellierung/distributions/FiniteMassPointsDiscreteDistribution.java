@@ -1,21 +1,19 @@
 package IRPact_modellierung.distributions;
 
+import IRPact_modellierung.helper.AliasSampler;
 import IRPact_modellierung.helper.LazynessHelper;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
-//TODO make more efficient for large sets by research (first idea sort by mass) -> make list
-//TODO also check for order issues!! with the wrong order, point with a higher cumulative distribution can be returned!!!
 //TODO change to 1d-case, since values are double and not a measure space in general
 
 /**
  * Class that models a distribution that has its mass concentrated in a finite number of points.
- * Values are stored in a cumulative distribution map.
+ * Values are drawn from an alias table over the mass points (taking constant time for any number of points),
+ * the cumulative distribution (in ascending order of the points) is provided for inspection.
  * Distribution assumes valid values to be larger than 0 (not designed for signed measures), and normalized should the values not add up to 1.
- * Probably not very efficient for large number of points, and for this purpose a different solution should be used.
- *
- * It is not recommended that this distribution is used yet since a few (potentially) problems could exist with it!!
  *
  * @author Simon Johanning
  */
@@ -28,7 +26,11 @@ public class FiniteMassPointsDiscreteDistribution extends BoundedUnivariateDistr
 	/**
 	 * Cumulated distribution function corresponding to the masses as specified in massPoints.
 	 */
-	private Map<Double, Double> cumulatedDistribution;
+	private SortedMap<Double, Double> cumulatedDistribution;
+	/**
+	 * Sampler drawing the mass points proportional to their mass
+	 */
+	private AliasSampler<Double> massPointSampler;
 
 	/**
 	 * Generates the cumulative distribution corresponding to the mass points if all mass points are valid
@@ -42,32 +44,28 @@ public class FiniteMassPointsDiscreteDistribution extends BoundedUnivariateDistr
 	public FiniteMassPointsDiscreteDistribution(String name, Map<Double, Double> massPoints) throws IllegalArgumentException{
 		super(name, LazynessHelper.getMinimum(massPoints.keySet()), LazynessHelper.getMaximum(massPoints.keySet()));
 		this.massPoints = massPoints;
-		try {
-			cumulatedDistribution = calculateCumulatedDistribution(massPoints);
-		} catch (IllegalArgumentException iae) {
-			throw iae;
-		}
+		cumulatedDistribution = calculateCumulatedDistribution(massPoints);
+		massPointSampler = new AliasSampler<Double>(massPoints);
 	}
 
-	//TODO Cumulative probability might fuck up the order in the following function!
-
 	/**
-	 * Calculates a map of the cumulated distribution of the respective mass points.
+	 * Calculates a map of the cumulated distribution of the respective mass points (in ascending order of the points).
 	 * Assumes all of them are non-negative (will throw an exception if otherwise) and
 	 * will normalize them should they not sum up to unity
 	 *
 	 * @param massPoints The points of mass and (x, mass(x)) as a map
 	 * @return A map of the value and its cumulative distribution up to that point
-	 * @throws IllegalArgumentException will be thrown when points with negative mass are encountered
+	 * @throws IllegalArgumentException will be thrown when points with negative mass are encountered or no point has mass
 	 */
-	private Map<Double, Double> calculateCumulatedDistribution(Map<Double, Double> massPoints) throws IllegalArgumentException{
-		Map<Double, Double> cumulatedDistribution = new HashMap<Double, Double>(massPoints);
+	private SortedMap<Double, Double> calculateCumulatedDistribution(Map<Double, Double> massPoints) throws IllegalArgumentException{
+		SortedMap<Double, Double> orderedMassPoints = new TreeMap<Double, Double>(massPoints);
+		SortedMap<Double, Double> cumulatedDistribution = new TreeMap<Double, Double>();
 		double cumulatedProbability = 0.0;
-		for(Double massPoint : massPoints.keySet()){
-			if(massPoints.get(massPoint) > 0.0) {
-				cumulatedProbability += massPoints.get(massPoint);
-				cumulatedDistribution.put(massPoint, cumulatedProbability);
-			}else if(massPoints.get(massPoint) < 0.0) throw new IllegalArgumentException("A negative mass has been assigned to "+massPoint+"!! \n Consider a distribution modeling a signed measure!");
+		for(Map.Entry<Double, Double> massPoint : orderedMassPoints.entrySet()){
+			if(massPoint.getValue() > 0.0) {
+				cumulatedProbability += massPoint.getValue();
+				cumulatedDistribution.put(massPoint.getKey(), cumulatedProbability);
+			}else if(massPoint.getValue() < 0.0) throw new IllegalArgumentException("A negative mass has been assigned to "+massPoint.getKey()+"!! \n Consider a distribution modeling a signed measure!");
 		}
 		if(cumulatedProbability == 1.0) return cumulatedDistribution;
 		else return normalizeCumulatedDistribution(cumulatedProbability, cumulatedDistribution);
@@ -80,14 +78,14 @@ public class FiniteMassPointsDiscreteDistribution extends BoundedUnivariateDistr
 	 *
 	 * @param cumulatedProbability The probability the sum of all mass points of the distribution amount to (by which it is normalized)
 	 * @param cumulatedDistribution The distribution that is to be normalized
-	 * @return
+	 * @return The normalized cumulated distribution
 	 */
-	private Map<Double, Double> normalizeCumulatedDistribution(double cumulatedProbability, Map<Double, Double> cumulatedDistribution) {
+	private SortedMap<Double, Double> normalizeCumulatedDistribution(double cumulatedProbability, SortedMap<Double, Double> cumulatedDistribution) {
 		if(cumulatedProbability <= 0.0) throw new IllegalArgumentException("Cumulated probability should not be 0 or negative!!! Is "+cumulatedProbability);
 		else {
-			Map<Double, Double> normalizedMap = new HashMap<Double, Double>(cumulatedDistribution.size());
-			for (Double massPoint : normalizedMap.keySet()) {
-				normalizedMap.put(massPoint, cumulatedDistribution.get(massPoint) / cumulatedProbability);
+			SortedMap<Double, Double> normalizedMap = new TreeMap<Double, Double>();
+			for (Map.Entry<Double, Double> massPoint : cumulatedDistribution.entrySet()) {
+				normalizedMap.put(massPoint.getKey(), massPoint.getValue() / cumulatedProbability);
 			}
 			return normalizedMap;
 		}
@@ -113,20 +111,12 @@ public class FiniteMassPointsDiscreteDistribution extends BoundedUnivariateDistr
 		return this.massPoints;
 	}
 
-	public Map<Double, Double> getCumulatedDistribution() {
+	public SortedMap<Double, Double> getCumulatedDistribution() {
 		return this.cumulatedDistribution;
 	}
 
-	//TODO ORDER!!!
-	public double draw(){//} throws SemanticException{
-		double valueDrawn = Math.random();
-		//return the first point where the cumulated distribution is larger than the drawn number
-		for(Double massPoint : cumulatedDistribution.keySet()){
-			if(cumulatedDistribution.get(massPoint) > valueDrawn) return massPoint;
-		}
-		//TODO error handling if no mass point was found!!
-//		throw new SemanticException("Error!!! No mass point was found in finite mass points discrete distribution for value "+valueDrawn+"!!");
-		return -1.0;
+	public double draw(){
+		return massPointSampler.draw();
 	}
 
 	//TODO check if thats whats intended
@@ -41,7 +41,7 @@ public class LambdaDistribution extends COLTContinuousDistribution {
 		return this.l4;
 	}
 
-	public double draw() {
+	public synchronized double draw() {
 		return Distributions.nextLambda(l3, l4, generator);
 	}
 }
\ No newline at end of file
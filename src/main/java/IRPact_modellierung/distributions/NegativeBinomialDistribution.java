@@ -1,5 +1,6 @@
 package IRPact_modellierung.distributions;
 
+import IRPact_modellierung.simulation.RandomNumberService;
 import cern.jet.random.NegativeBinomial;
 
 /**
@@ -42,7 +43,7 @@ public class NegativeBinomialDistribution extends COLTDiscreteDistribution {
 		}
 	}
 
-	public double draw(){
+	public synchronized double draw(){
 		return (double)  coltDistribution.nextInt();
 	}
 
@@ -50,7 +51,7 @@ public class NegativeBinomialDistribution extends COLTDiscreteDistribution {
 		if(n <= 0) throw new IllegalArgumentException("number of tries is invalid (needs to be positive, is "+n);
 		else{
 			this.n=n;
-			coltDistribution = new NegativeBinomial(n,p,new cern.jet.random.engine.MersenneTwister(new java.util.Date()));
+			coltDistribution = new NegativeBinomial(n,p,RandomNumberService.getRandomEngine());
 		}
 	}
 
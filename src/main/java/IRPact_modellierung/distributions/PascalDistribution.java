@@ -1,5 +1,7 @@
 package IRPact_modellierung.distributions;
 
+import IRPact_modellierung.simulation.RandomNumberService;
+
 //TODO integrate with negative distribution; check whether to use the apache common math or COLT library
 
 /**
@@ -42,7 +44,7 @@ public class PascalDistribution extends UnivariateDistribution{
      */
     public double draw(){
         int trials = 0;
-        double valueDrawn = Math.random();
+        double valueDrawn = RandomNumberService.nextDouble();
         while(valueDrawn > correspondingDistribution.cumulativeProbability(trials)){
             trials++;
         }
@@ -1,5 +1,6 @@
 package IRPact_modellierung.distributions;
 
+import IRPact_modellierung.simulation.RandomNumberService;
 import cern.jet.random.Poisson;
 
 //TODO improve class description
@@ -36,12 +37,12 @@ public class PoissonDistribution extends COLTDiscreteDistribution {
 		coltDistribution = new Poisson(lambda,generator);
 	}
 
-	public double draw() {
+	public synchronized double draw() {
 		int k=0;
 		/*value to compare the cumulative distribution against.
 		if it equals or exceeds the cumulative distribution of k events,
 		k is the number searched for*/
-		double referenceValue = Math.random();
+		double referenceValue = RandomNumberService.nextDouble();
 		while(coltDistribution.cdf(k) < referenceValue) k++;
 		return (double) k;
 	}
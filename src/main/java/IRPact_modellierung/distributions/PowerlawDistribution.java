@@ -45,7 +45,7 @@ public class PowerlawDistribution extends COLTContinuousDistribution {
 		return this.cut;
 	}
 
-	public double draw() {
+	public synchronized double draw() {
 		return Distributions.nextPowLaw(alpha, cut, generator);
 	}
 }
\ No newline at end of file
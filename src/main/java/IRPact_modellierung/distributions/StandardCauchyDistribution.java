@@ -1,5 +1,6 @@
 package IRPact_modellierung.distributions;
 
+import IRPact_modellierung.simulation.RandomNumberService;
 import cern.jet.random.Distributions;
 import cern.jet.random.engine.RandomEngine;
 
@@ -26,9 +27,9 @@ public class StandardCauchyDistribution extends CauchyDistribution {
      */
     public StandardCauchyDistribution(String name) {
         super(name, 0.0, 1.0);
-        generator = new cern.jet.random.engine.MersenneTwister(new java.util.Date());
+        generator = RandomNumberService.getRandomEngine();
     }
 
-    public double draw(){ return (double) Distributions.nextCauchy(generator);}
+    public synchronized double draw(){ return (double) Distributions.nextCauchy(generator);}
 
 }
\ No newline at end of file
@@ -23,7 +23,7 @@ public class StandardLaplaceDistribution extends COLTContinuousDistribution {
         super(name);
     }
 
-    public double draw() {
+    public synchronized double draw() {
         return Distributions.nextLaplace(generator);
     }
 
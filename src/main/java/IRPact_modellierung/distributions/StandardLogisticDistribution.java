@@ -21,7 +21,7 @@ public class StandardLogisticDistribution extends COLTContinuousDistribution {
         super(name);
     }
 
-    public double draw() {
+    public synchronized double draw() {
         return Distributions.nextLogistic(generator);
     }
 
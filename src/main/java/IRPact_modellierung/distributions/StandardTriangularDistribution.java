@@ -22,7 +22,7 @@ public class StandardTriangularDistribution extends COLTContinuousDistribution {
         super(name);
     }
 
-    public double draw() {
+    public synchronized double draw() {
         return Distributions.nextTriangular(generator);
     }
 
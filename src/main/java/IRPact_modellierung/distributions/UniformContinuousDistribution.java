@@ -1,5 +1,7 @@
 package IRPact_modellierung.distributions;
 
+import IRPact_modellierung.simulation.RandomNumberService;
+
 /**
  * Class that models a uniform distribution (thus is necessarily bounded).
  * Will return a value in [lowerBound, upperBound] with equal probability.
@@ -24,6 +26,6 @@ public class UniformContinuousDistribution extends BoundedContinuousDistribution
     //insert failcheck when manipulating this!
     public double drawValue() {
         //It can be expected that upperBound>lowerBound since draw in superclass checks for this
-        return (Math.random()*(upperBound - lowerBound) + lowerBound);
+        return (RandomNumberService.nextDouble()*(upperBound - lowerBound) + lowerBound);
     }
 }
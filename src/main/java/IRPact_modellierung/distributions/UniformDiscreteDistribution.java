@@ -1,5 +1,6 @@
 package IRPact_modellierung.distributions;
 
+import IRPact_modellierung.simulation.RandomNumberService;
 import IRPact_modellierung.helper.ValueConversionHelper;
 
 import java.util.ArrayList;
@@ -30,6 +31,6 @@ public class UniformDiscreteDistribution extends DiscreteDistribution {
 
     public double draw() {
         //draws a random point (return the value of a random entry)
-        return massPoints.get((int) Math.floor(Math.random()*massPoints.size()));
+        return massPoints.get((int) Math.floor(RandomNumberService.nextDouble()*massPoints.size()));
     }
 }
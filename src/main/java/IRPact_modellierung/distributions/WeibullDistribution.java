@@ -39,7 +39,7 @@ public class WeibullDistribution extends COLTContinuousDistribution {
 		return this.beta;
 	}
 
-	public double draw() {
+	public synchronized double draw() {
 		return Distributions.nextWeibull(alpha, beta, generator);
 	}
 
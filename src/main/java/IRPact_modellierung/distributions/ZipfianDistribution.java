@@ -34,7 +34,7 @@ public class ZipfianDistribution extends COLTDiscreteDistribution {
 		return this.z;
 	}
 
-	public double draw() {
+	public synchronized double draw() {
 		return (double) Distributions.nextZipfInt(z, generator);
 	}
 
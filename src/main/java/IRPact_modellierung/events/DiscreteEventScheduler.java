@@ -3,14 +3,14 @@ package IRPact_modellierung.events;
 import IRPact_modellierung.simulation.SimulationContainer;
 import org.apache.logging.log4j.LogManager;
 
-import java.util.Collections;
-
 //TODO make this an implementation and make DES abstract
 //TODO think about what makes it discrete
 
 /**
  * Event scheduler to manage events in a discrete temporal scheme.
- * Will sort the scheduled events depending on their scheduled time every time an event is added.
+ * Scheduled events are kept in a binary heap ordered by their scheduled time,
+ * so that scheduling and popping an event takes logarithmic time.
+ * Events scheduled for the same time are executed in the order they were scheduled.
  *
  * @author Simon Johanning
  */
@@ -20,25 +20,22 @@ public class DiscreteEventScheduler extends EventScheduler {
 
     /**
      * Event scheduler to manage events in a discrete temporal scheme.
-     * Will sort the scheduled events depending on their scheduled time every time an event is added.
+     * Scheduled events are kept ordered by their scheduled time.
      *
      * @param associatedSimulationContainer The simulation container in which the simulation takes place
      */
     public DiscreteEventScheduler(SimulationContainer associatedSimulationContainer) {
         super(associatedSimulationContainer);
-        Collections.sort(scheduledEvents);
     }
 
     /**
-     * Schedules the specified event and orders the set of scheduled event
-     * by execution time, so that the tip of the list is the next event.
+     * Schedules the specified event in the queue of scheduled events,
+     * which keeps the events ordered by execution time so that the head of the queue is the next event.
      *
      * @param eventToSchedule The event that is to be scheduled
      */
     protected void scheduleValidEvent(Event eventToSchedule) {
         scheduledEvents.add(eventToSchedule);
-        Collections.sort(scheduledEvents);
     }
-    //TODO check if there is a more efficient way to order the events (since before adding the event the list should be sorted anyways)
 
 }
\ No newline at end of file
@@ -0,0 +1,170 @@
+package IRPact_modellierung.events;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The EventQueue is a binary min-heap of events keyed on their scheduled time.
+ * Events scheduled for the same time are returned in the order they were added (FIFO),
+ * which corresponds to the ordering of the (stable) sorted list used by the event schedulers before.
+ *
+ * Adding and removing events takes O(log n), inspecting the next event O(1).
+ * Scheduled times and insertion numbers are kept in primitive arrays parallel to the events
+ * in order to avoid virtual calls and boxing when sifting.
+ *
+ * @author Simon Johanning
+ */
+public class EventQueue implements Serializable {
+
+    private static final int DEFAULTCAPACITY = 64;
+
+    private Event[] events;
+    private double[] scheduledTimes;
+    private long[] insertionNumbers;
+    private int size;
+    private long insertionCounter;
+
+    /**
+     * Creates an empty event queue with default initial capacity
+     */
+    public EventQueue() {
+        this(DEFAULTCAPACITY);
+    }
+
+    /**
+     * Creates an empty event queue with the given initial capacity
+     *
+     * @param initialCapacity The number of events the queue can hold before growing
+     * @throws IllegalArgumentException Will be thrown when the capacity is not positive
+     */
+    public EventQueue(int initialCapacity) throws IllegalArgumentException{
+        if(initialCapacity < 1) throw new IllegalArgumentException("Capacity of the event queue must be positive, but was "+initialCapacity);
+        events = new Event[initialCapacity];
+        scheduledTimes = new double[initialCapacity];
+        insertionNumbers = new long[initialCapacity];
+        size = 0;
+        insertionCounter = 0L;
+    }
+
+    /**
+     * Adds an event to the queue, ordering it by its scheduled time
+     * and behind all events already present for the same time.
+     *
+     * @param eventToAdd The event to add to the queue
+     */
+    public void add(Event eventToAdd) {
+        if(size == events.length) grow();
+        int index = size++;
+        double time = eventToAdd.getScheduledForTime();
+        long insertionNumber = insertionCounter++;
+        //sift up
+        while(index > 0){
+            int parent = (index - 1) >>> 1;
+            if(!precedes(time, insertionNumber, scheduledTimes[parent], insertionNumbers[parent])) break;
+            move(parent, index);
+            index = parent;
+        }
+        set(index, eventToAdd, time, insertionNumber);
+    }
+
+    /**
+     * Returns the next event (the one scheduled earliest) without removing it.
+     *
+     * @return The next event
+     * @throws IndexOutOfBoundsException Will be thrown when the queue is empty
+     */
+    public Event peek() throws IndexOutOfBoundsException{
+        if(size == 0) throw new IndexOutOfBoundsException("The event queue is empty!");
+        return events[0];
+    }
+
+    /**
+     * Removes and returns the next event (the one scheduled earliest).
+     *
+     * @return The next event
+     * @throws IndexOutOfBoundsException Will be thrown when the queue is empty
+     */
+    public Event poll() throws IndexOutOfBoundsException{
+        if(size == 0) throw new IndexOutOfBoundsException("The event queue is empty!");
+        Event nextEvent = events[0];
+        int last = --size;
+        Event lastEvent = events[last];
+        double lastTime = scheduledTimes[last];
+        long lastInsertionNumber = insertionNumbers[last];
+        events[last] = null;
+        if(last > 0){
+            //sift down
+            int index = 0;
+            int half = last >>> 1;
+            while(index < half){
+                int child = 2 * index + 1;
+                int right = child + 1;
+                if(right < last && precedes(scheduledTimes[right], insertionNumbers[right], scheduledTimes[child], insertionNumbers[child])) child = right;
+                if(!precedes(scheduledTimes[child], insertionNumbers[child], lastTime, lastInsertionNumber)) break;
+                move(child, index);
+                index = child;
+            }
+            set(index, lastEvent, lastTime, lastInsertionNumber);
+        }
+        return nextEvent;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Method to retrieve all events in the queue in the order they will be polled.
+     * The queue itself is not modified.
+     *
+     * @return A list of all events in the queue in execution order
+     */
+    public List<Event> toOrderedList() {
+        EventQueue copy = new EventQueue(Math.max(size, 1));
+        copy.events = Arrays.copyOf(events, events.length);
+        copy.scheduledTimes = Arrays.copyOf(scheduledTimes, scheduledTimes.length);
+        copy.insertionNumbers = Arrays.copyOf(insertionNumbers, insertionNumbers.length);
+        copy.size = size;
+        copy.insertionCounter = insertionCounter;
+        List<Event> orderedEvents = new ArrayList<>(size);
+        while(!copy.isEmpty()) orderedEvents.add(copy.poll());
+        return orderedEvents;
+    }
+
+    /**
+     * Removes all events from the queue
+     */
+    public void clear() {
+        Arrays.fill(events, 0, size, null);
+        size = 0;
+    }
+
+    private static boolean precedes(double time, long insertionNumber, double otherTime, long otherInsertionNumber) {
+        return time < otherTime || (time == otherTime && insertionNumber < otherInsertionNumber);
+    }
+
+    private void move(int from, int to) {
+        events[to] = events[from];
+        scheduledTimes[to] = scheduledTimes[from];
+        insertionNumbers[to] = insertionNumbers[from];
+    }
+
+    private void set(int index, Event event, double time, long insertionNumber) {
+        events[index] = event;
+        scheduledTimes[index] = time;
+        insertionNumbers[index] = insertionNumber;
+    }
+
+    private void grow() {
+        int newCapacity = events.length << 1;
+        events = Arrays.copyOf(events, newCapacity);
+        scheduledTimes = Arrays.copyOf(scheduledTimes, newCapacity);
+        insertionNumbers = Arrays.copyOf(insertionNumbers, newCapacity);
+    }
+}
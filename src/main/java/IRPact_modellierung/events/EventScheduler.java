@@ -1,25 +1,26 @@
 package IRPact_modellierung.events;
 
 import IRPact_modellierung.SimulationEntity;
+import IRPact_modellierung.metrics.SimulationMetrics;
 import IRPact_modellierung.simulation.SimulationContainer;
 
 import java.util.*;
 
 /**
  * Abstraction of an event scheduler.
- * Keeps an ordered list of events to be executed and offers functionality for accessing them.
+ * Keeps an ordered queue of events to be executed and offers functionality for accessing them.
  * Scheduling and construction is left to the implementation of concrete schedulers.
  *
  * @author Simon Johanning
  */
 public abstract class EventScheduler extends SimulationEntity {
 
-    protected LinkedList<Event> scheduledEvents;
+    protected EventQueue scheduledEvents;
     //The event set is the set of all events ever scheduled in the simulation, and is used in order to ensure that an event doesn't get scheduled twice
     private Set<Event> eventSet;
 
     /**
-     * Initiates the list of scheduled events and adds the scripted events to this list.
+     * Initiates the queue of scheduled events and adds the scripted events to this queue.
      * The (scheduling) order of the scripted events should be established in the constructor of the implementation
      * or the implementation should overwrite the scheduleScriptedEvents method
      *
@@ -27,7 +28,7 @@ public abstract class EventScheduler extends SimulationEntity {
      */
     public EventScheduler(SimulationContainer associatedSimulationContainer) {
         super(associatedSimulationContainer);
-        scheduledEvents = new LinkedList<Event>();
+        scheduledEvents = new EventQueue();
         eventSet = new HashSet<>();
     }
 
@@ -45,6 +46,7 @@ public abstract class EventScheduler extends SimulationEntity {
         else{
             eventSet.add(eventToSchedule);
             scheduleValidEvent(eventToSchedule);
+            getAssociatedSimulationContainer().getMetrics().addToCounter(SimulationMetrics.EVENTSSCHEDULED, 1);
         }
     }
 
@@ -66,7 +68,7 @@ public abstract class EventScheduler extends SimulationEntity {
     }
 
     /**
-     * Pushes a (valid) event (i.e. not scheduled before and not lying in the past) in the event list.
+     * Pushes a (valid) event (i.e. not scheduled before and not lying in the past) in the event queue.
      * How this is done exactly depends on the implementation.
      *
      * @param evenToSchedule The event that is to be scheduled
@@ -75,47 +77,48 @@ public abstract class EventScheduler extends SimulationEntity {
 
     /**
      * pops (removes and returns) the event scheduled next.
-     * Assumes that the next scheduled event is the first element in the list.
-     * With implementations that violate this assumption, the element returned might not the 'next' (in the sense of temporal order) element
+     * The event queue orders events by their scheduled time, and events scheduled
+     * for the same time in the order they were scheduled.
      *
-     * @return The first entry of the list of scheduled events (generally the next event)
-     * @throws IndexOutOfBoundsException Will be thrown when the list of scheduled events is empty
+     * @return The head of the queue of scheduled events (the next event)
+     * @throws IndexOutOfBoundsException Will be thrown when the queue of scheduled events is empty
      */
     public Event popNextEvent() throws IndexOutOfBoundsException{
         if(scheduledEvents.isEmpty()) throw new IndexOutOfBoundsException("No next event is present. Please check for existence before calling the pop method");
-        else{
-            Event returnEvent = scheduledEvents.getFirst();
-            scheduledEvents.removeFirst();
-            return returnEvent;
-        }
+        else return scheduledEvents.poll();
     }
 
     /**
      * Method to retrieve the next event is scheduled.
-     * Assumes that the next scheduled event is the first element in the list.
-     * With implementations that violate this assumption, the element returned might not the 'next' (in the sense of temporal order) element
-     * Unlike pop the element is not taken off the list, so it should be used to get information about
+     * Unlike pop the element is not taken off the queue, so it should be used to get information about
      * the event, but not to execute the event, since otherwise an event might be executed multiple times.
      *
-     * @return The first entry of the list of scheduled events (generally the next event)
-     * @throws IndexOutOfBoundsException Will be thrown when the list of scheduled events is empty
+     * @return The head of the queue of scheduled events (the next event)
+     * @throws IndexOutOfBoundsException Will be thrown when the queue of scheduled events is empty
      */
     public Event topNextEvent(){
         if(scheduledEvents.isEmpty()) throw new IndexOutOfBoundsException("No next event is present. Please check for existence before calling the pop method");
         else {
-            return scheduledEvents.getFirst();
+            return scheduledEvents.peek();
         }
     }
 
     /**
-     * Method to check whether a next event is present (whether the list is not empty).
+     * Method to check whether a next event is present (whether the queue is not empty).
      *
-     * @return Will return true if the list is not empty, false if so.
+     * @return Will return true if the queue is not empty, false if so.
      */
     public boolean existsNextEvent() {
         return !scheduledEvents.isEmpty();
     }
 
+    /**
+     * @return The number of events currently scheduled (the depth of the queue)
+     */
+    public int getNoScheduledEvents() {
+        return scheduledEvents.size();
+    }
+
     /**
      * Method to check if an event was ever an event scheduled by the EventScheduler.
      * All events scheduled are kept in an event set.
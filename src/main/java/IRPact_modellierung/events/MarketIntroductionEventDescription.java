@@ -2,13 +2,15 @@ package IRPact_modellierung.events;
 
 import IRPact_modellierung.products.FixedProductDescription;
 
+import java.io.Serializable;
+
 /**
  * Class to represent the description of a MIE.
  * Bundles the information necessary to create a MIE as well as the product it is based on
  *
  * @author Simon Johanning
  */
-public class MarketIntroductionEventDescription{
+public class MarketIntroductionEventDescription implements Serializable {
 
     private FixedProductDescription correspondingFixedProduct;
     private double scheduledForTime;
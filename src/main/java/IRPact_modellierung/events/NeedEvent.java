@@ -1,8 +1,9 @@
 package IRPact_modellierung.events;
 
 import IRPact_modellierung.agents.consumerAgents.ConsumerAgent;
-import IRPact_modellierung.helper.FilterHelper;
+import IRPact_modellierung.decision.ConsumerAgentAdoptionDecisionProcess;
 import IRPact_modellierung.helper.LazynessHelper;
+import IRPact_modellierung.metrics.SimulationMetrics;
 import IRPact_modellierung.needs.Need;
 import IRPact_modellierung.products.Product;
 import IRPact_modellierung.simulation.SimulationContainer;
@@ -69,20 +70,28 @@ public class NeedEvent extends Event {
 		if(systemTime < getScheduledForTime()) throw new IllegalArgumentException("The evaluation time of the event lies before the scheduled time, implying temporal inconsistency!!");
 		fooLog.debug("Need event processed for need {} and consumer agent {}",need.getName(), consumerAgentConcerned.getAgentID());
 		//filter uneligable products (products the consumer isn't aware of, that are not in the market, that don't satisfy the relevant need and that are not disqualified from adoption
-		Set<Product> productsConsumerIsAwareOf = FilterHelper.selectKnownProducts(consumerAgentConcerned.getProductAwarenessMap());
-		Set<Product> productsIntroducedToMarket = FilterHelper.filterUnintroducedProducts(productsConsumerIsAwareOf);
-		Set<Product> productsWithNeedsFor = FilterHelper.filterProductsForNeed(productsIntroducedToMarket, need);
-		Set<Product> productsQualifyingForDecisison = FilterHelper.filterUnadoptableProducts(productsWithNeedsFor, consumerAgentConcerned);
+		//(derived from the bit sets of the product eligibility index; the set is a view reused by the agent, so it must not be kept beyond the decision)
+		Set<Product> productsQualifyingForDecisison = consumerAgentConcerned.selectEligibleProducts(need);
 		if(!(consumerAgentConcerned.needAlreadySatisfied(need)) && !(productsQualifyingForDecisison.isEmpty())) {
 			fooLog.debug("Need event leaves "+productsQualifyingForDecisison.size()+" products to decide to adopt");
 			for(Product prod : productsQualifyingForDecisison){
 				fooLog.debug("Current product: "+prod.getName());
 			}
 			//check if all product groups involved share the same decision process overwrite rule (null if not)
+			//the latency of the decision process is recorded in the metrics of the simulation
+			SimulationMetrics metrics = associatedSimulationContainer.getMetrics();
 			try {
-				if(LazynessHelper.findCommonOverwriteDecisionMakingProcessProducts(productsQualifyingForDecisison)) ((Product) productsQualifyingForDecisison.toArray()[0]).getPartOfProductGroup().getOverwriteDecisionProcess().makeProductAdoptionDecision(associatedSimulationContainer, consumerAgentConcerned, productsQualifyingForDecisison, systemTime);
+				if(LazynessHelper.findCommonOverwriteDecisionMakingProcessProducts(productsQualifyingForDecisison)) {
+					ConsumerAgentAdoptionDecisionProcess overwriteDecisionProcess = ((Product) productsQualifyingForDecisison.toArray()[0]).getPartOfProductGroup().getOverwriteDecisionProcess();
+					long decisionStart = metrics.startTimer();
+					overwriteDecisionProcess.makeProductAdoptionDecision(associatedSimulationContainer, consumerAgentConcerned, productsQualifyingForDecisison, systemTime);
+					metrics.recordDecision(overwriteDecisionProcess, decisionStart);
+				}
                 else{
-                	Product productToAdopt = consumerAgentConcerned.getCorrespondingConsumerAgentGroup().getDecisionProcessEmployed().makeProductAdoptionDecision(associatedSimulationContainer, consumerAgentConcerned, productsQualifyingForDecisison, systemTime);
+                	ConsumerAgentAdoptionDecisionProcess decisionProcess = consumerAgentConcerned.getCorrespondingConsumerAgentGroup().getDecisionProcessEmployed();
+                	long decisionStart = metrics.startTimer();
+                	Product productToAdopt = decisionProcess.makeProductAdoptionDecision(associatedSimulationContainer, consumerAgentConcerned, productsQualifyingForDecisison, systemTime);
+                	metrics.recordDecision(decisionProcess, decisionStart);
                 	fooLog.debug("About to adopt {}", productToAdopt);
                 	if(productToAdopt != null) consumerAgentConcerned.adoptProduct(productToAdopt);
                 	else throw new IllegalStateException("Decision Process "+ consumerAgentConcerned.getCorrespondingConsumerAgentGroup().getDecisionProcessEmployed() + " didnt give a product to adopt for "+consumerAgentConcerned+" between products "+productsQualifyingForDecisison);
@@ -2,6 +2,8 @@ package IRPact_modellierung.events;
 
 import org.apache.logging.log4j.LogManager;
 
+import java.io.Serializable;
+
 /**
  * Class to bundle the information needed to create a ProductDiscontinuationEvent
  * (removing the specified product from the simulation at a specified time).
@@ -9,7 +11,7 @@ import org.apache.logging.log4j.LogManager;
  *
  * @author Simon Johanning
  */
-public class ProductDiscontinuationEventDescription {
+public class ProductDiscontinuationEventDescription implements Serializable {
 
     private static final org.apache.logging.log4j.Logger fooLog = LogManager.getLogger("debugConsoleLogger");
 
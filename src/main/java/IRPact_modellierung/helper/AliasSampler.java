@@ -0,0 +1,132 @@
+package IRPact_modellierung.helper;
+
+import IRPact_modellierung.simulation.RandomNumberService;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The AliasSampler draws items with probabilities proportional to (fixed) non-negative weights
+ * by means of an alias table (Walker's method in the construction of Vose).
+ * Building the table takes time linear in the number of items, while every draw takes constant time
+ * (a single random number), so it should be built once for a weight vector that is drawn from repeatedly.
+ *
+ * Items without weight are never drawn.
+ * The sampler is immutable and can be shared between threads (drawing from their current random stream).
+ *
+ * @param <T> The type of the items to draw
+ * @author Simon Johanning
+ */
+public class AliasSampler<T> implements Serializable {
+
+    private final Object[] items;
+    //probability to keep the item of a column (rather than its alias)
+    private final double[] keepProbabilities;
+    private final int[] aliases;
+    private final double totalWeight;
+
+    /**
+     * Creates a sampler for the items and their weights
+     *
+     * @param items The items to draw from
+     * @param weights The (non-negative) weights of the items, in the order of the items
+     * @throws IllegalArgumentException Will be thrown when the number of weights doesn't match the number of items, a weight is negative or not finite, or no item has a positive weight
+     */
+    public AliasSampler(List<T> items, double[] weights) throws IllegalArgumentException {
+        if(items.size() != weights.length) throw new IllegalArgumentException("Number of items ("+items.size()+") and weights ("+weights.length+") of the alias sampler differ!!");
+        //only items with mass are part of the table
+        List<T> weightedItems = new ArrayList<T>(items.size());
+        double weightSum = 0.0;
+        for(int index = 0; index < weights.length; index++) {
+            if(!(weights[index] >= 0.0) || Double.isInfinite(weights[index])) throw new IllegalArgumentException("The weight of "+items.get(index)+" is "+weights[index]+", but weights need to be finite and non-negative!!");
+            if(weights[index] > 0.0) {
+                weightedItems.add(items.get(index));
+                weightSum += weights[index];
+            }
+        }
+        if(weightedItems.isEmpty()) throw new IllegalArgumentException("Weights to draw from have no mass!!");
+        this.items = weightedItems.toArray();
+        this.totalWeight = weightSum;
+        int noItems = this.items.length;
+        keepProbabilities = new double[noItems];
+        aliases = new int[noItems];
+        //scale the weights to an average of 1 and partition them into the columns below and above average
+        double[] scaledWeights = new double[noItems];
+        int[] smallColumns = new int[noItems];
+        int[] largeColumns = new int[noItems];
+        int noSmall = 0;
+        int noLarge = 0;
+        int column = 0;
+        for(int index = 0; index < weights.length; index++) {
+            if(weights[index] > 0.0) {
+                scaledWeights[column] = weights[index] * noItems / weightSum;
+                if(scaledWeights[column] < 1.0) smallColumns[noSmall++] = column;
+                else largeColumns[noLarge++] = column;
+                column++;
+            }
+        }
+        //fill every small column up with (part of) a large one
+        while(noSmall > 0 && noLarge > 0) {
+            int smallColumn = smallColumns[--noSmall];
+            int largeColumn = largeColumns[--noLarge];
+            keepProbabilities[smallColumn] = scaledWeights[smallColumn];
+            aliases[smallColumn] = largeColumn;
+            scaledWeights[largeColumn] = (scaledWeights[largeColumn] + scaledWeights[smallColumn]) - 1.0;
+            if(scaledWeights[largeColumn] < 1.0) smallColumns[noSmall++] = largeColumn;
+            else largeColumns[noLarge++] = largeColumn;
+        }
+        //remaining columns are full (up to rounding errors)
+        while(noLarge > 0) keepProbabilities[largeColumns[--noLarge]] = 1.0;
+        while(noSmall > 0) keepProbabilities[smallColumns[--noSmall]] = 1.0;
+    }
+
+    /**
+     * Creates a sampler for the keys of a map, weighted by their values
+     *
+     * @param weightedItems The items to draw from as keys and their (non-negative) weights as values
+     * @throws IllegalArgumentException Will be thrown when a weight is negative or not finite, or no item has a positive weight
+     */
+    public AliasSampler(Map<T, Double> weightedItems) throws IllegalArgumentException {
+        this(new ArrayList<T>(weightedItems.keySet()), toWeightArray(weightedItems));
+    }
+
+    //the values in the order of the key set
+    private static <T> double[] toWeightArray(Map<T, Double> weightedItems) {
+        double[] weights = new double[weightedItems.size()];
+        int index = 0;
+        for(T item : weightedItems.keySet()) {
+            Double weight = weightedItems.get(item);
+            if(weight == null) throw new IllegalArgumentException("No weight is given for "+item+"!!");
+            weights[index++] = weight;
+        }
+        return weights;
+    }
+
+    /**
+     * Draws an item with a probability proportional to its weight (from the current random stream)
+     *
+     * @return The drawn item
+     */
+    @SuppressWarnings("unchecked")
+    public T draw() {
+        double roll = RandomNumberService.nextDouble() * items.length;
+        int column = Math.min(items.length - 1, (int) roll);
+        return (T) items[(roll - column < keepProbabilities[column]) ? column : aliases[column]];
+    }
+
+    /**
+     * @return The sum of the weights of all items
+     */
+    public double getTotalWeight() {
+        return totalWeight;
+    }
+
+    /**
+     * @return The number of items that can be drawn (i.e. have a positive weight)
+     */
+    public int getNumberOfItems() {
+        return items.length;
+    }
+}
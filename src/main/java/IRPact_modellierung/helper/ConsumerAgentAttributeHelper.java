@@ -1,7 +1,6 @@
 package IRPact_modellierung.helper;
 
 import IRPact_modellierung.agents.consumerAgents.ConsumerAgent;
-import IRPact_modellierung.agents.consumerAgents.ConsumerAgentAttribute;
 import org.apache.logging.log4j.LogManager;
 
 //TODO think about situating this stuff with the consumer agent and write a selector for agent attributes
@@ -25,15 +24,6 @@ public class ConsumerAgentAttributeHelper {
      * @throws IllegalArgumentException Will be thrown when the agent doesn't dispose of an agent attribute for the subjective norm
      */
     public static double loadSubjectiveNorm(ConsumerAgent consumerAgent) throws IllegalArgumentException{
-        //Placeholder to refer to the consumer agent attribute that represents the subjective norm of the agent
-        ConsumerAgentAttribute correspondingAttribute = null;
-        for(ConsumerAgentAttribute currentAttribute : consumerAgent.getAttributes()){
-            if(currentAttribute.getAttributeName().equals("subjectiveNorm")){
-                correspondingAttribute = currentAttribute;
-                break;
-            }
-        }
-        if(correspondingAttribute != null) return correspondingAttribute.getAttributeValue();
-        else throw new IllegalArgumentException("Subjective norm  is not set for agent "+consumerAgent);
+        return consumerAgent.getAttributeValue("subjectiveNorm");
     }
 }
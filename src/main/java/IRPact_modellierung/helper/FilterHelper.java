@@ -10,11 +10,14 @@ import IRPact_modellierung.products.*;
 
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 
 /**
  * Class to bundle a number of methods selecting a sub data structure from larger data structures.
+ * The sets of products selected keep the order of the structure they are selected from,
+ * so decisions between products don't depend on the (identity) hash codes of the products.
  *
  * @author Simon Johanning
  */
@@ -28,7 +31,7 @@ public class FilterHelper {
      * @return The products an agent is aware of (that have 'true' associated with them in the awareness map)
      */
     public static Set<Product> selectKnownProducts(Map<Product, Boolean> awarenessMap){
-        Set<Product> returnSet = new HashSet<Product>();
+        Set<Product> returnSet = new LinkedHashSet<Product>();
         for(Product product : awarenessMap.keySet()){
             if(awarenessMap.get(product)) returnSet.add(product);
         }
@@ -43,7 +46,7 @@ public class FilterHelper {
      * @return All products from the candidateProducts set that fulfil the given need
      */
     public static Set<Product> filterProductsForNeed(Set<Product> candidateProducts, Need need) {
-        Set<Product> returnSet = new HashSet<Product>();
+        Set<Product> returnSet = new LinkedHashSet<Product>();
         for(Product product : candidateProducts){
             if(product.getPartOfProductGroup().getNeedsSatisfied().contains(need)) returnSet.add(product);
         }
@@ -60,7 +63,7 @@ public class FilterHelper {
      * @return The set of products which the agent can adopt (that are not excluded by product dependencies)
      */
     public static Set<Product> filterUnadoptableProducts(Set<Product> potentialProducts, ConsumerAgent consumerAgentConcerned) {
-        Set<Product> returnSet = new HashSet<Product>();
+        Set<Product> returnSet = new LinkedHashSet<Product>();
         for(Product potentialProduct : potentialProducts){
             //if product is not yet adopted
             if(!(consumerAgentConcerned.getAdoptedProducts().contains(potentialProduct))){
@@ -89,7 +92,7 @@ public class FilterHelper {
      * @return All products from the parameter set that are on the market (isIntroducedToMarket is true)
      */
     public static Set<Product> filterProductsNotOnMarketYet(Set<Product> products) {
-        Set<Product> returnSet = new HashSet<Product>();
+        Set<Product> returnSet = new LinkedHashSet<Product>();
         for(Product product : products){
             if(product.isIntroducedToMarket()) returnSet.add(product);
         }
@@ -99,7 +102,7 @@ public class FilterHelper {
     //TODO exactly the same as above, decide on which one to keep
 
     public static Set<Product> filterUnintroducedProducts(Set<Product> potentialProducts) {
-        Set<Product> returnSet = new HashSet<Product>(potentialProducts.size());
+        Set<Product> returnSet = new LinkedHashSet<Product>(potentialProducts.size());
         for(Product product : potentialProducts){
             if(product.isIntroducedToMarket()) returnSet.add(product);
         }
@@ -1,5 +1,6 @@
 package IRPact_modellierung.helper;
 
+import IRPact_modellierung.simulation.RandomNumberService;
 import IRPact_modellierung.agents.consumerAgents.*;
 import IRPact_modellierung.decision.ConsumerAgentAdoptionDecisionProcess;
 import IRPact_modellierung.distributions.UnivariateDistribution;
@@ -10,8 +11,11 @@ import IRPact_modellierung.information.Information;
 import IRPact_modellierung.information.ProductAttributeInformation;
 import IRPact_modellierung.needs.Need;
 import IRPact_modellierung.needs.NeedDevelopmentScheme;
+import IRPact_modellierung.network.IndexedNodeSet;
 import IRPact_modellierung.network.SNEdge;
+import IRPact_modellierung.network.SNEdgeIndex;
 import IRPact_modellierung.network.SNNode;
+import IRPact_modellierung.network.SocialGraph;
 import IRPact_modellierung.preference.Preference;
 import IRPact_modellierung.preference.PreferenceConfiguration;
 import IRPact_modellierung.preference.ProductGroupAttributeValueMapping;
@@ -77,9 +81,8 @@ public class LazynessHelper {
      */
     public static SNNode getRandomSNNode(Set<SNNode> potentialNodes) throws IllegalArgumentException {
         if (potentialNodes.size() > 0) {
-            ArrayList<SNNode> nodesAsArrayList = new ArrayList<SNNode>(potentialNodes);
-            int targetIndex = (int) (Math.floor(Math.random() * potentialNodes.size()));
-            return nodesAsArrayList.get(targetIndex);
+            int targetIndex = (int) (Math.floor(RandomNumberService.nextDouble() * potentialNodes.size()));
+            return getNodeAtIndex(potentialNodes, targetIndex);
         } else
             throw new IllegalArgumentException("ERROR!! There is no node to choose from in getRandomSNNode in LazynessHelper!!!");
     }
@@ -93,6 +96,9 @@ public class LazynessHelper {
      * @throws IllegalArgumentException Will be thrown if the given SNNode doesn't have an associated consumer agent within the simulation
      */
     public static ConsumerAgent retrieveCorrespondingConsumerAgent(SimulationContainer simulationContainer, SNNode correspondingNode) throws IllegalArgumentException {
+        //look the agent up in the node map of the container, and only search the agents if it isn't (yet) known there
+        ConsumerAgent mappedAgent = (simulationContainer.getsNMap() != null) ? simulationContainer.getsNMap().get(correspondingNode) : null;
+        if (mappedAgent != null) return mappedAgent;
         for (ConsumerAgent agentInSN : simulationContainer.getConsumerAgents()) {
             if (agentInSN.getCorrespondingNodeInSN().equals(correspondingNode)) return agentInSN;
         }
@@ -109,7 +115,7 @@ public class LazynessHelper {
     public static Set<ProductAttribute> selectProductAttributes(Set<Product> productsToExtractFrom) throws IllegalArgumentException {
         if (productsToExtractFrom.isEmpty())
             throw new IllegalArgumentException("Products from which the product attributes are to be extracted is empty!");
-        Set<ProductAttribute> attributes = new HashSet<ProductAttribute>();
+        Set<ProductAttribute> attributes = new LinkedHashSet<ProductAttribute>();
         for (Product productToExtractFrom : productsToExtractFrom) {
             attributes.addAll(productToExtractFrom.getProductAttributes());
         }
@@ -143,6 +149,28 @@ public class LazynessHelper {
         }
     }
 
+    /**
+     * Retrieves the edge of the given medium from sourceNode to targetNode in the given social graph.
+     * Uses the edge index of the social graph, so the lookup does not depend on the number of edges in the graph.
+     * Will return null if no such edge is present in the graph.
+     *
+     * @param sourceNode  The SNNode from which the edge originates
+     * @param targetNode  The SNNode to which the edge is directed
+     * @param socialGraph The social graph from which the edge from sourceNode to targetNode is to be retrieved
+     * @param medium      The medium of the edge to retrieve
+     * @return The edge corresponding to the edge from sourceNode to targetNode of the given medium
+     * @throws IllegalArgumentException will be thrown if either of the sourceNode, targetNode or socialGraph is null
+     */
+    public static SNEdge getCorrespondingEdge(SNNode sourceNode, SNNode targetNode, SocialGraph socialGraph, SocialGraph.EDGEMEDIUM medium) throws IllegalArgumentException {
+        if (sourceNode == null)
+            throw new IllegalArgumentException("The source node for the edge to be retrieved is null; Conceptually no such edge exists!!");
+        else if (targetNode == null)
+            throw new IllegalArgumentException("The target node for the edge to be retrieved is null; Conceptually no such edge exists!!");
+        else if (socialGraph == null)
+            throw new IllegalArgumentException("The social graph from which the edge should be retrieved is null!!");
+        else return socialGraph.getEdge(sourceNode, targetNode, medium);
+    }
+
     /**
      * Method to retrieve the product corresponding to the FixedProductDescription from the list of products in the simulation container.
      * If no such product is present in the container, it will return null
@@ -314,8 +342,9 @@ public class LazynessHelper {
      */
     //TODO tidy up
     public static boolean allPrerequisiteProductsAdopted(Product potentialProduct, ConsumerAgent consumerAgentConcerned) {
-        Set<ProductGroup> prerequisiteProductGroups = potentialProduct.getPartOfProductGroup().getPrerequisiteProductGroups();
-        if(prerequisiteProductGroups.isEmpty()) return true;
+        if(potentialProduct.getPartOfProductGroup().getPrerequisiteProductGroups().isEmpty()) return true;
+        //copy, so the prerequisites of the product group itself stay untouched
+        Set<ProductGroup> prerequisiteProductGroups = new HashSet<ProductGroup>(potentialProduct.getPartOfProductGroup().getPrerequisiteProductGroups());
         //remove product groups that are prerequisite until empty
         for(AdoptedProduct adoptedProduct : consumerAgentConcerned.getAdoptedProducts()){
             Product product = adoptedProduct.getCorrespondingProduct();
@@ -338,7 +367,7 @@ public class LazynessHelper {
         else if(products.contains(null)) throw new IllegalArgumentException("One of the products to chose from is null. Products should not be null!");
         else{
             ArrayList<Product> listToChooseFrom = new ArrayList<Product>(products);
-            int randomIndex = (int) Math.floor(Math.random()*listToChooseFrom.size());
+            int randomIndex = (int) Math.floor(RandomNumberService.nextDouble()*listToChooseFrom.size());
             return listToChooseFrom.get(randomIndex);
         }
     }
@@ -436,23 +465,8 @@ public class LazynessHelper {
      */
     public static ConsumerAgentGroup chooseTargetCAG(ConsumerAgentGroupAffinities affinities, ConsumerAgentGroup sourceConsumerAgentGroup) throws IllegalArgumentException{
         if(!affinities.getAffinities().containsKey(sourceConsumerAgentGroup)) throw new IllegalArgumentException("The affinities provided to the method to chose a target CAG don't have an entry for the CAG to find a target consumer agent group for!!");
-        double affinitySum = 0.0;
-        //create a map of cumulated affinities towards target consumer agent groups
-        Map<ConsumerAgentGroup, Double> targetAffinities = affinities.getAffinities(sourceConsumerAgentGroup);
-        SortedMap<Double, ConsumerAgentGroup> cumulatedAffinities = new TreeMap<Double, ConsumerAgentGroup>();
-        for(ConsumerAgentGroup currentCag : targetAffinities.keySet()){
-            affinitySum += targetAffinities.get(currentCag);
-            if(targetAffinities.get(currentCag) > 0.0){
-                cumulatedAffinities.put(affinitySum, currentCag);
-            }else if(targetAffinities.get(currentCag) < 0) throw new IllegalArgumentException("One of the affinities (between "+sourceConsumerAgentGroup+" and "+currentCag+" is negative!! \n This should not be allowed, since affinities are supposed to be non-negative!!");
-        }
-        double diceRoll = Math.random() * affinitySum;
-//        System.out.println("Dice roll is "+diceRoll+", with affinity sum being "+affinitySum);
-        for(Double cumulatedAffinity : cumulatedAffinities.keySet()){
-//            System.out.println("cumulated affinity is "+cumulatedAffinity+", which is for "+cumulatedAffinities.get(cumulatedAffinity).getGroupName());
-            if(diceRoll < cumulatedAffinity) return cumulatedAffinities.get(cumulatedAffinity);
-        }
-        throw new IllegalStateException("ERROR!! No consumerAgentGroup was found for affinity map "+affinities+" and consumer group "+sourceConsumerAgentGroup);
+        //the affinities keep a sampler per consumer agent group, so the cumulated affinities aren't rebuilt for every draw
+        return affinities.drawTargetGroup(sourceConsumerAgentGroup);
     }
 
     /**
@@ -533,9 +547,25 @@ public class LazynessHelper {
      * @throws IllegalArgumentException Will be thrown if the set of nodes to choose from is empty
      */
     public static SNNode chooseRandomNode(Set<SNNode> potentialNodes) throws IllegalArgumentException{
-        ArrayList<SNNode> potentialNodeArray = new ArrayList<SNNode>(potentialNodes);
-        int targetIndex = (int) Math.floor(Math.random()*potentialNodeArray.size());
-        return potentialNodeArray.get(targetIndex);
+        if(potentialNodes.isEmpty()) throw new IllegalArgumentException("There is no node to choose from!!");
+        int targetIndex = (int) Math.floor(RandomNumberService.nextDouble()*potentialNodes.size());
+        return getNodeAtIndex(potentialNodes, targetIndex);
+    }
+
+    /**
+     * Retrieves the node at the given position of a set of nodes without copying the set.
+     * Takes constant time for IndexedNodeSets (such as the node and neighbour sets of the SocialGraph)
+     * and time linear in the index for any other set.
+     *
+     * @param nodeSet The set of nodes to retrieve the node from
+     * @param index The position of the node (in the iteration order of the set)
+     * @return The node at the given position
+     */
+    private static SNNode getNodeAtIndex(Set<SNNode> nodeSet, int index){
+        if(nodeSet instanceof IndexedNodeSet) return ((IndexedNodeSet) nodeSet).get(index);
+        Iterator<SNNode> nodeIterator = nodeSet.iterator();
+        for(int position = 0; position < index; position++) nodeIterator.next();
+        return nodeIterator.next();
     }
 
     /**
@@ -573,10 +603,8 @@ public class LazynessHelper {
         else if(!simulationContainer.getProducts().contains(productConcerned)) throw new IllegalArgumentException("Product of interest is not part of the simulation container!! Please make sure to use only valid products in the simulation!!");
         else if(simulationContainer.getSocialNetwork().getSocialGraph().getNeighbours().size() < 1) throw new SemanticException("The ConsumerAgent of interest doesn't have any neighbours! \n As such, the number of adopters in his social network is undefined!!");
         else{
-            int noAdoptersNeighbours = 0;
-            for(SNNode neighbourNode : simulationContainer.getSocialNetwork().getSocialGraph().getAllMediaNeighbours(consumerAgent.getCorrespondingNodeInSN())){
-                if(simulationContainer.getsNMap().get(neighbourNode).getAdoptedProducts().contains(productConcerned)) noAdoptersNeighbours++;
-            }
+            //the adopters among the neighbours are counted by the agents as they adopt (see NeighbourhoodAdoptionIndex)
+            int noAdoptersNeighbours = simulationContainer.getNeighbourhoodAdoptionIndex().getNoAdoptingNeighbours(consumerAgent, simulationContainer.getProductEligibilityIndex().getOrdinal(productConcerned));
             return (double) noAdoptersNeighbours/simulationContainer.getSocialNetwork().getSocialGraph().getNeighbours().size();
         }
     }
@@ -645,21 +673,8 @@ public class LazynessHelper {
                 for (Product currentProduct : consideredProducts) {
                     if (!simulationContainer.getProducts().contains(currentProduct))
                         throw new IllegalArgumentException("One of the products of interest (" + currentProduct + ") is not part of the simulation container!! Please make sure to use only valid products in the simulation!!");
-                    noAdoptersInNeighbourhood.put(currentProduct, 0);
-                }
-                fooLog.debug("social network is {}", simulationContainer.getSocialNetwork().getSocialGraph());
-                fooLog.debug("neighbours are {}", simulationContainer.getSocialNetwork().getSocialGraph().getNeighbours());
-                fooLog.debug("neighbours of ca {} are {}", consumerAgent, simulationContainer.getSocialNetwork().getSocialGraph().getNeighbours().get(consumerAgent.getCorrespondingNodeInSN()));
-                //for all neighbours
-                for (SNNode neighbouringNode : simulationContainer.getSocialNetwork().getSocialGraph().getAllMediaNeighbours(consumerAgent.getCorrespondingNodeInSN())) {
-                    //count how often which product was adopted
-                    for (Product currentProduct : consideredProducts) {
-                        if (simulationContainer.getsNMap().get(neighbouringNode).getAdoptedProducts().contains(currentProduct)) {
-                            Integer noAdopters = noAdoptersInNeighbourhood.get(currentProduct);
-                            noAdoptersInNeighbourhood.remove(currentProduct);
-                            noAdoptersInNeighbourhood.put(currentProduct, noAdopters + 1);
-                        }
-                    }
+                    //the adopters among the neighbours are counted by the agents as they adopt (see NeighbourhoodAdoptionIndex)
+                    noAdoptersInNeighbourhood.put(currentProduct, simulationContainer.getNeighbourhoodAdoptionIndex().getNoAdoptingNeighbours(consumerAgent, simulationContainer.getProductEligibilityIndex().getOrdinal(currentProduct)));
                 }
                 for (Product currentProduct : consideredProducts) {
                     fooLog.debug("product {} was adopted {} times already by neighbours", currentProduct, noAdoptersInNeighbourhood.get(currentProduct));
@@ -824,8 +839,8 @@ public class LazynessHelper {
         for(Integer index=0;index<numberOfConsumers;index++){
             initiallyAdoptedProductsByAgentIndex.put(index, new HashSet<FixedProductDescription>());
         }
-        //determine the number of (and index of) initial adopter agents for the respective product
-        for(FixedProductDescription fpd : initialProductConfiguration.keySet()){
+        //determine the number of (and index of) initial adopter agents for the respective product (in the order of the products' names, so every copy of the configuration draws the same adopters)
+        for(FixedProductDescription fpd : OrderHelper.sortFixedProductDescriptions(initialProductConfiguration.keySet())){
             fooLog.debug("fpd is {}, numCons is {} and inProdConf is {}", fpd, numberOfConsumers, initialProductConfiguration.get(fpd));
             //determine the number of initial adopters for the product
             numInitialAdoptersPerProduct.put(fpd, (int) Math.floor(numberOfConsumers* initialProductConfiguration.get(fpd).draw()));
@@ -869,7 +884,7 @@ public class LazynessHelper {
             for(int currentIndexPosition = 0; currentIndexPosition < numberIndicesToFind; currentIndexPosition++){
                 boolean indexFound = false;
                 while(!indexFound){
-                    Integer preliminaryIndex = (int) Math.floor(Math.random()*((double) numberOfConsumers));
+                    Integer preliminaryIndex = (int) Math.floor(RandomNumberService.nextDouble()*((double) numberOfConsumers));
                     if(!(derivedIndices.contains(preliminaryIndex))){
                         derivedIndices.add(preliminaryIndex);
                         indexFound = true;
@@ -888,7 +903,7 @@ public class LazynessHelper {
                 if(loopIndex == failSafeCheckIndex){
                     if(!initialConfigurationResolvable(numInitialAdoptersPerProduct, numberOfConsumers)) fooLog.error("Configuration errornous! Program will not terminate. Initial product distribution can not be resolved!!!!");
                 }
-                int preliminaryAgentIndex = (int) Math.floor(Math.random() * numberOfConsumers);
+                int preliminaryAgentIndex = (int) Math.floor(RandomNumberService.nextDouble() * numberOfConsumers);
                 //fooLog.info("inConfConf {}",initialConfigurationConflict(initiallyAdoptedProductsByAgentIndex.get(preliminaryAgentIndex), fpd));
                 if(!initialConfigurationConflict(initiallyAdoptedProductsByAgentIndex.get(preliminaryAgentIndex), fpd)){
                     validAdopterFound = true;
@@ -920,7 +935,7 @@ public class LazynessHelper {
             for (int currentIndexPosition = 0; currentIndexPosition < numberIndicesToFind; currentIndexPosition++) {
                 boolean indexFound = false;
                 while (!indexFound) {
-                    Integer preliminaryIndex = (int) Math.floor(Math.random() * ((double) numberOfConsumers));
+                    Integer preliminaryIndex = (int) Math.floor(RandomNumberService.nextDouble() * ((double) numberOfConsumers));
                     if (!(derivedIndices.contains(preliminaryIndex))) {
                         derivedIndices.add(preliminaryIndex);
                         indexFound = true;
@@ -1032,8 +1047,8 @@ public class LazynessHelper {
      * @return A set of the newly created ProductAttributes
      */
     public static Set<ProductAttribute> makeProductAttributesFromProductGroupAttributeValueMap(Map<ProductGroupAttribute, Double> productGroupAttributeValueMap) {
-        Set<ProductAttribute> returnSet = new HashSet<>(productGroupAttributeValueMap.keySet().size());
-        for(ProductGroupAttribute currentPGA : productGroupAttributeValueMap.keySet()){
+        Set<ProductAttribute> returnSet = new LinkedHashSet<>(productGroupAttributeValueMap.keySet().size());
+        for(ProductGroupAttribute currentPGA : OrderHelper.sortProductGroupAttributes(productGroupAttributeValueMap.keySet())){
             returnSet.add(new ProductAttribute(productGroupAttributeValueMap.get(currentPGA), currentPGA));
         }
         return returnSet;
@@ -1101,7 +1116,7 @@ public class LazynessHelper {
      */
     public static Information chooseRandomInformation(Set<Information> informationSet) {
         ArrayList<Information> informationToChooseFrom = new ArrayList<>(informationSet);
-        int randomIndex = (int) Math.floor(Math.random()*informationToChooseFrom.size());
+        int randomIndex = (int) Math.floor(RandomNumberService.nextDouble()*informationToChooseFrom.size());
         return informationToChooseFrom.get(randomIndex);
     }
 
@@ -1113,7 +1128,7 @@ public class LazynessHelper {
      */
     public static ProductAttributeInformation chooseRandomProductAttributeInformation(Set<ProductAttributeInformation> informationSet) {
         ArrayList<ProductAttributeInformation> informationToChooseFrom = new ArrayList<>(informationSet);
-        int randomIndex = (int) Math.floor(Math.random()*informationToChooseFrom.size());
+        int randomIndex = (int) Math.floor(RandomNumberService.nextDouble()*informationToChooseFrom.size());
         return informationToChooseFrom.get(randomIndex);
     }
 
@@ -1168,19 +1183,25 @@ public class LazynessHelper {
         return maximum;
     }
 
-    public static void detectDoubleEdges(Set<SNEdge> preliminaryEdgeSet, Set<SNNode> nodeSet) {
-        Map<SNNode, Set<SNNode>> neighbouringNodes = new HashMap<>();
-        for(SNNode currentNode : nodeSet){
-            neighbouringNodes.put(currentNode, new HashSet<>());
-        }
+    /**
+     * Method to index a preliminary set of edges (i.e. edges of a graph that is still generated) by medium, source and target node.
+     * Edges of the same medium between the same nodes are logged as double edges.
+     *
+     * @param preliminaryEdgeSet The edges generated so far
+     * @return The index of the generated edges, so generators can check further edges against it
+     */
+    public static SNEdgeIndex detectDoubleEdges(Set<SNEdge> preliminaryEdgeSet) {
+        SNEdgeIndex edgeIndex = new SNEdgeIndex();
         for(SNEdge currentEdge : preliminaryEdgeSet){
-            if(neighbouringNodes.get(currentEdge.getSource()).contains(currentEdge.getTarget())) System.out.println("Double edge detected");
-            neighbouringNodes.get(currentEdge.getSource()).add(currentEdge.getTarget());
+            if(!edgeIndex.addEdge(currentEdge)) fooLog.warn("Double edge detected between {} and {}", currentEdge.getSource(), currentEdge.getTarget());
         }
+        return edgeIndex;
     }
 
     /**
-     * Method to randomly choose noNodesToPick nodes from a set of nodes
+     * Method to randomly choose noNodesToPick nodes from a set of nodes.
+     * The nodes are drawn by a partial Fisher-Yates shuffle of their positions and returned
+     * in the iteration order of nodesToPick, so the result only depends on the drawn numbers.
      *
      * @param nodesToPick The nodes to choose from
      * @param noNodesToPick The number of nodes to chose
@@ -1191,16 +1212,18 @@ public class LazynessHelper {
         if(noNodesToPick > nodesToPick.size()) throw new IllegalArgumentException("Cant pick "+noNodesToPick+" from "+nodesToPick.size()+" nodes!!");
         else if(nodesToPick.size() == noNodesToPick) return nodesToPick;
         else{
-            Set<SNNode> returnSet = new HashSet<>();
-            Set<SNNode> remainingNodes = new HashSet<>();
-            for(SNNode currentNode : nodesToPick){
-                remainingNodes.add(currentNode);
-            }
+            List<SNNode> nodeList = new ArrayList<SNNode>(nodesToPick);
+            int[] positions = new int[nodeList.size()];
+            for(int position = 0; position < positions.length; position++) positions[position] = position;
             for(int i=0;i<noNodesToPick;i++){
-                SNNode pickedNode = chooseRandomNode(remainingNodes);
-                remainingNodes.remove(pickedNode);
-                returnSet.add(pickedNode);
+                int pickedIndex = i + RandomNumberService.nextInt(positions.length - i);
+                int pickedPosition = positions[pickedIndex];
+                positions[pickedIndex] = positions[i];
+                positions[i] = pickedPosition;
             }
+            Arrays.sort(positions, 0, noNodesToPick);
+            Set<SNNode> returnSet = new LinkedHashSet<SNNode>();
+            for(int i=0;i<noNodesToPick;i++) returnSet.add(nodeList.get(positions[i]));
             return returnSet;
         }
     }
@@ -1214,38 +1237,25 @@ public class LazynessHelper {
      * @return A random key from the integerProbabilityMap, proportional to the respective value
      */
     public static Integer chooseIntegerByDistribution(Map<Integer, Double> integerProbabilityMap) {
+        //the probabilities typically change between calls (e.g. with the degrees in preferential attachment),
+        //so rather than building a (sorted) structure, the entries are summed up and then scanned once
+        //(for repeated draws from fixed probabilities an AliasSampler should be used)
         double cumulatedProbability = 0.0;
-        //Map to hold the cumulative probability that the current or a former value would be chosen
-        //(whereas the former would have already been returned)
-        SortedMap<Double, Integer> indexByCumulatedProbability = new TreeMap<>();
-        //Set up the respective sorted map and calculate the cumulative probability of all respective events
-        for(Integer index : integerProbabilityMap.keySet()){
-            if(integerProbabilityMap.get(index) > 0.0) {
-                indexByCumulatedProbability.put(cumulatedProbability + integerProbabilityMap.get(index), index);
-                cumulatedProbability += integerProbabilityMap.get(index);
-            }
+        for(Map.Entry<Integer, Double> currentEntry : integerProbabilityMap.entrySet()){
+            if(currentEntry.getValue() > 0.0) cumulatedProbability += currentEntry.getValue();
         }
         if(cumulatedProbability == 0.0) throw new IllegalStateException("Probability map to choose from has no mass!!");
         //choose a random entry within the map based on a randomly chosen number
-        double diceRoll = Math.random()*cumulatedProbability;
-        for(Map.Entry<Double,Integer> currentEntry : indexByCumulatedProbability.entrySet()){
-            if(diceRoll < currentEntry.getKey()) return currentEntry.getValue();
-        }
-        throw new IllegalStateException("No entry found in "+indexByCumulatedProbability+" that is smaller than "+diceRoll+"!!\nThis shouldn't happen and is most certainly a bug!!");
-    }
-
-    /**
-     * Method to check whether an edge between two nodes already exists in a given set.
-     *
-     * @param edgeSet The edges to check whether such an edge is contained already
-     * @param sourceNode The source of the edge to check
-     * @param targetNode The target of the edge to check
-     * @return true if there is an edge from sourceNode to targetNode in the edge set, false otherwise
-     */
-    public static boolean existsEdge(Set<SNEdge> edgeSet, SNNode sourceNode, SNNode targetNode) {
-        for(SNEdge currentEdge : edgeSet){
-            if((currentEdge.getSource() == sourceNode) && (currentEdge.getTarget() == targetNode)) return true;
+        double diceRoll = RandomNumberService.nextDouble()*cumulatedProbability;
+        Integer lastEntryWithMass = null;
+        for(Map.Entry<Integer, Double> currentEntry : integerProbabilityMap.entrySet()){
+            if(currentEntry.getValue() > 0.0) {
+                lastEntryWithMass = currentEntry.getKey();
+                diceRoll -= currentEntry.getValue();
+                if(diceRoll < 0.0) return lastEntryWithMass;
+            }
         }
-        return false;
+        //rounding errors in the sums
+        return lastEntryWithMass;
     }
 }
@@ -35,6 +35,29 @@ public class MetricHelper {
     }
 
 
+    /**
+     * Calculates the norm of the difference vector (x,y) according to the metric,
+     * i.e. the distance of two vectors differing by x and y, without creating any vector objects
+     *
+     * @param x difference of the vectors in the first dimension
+     * @param y difference of the vectors in the second dimension
+     * @param metric the metric to calculate the distance in
+     * @return the value of the distance function of two vectors differing by (x,y) in the metric
+     * @throws IllegalArgumentException gets thrown when the metric is not implemented
+     */
+    public static double calculateNorm(double x, double y, String metric) throws IllegalArgumentException {
+        switch (metric) {
+            case "manhattanMetric":
+                return Math.abs(x) + Math.abs(y);
+            case "euclideanMetric":
+                return Math.sqrt(x*x + y*y);
+            case "maximumMetric":
+                return Math.max(Math.abs(x), Math.abs(y));
+            default:
+                throw new IllegalArgumentException("Metric "+metric+" is not implemented!!\nPlease provide a valid metric!");
+        }
+    }
+
     /**
      * Calculates the (2-dimensional) p-distance between the vectors a and b
      *
@@ -0,0 +1,116 @@
+package IRPact_modellierung.helper;
+
+import IRPact_modellierung.agents.consumerAgents.ConsumerAgentGroup;
+import IRPact_modellierung.agents.consumerAgents.ConsumerAgentGroupAttribute;
+import IRPact_modellierung.preference.Value;
+import IRPact_modellierung.products.FixedProductDescription;
+import IRPact_modellierung.products.ProductGroup;
+import IRPact_modellierung.products.ProductGroupAttribute;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Class to bundle methods arranging the elements of the configuration in the order of their names.
+ *
+ * The sets and maps of the configuration are ordered by the (identity) hash codes of their elements,
+ * which differ between copies of the same configuration (such as the copies of the replicates of a simulation
+ * or a configuration restored from a checkpoint). Random values drawn for the elements in the order of their names
+ * are the same in every copy, so the simulations created from copies of a configuration with the same seed are the same.
+ *
+ * @author Simon Johanning
+ */
+public class OrderHelper {
+
+    /**
+     * @param consumerAgentGroups The consumer agent groups to arrange
+     * @return The consumer agent groups in the order of their names
+     */
+    public static List<ConsumerAgentGroup> sortConsumerAgentGroups(Collection<ConsumerAgentGroup> consumerAgentGroups){
+        List<ConsumerAgentGroup> sortedGroups = new ArrayList<ConsumerAgentGroup>(consumerAgentGroups);
+        Collections.sort(sortedGroups, new Comparator<ConsumerAgentGroup>() {
+            public int compare(ConsumerAgentGroup firstGroup, ConsumerAgentGroup secondGroup) {
+                return compareNames(firstGroup.getGroupName(), secondGroup.getGroupName());
+            }
+        });
+        return sortedGroups;
+    }
+
+    /**
+     * @param consumerAgentGroupAttributes The consumer agent group attributes to arrange
+     * @return The consumer agent group attributes in the order of their names
+     */
+    public static List<ConsumerAgentGroupAttribute> sortConsumerAgentGroupAttributes(Collection<ConsumerAgentGroupAttribute> consumerAgentGroupAttributes){
+        List<ConsumerAgentGroupAttribute> sortedAttributes = new ArrayList<ConsumerAgentGroupAttribute>(consumerAgentGroupAttributes);
+        Collections.sort(sortedAttributes, new Comparator<ConsumerAgentGroupAttribute>() {
+            public int compare(ConsumerAgentGroupAttribute firstAttribute, ConsumerAgentGroupAttribute secondAttribute) {
+                return compareNames(firstAttribute.getName(), secondAttribute.getName());
+            }
+        });
+        return sortedAttributes;
+    }
+
+    /**
+     * @param values The values to arrange
+     * @return The values in the order of their names
+     */
+    public static List<Value> sortValues(Collection<Value> values){
+        List<Value> sortedValues = new ArrayList<Value>(values);
+        Collections.sort(sortedValues, new Comparator<Value>() {
+            public int compare(Value firstValue, Value secondValue) {
+                return compareNames(firstValue.getName(), secondValue.getName());
+            }
+        });
+        return sortedValues;
+    }
+
+    /**
+     * @param productGroups The product groups to arrange
+     * @return The product groups in the order of their names
+     */
+    public static List<ProductGroup> sortProductGroups(Collection<ProductGroup> productGroups){
+        List<ProductGroup> sortedGroups = new ArrayList<ProductGroup>(productGroups);
+        Collections.sort(sortedGroups, new Comparator<ProductGroup>() {
+            public int compare(ProductGroup firstGroup, ProductGroup secondGroup) {
+                return compareNames(firstGroup.getGroupName(), secondGroup.getGroupName());
+            }
+        });
+        return sortedGroups;
+    }
+
+    /**
+     * @param productGroupAttributes The product group attributes to arrange
+     * @return The product group attributes in the order of their names
+     */
+    public static List<ProductGroupAttribute> sortProductGroupAttributes(Collection<ProductGroupAttribute> productGroupAttributes){
+        List<ProductGroupAttribute> sortedAttributes = new ArrayList<ProductGroupAttribute>(productGroupAttributes);
+        Collections.sort(sortedAttributes, new Comparator<ProductGroupAttribute>() {
+            public int compare(ProductGroupAttribute firstAttribute, ProductGroupAttribute secondAttribute) {
+                return compareNames(firstAttribute.getName(), secondAttribute.getName());
+            }
+        });
+        return sortedAttributes;
+    }
+
+    /**
+     * @param fixedProductDescriptions The descriptions of fixed products to arrange
+     * @return The descriptions of the fixed products in the order of their names
+     */
+    public static List<FixedProductDescription> sortFixedProductDescriptions(Collection<FixedProductDescription> fixedProductDescriptions){
+        List<FixedProductDescription> sortedDescriptions = new ArrayList<FixedProductDescription>(fixedProductDescriptions);
+        Collections.sort(sortedDescriptions, new Comparator<FixedProductDescription>() {
+            public int compare(FixedProductDescription firstDescription, FixedProductDescription secondDescription) {
+                return compareNames(firstDescription.getName(), secondDescription.getName());
+            }
+        });
+        return sortedDescriptions;
+    }
+
+    //names that are not set are compared as "null"
+    private static int compareNames(String firstName, String secondName) {
+        return String.valueOf(firstName).compareTo(String.valueOf(secondName));
+    }
+}
@@ -278,10 +278,10 @@ public class StructureEnricher {
      * Method to make consumer agents accessible by node by adding them to a map
      *
      * @param consumerAgents The agents to append to their respective node
-     * @return A Map of the agents as values and their nodes as keys
+     * @return A Map of the agents as values and their nodes as keys (in the order of the agents)
      */
     public static Map<SNNode, ConsumerAgent> consumerAgentByNode(Set<ConsumerAgent> consumerAgents) {
-        Map<SNNode, ConsumerAgent> returnMap = new HashMap<>();
+        Map<SNNode, ConsumerAgent> returnMap = new LinkedHashMap<>();
         for(ConsumerAgent consumerAgent : consumerAgents){
             returnMap.put(consumerAgent.getCorrespondingNodeInSN(), consumerAgent);
         }
@@ -293,12 +293,12 @@ public class StructureEnricher {
      *
      * @param consumerAgentGroups The CAGs used
      * @param nodeConsumerAgentMap The association of the nodes and their consumer agent
-     * @return A Map of the CAGs and all the nodes corresponding to agents within the CAG
+     * @return A Map of the CAGs and all the nodes corresponding to agents within the CAG (in the order of nodeConsumerAgentMap)
      */
     public static Map<ConsumerAgentGroup, Set<SNNode>> deriveNodeByCAG(Set<ConsumerAgentGroup> consumerAgentGroups, Map<SNNode, ConsumerAgent> nodeConsumerAgentMap) {
         Map<ConsumerAgentGroup, Set<SNNode>> returnMap = new HashMap<>();
         for(ConsumerAgentGroup cag : consumerAgentGroups){
-            returnMap.put(cag, new HashSet<SNNode>());
+            returnMap.put(cag, new LinkedHashSet<SNNode>());
         }
         for(SNNode currentNode : nodeConsumerAgentMap.keySet()){
             returnMap.get(nodeConsumerAgentMap.get(currentNode).getCorrespondingConsumerAgentGroup()).add(currentNode);
@@ -2,6 +2,8 @@ package IRPact_modellierung.information;
 
 import IRPact_modellierung.agents.InformationAgent;
 
+import java.io.Serializable;
+
 /**
  * Information represents a piece of information (as knowledge and the agent from which it originates),
  * as well as further aspects of relevance.
@@ -11,7 +13,7 @@ import IRPact_modellierung.agents.InformationAgent;
  *
  * @author Simon Johanning
  */
-public abstract class Information {
+public abstract class Information implements Serializable {
 
     private InformationAgent originator;
 
@@ -7,6 +7,7 @@ import IRPact_modellierung.events.InformationEvent;
 import IRPact_modellierung.products.ProductAttribute;
 import IRPact_modellierung.simulation.SimulationContainer;
 
+import java.io.Serializable;
 import java.util.Set;
 
 /**
@@ -20,7 +21,7 @@ import java.util.Set;
  *
  * @author Simon Johanning
  */
-public abstract class InformationScheme {
+public abstract class InformationScheme implements Serializable {
 
     /**
      * Method to provide information of some kind to the simulation.
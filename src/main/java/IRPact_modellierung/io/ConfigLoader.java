@@ -13,6 +13,7 @@ import IRPact_modellierung.network.SNConfiguration;
 import IRPact_modellierung.processModel.ProcessModel;
 import IRPact_modellierung.products.*;
 import IRPact_modellierung.simulation.Configuration;
+import IRPact_modellierung.simulation.RandomNumberService;
 import IRPact_modellierung.space.SpatialConfiguration;
 import IRPact_modellierung.time.TemporalConfiguration;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -45,6 +46,9 @@ public class ConfigLoader {
      */
     public static Configuration loadConfiguration(String configPath) throws IOException, ClassCastException{
         try{
+            //the random number service needs to be in place before any distribution is created
+            RandomNumberService randomNumberService = new RandomNumberService(loadMasterSeed(configPath));
+            randomNumberService.bindToCurrentThread();
             Set<Distribution> distributions = loadDistributions(configPath);
             Map<String, Distribution> distributionMap = StructureEnricher.attachDistributionNames(distributions);
             Set<Value> values = new HashSet<>(); // loadValues(configPath);
@@ -60,7 +64,7 @@ public class ConfigLoader {
             InformationScheme informationScheme = loadInformationScheme(configPath, distributionMap);
 
             fooLog.debug("Added {} values in the process",values.size());
-            return new Configuration(productConfiguration, agentConfiguration, spatialConfiguration, temporalConfiguration, sNConfiguration, preferenceConfiguration, processModel, decisionConfiguration, distributionMap, informationScheme);
+            return new Configuration(productConfiguration, agentConfiguration, spatialConfiguration, temporalConfiguration, sNConfiguration, preferenceConfiguration, processModel, decisionConfiguration, distributionMap, informationScheme, randomNumberService);
         } catch (IOException ioe) {
             throw ioe;
         } catch (ClassCastException cce) {
@@ -68,6 +72,47 @@ public class ConfigLoader {
         }
     }
 
+    /**
+     * Method to load the simulation configuration from the snapshot compiled from the configuration files (see ConfigurationSnapshot),
+     * as long as none of the JSON files of the configuration changed since.
+     * Otherwise (or when the snapshot can't be read) the configuration is loaded from the files and compiled anew;
+     * if the new snapshot can't be written, the configuration loaded from the files is used nonetheless.
+     * The random number service of the configuration is created anew, so a configuration without master seed
+     * still gets a new random seed on every launch.
+     *
+     * @param configPath The (relative) path where the configuration files of the simulation lie
+     * @return The Configuration object containing all relevant information to set up the configuration of the simulation
+     * @throws IOException Will be thrown when the configuration can't be loaded from the files
+     * @throws ClassCastException Will be thrown when another loader raises a ClassCastException
+     */
+    public static Configuration loadCompiledConfiguration(String configPath) throws IOException, ClassCastException{
+        File snapshotFile = new File(configPath + ConfigurationSnapshot.SNAPSHOTFILENAME);
+        byte[] contentHash = ConfigurationSnapshot.computeContentHash(configPath);
+        if(snapshotFile.isFile()) {
+            try {
+                Configuration configuration = ConfigurationSnapshot.read(snapshotFile, contentHash);
+                if(configuration != null) {
+                    RandomNumberService randomNumberService = new RandomNumberService(loadMasterSeed(configPath));
+                    randomNumberService.bindToCurrentThread();
+                    configuration.setRandomNumberService(randomNumberService);
+                    fooLog.info("Configuration restored from snapshot {}", snapshotFile);
+                    return configuration;
+                }
+                fooLog.info("Configuration files changed since snapshot {} was compiled, compiling anew", snapshotFile);
+            } catch (IOException ioe) {
+                fooLog.warn("Configuration snapshot {} can't be read, compiling anew: {}", snapshotFile, ioe);
+            }
+        }
+        Configuration configuration = loadConfiguration(configPath);
+        //the snapshot only saves time for the next run, so the configuration loaded is used regardless
+        try {
+            ConfigurationSnapshot.write(configuration, contentHash, snapshotFile);
+        } catch (IOException ioe) {
+            fooLog.warn("Configuration snapshot {} can't be written, continuing with the configuration loaded: {}", snapshotFile, ioe);
+        }
+        return configuration;
+    }
+
 //    private static Set<Value> loadValues(String configPath) throws IllegalArgumentException, IOException{
 //        Set<Value> values = new HashSet<>();
 //        Set<String> valueNames = new HashSet<>();
@@ -100,6 +145,30 @@ public class ConfigLoader {
 //        return values;
 //    }
 
+    /**
+     * Method to load the master seed of the simulation from the (optional) RandomNumberConfiguration.json file.
+     * If the file doesn't exist or doesn't specify a seed, a random seed is created (and logged, so that the run can be reproduced).
+     *
+     * @param configPath The (relative) path where the configuration files of the simulation lie
+     * @return The master seed of the simulation
+     * @throws IllegalArgumentException Will be thrown when the master seed is not an integral number
+     * @throws IOException Will be thrown when the configuration file can't be read
+     */
+    private static long loadMasterSeed(String configPath) throws IllegalArgumentException, IOException {
+        File randomNumberFile = new File(configPath + "RandomNumberConfiguration.json");
+        if(randomNumberFile.isFile()) {
+            HashMap<String, Object> randomNumberConfiguration = new ObjectMapper().readValue(randomNumberFile, HashMap.class);
+            Object masterSeed = randomNumberConfiguration.get("masterSeed");
+            if(masterSeed instanceof Integer || masterSeed instanceof Long) {
+                fooLog.info("Using configured master seed {}", masterSeed);
+                return ((Number) masterSeed).longValue();
+            } else if(masterSeed != null) throw new IllegalArgumentException("The master seed "+masterSeed+" is not an integral number!!\nPlease provide a valid configuration.");
+        }
+        long masterSeed = RandomNumberService.createRandomSeed();
+        fooLog.info("No master seed configured, using {}", masterSeed);
+        return masterSeed;
+    }
+
     private static InformationScheme loadInformationScheme(String configPath, Map<String, Distribution> distributionMap) throws IllegalArgumentException, IOException{
         ObjectMapper mapper = new ObjectMapper();
         try {
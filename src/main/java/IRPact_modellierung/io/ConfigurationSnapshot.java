@@ -0,0 +1,207 @@
+package IRPact_modellierung.io;
+
+import IRPact_modellierung.simulation.Configuration;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The ConfigurationSnapshot is the compiled form of a configuration directory: the Configuration loaded
+ * (and thereby validated) from the JSON files of the directory, with its distributions, product groups, consumer agent groups,
+ * affinities and decision configuration resolved, written to a single (compressed) binary file by Java serialization.
+ * Restoring the snapshot saves parsing the JSON files and resolving the names of the configuration on every launch.
+ *
+ * The snapshot is keyed by a SHA-256 hash of the JSON files of the directory (their relative paths and contents),
+ * so it is only restored as long as none of the files changed (see ConfigLoader.loadCompiledConfiguration).
+ * As Java serialization is used, a snapshot can only be read by the same version of the model it was written with.
+ *
+ * @author Simon Johanning
+ */
+public class ConfigurationSnapshot {
+
+    private static final Logger fooLog = LogManager.getLogger("debugConsoleLogger");
+
+    public static final String SNAPSHOTFILENAME = "Configuration.snapshot";
+    //"IRCS" in ASCII
+    private static final int MAGICNUMBER = 0x49524353;
+    private static final int FORMATVERSION = 1;
+
+    /**
+     * Compiles the configuration in the given directory, i.e. loads it from its JSON files
+     * and writes the snapshot of it to the directory.
+     *
+     * @param configPath The path where the configuration files of the simulation lie (ending with a separator)
+     * @return The configuration loaded (not yet used to create a simulation)
+     * @throws IOException Will be thrown when the configuration can't be loaded or the snapshot can't be written
+     */
+    public static Configuration compile(String configPath) throws IOException {
+        byte[] contentHash = computeContentHash(configPath);
+        Configuration configuration = ConfigLoader.loadConfiguration(configPath);
+        write(configuration, contentHash, new File(configPath + SNAPSHOTFILENAME));
+        return configuration;
+    }
+
+    /**
+     * Writes the snapshot of a configuration, replacing the file if it exists.
+     * The snapshot is written to a temporary file of its own next to the snapshot first, so an existing snapshot is only replaced
+     * by a complete one, and simulations compiling the same configuration at once don't write to the same file.
+     *
+     * @param configuration The configuration to write; must not have been used to create a simulation
+     * @param contentHash The hash of the configuration files the configuration was loaded from (see computeContentHash)
+     * @param snapshotFile The file to write the snapshot to
+     * @throws IOException Will be thrown when the snapshot can't be written
+     */
+    public static void write(Configuration configuration, byte[] contentHash, File snapshotFile) throws IOException {
+        Path destination = snapshotFile.getAbsoluteFile().toPath();
+        Path temporaryFile = Files.createTempFile(destination.getParent(), destination.getFileName().toString(), ".tmp");
+        try {
+            DataOutputStream headerStream = new DataOutputStream(Files.newOutputStream(temporaryFile));
+            try {
+                headerStream.writeInt(MAGICNUMBER);
+                headerStream.writeInt(FORMATVERSION);
+                headerStream.writeInt(contentHash.length);
+                headerStream.write(contentHash);
+                headerStream.flush();
+                ObjectOutputStream objectStream = new ObjectOutputStream(new BufferedOutputStream(new GZIPOutputStream(headerStream, 1 << 16), 1 << 16));
+                objectStream.writeObject(configuration);
+                objectStream.close();
+            } finally {
+                headerStream.close();
+            }
+            try {
+                Files.move(temporaryFile, destination, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException amnse) {
+                Files.move(temporaryFile, destination, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+        fooLog.info("Configuration snapshot written to {}", destination);
+    }
+
+    /**
+     * Restores the configuration from a snapshot, provided the snapshot was compiled from configuration files with the given hash
+     *
+     * @param snapshotFile The file the snapshot was written to
+     * @param contentHash The hash of the current configuration files (see computeContentHash)
+     * @return The configuration restored, null if the snapshot was compiled from other configuration files
+     * @throws IOException Will be thrown when the file can't be read or is no (compatible) snapshot
+     */
+    public static Configuration read(File snapshotFile, byte[] contentHash) throws IOException {
+        DataInputStream headerStream = new DataInputStream(new FileInputStream(snapshotFile));
+        try {
+            if(headerStream.readInt() != MAGICNUMBER) throw new IOException("File "+snapshotFile+" is no configuration snapshot!!");
+            int formatVersion = headerStream.readInt();
+            if(formatVersion != FORMATVERSION) throw new IOException("Configuration snapshot "+snapshotFile+" has format version "+formatVersion+", but only version "+FORMATVERSION+" can be read!!");
+            int hashLength = headerStream.readInt();
+            if(hashLength != contentHash.length) return null;
+            byte[] snapshotHash = new byte[hashLength];
+            headerStream.readFully(snapshotHash);
+            if(!Arrays.equals(snapshotHash, contentHash)) return null;
+            ObjectInputStream objectStream = new ObjectInputStream(new BufferedInputStream(new GZIPInputStream(headerStream, 1 << 16), 1 << 16));
+            return (Configuration) objectStream.readObject();
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Configuration snapshot "+snapshotFile+" doesn't contain a configuration of this model version!!", e);
+        } finally {
+            headerStream.close();
+        }
+    }
+
+    /**
+     * Method to compute the hash the snapshot of a configuration directory is keyed by,
+     * covering the relative paths and contents of all JSON files in the directory (and its subdirectories)
+     *
+     * @param configPath The path where the configuration files of the simulation lie
+     * @return The SHA-256 hash of the JSON files of the configuration
+     * @throws IOException Will be thrown when a configuration file can't be read
+     */
+    public static byte[] computeContentHash(String configPath) throws IOException {
+        File configDirectory = new File(configPath);
+        List<String> relativePaths = new ArrayList<String>();
+        collectJsonFiles(configDirectory, "", relativePaths);
+        //sorted, so the hash doesn't depend on the order the file system lists the files in
+        Collections.sort(relativePaths);
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException nsae) {
+            throw new IllegalStateException("SHA-256 is not available!!", nsae);
+        }
+        byte[] buffer = new byte[1 << 16];
+        for(String relativePath : relativePaths) {
+            byte[] pathBytes = relativePath.getBytes(StandardCharsets.UTF_8);
+            digest.update(intToBytes(pathBytes.length));
+            digest.update(pathBytes);
+            File file = new File(configDirectory, relativePath);
+            digest.update(longToBytes(file.length()));
+            try (InputStream fileStream = new FileInputStream(file)) {
+                for(int read = fileStream.read(buffer); read >= 0; read = fileStream.read(buffer)) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+        }
+        return digest.digest();
+    }
+
+    private static void collectJsonFiles(File directory, String relativePath, List<String> relativePaths) {
+        File[] files = directory.listFiles();
+        if(files == null) return;
+        for(File file : files) {
+            if(file.isDirectory()) collectJsonFiles(file, relativePath + file.getName() + "/", relativePaths);
+            else if(file.isFile() && file.getName().endsWith(".json")) relativePaths.add(relativePath + file.getName());
+        }
+    }
+
+    private static byte[] intToBytes(int value) {
+        return new byte[]{(byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value};
+    }
+
+    private static byte[] longToBytes(long value) {
+        byte[] bytes = new byte[8];
+        for(int index = 0; index < 8; index++) {
+            bytes[index] = (byte) (value >>> (56 - 8 * index));
+        }
+        return bytes;
+    }
+
+    /**
+     * Compiles the configuration in the directory given as first argument
+     * (relative to ./target/configuration/, like for the SimulationManager)
+     *
+     * @param args The name of the configuration directory
+     */
+    public static void main(String[] args) {
+        if(args.length == 0) {
+            System.out.println("Usage: ConfigurationSnapshot <configuration directory>");
+            return;
+        }
+        try {
+            compile("./target/configuration/" + args[0] + "/");
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
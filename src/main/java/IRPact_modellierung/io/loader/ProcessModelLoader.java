@@ -22,7 +22,7 @@ public class ProcessModelLoader {
      * @throws IOException Will be thrown when an error occurs handling the file storing the configuration of the referred preference configuration
      * @throws JsonParseException Will be thrown upon a parse error for the json file corresponding to the file handler
      * @throws JsonMappingException Will be thrown upon a mapping error for the json file corresponding to the file handler
-     * @throws IllegalArgumentException Will be thrown when configuration file has no entries for the process model or the adoption replacement scheme, when an unimplemented process model is specified or the method to load an adoption replacement scheme throws one
+     * @throws IllegalArgumentException Will be thrown when configuration file has no entries for the process model or the adoption replacement scheme, when an unimplemented process model is specified, the parallelism is not positive or the method to load an adoption replacement scheme throws one
      */
     public static ProcessModel loadProcessModel(String configPath) throws IllegalArgumentException, IOException, JsonParseException, JsonMappingException{
         try{
@@ -37,12 +37,16 @@ public class ProcessModelLoader {
                 } catch (IllegalArgumentException iae){
                     throw iae;
                 }
+                RogersFiveStepModelDiscrete processModel;
                 if(processModelConfigurationJSON.get("processModelToEmploy").equals("KieslingsAdoptionFiveStepModel")){
-                    return new KieslingsAdoptionFiveStepModel(adoptionReplacementScheme);
+                    processModel = new KieslingsAdoptionFiveStepModel(adoptionReplacementScheme);
                 }else if(((String) processModelConfigurationJSON.get("processModelToEmploy")).equals("SchwarzProcessModel")){
-                    return new SchwarzProcessModel(adoptionReplacementScheme);
+                    processModel = new SchwarzProcessModel(adoptionReplacementScheme);
                 }
                 else throw new IllegalArgumentException(processModelConfigurationJSON.get("processModelToEmploy")+" is not implemented!!\nPlease make sure to provide a valid configuration!!");
+                //the (optional) number of worker threads to process the agents with; sequential if omitted
+                if(processModelConfigurationJSON.containsKey("parallelism")) processModel.setParallelism((Integer) processModelConfigurationJSON.get("parallelism"));
+                return processModel;
             }
         } catch (JsonMappingException jme) {
             throw jme;
@@ -117,7 +117,18 @@ public class SocialNetworkLoader {
                     throw new IllegalArgumentException("EdgeWeightManipulationScheme parameter configuration format invalid!! Can't be cast to a String-Object Hashmap!!\n"+cce);
                 }
             }
-            return new SNConfiguration(socialGraphTopology, socialGraphParameters, tmsScheme, tmsParameters, ewmScheme, ewmParameters);
+            SNConfiguration sNConfiguration = new SNConfiguration(socialGraphTopology, socialGraphParameters, tmsScheme, tmsParameters, ewmScheme, ewmParameters);
+            //optional file to take the topology of the social graph over from (relative paths refer to the configuration directory)
+            if(socialGraphMap.containsKey("prebuiltGraphFile")) {
+                try {
+                    File prebuiltGraphFile = new File((String) socialGraphMap.get("prebuiltGraphFile"));
+                    if(!prebuiltGraphFile.isAbsolute()) prebuiltGraphFile = new File(configPath+prebuiltGraphFile.getPath());
+                    sNConfiguration.setPrebuiltGraphFile(prebuiltGraphFile.getPath());
+                } catch (ClassCastException cce) {
+                    throw new IllegalArgumentException("SocialGraph prebuilt graph file format invalid!! Can't be cast to a String!!\n"+cce);
+                }
+            }
+            return sNConfiguration;
         } catch(JsonMappingException jme){
             throw jme;
         } catch(JsonParseException jpe){
@@ -0,0 +1,526 @@
+package IRPact_modellierung.io.output;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * The AgentStateSnapshotFile stores snapshots of the state of all consumer agents of a simulation in columns,
+ * one snapshot per sampled step (see AgentStateSnapshotOutputScheme).
+ * A snapshot consists of bit columns (such as whether the agents adopted a product) and float columns
+ * (such as the perception of a product attribute), each holding the value of every agent by its agent index,
+ * and optionally the IDs of the agents.
+ *
+ * The file starts with a header (magic number and format version) followed by one chunk per snapshot.
+ * Every chunk is deflated on its own and preceded by the time stamp of its snapshot and its (uncompressed and compressed) length,
+ * so snapshots are appended to the file through a channel without rewriting anything written before
+ * (also across runs, e.g. after restoring a checkpoint) and can be read one after another.
+ * When a file is opened for writing again, a chunk left incomplete by a crashed run is cut off,
+ * as well as the chunks of the time stamps the run is going to write (see Writer).
+ * The columns of a snapshot are stored contiguously (big endian), which compresses the mostly constant columns well.
+ * A chunk is limited to 2GB before compression.
+ *
+ * @author Simon Johanning
+ */
+public class AgentStateSnapshotFile {
+
+    private static final Logger fooLog = LogManager.getLogger("debugConsoleLogger");
+
+    //"IRAS" in ASCII
+    private static final int MAGICNUMBER = 0x49524153;
+    private static final int FORMATVERSION = 2;
+    //"CHNK" in ASCII
+    private static final int CHUNKMAGICNUMBER = 0x43484e4b;
+    private static final int CHUNKHEADERLENGTH = 20;
+
+    /**
+     * The state of all consumer agents at one point in time, in columns indexed by the agent index
+     */
+    public static final class Snapshot {
+
+        private final double timeStamp;
+        private final int noAgents;
+        private String[] agentIDs;
+        private final LinkedHashMap<String, long[]> bitColumns;
+        private final LinkedHashMap<String, float[]> floatColumns;
+
+        /**
+         * @param timeStamp The simulation time of the snapshot
+         * @param noAgents The number of agents (i.e. the length of the columns)
+         */
+        public Snapshot(double timeStamp, int noAgents) {
+            this.timeStamp = timeStamp;
+            this.noAgents = noAgents;
+            bitColumns = new LinkedHashMap<String, long[]>();
+            floatColumns = new LinkedHashMap<String, float[]>();
+        }
+
+        public double getTimeStamp() {
+            return timeStamp;
+        }
+
+        public int getNoAgents() {
+            return noAgents;
+        }
+
+        /**
+         * @return The IDs of the agents by their index, null if not part of the snapshot
+         */
+        public String[] getAgentIDs() {
+            return agentIDs;
+        }
+
+        public void setAgentIDs(String[] agentIDs) throws IllegalArgumentException {
+            if(agentIDs != null && agentIDs.length != noAgents) throw new IllegalArgumentException("The snapshot holds "+noAgents+" agents, but "+agentIDs.length+" agent IDs are given!!");
+            this.agentIDs = agentIDs;
+        }
+
+        /**
+         * Adds a bit column to the snapshot
+         *
+         * @param name The name of the column
+         * @param agentsSet The agents (by index) the bit is set for; not to be modified afterwards
+         * @throws IllegalArgumentException Will be thrown when a column of the name exists already
+         */
+        public void addBitColumn(String name, BitSet agentsSet) throws IllegalArgumentException {
+            if(bitColumns.containsKey(name) || floatColumns.containsKey(name)) throw new IllegalArgumentException("Column "+name+" is part of the snapshot already!!");
+            long[] words = new long[(noAgents + 63) / 64];
+            long[] setWords = agentsSet.toLongArray();
+            System.arraycopy(setWords, 0, words, 0, Math.min(setWords.length, words.length));
+            bitColumns.put(name, words);
+        }
+
+        /**
+         * Adds a float column to the snapshot
+         *
+         * @param name The name of the column
+         * @param values The values of the agents by their index; not to be modified afterwards
+         * @throws IllegalArgumentException Will be thrown when a column of the name exists already or the column has the wrong length
+         */
+        public void addFloatColumn(String name, float[] values) throws IllegalArgumentException {
+            if(bitColumns.containsKey(name) || floatColumns.containsKey(name)) throw new IllegalArgumentException("Column "+name+" is part of the snapshot already!!");
+            if(values.length != noAgents) throw new IllegalArgumentException("Column "+name+" has "+values.length+" values, but the snapshot holds "+noAgents+" agents!!");
+            floatColumns.put(name, values);
+        }
+
+        public List<String> getBitColumnNames() {
+            return new ArrayList<String>(bitColumns.keySet());
+        }
+
+        public List<String> getFloatColumnNames() {
+            return new ArrayList<String>(floatColumns.keySet());
+        }
+
+        /**
+         * @param name The name of the column of interest
+         * @return The agents (by index) the bit of the column is set for, null if there is no such column
+         */
+        public BitSet getBitColumn(String name) {
+            long[] words = bitColumns.get(name);
+            return words == null ? null : BitSet.valueOf(words);
+        }
+
+        /**
+         * @param name The name of the column of interest
+         * @return The values of the agents by their index, null if there is no such column
+         */
+        public float[] getFloatColumn(String name) {
+            return floatColumns.get(name);
+        }
+
+        private byte[] encode() throws IllegalStateException {
+            long length = 8 + 4 + 4;
+            List<byte[]> idBytes = new ArrayList<byte[]>();
+            if(agentIDs != null) {
+                for(String agentID : agentIDs) {
+                    byte[] encodedID = agentID.getBytes(StandardCharsets.UTF_8);
+                    idBytes.add(encodedID);
+                    length += 4 + encodedID.length;
+                }
+            }
+            length += 4;
+            for(String name : bitColumns.keySet()) {
+                length += 4 + name.getBytes(StandardCharsets.UTF_8).length + 8L * bitColumns.get(name).length;
+            }
+            length += 4;
+            for(String name : floatColumns.keySet()) {
+                length += 4 + name.getBytes(StandardCharsets.UTF_8).length + 4L * noAgents;
+            }
+            if(length > Integer.MAX_VALUE) throw new IllegalStateException("The snapshot of time "+timeStamp+" exceeds 2GB!!");
+            ByteBuffer buffer = ByteBuffer.wrap(new byte[(int) length]);
+            buffer.putDouble(timeStamp).putInt(noAgents).putInt(agentIDs == null ? -1 : agentIDs.length);
+            for(byte[] encodedID : idBytes) {
+                buffer.putInt(encodedID.length).put(encodedID);
+            }
+            buffer.putInt(bitColumns.size());
+            for(String name : bitColumns.keySet()) {
+                putName(buffer, name);
+                long[] words = bitColumns.get(name);
+                buffer.asLongBuffer().put(words);
+                advance(buffer, 8 * words.length);
+            }
+            buffer.putInt(floatColumns.size());
+            for(String name : floatColumns.keySet()) {
+                putName(buffer, name);
+                buffer.asFloatBuffer().put(floatColumns.get(name));
+                advance(buffer, 4 * noAgents);
+            }
+            return buffer.array();
+        }
+
+        private static Snapshot decode(ByteBuffer buffer) {
+            Snapshot snapshot = new Snapshot(buffer.getDouble(), buffer.getInt());
+            int noAgentIDs = buffer.getInt();
+            if(noAgentIDs >= 0) {
+                String[] agentIDs = new String[noAgentIDs];
+                for(int index = 0; index < noAgentIDs; index++) {
+                    agentIDs[index] = getName(buffer);
+                }
+                snapshot.setAgentIDs(agentIDs);
+            }
+            int noBitColumns = buffer.getInt();
+            for(int column = 0; column < noBitColumns; column++) {
+                String name = getName(buffer);
+                long[] words = new long[(snapshot.noAgents + 63) / 64];
+                buffer.asLongBuffer().get(words);
+                advance(buffer, 8 * words.length);
+                snapshot.bitColumns.put(name, words);
+            }
+            int noFloatColumns = buffer.getInt();
+            for(int column = 0; column < noFloatColumns; column++) {
+                String name = getName(buffer);
+                float[] values = new float[snapshot.noAgents];
+                buffer.asFloatBuffer().get(values);
+                advance(buffer, 4 * values.length);
+                snapshot.floatColumns.put(name, values);
+            }
+            return snapshot;
+        }
+
+        private static void putName(ByteBuffer buffer, String name) {
+            byte[] encodedName = name.getBytes(StandardCharsets.UTF_8);
+            buffer.putInt(encodedName.length).put(encodedName);
+        }
+
+        private static String getName(ByteBuffer buffer) {
+            byte[] encodedName = new byte[buffer.getInt()];
+            buffer.get(encodedName);
+            return new String(encodedName, StandardCharsets.UTF_8);
+        }
+
+        //the buffer is addressed as Buffer, since the covariant overrides of ByteBuffer don't exist on Java 8
+        private static void advance(ByteBuffer buffer, int noBytes) {
+            ((Buffer) buffer).position(buffer.position() + noBytes);
+        }
+    }
+
+    /**
+     * The Writer appends snapshots to a snapshot file.
+     *
+     * Like the SQLiteAdoptionWriter, the writer optionally hands the snapshots over to a background thread,
+     * which compresses and writes them, so the simulation only waits for the file when more than
+     * MAXPENDINGSNAPSHOTS snapshots are waiting to be written. Failures of the background thread are reported
+     * on the next invocation of the writer. The writer needs to be closed after the run, which writes all pending snapshots.
+     */
+    public static final class Writer implements AutoCloseable {
+
+        private static final int MAXPENDINGSNAPSHOTS = 2;
+        private static final Snapshot ENDOFRUN = new Snapshot(Double.NaN, 0);
+
+        private final File file;
+        private final FileChannel channel;
+        private final Deflater deflater;
+        private final byte[] deflateBuffer;
+        private final BlockingQueue<Snapshot> pendingSnapshots;
+        private final Thread writerThread;
+        private volatile Exception writerFailure;
+        private boolean closed;
+
+        /**
+         * Opens the snapshot file for appending (creating it if it doesn't exist).
+         * A chunk left incomplete at the end of the file is cut off.
+         *
+         * @param file The file the snapshots are to be appended to
+         * @param backgroundWriting Whether the snapshots are to be compressed and written by a background thread
+         * @throws IOException Will be thrown when the file can't be opened or is no snapshot file
+         */
+        public Writer(File file, boolean backgroundWriting) throws IOException {
+            this(file, Double.POSITIVE_INFINITY, backgroundWriting);
+        }
+
+        /**
+         * Opens the snapshot file for appending (creating it if it doesn't exist) by a run starting at resumeTime,
+         * e.g. a run restored from a checkpoint. The chunks of the file are scanned and the file is cut off
+         * after the last complete chunk of a time stamp before resumeTime, so the snapshots a crashed run wrote
+         * after the checkpoint (and a chunk it left incomplete) are replaced by the ones of the run.
+         *
+         * @param file The file the snapshots are to be appended to
+         * @param resumeTime The time stamp of the first snapshot the run may write
+         * @param backgroundWriting Whether the snapshots are to be compressed and written by a background thread
+         * @throws IOException Will be thrown when the file can't be opened or is no (intact) snapshot file
+         */
+        public Writer(File file, double resumeTime, boolean backgroundWriting) throws IOException {
+            this.file = file;
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                if(channel.size() == 0) {
+                    ByteBuffer header = ByteBuffer.allocate(8);
+                    header.putInt(MAGICNUMBER).putInt(FORMATVERSION);
+                    ((Buffer) header).flip();
+                    writeFully(header);
+                } else {
+                    readHeader(channel, file);
+                    truncateChunks(resumeTime);
+                }
+            } catch (IOException ioe) {
+                channel.close();
+                throw ioe;
+            }
+            deflater = new Deflater(Deflater.BEST_SPEED);
+            deflateBuffer = new byte[1 << 16];
+            if(backgroundWriting) {
+                pendingSnapshots = new ArrayBlockingQueue<Snapshot>(MAXPENDINGSNAPSHOTS);
+                writerThread = new Thread(new Runnable() {
+                    public void run() {
+                        drainPendingSnapshots();
+                    }
+                }, "AgentStateSnapshotWriter-" + file.getName());
+                writerThread.setDaemon(true);
+                writerThread.start();
+            } else {
+                pendingSnapshots = null;
+                writerThread = null;
+            }
+        }
+
+        /**
+         * Appends a snapshot to the file (or hands it to the background thread). The snapshot is not to be modified afterwards.
+         *
+         * @param snapshot The snapshot to write
+         * @throws IllegalStateException Will be thrown when the writer is closed or writing failed
+         */
+        public void writeSnapshot(Snapshot snapshot) throws IllegalStateException {
+            if(closed) throw new IllegalStateException("The snapshot writer for "+file+" is already closed!!");
+            if(writerFailure != null) throw new IllegalStateException("Writing snapshots to "+file+" failed!!", writerFailure);
+            if(writerThread == null) {
+                try {
+                    appendChunk(snapshot);
+                } catch (IOException ioe) {
+                    throw new IllegalStateException("Writing the snapshot of time "+snapshot.getTimeStamp()+" to "+file+" failed!!", ioe);
+                }
+            } else {
+                try {
+                    pendingSnapshots.put(snapshot);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while handing the snapshot of time "+snapshot.getTimeStamp()+" to the writer!!", ie);
+                }
+            }
+        }
+
+        /**
+         * Writes all pending snapshots and closes the file.
+         * Closing an already closed writer has no effect.
+         *
+         * @throws IllegalStateException Will be thrown when writing a pending snapshot failed
+         */
+        public void close() throws IllegalStateException {
+            if(closed) return;
+            closed = true;
+            if(writerThread != null) {
+                try {
+                    if(writerThread.isAlive()) pendingSnapshots.put(ENDOFRUN);
+                    writerThread.join();
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    writerFailure = ie;
+                }
+            }
+            deflater.end();
+            try {
+                channel.close();
+            } catch (IOException ioe) {
+                if(writerFailure == null) writerFailure = ioe;
+            }
+            if(writerFailure != null) throw new IllegalStateException("Writing snapshots to "+file+" failed!!", writerFailure);
+        }
+
+        private void drainPendingSnapshots() {
+            while(true) {
+                Snapshot snapshot;
+                try {
+                    snapshot = pendingSnapshots.take();
+                } catch (InterruptedException ie) {
+                    writerFailure = ie;
+                    return;
+                }
+                if(snapshot == ENDOFRUN) return;
+                if(writerFailure == null) {
+                    try {
+                        appendChunk(snapshot);
+                    } catch (IOException | RuntimeException e) {
+                        fooLog.error("Writing snapshots to {} failed: {}", file, e.getMessage());
+                        writerFailure = e;
+                    }
+                }
+            }
+        }
+
+        private void appendChunk(Snapshot snapshot) throws IOException {
+            byte[] encodedSnapshot = snapshot.encode();
+            ByteArrayOutputStream compressedStream = new ByteArrayOutputStream(Math.max(1 << 16, encodedSnapshot.length / 4));
+            deflater.reset();
+            deflater.setInput(encodedSnapshot);
+            deflater.finish();
+            while(!deflater.finished()) {
+                int noBytes = deflater.deflate(deflateBuffer);
+                compressedStream.write(deflateBuffer, 0, noBytes);
+            }
+            byte[] compressedSnapshot = compressedStream.toByteArray();
+            ByteBuffer chunkHeader = ByteBuffer.allocate(CHUNKHEADERLENGTH);
+            chunkHeader.putInt(CHUNKMAGICNUMBER).putDouble(snapshot.getTimeStamp()).putInt(encodedSnapshot.length).putInt(compressedSnapshot.length);
+            ((Buffer) chunkHeader).flip();
+            writeFully(chunkHeader);
+            writeFully(ByteBuffer.wrap(compressedSnapshot));
+            fooLog.debug("Appended snapshot of time {} to {} ({} bytes, {} compressed)", snapshot.getTimeStamp(), file, encodedSnapshot.length, compressedSnapshot.length);
+        }
+
+        private void writeFully(ByteBuffer buffer) throws IOException {
+            while(buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+
+        /**
+         * Cuts the file off after the last complete chunk of a time stamp before resumeTime and positions the channel there
+         */
+        private void truncateChunks(double resumeTime) throws IOException {
+            long fileSize = channel.size();
+            long chunkStart = 8;
+            int noChunks = 0;
+            ByteBuffer chunkHeader = ByteBuffer.allocate(CHUNKHEADERLENGTH);
+            while(chunkStart + CHUNKHEADERLENGTH <= fileSize) {
+                ((Buffer) chunkHeader).clear();
+                while(chunkHeader.hasRemaining()) {
+                    if(channel.read(chunkHeader, chunkStart + chunkHeader.position()) < 0) throw new IOException("Snapshot file "+file+" is truncated!!");
+                }
+                ((Buffer) chunkHeader).flip();
+                if(chunkHeader.getInt() != CHUNKMAGICNUMBER) throw new IOException("Snapshot file "+file+" is corrupted!!");
+                double timeStamp = chunkHeader.getDouble();
+                chunkHeader.getInt();
+                int compressedLength = chunkHeader.getInt();
+                if(compressedLength < 0) throw new IOException("Snapshot file "+file+" is corrupted!!");
+                long chunkEnd = chunkStart + CHUNKHEADERLENGTH + compressedLength;
+                //the chunks are in the order of their time stamps, so all following chunks are cut off as well
+                if(chunkEnd > fileSize || timeStamp >= resumeTime) break;
+                chunkStart = chunkEnd;
+                noChunks++;
+            }
+            if(chunkStart < fileSize) {
+                channel.truncate(chunkStart);
+                fooLog.info("Cut off {} bytes of snapshot file {} after its first {} snapshots", fileSize - chunkStart, file, noChunks);
+            }
+            channel.position(chunkStart);
+        }
+    }
+
+    /**
+     * The Reader reads the snapshots of a snapshot file one after another
+     */
+    public static final class Reader implements AutoCloseable {
+
+        private final File file;
+        private final FileChannel channel;
+        private final Inflater inflater;
+
+        /**
+         * @param file The snapshot file to read
+         * @throws IOException Will be thrown when the file can't be opened or is no snapshot file
+         */
+        public Reader(File file) throws IOException {
+            this.file = file;
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            try {
+                readHeader(channel, file);
+            } catch (IOException ioe) {
+                channel.close();
+                throw ioe;
+            }
+            inflater = new Inflater();
+        }
+
+        /**
+         * @return The next snapshot of the file, null if all snapshots were read
+         * @throws IOException Will be thrown when the file can't be read or is corrupted
+         */
+        public Snapshot readSnapshot() throws IOException {
+            ByteBuffer chunkHeader = ByteBuffer.allocate(CHUNKHEADERLENGTH);
+            if(!readFully(chunkHeader, true)) return null;
+            if(chunkHeader.getInt() != CHUNKMAGICNUMBER) throw new IOException("Snapshot file "+file+" is corrupted!!");
+            //the time stamp is part of the snapshot as well
+            chunkHeader.getDouble();
+            int length = chunkHeader.getInt();
+            int compressedLength = chunkHeader.getInt();
+            ByteBuffer compressedSnapshot = ByteBuffer.allocate(compressedLength);
+            readFully(compressedSnapshot, false);
+            byte[] encodedSnapshot = new byte[length];
+            inflater.reset();
+            inflater.setInput(compressedSnapshot.array());
+            try {
+                int noBytes = 0;
+                while(noBytes < length && !inflater.finished()) {
+                    noBytes += inflater.inflate(encodedSnapshot, noBytes, length - noBytes);
+                }
+                if(noBytes != length) throw new IOException("Snapshot file "+file+" is corrupted!!");
+            } catch (DataFormatException dfe) {
+                throw new IOException("Snapshot file "+file+" is corrupted!!", dfe);
+            }
+            return Snapshot.decode(ByteBuffer.wrap(encodedSnapshot));
+        }
+
+        public void close() throws IOException {
+            inflater.end();
+            channel.close();
+        }
+
+        private boolean readFully(ByteBuffer buffer, boolean endAllowed) throws IOException {
+            while(buffer.hasRemaining()) {
+                if(channel.read(buffer) < 0) {
+                    if(endAllowed && buffer.position() == 0) return false;
+                    throw new IOException("Snapshot file "+file+" is truncated!!");
+                }
+            }
+            ((Buffer) buffer).flip();
+            return true;
+        }
+    }
+
+    private static void readHeader(FileChannel channel, File file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(8);
+        while(header.hasRemaining()) {
+            if(channel.read(header, header.position()) < 0) throw new IOException("File "+file+" is no agent state snapshot file!!");
+        }
+        ((Buffer) header).flip();
+        if(header.getInt() != MAGICNUMBER) throw new IOException("File "+file+" is no agent state snapshot file!!");
+        int formatVersion = header.getInt();
+        if(formatVersion != FORMATVERSION) throw new IOException("Snapshot file "+file+" has format version "+formatVersion+", but only version "+FORMATVERSION+" can be read!!");
+        channel.position(8);
+    }
+}
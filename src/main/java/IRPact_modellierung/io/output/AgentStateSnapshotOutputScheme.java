@@ -0,0 +1,189 @@
+package IRPact_modellierung.io.output;
+
+import IRPact_modellierung.agents.consumerAgents.ConsumerAgent;
+import IRPact_modellierung.perception.ProductAttributePerceptionScheme;
+import IRPact_modellierung.products.Product;
+import IRPact_modellierung.products.ProductAttribute;
+import IRPact_modellierung.products.ProductEligibilityIndex;
+import IRPact_modellierung.simulation.SimulationContainer;
+import org.apache.logging.log4j.LogManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The AgentStateSnapshotOutputScheme writes the state of all consumer agents of the simulation
+ * every samplingInterval steps as a columnar snapshot to an AgentStateSnapshotFile,
+ * rather than writing the state of every agent on its own.
+ *
+ * A snapshot holds, indexed by the agent index (see ConsumerAgentStore),
+ * the bit columns "adopted.[product]" and "aware.[product]" for every product of the simulation
+ * and the float columns "perception.[product].[product group attribute]" with the perception of every attribute
+ * of the product (NaN for agents not perceiving the attribute). The first snapshot written also holds the IDs of the agents.
+ * Snapshots are compressed and appended to the file in the background if desired,
+ * so keeping the history of large populations over long horizons costs a few bytes per agent and sample.
+ *
+ * The adoptions of the agents are handed to another output scheme.
+ *
+ * @author Simon Johanning
+ */
+public class AgentStateSnapshotOutputScheme extends OutputScheme {
+
+    private static final org.apache.logging.log4j.Logger fooLog = LogManager.getLogger("debugConsoleLogger");
+
+    public static final String ADOPTEDCOLUMNPREFIX = "adopted.";
+    public static final String AWARECOLUMNPREFIX = "aware.";
+    public static final String PERCEPTIONCOLUMNPREFIX = "perception.";
+
+    private OutputScheme adoptionOutputScheme;
+    private AgentStateSnapshotFile.Writer snapshotWriter;
+    private int samplingInterval;
+    private boolean agentIDsWritten;
+
+    /**
+     * Creates an output scheme appending the snapshots to the given file (created if not existing)
+     *
+     * @param adoptionOutputScheme The output scheme the adoptions of the agents are written by
+     * @param snapshotFile The file the snapshots are appended to
+     * @param samplingInterval The number of steps between two snapshots (a snapshot is written whenever the step is a multiple of it)
+     * @param backgroundWriting Whether the snapshots are to be compressed and written by a background thread
+     * @throws IllegalArgumentException Will be thrown when the sampling interval is not positive
+     * @throws IllegalStateException Will be thrown when the snapshot file can't be opened
+     */
+    public AgentStateSnapshotOutputScheme(OutputScheme adoptionOutputScheme, File snapshotFile, int samplingInterval, boolean backgroundWriting) throws IllegalArgumentException, IllegalStateException {
+        this(adoptionOutputScheme, snapshotFile, samplingInterval, Double.POSITIVE_INFINITY, backgroundWriting);
+    }
+
+    /**
+     * Creates an output scheme appending the snapshots to the given file (created if not existing)
+     * for a run starting at resumeTime, e.g. a run restored from a checkpoint.
+     * The snapshots of the file from resumeTime on (written by a run that crashed after the checkpoint) are replaced
+     * by the ones of the run (see AgentStateSnapshotFile.Writer).
+     *
+     * @param adoptionOutputScheme The output scheme the adoptions of the agents are written by
+     * @param snapshotFile The file the snapshots are appended to
+     * @param samplingInterval The number of steps between two snapshots (a snapshot is written whenever the step is a multiple of it)
+     * @param resumeTime The time stamp of the first step the run executes
+     * @param backgroundWriting Whether the snapshots are to be compressed and written by a background thread
+     * @throws IllegalArgumentException Will be thrown when the sampling interval is not positive
+     * @throws IllegalStateException Will be thrown when the snapshot file can't be opened
+     */
+    public AgentStateSnapshotOutputScheme(OutputScheme adoptionOutputScheme, File snapshotFile, int samplingInterval, double resumeTime, boolean backgroundWriting) throws IllegalArgumentException, IllegalStateException {
+        if(samplingInterval < 1) throw new IllegalArgumentException("The sampling interval of the agent state snapshots needs to be positive, but is "+samplingInterval+"!!");
+        this.adoptionOutputScheme = adoptionOutputScheme;
+        this.samplingInterval = samplingInterval;
+        try {
+            snapshotWriter = new AgentStateSnapshotFile.Writer(snapshotFile, resumeTime, backgroundWriting);
+        } catch (IOException ioe) {
+            throw new IllegalStateException("Opening snapshot file " + snapshotFile + " failed!!", ioe);
+        }
+    }
+
+    public int getSamplingInterval() {
+        return samplingInterval;
+    }
+
+    public void writeConsumerAgentState(ConsumerAgent consumerAgent, double timeStamp) {
+
+    }
+
+    public void writeConsumerAgentStates(Set<ConsumerAgent> consumerAgents, double timeStamp) {
+        if(consumerAgents.isEmpty() || ((long) Math.floor(timeStamp)) % samplingInterval != 0) return;
+        snapshotWriter.writeSnapshot(takeSnapshot(consumerAgents, timeStamp));
+        fooLog.debug("Handed snapshot of the state of {} agents at time {} to the snapshot writer", consumerAgents.size(), timeStamp);
+    }
+
+    public void writeConsumerAdoption(Set<ConsumerAgent> consumerAgents, double timeStamp) {
+        adoptionOutputScheme.writeConsumerAdoption(consumerAgents, timeStamp);
+    }
+
+    /**
+     * Writes all pending snapshots, closes the snapshot file and the output of the adoption output scheme
+     */
+    public void closeOutput() {
+        try {
+            snapshotWriter.close();
+        } finally {
+            adoptionOutputScheme.closeOutput();
+        }
+    }
+
+    private AgentStateSnapshotFile.Snapshot takeSnapshot(Set<ConsumerAgent> consumerAgents, double timeStamp) {
+        SimulationContainer simulationContainer = consumerAgents.iterator().next().getAssociatedSimulationContainer();
+        int noAgents = simulationContainer.getConsumerAgentStore().getNoAgents();
+        ProductEligibilityIndex productIndex = simulationContainer.getProductEligibilityIndex();
+        int noProducts = productIndex.getNoProducts();
+        AgentStateSnapshotFile.Snapshot snapshot = new AgentStateSnapshotFile.Snapshot(timeStamp, noAgents);
+        if(!agentIDsWritten) {
+            String[] agentIDs = new String[noAgents];
+            Arrays.fill(agentIDs, "");
+            for(ConsumerAgent consumerAgent : consumerAgents) {
+                agentIDs[consumerAgent.getAgentIndex()] = consumerAgent.getAgentID();
+            }
+            snapshot.setAgentIDs(agentIDs);
+            agentIDsWritten = true;
+        }
+        //run through the agents once, filling the columns of all products
+        BitSet[] adopters = new BitSet[noProducts];
+        BitSet[] awareAgents = new BitSet[noProducts];
+        List<List<ProductAttribute>> productAttributes = new ArrayList<List<ProductAttribute>>(noProducts);
+        List<float[]> perceptions = new ArrayList<float[]>();
+        for(int productOrdinal = 0; productOrdinal < noProducts; productOrdinal++) {
+            adopters[productOrdinal] = new BitSet(noAgents);
+            awareAgents[productOrdinal] = new BitSet(noAgents);
+            List<ProductAttribute> attributes = sortedAttributes(productIndex.getProduct(productOrdinal));
+            productAttributes.add(attributes);
+            for(int attributeIndex = 0; attributeIndex < attributes.size(); attributeIndex++) {
+                float[] perception = new float[noAgents];
+                Arrays.fill(perception, Float.NaN);
+                perceptions.add(perception);
+            }
+        }
+        for(ConsumerAgent consumerAgent : consumerAgents) {
+            int agentIndex = consumerAgent.getAgentIndex();
+            BitSet adoptedProducts = consumerAgent.getAdoptedProductOrdinals();
+            for(int productOrdinal = adoptedProducts.nextSetBit(0); productOrdinal >= 0 && productOrdinal < noProducts; productOrdinal = adoptedProducts.nextSetBit(productOrdinal + 1)) {
+                adopters[productOrdinal].set(agentIndex);
+            }
+            BitSet awareProducts = consumerAgent.getAwareProductOrdinals();
+            for(int productOrdinal = awareProducts.nextSetBit(0); productOrdinal >= 0 && productOrdinal < noProducts; productOrdinal = awareProducts.nextSetBit(productOrdinal + 1)) {
+                awareAgents[productOrdinal].set(agentIndex);
+            }
+            int perceptionColumn = 0;
+            for(List<ProductAttribute> attributes : productAttributes) {
+                for(ProductAttribute productAttribute : attributes) {
+                    ProductAttributePerceptionScheme perceptionScheme = consumerAgent.getPerceivedProductAttributeValues().get(productAttribute);
+                    if(perceptionScheme != null) perceptions.get(perceptionColumn)[agentIndex] = (float) perceptionScheme.calculateProductAttributePerception(timeStamp);
+                    perceptionColumn++;
+                }
+            }
+        }
+        int perceptionColumn = 0;
+        for(int productOrdinal = 0; productOrdinal < noProducts; productOrdinal++) {
+            String productName = productIndex.getProduct(productOrdinal).getName();
+            snapshot.addBitColumn(ADOPTEDCOLUMNPREFIX + productName, adopters[productOrdinal]);
+            snapshot.addBitColumn(AWARECOLUMNPREFIX + productName, awareAgents[productOrdinal]);
+            for(ProductAttribute productAttribute : productAttributes.get(productOrdinal)) {
+                snapshot.addFloatColumn(PERCEPTIONCOLUMNPREFIX + productName + "." + productAttribute.getCorrespondingProductGroupAttribute().getName(), perceptions.get(perceptionColumn++));
+            }
+        }
+        return snapshot;
+    }
+
+    private static List<ProductAttribute> sortedAttributes(Product product) {
+        List<ProductAttribute> attributes = new ArrayList<ProductAttribute>(product.getProductAttributes());
+        Collections.sort(attributes, new Comparator<ProductAttribute>() {
+            public int compare(ProductAttribute attribute, ProductAttribute otherAttribute) {
+                return attribute.getCorrespondingProductGroupAttribute().getName().compareTo(otherAttribute.getCorrespondingProductGroupAttribute().getName());
+            }
+        });
+        return attributes;
+    }
+}
@@ -2,8 +2,9 @@ package IRPact_modellierung.io.output;
 
 import IRPact_modellierung.agents.consumerAgents.ConsumerAgent;
 import IRPact_modellierung.agents.consumerAgents.ConsumerAgentGroup;
-import IRPact_modellierung.products.AdoptedProduct;
+import IRPact_modellierung.products.Product;
 import IRPact_modellierung.products.ProductGroup;
+import IRPact_modellierung.simulation.SimulationContainer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -33,22 +34,19 @@ public class N2OutputScheme extends OutputScheme {
     }
 
     private Map<ConsumerAgentGroup, Map<ProductGroup, Integer>> countAdopters(Set<ConsumerAgent> consumerAgents, double timeStamp) {
+        SimulationContainer simulationContainer = consumerAgents.iterator().next().getAssociatedSimulationContainer();
+        Set<Product> products = new HashSet<Product>(simulationContainer.getProducts());
+        products.addAll(simulationContainer.getHistoricalProducts());
         Map<ConsumerAgentGroup, Map<ProductGroup, Integer>> adoptersPerCAGperPG = new HashMap<ConsumerAgentGroup, Map<ProductGroup, Integer>>();
-        Iterator<ConsumerAgent> iter = consumerAgents.iterator();
-        ConsumerAgent randomDude = iter.next();
-        for (ConsumerAgentGroup cag : randomDude.getAssociatedSimulationContainer().getSimulationConfiguration().getAgentConfiguration().getConsumerAgentGroups()) {
+        for (ConsumerAgentGroup cag : simulationContainer.getSimulationConfiguration().getAgentConfiguration().getConsumerAgentGroups()) {
             Map<ProductGroup, Integer> productGroupMap = new HashMap<ProductGroup, Integer>();
-            for (ProductGroup pg : randomDude.getAssociatedSimulationContainer().getSimulationConfiguration().getProductConfiguration().getProductGroups()) {
+            for (ProductGroup pg : simulationContainer.getSimulationConfiguration().getProductConfiguration().getProductGroups()) {
                 productGroupMap.put(pg, 0);
             }
-            adoptersPerCAGperPG.put(cag, productGroupMap);
-        }
-        for (ConsumerAgent currentAgent : consumerAgents) {
-            Map<ProductGroup, Integer> productGroupMap = adoptersPerCAGperPG.get(currentAgent.getCorrespondingConsumerAgentGroup());
-            for (AdoptedProduct adoptedProduct : currentAgent.getAdoptedProducts()) {
-                productGroupMap.put(adoptedProduct.getCorrespondingProduct().getPartOfProductGroup(), productGroupMap.get(adoptedProduct.getCorrespondingProduct().getPartOfProductGroup())+1);
+            for (Product product : products) {
+                productGroupMap.put(product.getPartOfProductGroup(), productGroupMap.get(product.getPartOfProductGroup())+simulationContainer.getAdoptionTally().getNoAdopters(cag, product));
             }
-            adoptersPerCAGperPG.put(currentAgent.getCorrespondingConsumerAgentGroup(), productGroupMap);
+            adoptersPerCAGperPG.put(cag, productGroupMap);
         }
         return adoptersPerCAGperPG;
     }
@@ -2,12 +2,10 @@ package IRPact_modellierung.io.output;
 
 import IRPact_modellierung.agents.consumerAgents.ConsumerAgent;
 import IRPact_modellierung.agents.consumerAgents.ConsumerAgentGroup;
-import IRPact_modellierung.products.AdoptedProduct;
 import IRPact_modellierung.products.Product;
+import IRPact_modellierung.simulation.SimulationContainer;
 import org.apache.logging.log4j.LogManager;
 
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 
@@ -37,21 +35,7 @@ public class N3OutputScheme extends OutputScheme {
     }
 
     private Map<ConsumerAgentGroup, Map<Product, Integer>> countAdopters(Set<ConsumerAgent> consumerAgents, double timeStamp) {
-        Map<ConsumerAgentGroup, Map<Product, Integer>> adoptersPerCAGperProduct = new HashMap<ConsumerAgentGroup, Map<Product, Integer>>();
-        Iterator<ConsumerAgent> iter = consumerAgents.iterator();
-        ConsumerAgent randomDude = iter.next();
-        for (ConsumerAgentGroup cag : randomDude.getAssociatedSimulationContainer().getSimulationConfiguration().getAgentConfiguration().getConsumerAgentGroups()) {
-            Map<Product, Integer> productGroupMap = new HashMap<Product, Integer>();
-            for (Product product : randomDude.getAssociatedSimulationContainer().getProducts()){
-                productGroupMap.put(product, 0);
-            }
-            adoptersPerCAGperProduct.put(cag, productGroupMap);
-        }
-        for (ConsumerAgent currentAgent : consumerAgents) {
-            for (AdoptedProduct adoptedProduct : currentAgent.getAdoptedProducts()) {
-                adoptersPerCAGperProduct.get(currentAgent.getCorrespondingConsumerAgentGroup()).put(adoptedProduct.getCorrespondingProduct(), adoptersPerCAGperProduct.get(currentAgent.getCorrespondingConsumerAgentGroup()).get(adoptedProduct.getCorrespondingProduct()) + 1);
-            }
-        }
-        return adoptersPerCAGperProduct;
+        SimulationContainer simulationContainer = consumerAgents.iterator().next().getAssociatedSimulationContainer();
+        return simulationContainer.getAdoptionTally().getAdoptersPerCAGperProduct(simulationContainer.getSimulationConfiguration().getAgentConfiguration().getConsumerAgentGroups(), simulationContainer.getProducts());
     }
 }
@@ -2,12 +2,11 @@ package IRPact_modellierung.io.output;
 
 import IRPact_modellierung.agents.consumerAgents.ConsumerAgent;
 import IRPact_modellierung.agents.consumerAgents.ConsumerAgentGroup;
-import IRPact_modellierung.products.AdoptedProduct;
 import IRPact_modellierung.products.Product;
+import IRPact_modellierung.simulation.SimulationContainer;
 import org.apache.logging.log4j.LogManager;
 
-import java.util.HashMap;
-import java.util.Iterator;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
@@ -37,30 +36,9 @@ public class N6OutputScheme extends OutputScheme {
     }
 
     private Map<ConsumerAgentGroup, Map<Product, Integer>> countAdopters(Set<ConsumerAgent> consumerAgents, double timeStamp) {
-        Map<ConsumerAgentGroup, Map<Product, Integer>> adoptersPerCAGperProduct = new HashMap<ConsumerAgentGroup, Map<Product, Integer>>();
-        Iterator<ConsumerAgent> iter = consumerAgents.iterator();
-        ConsumerAgent randomDude = iter.next();
-        for (ConsumerAgentGroup cag : randomDude.getAssociatedSimulationContainer().getSimulationConfiguration().getAgentConfiguration().getConsumerAgentGroups()) {
-            Map<Product, Integer> productGroupMap = new HashMap<Product, Integer>();
-            for (Product product : randomDude.getAssociatedSimulationContainer().getProducts()){
-                fooLog.debug("Setting up productGroupMap for product {}", product.getName());
-                productGroupMap.put(product, 0);
-            }
-            for (Product product : randomDude.getAssociatedSimulationContainer().getHistoricalProducts()){
-                fooLog.debug("Setting up productGroupMap for product {}", product.getName());
-                productGroupMap.put(product, 0);
-            }
-            adoptersPerCAGperProduct.put(cag, productGroupMap);
-        }
-        for (ConsumerAgent currentAgent : consumerAgents) {
-            Map<Product, Integer> productMap = adoptersPerCAGperProduct.get(currentAgent.getCorrespondingConsumerAgentGroup());
-            for (AdoptedProduct adoptedProduct : currentAgent.getAdoptedProducts()) {
-                Integer adoptersBefore = productMap.get(adoptedProduct.getCorrespondingProduct());
-                adoptersPerCAGperProduct.get(currentAgent.getCorrespondingConsumerAgentGroup()).remove(productMap);
-                fooLog.debug("Integer {}, product {}, in market? {}", adoptersBefore, adoptedProduct.getCorrespondingProduct().getName(), adoptedProduct.getCorrespondingProduct().isIntroducedToMarket());
-                adoptersPerCAGperProduct.get(currentAgent.getCorrespondingConsumerAgentGroup()).put(adoptedProduct.getCorrespondingProduct(), adoptersBefore + 1);
-            }
-        }
-        return adoptersPerCAGperProduct;
+        SimulationContainer simulationContainer = consumerAgents.iterator().next().getAssociatedSimulationContainer();
+        Set<Product> products = new HashSet<Product>(simulationContainer.getProducts());
+        products.addAll(simulationContainer.getHistoricalProducts());
+        return simulationContainer.getAdoptionTally().getAdoptersPerCAGperProduct(simulationContainer.getSimulationConfiguration().getAgentConfiguration().getConsumerAgentGroups(), products);
     }
 }
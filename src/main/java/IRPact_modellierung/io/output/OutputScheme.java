@@ -11,4 +11,25 @@ public abstract class OutputScheme {
 
     public abstract void writeConsumerAgentState(ConsumerAgent consumerAgent, double timeStamp);
     public abstract void writeConsumerAdoption(Set<ConsumerAgent> consumerAgents, double timeStamp);
+
+    /**
+     * Method invoked once per step with the state of all consumer agents of the simulation.
+     * By default, the state of every agent is written by writeConsumerAgentState;
+     * output schemes writing the state of all agents at once (see AgentStateSnapshotOutputScheme) override it.
+     *
+     * @param consumerAgents The consumer agents of the simulation
+     * @param timeStamp The simulation time the state is written for
+     */
+    public void writeConsumerAgentStates(Set<ConsumerAgent> consumerAgents, double timeStamp) {
+        for(ConsumerAgent consumerAgent : consumerAgents) {
+            writeConsumerAgentState(consumerAgent, timeStamp);
+        }
+    }
+
+    /**
+     * Method invoked at the end of the simulation to write all pending output
+     * and release the resources held by the output scheme.
+     */
+    public void closeOutput() {
+    }
 }
@@ -0,0 +1,66 @@
+package IRPact_modellierung.io.output;
+
+import IRPact_modellierung.agents.consumerAgents.AdoptionTally;
+import IRPact_modellierung.agents.consumerAgents.ConsumerAgent;
+import IRPact_modellierung.agents.consumerAgents.ConsumerAgentGroup;
+import IRPact_modellierung.helper.LazynessHelper;
+import IRPact_modellierung.products.Product;
+import IRPact_modellierung.simulation.SimulationContainer;
+
+import java.util.Set;
+
+/**
+ * The ReplicationOutputScheme is the output scheme of a single replicate of a simulation (see ReplicationRunner).
+ * Rather than writing the state of the simulation, it observes the number of adopters (in total and per product)
+ * in every step and hands the observations to the statistics shared by all replicates of the simulation right away.
+ *
+ * @author Simon Johanning
+ */
+public class ReplicationOutputScheme extends OutputScheme {
+
+    public static final String ADOPTERSMEASURE = "adopters";
+    public static final String PRODUCTADOPTERSMEASUREPREFIX = "adopters of ";
+
+    private ReplicationStatistics replicationStatistics;
+    private int replicate;
+
+    /**
+     * @param replicationStatistics The statistics the observations of the replicate are reduced into
+     * @param replicate The index of the replicate
+     */
+    public ReplicationOutputScheme(ReplicationStatistics replicationStatistics, int replicate) {
+        this.replicationStatistics = replicationStatistics;
+        this.replicate = replicate;
+    }
+
+    public ReplicationStatistics getReplicationStatistics() {
+        return replicationStatistics;
+    }
+
+    public int getReplicate() {
+        return replicate;
+    }
+
+    public void writeConsumerAgentState(ConsumerAgent consumerAgent, double timeStamp) {
+
+    }
+
+    public void writeConsumerAdoption(Set<ConsumerAgent> consumerAgents, double timeStamp) {
+        replicationStatistics.addObservation(replicate, timeStamp, ADOPTERSMEASURE, LazynessHelper.countAdoptedAgents(consumerAgents));
+        if(consumerAgents.isEmpty()) return;
+        SimulationContainer simulationContainer = consumerAgents.iterator().next().getAssociatedSimulationContainer();
+        AdoptionTally adoptionTally = simulationContainer.getAdoptionTally();
+        Set<ConsumerAgentGroup> consumerAgentGroups = simulationContainer.getSimulationConfiguration().getAgentConfiguration().getConsumerAgentGroups();
+        for(Product product : simulationContainer.getProducts()) {
+            int noAdopters = 0;
+            for(ConsumerAgentGroup cag : consumerAgentGroups) {
+                noAdopters += adoptionTally.getNoAdopters(cag, product);
+            }
+            replicationStatistics.addObservation(replicate, timeStamp, PRODUCTADOPTERSMEASUREPREFIX + product.getName(), noAdopters);
+        }
+    }
+
+    public void closeOutput() {
+        replicationStatistics.finishReplicate(replicate);
+    }
+}
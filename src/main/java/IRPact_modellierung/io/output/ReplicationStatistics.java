@@ -0,0 +1,216 @@
+package IRPact_modellierung.io.output;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * The ReplicationStatistics aggregates the observations of several replicates of a simulation
+ * (i.e. simulations of the same configuration with different seeds) into statistics across the replicates.
+ *
+ * Observations are identified by the time stamp they are made at and the name of the measure observed
+ * (such as the number of adopters of a product). Replicates hand over their observations while they are running,
+ * and they are reduced (by Welford's online algorithm) as they arrive, so only the count, mean and sum of squared deviations
+ * are kept per time stamp and measure.
+ * As floating point reductions depend on their order, reducing in the order the observations arrive would make the statistics
+ * depend on the number of threads running the replicates. The observations of a time stamp and measure are thus reduced
+ * in the order of the index of the replicates: an observation is held in the slot of its replicate until the replicates
+ * with a lower index have made (or, having finished, will never make) their observation of the time stamp and measure.
+ * The statistics (of the observations reduced so far) can be retrieved while replicates are still running
+ * and are safe to be used by several (replicate) threads at once.
+ *
+ * @author Simon Johanning
+ */
+public class ReplicationStatistics {
+
+    //quantile of the standard normal distribution for the 95% confidence interval
+    private static final double CONFIDENCEQUANTILE = 1.959963984540054;
+
+    private final TreeMap<Double, Map<String, RunningStatistic>> statistics = new TreeMap<Double, Map<String, RunningStatistic>>();
+    private final TreeSet<String> measures = new TreeSet<String>();
+    private final BitSet finishedReplicates = new BitSet();
+    private int noFinishedReplicates;
+
+    /**
+     * Hands over an observation of a running replicate. It is reduced right away if the replicates with a lower index
+     * have handed over their observation of the time stamp and measure (or are finished), and held back otherwise.
+     *
+     * @param replicate The index of the replicate (starting at 0)
+     * @param timeStamp The time of the simulation the observation was made at
+     * @param measure The name of the measure observed
+     * @param value The observed value
+     * @throws IllegalArgumentException Will be thrown when the index is negative, the replicate is finished
+     * or the measure has been observed in the replicate at the time stamp before
+     */
+    public synchronized void addObservation(int replicate, double timeStamp, String measure, double value) throws IllegalArgumentException {
+        if(replicate < 0) throw new IllegalArgumentException("The index of a replicate is negative ("+replicate+")!!");
+        if(finishedReplicates.get(replicate)) throw new IllegalArgumentException("Replicate "+replicate+" is finished already!!");
+        Map<String, RunningStatistic> statisticsAtTime = statistics.get(timeStamp);
+        if(statisticsAtTime == null) {
+            statisticsAtTime = new TreeMap<String, RunningStatistic>();
+            statistics.put(timeStamp, statisticsAtTime);
+        }
+        RunningStatistic statistic = statisticsAtTime.get(measure);
+        if(statistic == null) {
+            statistic = new RunningStatistic();
+            statisticsAtTime.put(measure, statistic);
+            measures.add(measure);
+        }
+        if(!statistic.hold(replicate, value)) throw new IllegalArgumentException("Measure "+measure+" has already been observed at time "+timeStamp+" in replicate "+replicate+"!!");
+        statistic.reduce(finishedReplicates);
+    }
+
+    /**
+     * Marks a replicate as finished, so the observations of replicates with a higher index
+     * aren't held back by time stamps or measures the replicate didn't observe.
+     *
+     * @param replicate The index of the replicate (starting at 0)
+     * @throws IllegalArgumentException Will be thrown when the index is negative or the replicate is finished already
+     */
+    public synchronized void finishReplicate(int replicate) throws IllegalArgumentException {
+        if(replicate < 0) throw new IllegalArgumentException("The index of a replicate is negative ("+replicate+")!!");
+        if(finishedReplicates.get(replicate)) throw new IllegalArgumentException("Replicate "+replicate+" is finished already!!");
+        finishedReplicates.set(replicate);
+        noFinishedReplicates++;
+        for(Map<String, RunningStatistic> statisticsAtTime : statistics.values()) {
+            for(RunningStatistic statistic : statisticsAtTime.values()) statistic.reduce(finishedReplicates);
+        }
+    }
+
+    public synchronized int getNoFinishedReplicates() {
+        return noFinishedReplicates;
+    }
+
+    /**
+     * @return The number of replicates whose observations are completely reduced (the finished replicates up to the first one still running)
+     */
+    public synchronized int getNoReducedReplicates() {
+        return finishedReplicates.nextClearBit(0);
+    }
+
+    /**
+     * @return The time stamps observations were made at, in ascending order
+     */
+    public synchronized Set<Double> getTimeStamps() {
+        return Collections.unmodifiableSet(new LinkedHashSet<Double>(statistics.keySet()));
+    }
+
+    /**
+     * @return The names of the measures observed, in alphabetical order
+     */
+    public synchronized Set<String> getMeasures() {
+        return Collections.unmodifiableSet(new TreeSet<String>(measures));
+    }
+
+    /**
+     * @param timeStamp The time stamp of interest
+     * @param measure The measure of interest
+     * @return The number of replicates that observed the measure at the time stamp
+     */
+    public synchronized int getNoObservations(double timeStamp, String measure) {
+        RunningStatistic statistic = getStatistic(timeStamp, measure);
+        return statistic == null ? 0 : statistic.count;
+    }
+
+    /**
+     * @param timeStamp The time stamp of interest
+     * @param measure The measure of interest
+     * @return The mean of the measure over the replicates at the time stamp, NaN if it wasn't observed
+     */
+    public synchronized double getMean(double timeStamp, String measure) {
+        RunningStatistic statistic = getStatistic(timeStamp, measure);
+        return statistic == null ? Double.NaN : statistic.mean;
+    }
+
+    /**
+     * @param timeStamp The time stamp of interest
+     * @param measure The measure of interest
+     * @return The (sample) standard deviation of the measure over the replicates at the time stamp, NaN if it was observed less than twice
+     */
+    public synchronized double getStandardDeviation(double timeStamp, String measure) {
+        RunningStatistic statistic = getStatistic(timeStamp, measure);
+        return (statistic == null || statistic.count < 2) ? Double.NaN : Math.sqrt(statistic.squaredDeviations / (statistic.count - 1));
+    }
+
+    /**
+     * Method to retrieve the half width of the (asymptotic) 95% confidence interval of the mean of the measure at the time stamp,
+     * i.e. the mean lies within [mean - half width, mean + half width] with a probability of 95%.
+     *
+     * @param timeStamp The time stamp of interest
+     * @param measure The measure of interest
+     * @return The half width of the confidence interval of the mean, NaN if the measure was observed less than twice
+     */
+    public synchronized double getConfidenceHalfWidth(double timeStamp, String measure) {
+        RunningStatistic statistic = getStatistic(timeStamp, measure);
+        if(statistic == null || statistic.count < 2) return Double.NaN;
+        return CONFIDENCEQUANTILE * getStandardDeviation(timeStamp, measure) / Math.sqrt(statistic.count);
+    }
+
+    private RunningStatistic getStatistic(double timeStamp, String measure) {
+        Map<String, RunningStatistic> statisticsAtTime = statistics.get(timeStamp);
+        return statisticsAtTime == null ? null : statisticsAtTime.get(measure);
+    }
+
+    /**
+     * Count, mean and sum of squared deviations from the mean of a series of observations, updated by Welford's algorithm,
+     * and the slots of the observations held back until the replicates with a lower index are reduced
+     */
+    private static final class RunningStatistic {
+
+        private int count;
+        private double mean;
+        private double squaredDeviations;
+        //the replicate to reduce next, all replicates with a lower index are reduced
+        private int nextReplicate;
+        //slots of the held back observations, indexed by replicate relative to heldBase
+        //(only allocated while observations are held back)
+        private int heldBase;
+        private BitSet heldReplicates;
+        private double[] heldValues;
+
+        /**
+         * @return false if the replicate has handed over its observation before
+         */
+        private boolean hold(int replicate, double value) {
+            if(replicate < nextReplicate) return false;
+            if(heldReplicates == null) {
+                heldBase = nextReplicate;
+                heldReplicates = new BitSet();
+                heldValues = new double[Math.max(replicate - heldBase + 1, 16)];
+            } else if(heldReplicates.get(replicate - heldBase)) return false;
+            else if(replicate - heldBase >= heldValues.length) heldValues = Arrays.copyOf(heldValues, Math.max(replicate - heldBase + 1, 2 * heldValues.length));
+            heldReplicates.set(replicate - heldBase);
+            heldValues[replicate - heldBase] = value;
+            return true;
+        }
+
+        /**
+         * Reduces the held back observations up to the first replicate that is neither held nor finished
+         */
+        private void reduce(BitSet finishedReplicates) {
+            while(true) {
+                if(heldReplicates != null && heldReplicates.get(nextReplicate - heldBase)) {
+                    add(heldValues[nextReplicate - heldBase]);
+                    heldReplicates.clear(nextReplicate - heldBase);
+                } else if(!finishedReplicates.get(nextReplicate)) break;
+                nextReplicate++;
+            }
+            if(heldReplicates != null && heldReplicates.isEmpty()) {
+                heldReplicates = null;
+                heldValues = null;
+            }
+        }
+
+        private void add(double value) {
+            count++;
+            double deviation = value - mean;
+            mean += deviation / count;
+            squaredDeviations += deviation * (value - mean);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package IRPact_modellierung.io.output;
+
+import IRPact_modellierung.agents.consumerAgents.ConsumerAgent;
+import IRPact_modellierung.agents.consumerAgents.ConsumerAgentGroup;
+import IRPact_modellierung.io.sQLiteHandling.SQLiteAdoptionWriter;
+import IRPact_modellierung.products.Product;
+import IRPact_modellierung.simulation.SimulationContainer;
+import org.apache.logging.log4j.LogManager;
+
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The SQLiteOutputScheme writes the number of adopters per consumer agent group and product
+ * of every step of the simulation to a SQLite data base (see SQLiteAdoptionWriter).
+ *
+ * When writing in the background, the data base is written by a separate thread,
+ * so that the steps of the simulation don't wait for the data base.
+ *
+ * @author Simon Johanning
+ */
+public class SQLiteOutputScheme extends OutputScheme {
+
+    private static final org.apache.logging.log4j.Logger fooLog = LogManager.getLogger("debugConsoleLogger");
+
+    private SQLiteAdoptionWriter adoptionWriter;
+
+    /**
+     * Creates an output scheme writing to the given table of the data base in databaseFile
+     *
+     * @param databaseFile The path to the file the data base is stored in
+     * @param tableName The name of the table the adoption pattern is written to
+     * @param backgroundWriting Whether the data base is to be written by a background thread
+     * @throws IllegalStateException Will be thrown when the data base can't be opened
+     */
+    public SQLiteOutputScheme(String databaseFile, String tableName, boolean backgroundWriting) throws IllegalStateException {
+        try {
+            adoptionWriter = new SQLiteAdoptionWriter(databaseFile, tableName, backgroundWriting);
+        } catch (SQLException sqle) {
+            throw new IllegalStateException("Opening data base " + databaseFile + " failed!!", sqle);
+        }
+    }
+
+    public void writeConsumerAgentState(ConsumerAgent consumerAgent, double timeStamp) {
+
+    }
+
+    public void writeConsumerAdoption(Set<ConsumerAgent> consumerAgents, double timeStamp) {
+        if(consumerAgents.isEmpty()) return;
+        adoptionWriter.writeAdoptionPattern(timeStamp, countAdopters(consumerAgents));
+        fooLog.debug("Handed adoption pattern of time {} to the data base writer", timeStamp);
+    }
+
+    /**
+     * Writes all pending data and closes the data base
+     */
+    public void closeOutput() {
+        adoptionWriter.close();
+    }
+
+    private Map<ConsumerAgentGroup, Map<Product, Integer>> countAdopters(Set<ConsumerAgent> consumerAgents) {
+        SimulationContainer simulationContainer = consumerAgents.iterator().next().getAssociatedSimulationContainer();
+        Set<Product> products = new HashSet<Product>(simulationContainer.getProducts());
+        products.addAll(simulationContainer.getHistoricalProducts());
+        return simulationContainer.getAdoptionTally().getAdoptersPerCAGperProduct(simulationContainer.getSimulationConfiguration().getAgentConfiguration().getConsumerAgentGroups(), products);
+    }
+}
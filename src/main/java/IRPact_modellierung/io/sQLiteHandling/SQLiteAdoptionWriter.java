@@ -0,0 +1,279 @@
+package IRPact_modellierung.io.sQLiteHandling;
+
+import IRPact_modellierung.agents.consumerAgents.ConsumerAgentGroup;
+import IRPact_modellierung.products.Product;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * The SQLiteAdoptionWriter persists the adoption pattern of a simulation run to a SQLite data base.
+ *
+ * It holds a single connection for the whole run, and writes all steps (or years) of the run
+ * into one table (in WAL journal mode), with the step of the respective entry as a column.
+ * Rows are written with a prepared statement in batches, with one transaction per written step.
+ *
+ * Optionally, the writer hands the data over to a background thread, so that the simulation
+ * does not wait for the data base. The adoption data is copied into a batch when handed to
+ * the writer, so the simulation can proceed to modify its state right away.
+ * In order to bound the memory consumption, the simulation will only be held up when more than
+ * MAXPENDINGBATCHES steps are waiting to be written.
+ * Failures of the background thread are reported on the next invocation of the writer.
+ *
+ * The writer needs to be closed after the run, which will write all pending batches.
+ *
+ * @author Simon Johanning
+ */
+public class SQLiteAdoptionWriter implements AutoCloseable {
+
+    private static final Logger fooLog = LogManager.getLogger("debugConsoleLogger");
+
+    private static final int MAXPENDINGBATCHES = 1024;
+
+    private final String tableName;
+    private final Connection connection;
+    private final PreparedStatement insertStatement;
+    private final BlockingQueue<AdoptionBatch> pendingBatches;
+    private final Thread writerThread;
+    private volatile Exception writerFailure;
+    private boolean closed;
+
+    /**
+     * Opens (or creates) the data base at databaseFile and creates the adoption table
+     * if it does not exist yet.
+     *
+     * @param databaseFile The path to the file the data base is stored in
+     * @param tableName The name of the table the adoption pattern is written to
+     * @param backgroundWriting Whether the rows are to be written by a background thread
+     * @throws IllegalArgumentException Will be thrown when the table name is not a valid SQL identifier
+     * @throws SQLException Will be thrown when the data base can't be opened or the table can't be created
+     */
+    public SQLiteAdoptionWriter(String databaseFile, String tableName, boolean backgroundWriting) throws IllegalArgumentException, SQLException {
+        if(tableName == null || !tableName.matches("[A-Za-z_][A-Za-z0-9_]*")) throw new IllegalArgumentException("Table name "+tableName+" is not a valid identifier!!");
+        this.tableName = tableName;
+        try {
+            Class.forName("org.sqlite.JDBC");
+        } catch (ClassNotFoundException cnfe) {
+            throw new IllegalStateException("The SQLite JDBC driver is not available!!", cnfe);
+        }
+        connection = DriverManager.getConnection("jdbc:sqlite:" + databaseFile);
+        try {
+            Statement statement = connection.createStatement();
+            try {
+                statement.execute("PRAGMA journal_mode=WAL");
+                statement.execute("PRAGMA synchronous=NORMAL");
+                statement.executeUpdate("CREATE TABLE IF NOT EXISTS " + tableName +
+                        " (TIMESTEP REAL     NOT NULL," +
+                        " CONSUMERGROUP TEXT     NOT NULL," +
+                        " PRODUCTNAME TEXT     NOT NULL," +
+                        " NOADOPTERS INTEGER     NOT NULL)");
+            } finally {
+                statement.close();
+            }
+            connection.setAutoCommit(false);
+            insertStatement = connection.prepareStatement("INSERT INTO " + tableName + " (TIMESTEP, CONSUMERGROUP, PRODUCTNAME, NOADOPTERS) VALUES (?, ?, ?, ?)");
+        } catch (SQLException sqle) {
+            //the connection is of no use to anyone else, so don't leave it (and the file) open
+            try {
+                connection.close();
+            } catch (SQLException closeException) {
+                sqle.addSuppressed(closeException);
+            }
+            throw sqle;
+        }
+        fooLog.debug("Opened data base {} for writing to table {}", databaseFile, tableName);
+        if(backgroundWriting) {
+            pendingBatches = new ArrayBlockingQueue<AdoptionBatch>(MAXPENDINGBATCHES);
+            writerThread = new Thread(new Runnable() {
+                public void run() {
+                    drainPendingBatches();
+                }
+            }, "SQLiteAdoptionWriter-" + tableName);
+            writerThread.setDaemon(true);
+            writerThread.start();
+        } else {
+            pendingBatches = null;
+            writerThread = null;
+        }
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public boolean isBackgroundWriting() {
+        return writerThread != null;
+    }
+
+    /**
+     * Writes the number of adopters per consumer agent group and product for the given step.
+     *
+     * @param timeStep The step (or year) the adoption pattern corresponds to
+     * @param adoptersPerCAGperProduct The number of adopters per consumer agent group and product
+     * @throws IllegalStateException Will be thrown when the writer is closed or writing failed
+     */
+    public void writeAdoptionPattern(double timeStep, Map<ConsumerAgentGroup, Map<Product, Integer>> adoptersPerCAGperProduct) throws IllegalStateException {
+        int noRows = 0;
+        for(Map<Product, Integer> productMap : adoptersPerCAGperProduct.values()) noRows += productMap.size();
+        String[] groupNames = new String[noRows];
+        String[] productNames = new String[noRows];
+        int[] noAdopters = new int[noRows];
+        int row = 0;
+        for(Map.Entry<ConsumerAgentGroup, Map<Product, Integer>> cagEntry : adoptersPerCAGperProduct.entrySet()) {
+            for(Map.Entry<Product, Integer> productEntry : cagEntry.getValue().entrySet()) {
+                groupNames[row] = cagEntry.getKey().getGroupName();
+                productNames[row] = productEntry.getKey().getName();
+                noAdopters[row] = productEntry.getValue();
+                row++;
+            }
+        }
+        writeAdoptionRows(timeStep, groupNames, productNames, noAdopters);
+    }
+
+    /**
+     * Writes rows of the adoption table for the given step. The i-th row consists of
+     * the i-th entries of the arrays. The arrays must not be modified afterwards.
+     *
+     * @param timeStep The step (or year) the rows correspond to
+     * @param groupNames The names of the consumer agent groups of the rows
+     * @param productNames The names of the products of the rows
+     * @param noAdopters The number of adopters of the rows
+     * @throws IllegalArgumentException Will be thrown when the arrays differ in length
+     * @throws IllegalStateException Will be thrown when the writer is closed or writing failed
+     */
+    public void writeAdoptionRows(double timeStep, String[] groupNames, String[] productNames, int[] noAdopters) throws IllegalArgumentException, IllegalStateException {
+        if(groupNames.length != productNames.length || groupNames.length != noAdopters.length) throw new IllegalArgumentException("Number of consumer groups, products and adopters of the rows don't match!!");
+        ensureUsable();
+        AdoptionBatch batch = new AdoptionBatch(timeStep, groupNames, productNames, noAdopters);
+        if(writerThread == null) {
+            List<AdoptionBatch> batches = new ArrayList<AdoptionBatch>(1);
+            batches.add(batch);
+            try {
+                writeBatches(batches);
+            } catch (SQLException sqle) {
+                throw new IllegalStateException("Writing step " + timeStep + " to table " + tableName + " failed!!", sqle);
+            }
+        } else {
+            try {
+                pendingBatches.put(batch);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while handing step " + timeStep + " to the writer!!", ie);
+            }
+        }
+    }
+
+    /**
+     * Writes all pending batches and closes the connection to the data base.
+     * Closing an already closed writer has no effect.
+     *
+     * @throws IllegalStateException Will be thrown when writing a pending batch failed
+     */
+    public void close() throws IllegalStateException {
+        if(closed) return;
+        closed = true;
+        if(writerThread != null) {
+            try {
+                if(writerThread.isAlive()) pendingBatches.put(AdoptionBatch.ENDOFRUN);
+                writerThread.join();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                writerFailure = ie;
+            }
+        }
+        try {
+            insertStatement.close();
+            connection.close();
+        } catch (SQLException sqle) {
+            if(writerFailure == null) writerFailure = sqle;
+        }
+        if(writerFailure != null) throw new IllegalStateException("Writing to table " + tableName + " failed!!", writerFailure);
+    }
+
+    private void ensureUsable() throws IllegalStateException {
+        if(closed) throw new IllegalStateException("The writer for table " + tableName + " is already closed!!");
+        if(writerFailure != null) throw new IllegalStateException("Writing to table " + tableName + " failed!!", writerFailure);
+    }
+
+    /**
+     * Loop of the background thread. Takes all batches pending at a time and writes them
+     * in one transaction, until the end of the run is signaled.
+     */
+    private void drainPendingBatches() {
+        List<AdoptionBatch> batches = new ArrayList<AdoptionBatch>();
+        boolean endOfRun = false;
+        while(!endOfRun) {
+            try {
+                batches.add(pendingBatches.take());
+            } catch (InterruptedException ie) {
+                writerFailure = ie;
+                return;
+            }
+            pendingBatches.drainTo(batches);
+            if(batches.get(batches.size() - 1) == AdoptionBatch.ENDOFRUN) {
+                batches.remove(batches.size() - 1);
+                endOfRun = true;
+            }
+            if(writerFailure == null) {
+                try {
+                    writeBatches(batches);
+                } catch (SQLException sqle) {
+                    fooLog.error("Writing to table {} failed: {}", tableName, sqle.getMessage());
+                    writerFailure = sqle;
+                }
+            }
+            batches.clear();
+        }
+    }
+
+    private void writeBatches(List<AdoptionBatch> batches) throws SQLException {
+        try {
+            for(AdoptionBatch batch : batches) {
+                for(int row = 0; row < batch.noAdopters.length; row++) {
+                    insertStatement.setDouble(1, batch.timeStep);
+                    insertStatement.setString(2, batch.groupNames[row]);
+                    insertStatement.setString(3, batch.productNames[row]);
+                    insertStatement.setInt(4, batch.noAdopters[row]);
+                    insertStatement.addBatch();
+                }
+            }
+            insertStatement.executeBatch();
+            connection.commit();
+        } catch (SQLException sqle) {
+            //a failing rollback must not mask the reason the batches couldn't be written
+            try {
+                insertStatement.clearBatch();
+                connection.rollback();
+            } catch (SQLException rollbackException) {
+                sqle.addSuppressed(rollbackException);
+            }
+            throw sqle;
+        }
+    }
+
+    /**
+     * The rows of one step as handed over to the writer
+     */
+    private static final class AdoptionBatch {
+
+        private static final AdoptionBatch ENDOFRUN = new AdoptionBatch(Double.NaN, new String[0], new String[0], new int[0]);
+
+        private final double timeStep;
+        private final String[] groupNames;
+        private final String[] productNames;
+        private final int[] noAdopters;
+
+        private AdoptionBatch(double timeStep, String[] groupNames, String[] productNames, int[] noAdopters) {
+            this.timeStep = timeStep;
+            this.groupNames = groupNames;
+            this.productNames = productNames;
+            this.noAdopters = noAdopters;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package IRPact_modellierung.messaging;
 import IRPact_modellierung.events.CommunicationEvent;
 import IRPact_modellierung.simulation.SimulationContainer;
 
+import java.io.Serializable;
 import java.util.Set;
 
 /**
@@ -12,7 +13,7 @@ import java.util.Set;
  *
  * @author Simon Johanning
  */
-public abstract class CommunicationScheme {
+public abstract class CommunicationScheme implements Serializable {
 
     protected MessageScheme correspondingMessageScheme;
 
@@ -6,7 +6,7 @@ import IRPact_modellierung.helper.MetricHelper;
 import IRPact_modellierung.simulation.SimulationContainer;
 
 import java.awt.geom.Point2D;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 /**
@@ -42,7 +42,7 @@ public class ContinuousMetricCommunicationScheme extends CommunicationScheme{
      * @return CommunicationEvents corresponding to the messages scheduled in the future proportional to he metric distance of the sender and receiver of the messages
      */
     public Set<CommunicationEvent> createCommunicationEvents(Set<Message> correspondingMessages, double currentTime, SimulationContainer simulationContainer) {
-        Set<CommunicationEvent> events = new HashSet<>(correspondingMessages.size());
+        Set<CommunicationEvent> events = new LinkedHashSet<>(correspondingMessages.size());
         for(Message currentMessage : correspondingMessages){
             Point2D senderCoordinates = ((SpatialAgent) currentMessage.getSender()).getCoordinates();
             Point2D receiverCoordinates = ((SpatialAgent) currentMessage.getReceiver()).getCoordinates();
@@ -1,5 +1,6 @@
 package IRPact_modellierung.messaging;
 
+import IRPact_modellierung.simulation.RandomNumberService;
 import IRPact_modellierung.agents.Agent;
 import IRPact_modellierung.agents.companyAgents.CompanyAgent;
 import IRPact_modellierung.agents.consumerAgents.ConsumerAgent;
@@ -16,7 +17,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 /**
@@ -60,9 +61,9 @@ public class DefaultCompanyAgentMessageScheme extends CompanyAgentMessageScheme{
      * @return The messages the company agent is to send
      */
     public Set<Message> createMessages(SimulationContainer simulationContainer, CompanyAgent sender) {
-        Set<Message> messagesToSend = new HashSet<Message>();
+        Set<Message> messagesToSend = new LinkedHashSet<Message>();
         for(int messageIndex = 0; messageIndex < (int) Math.floor(numberOfMessages.draw()); messageIndex++){
-            SNNode targetNode = LazynessHelper.getRandomSNNode(simulationContainer.getSocialNetwork().getSocialGraph().getNodes());
+            SNNode targetNode = simulationContainer.getSocialNetwork().getSocialGraph().sampleNode();
             ConsumerAgent targetAgent = LazynessHelper.retrieveCorrespondingConsumerAgent(simulationContainer, targetNode);
             String messageType = decideForMessageType();
             Product productConcerned = LazynessHelper.chooseProduct(FilterHelper.filterProductsNotOnMarketYet(sender.getProductPortfolio()));
@@ -82,19 +83,19 @@ public class DefaultCompanyAgentMessageScheme extends CompanyAgentMessageScheme{
 
 
     private String decideForMessageType(){
-        if(Math.random() < fractionPreferenceMessages) return "PreferenceMessage";
+        if(RandomNumberService.nextDouble() < fractionPreferenceMessages) return "PreferenceMessage";
         else return "ProductAttributeMessage";
     }
 
     private ProductAttribute decideForProductAttribute(Set<ProductAttribute> potentialAttributes){
         ArrayList<ProductAttribute> attributeList = (ArrayList<ProductAttribute>) potentialAttributes;
-        int attributeIndex = (int) Math.floor(Math.random()*potentialAttributes.size());
+        int attributeIndex = (int) Math.floor(RandomNumberService.nextDouble()*potentialAttributes.size());
         return attributeList.get(attributeIndex);
     }
 
     private Value decideForValue(Set<Value> potentialValue){
         ArrayList<Value> valueList = (ArrayList<Value>) potentialValue;
-        int attributeIndex = (int) Math.floor(Math.random()*potentialValue.size());
+        int attributeIndex = (int) Math.floor(RandomNumberService.nextDouble()*potentialValue.size());
         return valueList.get(attributeIndex);
     }
 
@@ -1,5 +1,6 @@
 package IRPact_modellierung.messaging;
 
+import IRPact_modellierung.simulation.RandomNumberService;
 import IRPact_modellierung.agents.Agent;
 import IRPact_modellierung.agents.consumerAgents.ConsumerAgent;
 import IRPact_modellierung.distributions.UnivariateDistribution;
@@ -9,7 +10,7 @@ import IRPact_modellierung.preference.Value;
 import IRPact_modellierung.helper.FilterHelper;
 import IRPact_modellierung.helper.LazynessHelper;
 import IRPact_modellierung.helper.StructureEnricher;
-import IRPact_modellierung.network.SNEdge;
+import IRPact_modellierung.network.CompressedSocialGraph;
 import IRPact_modellierung.network.SNNode;
 import IRPact_modellierung.products.Product;
 import IRPact_modellierung.products.ProductAttribute;
@@ -19,7 +20,7 @@ import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 /**
@@ -53,35 +54,27 @@ public class DefaultConsumerAgentMessageScheme extends ConsumerAgentMessageSchem
     public Set<Message> createMessages(SimulationContainer simulationContainer, ConsumerAgent sendingAgent) {
         ConsumerAgent sender = (ConsumerAgent) sendingAgent;
         int noMessagesToSend = (int) (Math.floor(numberMessagesPerTimeUnit.draw()));
-        fooLog.debug("Creating {} messages for {} with {} potential receivers",noMessagesToSend, sendingAgent, simulationContainer.getSocialNetwork().getSocialGraph().getNeighbours(sender.getCorrespondingNodeInSN()).size());
-        Set<Message> messagesToSend = new HashSet<Message>(noMessagesToSend);
-        if(simulationContainer.getSocialNetwork().getSocialGraph().getNeighbours(sender.getCorrespondingNodeInSN()).size() > 0) {
+        CompressedSocialGraph compressedGraph = simulationContainer.getSocialNetwork().getSocialGraph().getCompressedGraph();
+        int senderId = compressedGraph.getNodeId(sender.getCorrespondingNodeInSN());
+        int noPotentialReceivers = compressedGraph.getDegree(senderId, SocialGraph.EDGEMEDIUM.COMMUNICATION);
+        fooLog.debug("Creating {} messages for {} with {} potential receivers",noMessagesToSend, sendingAgent, noPotentialReceivers);
+        Set<Message> messagesToSend = new LinkedHashSet<Message>(noMessagesToSend);
+        if(noPotentialReceivers > 0) {
             for (int messageIndex = 0; messageIndex < noMessagesToSend; messageIndex++) {
-//                System.out.println("neighbourlist");
-//                System.out.println(simulationContainer.getSocialNetwork().getSocialGraph().getNeighbours());
-//                System.out.println("communicationNeighbourLists");
-//                System.out.println(simulationContainer.getSocialNetwork().getSocialGraph().getNeighbours().get(SocialGraph.EDGEMEDIUM.COMMUNICATION));
-//                System.out.println("correponding node");
-//                System.out.println(sender.getCorrespondingNodeInSN());
-//                System.out.println("communicationNeighbourLists of corresponding node");
-//                System.out.println(simulationContainer.getSocialNetwork().getSocialGraph().getNeighbours().get(SocialGraph.EDGEMEDIUM.COMMUNICATION).get(sender.getCorrespondingNodeInSN()));
-                Set<SNNode> potentialTargetNodes = simulationContainer.getSocialNetwork().getSocialGraph().getNeighbours().get(SocialGraph.EDGEMEDIUM.COMMUNICATION).get(sender.getCorrespondingNodeInSN());
-                if(!potentialTargetNodes.isEmpty()) {
-                    SNNode targetNode = LazynessHelper.getRandomSNNode(potentialTargetNodes);
-                    SNEdge correspondingEdge = LazynessHelper.getCorrespondingEdge(sender.getCorrespondingNodeInSN(), targetNode, simulationContainer.getSocialNetwork().getSocialGraph().getEdges());
-                    ConsumerAgent targetAgent = LazynessHelper.retrieveCorrespondingConsumerAgent(simulationContainer, targetNode);
-                    Set<Product> potentialProducts = FilterHelper.filterProductsNotOnMarketYet(FilterHelper.selectKnownProducts(sender.getProductAwarenessMap()));
-                    if (potentialProducts.size() > 0) {
-                        Product productConcerned = LazynessHelper.chooseProduct(potentialProducts);
-                        String messageType = decideForMessageType();
-                        if (messageType.equals("PreferenceMessage")) {
-                            Preference preferenceConcerned = decideForPreference(simulationContainer.getValuesUsed(), sender.getPreferences());
-                            messagesToSend.add(new ConsumerConsumerPreferenceManipulationMessage(sender, targetAgent, preferenceConcerned, simulationContainer.getSimulationConfiguration().getPreferenceConfiguration().getPreferenceHomogenizingFactor()));
-                        } else if (messageType.equals("ProductAttributeMessage")) {
-                            messagesToSend.add(new ConsumerConsumerPerceptionManipulationMessage(sender, targetAgent, decideForProductAttribute(productConcerned.getProductAttributes()), productConcerned));
-                        } else {
-                            fooLog.info("ERROR!!! The message type {} is not implemented!!!", messageType);
-                        }
+                int targetIndex = (int) Math.floor(RandomNumberService.nextDouble() * noPotentialReceivers);
+                SNNode targetNode = compressedGraph.getNode(compressedGraph.getNeighbourId(senderId, SocialGraph.EDGEMEDIUM.COMMUNICATION, targetIndex));
+                ConsumerAgent targetAgent = LazynessHelper.retrieveCorrespondingConsumerAgent(simulationContainer, targetNode);
+                Set<Product> potentialProducts = FilterHelper.filterProductsNotOnMarketYet(FilterHelper.selectKnownProducts(sender.getProductAwarenessMap()));
+                if (potentialProducts.size() > 0) {
+                    Product productConcerned = LazynessHelper.chooseProduct(potentialProducts);
+                    String messageType = decideForMessageType();
+                    if (messageType.equals("PreferenceMessage")) {
+                        Preference preferenceConcerned = decideForPreference(simulationContainer.getValuesUsed(), sender.getPreferences());
+                        messagesToSend.add(new ConsumerConsumerPreferenceManipulationMessage(sender, targetAgent, preferenceConcerned, simulationContainer.getSimulationConfiguration().getPreferenceConfiguration().getPreferenceHomogenizingFactor()));
+                    } else if (messageType.equals("ProductAttributeMessage")) {
+                        messagesToSend.add(new ConsumerConsumerPerceptionManipulationMessage(sender, targetAgent, decideForProductAttribute(productConcerned.getProductAttributes()), productConcerned));
+                    } else {
+                        fooLog.info("ERROR!!! The message type {} is not implemented!!!", messageType);
                     }
                 }
             }
@@ -97,14 +90,14 @@ public class DefaultConsumerAgentMessageScheme extends ConsumerAgentMessageSchem
 
     private ProductAttribute decideForProductAttribute(Set<ProductAttribute> potentialAttributes){
         ArrayList<ProductAttribute> attributeList = new ArrayList<ProductAttribute>(potentialAttributes);
-        int attributeIndex = (int) Math.floor(Math.random()*potentialAttributes.size());
+        int attributeIndex = (int) Math.floor(RandomNumberService.nextDouble()*potentialAttributes.size());
         return attributeList.get(attributeIndex);
     }
 
     private Preference decideForPreference(Set<Value> potentialValue, Set<Preference> preferences){
         HashMap<Value, Preference> preferenceMap = StructureEnricher.attachPreferenceValues(preferences);
         ArrayList<Value> valueList = new ArrayList<Value> (potentialValue);
-        int attributeIndex = (int) Math.floor(Math.random()*potentialValue.size());
+        int attributeIndex = (int) Math.floor(RandomNumberService.nextDouble()*potentialValue.size());
         return preferenceMap.get(valueList.get(attributeIndex));
     }
 
@@ -3,7 +3,7 @@ package IRPact_modellierung.messaging;
 import IRPact_modellierung.events.CommunicationEvent;
 import IRPact_modellierung.simulation.SimulationContainer;
 
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 /**
@@ -32,7 +32,7 @@ public class ImmediateCommunicationScheme extends CommunicationScheme{
      * @return CommunicationEvents corresponding to the messages scheduled for immediate execution
      */
     public Set<CommunicationEvent> createCommunicationEvents(Set<Message> correspondingMessages, double currentTime, SimulationContainer simulationContainer) {
-        Set<CommunicationEvent> events = new HashSet<>();
+        Set<CommunicationEvent> events = new LinkedHashSet<>();
         for(Message currentMessage : correspondingMessages){
             events.add(new CommunicationEvent(currentMessage, currentTime, simulationContainer));
         }
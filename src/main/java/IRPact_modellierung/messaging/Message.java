@@ -6,6 +6,7 @@ import IRPact_modellierung.network.SNEdge;
 import IRPact_modellierung.network.SNNode;
 import IRPact_modellierung.network.SocialGraph;
 
+import java.io.Serializable;
 import java.util.Map;
 
 /**
@@ -15,7 +16,7 @@ import java.util.Map;
  *
  * @author Simon Johanning
  */
-public abstract class Message {
+public abstract class Message implements Serializable {
 
 	protected Agent sender;
 	protected Agent receiver;
@@ -3,6 +3,7 @@ package IRPact_modellierung.messaging;
 import IRPact_modellierung.agents.Agent;
 import IRPact_modellierung.simulation.SimulationContainer;
 
+import java.io.Serializable;
 import java.util.Set;
 
 /**
@@ -13,7 +14,7 @@ import java.util.Set;
  *
  * @author Simon Johanning
  */
-public abstract class MessageScheme {
+public abstract class MessageScheme implements Serializable {
 
     /**
      * Method to create the respective messages of a sending agent
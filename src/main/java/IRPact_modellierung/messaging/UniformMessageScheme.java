@@ -7,7 +7,7 @@ import IRPact_modellierung.products.Product;
 import IRPact_modellierung.products.ProductAttribute;
 import IRPact_modellierung.simulation.SimulationContainer;
 
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 /**
@@ -36,7 +36,7 @@ public class UniformMessageScheme extends CompanyAgentMessageScheme {
      * @return A set of messages with one CompanyConsumerPerceptionManipulationMessage for each consumerAgent in the simulationContainer and each ProductAttributes of the products managed by the sender, with the true value of the product attribute and an advertisement factor of 1.0
      */
     public Set<Message> createMessages(SimulationContainer simulationContainer, CompanyAgent sender) {
-        Set<Message> uniformMessages = new HashSet<>();
+        Set<Message> uniformMessages = new LinkedHashSet<>();
         for(ConsumerAgent currentAgent : simulationContainer.getConsumerAgents()){
             for(Product currentProduct : sender.getProductPortfolio()){
                 for(ProductAttribute currentPA : currentProduct.getProductAttributes()){
@@ -0,0 +1,133 @@
+package IRPact_modellierung.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The LogLinearHistogram records the distribution of non-negative values (such as latencies in nanoseconds)
+ * in the manner of an HDR histogram: values are counted in buckets whose width grows with the magnitude of the values,
+ * every power of two being split into SUBBUCKETS buckets of equal width.
+ * The values reported (such as percentiles) thus have a relative error of at most 1/SUBBUCKETS,
+ * for any magnitude and with a fixed amount of memory.
+ *
+ * Recording a value takes a few atomic operations and doesn't allocate, so it is cheap enough to be done permanently
+ * and is safe from several threads at once. Resetting and adding histograms is not atomic with respect to concurrent recording.
+ *
+ * @author Simon Johanning
+ */
+public class LogLinearHistogram {
+
+    //number of buckets per power of two (a power of two itself)
+    private static final int SUBBUCKETBITS = 5;
+    private static final int SUBBUCKETS = 1 << SUBBUCKETBITS;
+    //values below SUBBUCKETS are counted exactly, every power of two above in SUBBUCKETS buckets
+    private static final int NOBUCKETS = SUBBUCKETS + (64 - SUBBUCKETBITS) * SUBBUCKETS;
+
+    //the number of values is derived from the buckets, which keeps recording down to three atomic operations
+    private final AtomicLongArray bucketCounts;
+    private final AtomicLong sum;
+    private final AtomicLong max;
+
+    public LogLinearHistogram() {
+        bucketCounts = new AtomicLongArray(NOBUCKETS);
+        sum = new AtomicLong();
+        max = new AtomicLong();
+    }
+
+    /**
+     * Records a value (negative values are recorded as 0)
+     *
+     * @param value The value to record
+     */
+    public void record(long value) {
+        if(value < 0) value = 0;
+        bucketCounts.incrementAndGet(bucketIndex(value));
+        sum.addAndGet(value);
+        long currentMax = max.get();
+        while(value > currentMax && !max.compareAndSet(currentMax, value)) {
+            currentMax = max.get();
+        }
+    }
+
+    public long getCount() {
+        long count = 0;
+        for(int index = 0; index < NOBUCKETS; index++) {
+            count += bucketCounts.get(index);
+        }
+        return count;
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @return The mean of the recorded values (exact), NaN if no value was recorded
+     */
+    public double getMean() {
+        long currentCount = getCount();
+        return currentCount == 0 ? Double.NaN : ((double) sum.get()) / currentCount;
+    }
+
+    /**
+     * Method to retrieve the value below which the given percentage of the recorded values lie
+     *
+     * @param percentile The percentage of interest (between 0 and 100)
+     * @return The (approximate) value at the percentile, 0 if no value was recorded
+     * @throws IllegalArgumentException Will be thrown when the percentile is not between 0 and 100
+     */
+    public long getValueAtPercentile(double percentile) throws IllegalArgumentException {
+        if(!(percentile >= 0.0 && percentile <= 100.0)) throw new IllegalArgumentException("Percentile "+percentile+" is not between 0 and 100!!");
+        long currentCount = getCount();
+        if(currentCount == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * currentCount));
+        long countBelow = 0;
+        for(int index = 0; index < NOBUCKETS; index++) {
+            countBelow += bucketCounts.get(index);
+            if(countBelow >= rank) return Math.min(bucketMidpoint(index), max.get());
+        }
+        return max.get();
+    }
+
+    /**
+     * Adds the values recorded by another histogram to this one
+     *
+     * @param otherHistogram The histogram whose values are to be added
+     */
+    public void add(LogLinearHistogram otherHistogram) {
+        for(int index = 0; index < NOBUCKETS; index++) {
+            long bucketCount = otherHistogram.bucketCounts.get(index);
+            if(bucketCount != 0) bucketCounts.addAndGet(index, bucketCount);
+        }
+        sum.addAndGet(otherHistogram.sum.get());
+        long otherMax = otherHistogram.max.get();
+        long currentMax = max.get();
+        while(otherMax > currentMax && !max.compareAndSet(currentMax, otherMax)) {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * Removes all values recorded
+     */
+    public void reset() {
+        for(int index = 0; index < NOBUCKETS; index++) {
+            bucketCounts.set(index, 0);
+        }
+        sum.set(0);
+        max.set(0);
+    }
+
+    private static int bucketIndex(long value) {
+        if(value < SUBBUCKETS) return (int) value;
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - SUBBUCKETBITS;
+        return SUBBUCKETS + shift * SUBBUCKETS + (int) ((value >>> shift) - SUBBUCKETS);
+    }
+
+    private static long bucketMidpoint(int index) {
+        if(index < SUBBUCKETS) return index;
+        int shift = (index - SUBBUCKETS) / SUBBUCKETS;
+        long lowerBound = ((long) (SUBBUCKETS + (index - SUBBUCKETS) % SUBBUCKETS)) << shift;
+        return lowerBound + ((1L << shift) >>> 1);
+    }
+}
@@ -0,0 +1,375 @@
+package IRPact_modellierung.metrics;
+
+import IRPact_modellierung.decision.DecisionMakingProcess;
+import IRPact_modellierung.events.Event;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.MBeanRegistrationException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.NotCompliantMBeanException;
+import javax.management.ObjectName;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The SimulationMetrics is the registry of the performance metrics of a simulation: named counters
+ * and named histograms (see LogLinearHistogram) of latencies and other values, such as the duration of the
+ * phases of the process model, the number of events processed per type of event, the depth of the queue
+ * of the event scheduler, the duration of processing the events due and the latency of the calls of decision processes.
+ *
+ * Recording is cheap (a map lookup and a few atomic operations, no allocation) and thread-safe,
+ * so the metrics can be kept on in production runs; they can be disabled nonetheless (see setEnabled).
+ * The time model finishes every step (see finishStep), which writes the metrics of the step
+ * to the step dump (as CSV or JSON lines, see setStepDump) and adds them to the totals.
+ * The totals can be inspected through JMX once the metrics are registered with the platform MBean server (see registerMBean).
+ *
+ * @author Simon Johanning
+ */
+public class SimulationMetrics implements SimulationMetricsMXBean {
+
+    private static final Logger fooLog = LogManager.getLogger("debugConsoleLogger");
+
+    public static final String STEPLATENCY = "step";
+    public static final String QUEUEDEPTH = "scheduler.queueDepth";
+    public static final String EVENTPROCESSING = "scheduler.eventProcessing";
+    public static final String EVENTSSCHEDULED = "scheduler.eventsScheduled";
+    public static final String PHASEPREFIX = "phase.";
+    public static final String EVENTPREFIX = "events.";
+    public static final String DECISIONPREFIX = "decisions.";
+
+    public enum DUMPFORMAT {
+        CSV, JSON
+    }
+
+    //names of the metrics of event types and decision processes, derived once per class
+    private static final ClassValue<String> EVENTMETRICNAMES = new ClassValue<String>() {
+        protected String computeValue(Class<?> eventType) {
+            return EVENTPREFIX + eventType.getSimpleName();
+        }
+    };
+    private static final ClassValue<String> DECISIONMETRICNAMES = new ClassValue<String>() {
+        protected String computeValue(Class<?> decisionProcessType) {
+            return DECISIONPREFIX + decisionProcessType.getSimpleName();
+        }
+    };
+
+    private volatile boolean enabled;
+    private final ConcurrentHashMap<String, AtomicLong> counters;
+    //histograms of the current step and of all steps finished
+    private final ConcurrentHashMap<String, LogLinearHistogram> stepHistograms;
+    private final ConcurrentHashMap<String, LogLinearHistogram> totalHistograms;
+    //counter values at the end of the last step, to derive the counts per step
+    private final HashMap<String, Long> countersAtLastStep;
+    private volatile int lastFinishedStep;
+    private PrintWriter stepDump;
+    private DUMPFORMAT stepDumpFormat;
+    private ObjectMapper jsonMapper;
+    private ObjectName mBeanName;
+
+    public SimulationMetrics() {
+        enabled = true;
+        counters = new ConcurrentHashMap<String, AtomicLong>();
+        stepHistograms = new ConcurrentHashMap<String, LogLinearHistogram>();
+        totalHistograms = new ConcurrentHashMap<String, LogLinearHistogram>();
+        countersAtLastStep = new HashMap<String, Long>();
+        lastFinishedStep = -1;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param enabled Whether metrics are to be recorded (metrics recorded before are kept)
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getLastFinishedStep() {
+        return lastFinishedStep;
+    }
+
+    /**
+     * Increases the counter of the given name by the given amount
+     *
+     * @param name The name of the counter
+     * @param amount The amount to add
+     */
+    public void addToCounter(String name, long amount) {
+        if(!enabled) return;
+        AtomicLong counter = counters.get(name);
+        if(counter == null) {
+            AtomicLong newCounter = new AtomicLong();
+            counter = counters.putIfAbsent(name, newCounter);
+            if(counter == null) counter = newCounter;
+        }
+        counter.addAndGet(amount);
+    }
+
+    /**
+     * Records a value in the histogram of the given name
+     *
+     * @param name The name of the histogram
+     * @param value The value to record (such as a latency in nanoseconds)
+     */
+    public void recordValue(String name, long value) {
+        if(!enabled) return;
+        LogLinearHistogram histogram = stepHistograms.get(name);
+        if(histogram == null) {
+            LogLinearHistogram newHistogram = new LogLinearHistogram();
+            histogram = stepHistograms.putIfAbsent(name, newHistogram);
+            if(histogram == null) histogram = newHistogram;
+        }
+        histogram.record(value);
+    }
+
+    /**
+     * Method to start timing an operation, to be finished by stopTimer (or one of the record methods)
+     *
+     * @return The start time of the operation (0 if the metrics are disabled)
+     */
+    public long startTimer() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Records the latency of an operation since the start time in the histogram of the given name
+     *
+     * @param name The name of the latency histogram
+     * @param startTime The start time of the operation (see startTimer)
+     */
+    public void stopTimer(String name, long startTime) {
+        if(!enabled || startTime == 0L) return;
+        recordValue(name, System.nanoTime() - startTime);
+    }
+
+    /**
+     * Counts the processing of an event per type of event.
+     * Single events are not timed, since most take a few microseconds only (see EVENTPROCESSING instead).
+     *
+     * @param processedEvent The event processed
+     */
+    public void countEvent(Event processedEvent) {
+        if(!enabled) return;
+        addToCounter(EVENTMETRICNAMES.get(processedEvent.getClass()), 1);
+    }
+
+    /**
+     * Records a call of a decision process, timing it per type of decision process
+     *
+     * @param decisionProcess The decision process called
+     * @param startTime The time the call started at (see startTimer)
+     */
+    public void recordDecision(DecisionMakingProcess decisionProcess, long startTime) {
+        stopTimer(DECISIONMETRICNAMES.get(decisionProcess.getClass()), startTime);
+    }
+
+    /**
+     * Configures the metrics to write the metrics of every step finished to the given file (overwriting it).
+     * In CSV format, every line holds one statistic of one metric in a step (step, simulation time, metric, statistic, value);
+     * in JSON format, every line holds a JSON object with the metrics of one step.
+     * Counters are given per step, histograms by their count, mean, median, 99th percentile and maximum in the step.
+     *
+     * @param dumpFile The file to write the step dump to
+     * @param dumpFormat The format of the step dump
+     * @throws IOException Will be thrown when the file can't be opened
+     */
+    public synchronized void setStepDump(File dumpFile, DUMPFORMAT dumpFormat) throws IOException {
+        closeStepDump();
+        stepDump = new PrintWriter(new BufferedWriter(new FileWriter(dumpFile)));
+        stepDumpFormat = dumpFormat;
+        if(dumpFormat == DUMPFORMAT.CSV) stepDump.println("step,simulationTime,metric,statistic,value");
+        else if(jsonMapper == null) jsonMapper = new ObjectMapper();
+    }
+
+    /**
+     * Finishes a step: writes the metrics of the step to the step dump (if any) and adds them to the totals.
+     * Must not be called while metrics are recorded by other threads.
+     *
+     * @param step The step finished
+     * @param simulationTime The simulation time of the step
+     */
+    public synchronized void finishStep(int step, double simulationTime) {
+        Map<String, Long> stepCounters = new TreeMap<String, Long>();
+        for(Map.Entry<String, AtomicLong> counterEntry : counters.entrySet()) {
+            long value = counterEntry.getValue().get();
+            Long valueAtLastStep = countersAtLastStep.get(counterEntry.getKey());
+            stepCounters.put(counterEntry.getKey(), value - (valueAtLastStep == null ? 0L : valueAtLastStep));
+            countersAtLastStep.put(counterEntry.getKey(), value);
+        }
+        //histograms without values in the step are left out
+        Map<String, LogLinearHistogram> histogramsOfStep = new TreeMap<String, LogLinearHistogram>();
+        for(Map.Entry<String, LogLinearHistogram> histogramEntry : stepHistograms.entrySet()) {
+            if(histogramEntry.getValue().getCount() > 0) histogramsOfStep.put(histogramEntry.getKey(), histogramEntry.getValue());
+        }
+        if(stepDump != null) writeStep(step, simulationTime, stepCounters, histogramsOfStep);
+        for(Map.Entry<String, LogLinearHistogram> histogramEntry : histogramsOfStep.entrySet()) {
+            LogLinearHistogram totalHistogram = totalHistograms.get(histogramEntry.getKey());
+            if(totalHistogram == null) {
+                totalHistogram = new LogLinearHistogram();
+                totalHistograms.put(histogramEntry.getKey(), totalHistogram);
+            }
+            totalHistogram.add(histogramEntry.getValue());
+            histogramEntry.getValue().reset();
+        }
+        lastFinishedStep = step;
+    }
+
+    private void writeStep(int step, double simulationTime, Map<String, Long> stepCounters, Map<String, LogLinearHistogram> histogramsOfStep) {
+        if(stepDumpFormat == DUMPFORMAT.CSV) {
+            String stepPrefix = step + "," + simulationTime + ",";
+            for(Map.Entry<String, Long> counterEntry : stepCounters.entrySet()) {
+                stepDump.println(stepPrefix + counterEntry.getKey() + ",count," + counterEntry.getValue());
+            }
+            for(Map.Entry<String, LogLinearHistogram> histogramEntry : histogramsOfStep.entrySet()) {
+                for(Map.Entry<String, Number> statistic : summarize(histogramEntry.getValue()).entrySet()) {
+                    stepDump.println(stepPrefix + histogramEntry.getKey() + "," + statistic.getKey() + "," + statistic.getValue());
+                }
+            }
+        } else {
+            Map<String, Object> stepObject = new LinkedHashMap<String, Object>();
+            stepObject.put("step", step);
+            stepObject.put("simulationTime", simulationTime);
+            stepObject.put("counters", stepCounters);
+            Map<String, Object> histogramObjects = new LinkedHashMap<String, Object>();
+            for(Map.Entry<String, LogLinearHistogram> histogramEntry : histogramsOfStep.entrySet()) {
+                histogramObjects.put(histogramEntry.getKey(), summarize(histogramEntry.getValue()));
+            }
+            stepObject.put("histograms", histogramObjects);
+            try {
+                stepDump.println(jsonMapper.writeValueAsString(stepObject));
+            } catch (IOException ioe) {
+                fooLog.error("Metrics of step {} could not be converted to JSON: {}", step, ioe.getMessage());
+            }
+        }
+        stepDump.flush();
+        if(stepDump.checkError()) {
+            fooLog.error("Metrics of step {} could not be written; the step dump is closed", step);
+            closeStepDump();
+        }
+    }
+
+    private static Map<String, Number> summarize(LogLinearHistogram histogram) {
+        Map<String, Number> summary = new LinkedHashMap<String, Number>();
+        summary.put("count", histogram.getCount());
+        summary.put("mean", histogram.getMean());
+        summary.put("p50", histogram.getValueAtPercentile(50.0));
+        summary.put("p99", histogram.getValueAtPercentile(99.0));
+        summary.put("max", histogram.getMax());
+        return summary;
+    }
+
+    /**
+     * Registers the metrics with the platform MBean server, so they can be inspected through JMX
+     * under the name IRPact_modellierung:type=SimulationMetrics,name=simulationName
+     *
+     * @param simulationName The name distinguishing the simulation from others in the same JVM
+     * @throws IllegalArgumentException Will be thrown when the metrics can't be registered under the name (e.g. since it is taken)
+     */
+    public synchronized void registerMBean(String simulationName) throws IllegalArgumentException {
+        unregisterMBean();
+        try {
+            ObjectName name = new ObjectName("IRPact_modellierung:type=SimulationMetrics,name=" + ObjectName.quote(simulationName));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+            mBeanName = name;
+        } catch (MalformedObjectNameException | InstanceAlreadyExistsException | MBeanRegistrationException | NotCompliantMBeanException e) {
+            throw new IllegalArgumentException("The metrics of simulation "+simulationName+" can't be registered with the MBean server!!", e);
+        }
+    }
+
+    /**
+     * Closes the step dump and unregisters the metrics from the MBean server (if registered)
+     */
+    public synchronized void close() {
+        closeStepDump();
+        unregisterMBean();
+    }
+
+    private void closeStepDump() {
+        if(stepDump != null) stepDump.close();
+        stepDump = null;
+    }
+
+    private void unregisterMBean() {
+        if(mBeanName == null) return;
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if(mBeanServer.isRegistered(mBeanName)) mBeanServer.unregisterMBean(mBeanName);
+        } catch (InstanceNotFoundException | MBeanRegistrationException e) {
+            fooLog.warn("Metrics could not be unregistered from the MBean server: {}", e.getMessage());
+        }
+        mBeanName = null;
+    }
+
+    public Map<String, Long> getCounters() {
+        Map<String, Long> counterValues = new TreeMap<String, Long>();
+        for(Map.Entry<String, AtomicLong> counterEntry : counters.entrySet()) {
+            counterValues.put(counterEntry.getKey(), counterEntry.getValue().get());
+        }
+        return counterValues;
+    }
+
+    /**
+     * @param name The name of the histogram of interest
+     * @return The histogram of all steps finished, null if no value was recorded in any finished step
+     */
+    public LogLinearHistogram getTotalHistogram(String name) {
+        return totalHistograms.get(name);
+    }
+
+    public Map<String, Long> getHistogramCounts() {
+        Map<String, Long> statistics = new TreeMap<String, Long>();
+        for(Map.Entry<String, LogLinearHistogram> histogramEntry : totalHistograms.entrySet()) {
+            statistics.put(histogramEntry.getKey(), histogramEntry.getValue().getCount());
+        }
+        return statistics;
+    }
+
+    public Map<String, Double> getHistogramMeans() {
+        Map<String, Double> statistics = new TreeMap<String, Double>();
+        for(Map.Entry<String, LogLinearHistogram> histogramEntry : totalHistograms.entrySet()) {
+            statistics.put(histogramEntry.getKey(), histogramEntry.getValue().getMean());
+        }
+        return statistics;
+    }
+
+    public Map<String, Long> getHistogramMedians() {
+        return getHistogramPercentiles(50.0);
+    }
+
+    public Map<String, Long> getHistogram99thPercentiles() {
+        return getHistogramPercentiles(99.0);
+    }
+
+    public Map<String, Long> getHistogramMaxima() {
+        Map<String, Long> statistics = new TreeMap<String, Long>();
+        for(Map.Entry<String, LogLinearHistogram> histogramEntry : totalHistograms.entrySet()) {
+            statistics.put(histogramEntry.getKey(), histogramEntry.getValue().getMax());
+        }
+        return statistics;
+    }
+
+    private Map<String, Long> getHistogramPercentiles(double percentile) {
+        Map<String, Long> statistics = new TreeMap<String, Long>();
+        for(Map.Entry<String, LogLinearHistogram> histogramEntry : totalHistograms.entrySet()) {
+            statistics.put(histogramEntry.getKey(), histogramEntry.getValue().getValueAtPercentile(percentile));
+        }
+        return statistics;
+    }
+}
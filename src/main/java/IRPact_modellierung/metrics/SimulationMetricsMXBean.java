@@ -0,0 +1,52 @@
+package IRPact_modellierung.metrics;
+
+import java.util.Map;
+
+/**
+ * Management interface of the SimulationMetrics, through which the metrics of a running simulation
+ * can be inspected via JMX (e.g. with JConsole or VisualVM).
+ * Counters are up to date, histograms cover the steps finished so far.
+ *
+ * @author Simon Johanning
+ */
+public interface SimulationMetricsMXBean {
+
+    /**
+     * @return The last step finished, -1 if no step was finished yet
+     */
+    int getLastFinishedStep();
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    /**
+     * @return The counters by their names
+     */
+    Map<String, Long> getCounters();
+
+    /**
+     * @return The number of values recorded per histogram
+     */
+    Map<String, Long> getHistogramCounts();
+
+    /**
+     * @return The mean value per histogram (nanoseconds for latencies)
+     */
+    Map<String, Double> getHistogramMeans();
+
+    /**
+     * @return The median per histogram (nanoseconds for latencies)
+     */
+    Map<String, Long> getHistogramMedians();
+
+    /**
+     * @return The 99th percentile per histogram (nanoseconds for latencies)
+     */
+    Map<String, Long> getHistogram99thPercentiles();
+
+    /**
+     * @return The maximum per histogram (nanoseconds for latencies)
+     */
+    Map<String, Long> getHistogramMaxima();
+}
@@ -1,11 +1,13 @@
 package IRPact_modellierung.needs;
 
+import java.io.Serializable;
+
 /**
  * A Need is the basic object leading to the motivation of ConsumerAgents to act.
  * Needs are associated with ConsumerAgents, who, when the need is not fulfilled by a product,
  *
  */
-public class Need {
+public class Need implements Serializable {
 
     private String name;
 
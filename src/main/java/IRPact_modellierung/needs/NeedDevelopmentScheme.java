@@ -5,6 +5,7 @@ import IRPact_modellierung.events.NeedEvent;
 import IRPact_modellierung.products.Product;
 import IRPact_modellierung.simulation.SimulationContainer;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -22,7 +23,7 @@ import java.util.Map;
  *
  * @author Simon Johanning
  */
-public abstract class NeedDevelopmentScheme {
+public abstract class NeedDevelopmentScheme implements Serializable {
 
     Map<Need, Double> needIndicatorMap;
 
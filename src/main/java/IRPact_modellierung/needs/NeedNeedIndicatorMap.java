@@ -1,5 +1,7 @@
 package IRPact_modellierung.needs;
 
+import java.io.Serializable;
+
 /**
  * The NeedNeedIndicatorMap bundles together a Need and a numerical value of the importance (needIndicator)
  * of the respective Need. It is used to weigh otherwise incomparable Needs in one ConsumerAgent against one another.
@@ -7,7 +9,7 @@ package IRPact_modellierung.needs;
  *
  * @author Simon Johanning
  */
-public class NeedNeedIndicatorMap implements Comparable<NeedNeedIndicatorMap>{
+public class NeedNeedIndicatorMap implements Comparable<NeedNeedIndicatorMap>, Serializable {
 
     private Need need;
     private double needIndicator;
@@ -1,5 +1,6 @@
 package IRPact_modellierung.needs;
 
+import IRPact_modellierung.simulation.RandomNumberService;
 import IRPact_modellierung.agents.consumerAgents.ConsumerAgent;
 import IRPact_modellierung.events.NeedEvent;
 import IRPact_modellierung.products.Product;
@@ -38,7 +39,7 @@ public class StochasticNeedDevelopmentScheme extends NeedDevelopmentScheme{
         List<NeedEvent> scheduledEvents = new ArrayList<>();
         for(Need currentNeed : simulationContainer.getNeedsInSimulation()){
             if(!consumerAgent.needAlreadySatisfied(currentNeed)){
-                if(Math.random() < needIndicatorMap.get(currentNeed)) {
+                if(RandomNumberService.nextDouble() < needIndicatorMap.get(currentNeed)) {
                     scheduledEvents.add(new NeedEvent(simulationContainer.getTimeModel().getSimulationTime(), consumerAgent, currentNeed, consumerAgent.getAssociatedSimulationContainer()));
                 }
             }
@@ -60,7 +61,7 @@ public class StochasticNeedDevelopmentScheme extends NeedDevelopmentScheme{
         List<NeedEvent> needEvents = new ArrayList<NeedEvent>();
         for(Need needToCheck : expiredProduct.getPartOfProductGroup().getNeedsSatisfied()){
             if(!associatedConsumer.needAlreadySatisfied(needToCheck)){
-                if(Math.random() < needIndicatorMap.get(needToCheck)) {
+                if(RandomNumberService.nextDouble() < needIndicatorMap.get(needToCheck)) {
                     needEvents.add(new NeedEvent(associatedConsumer.getAssociatedSimulationContainer().getTimeModel().getSimulationTime(), associatedConsumer, needToCheck, associatedConsumer.getAssociatedSimulationContainer()));
                 }
 
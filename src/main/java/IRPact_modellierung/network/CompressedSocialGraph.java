@@ -0,0 +1,311 @@
+package IRPact_modellierung.network;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * The CompressedSocialGraph is a frozen, int-indexed representation of the topology of a SocialGraph
+ * in compressed sparse row (CSR) form.
+ *
+ * Every node of the SocialGraph is assigned a dense id (ordered by the node label, so that ids
+ * are reproducible between runs). For every EDGEMEDIUM the outgoing edges of the node with id i
+ * are stored in the range [offsets[i], offsets[i+1]) of the target id and edge weight arrays,
+ * with targets sorted in ascending order.
+ * The representation requires 12 bytes per edge (target id and weight) and 4 bytes per node and medium,
+ * and allows to iterate neighbours without touching any hash structure.
+ *
+ * The compressed graph is a snapshot; it is not updated when the SocialGraph it was built from changes.
+ * The SocialGraph takes care of discarding its compressed representation on modification
+ * (see SocialGraph.getCompressedGraph).
+ *
+ * @author Simon Johanning
+ */
+public final class CompressedSocialGraph implements Serializable {
+
+	private final SNNode[] nodes;
+	private final HashMap<SNNode, Integer> nodeIds;
+	private final int[][] offsets;
+	private final int[][] targets;
+	private final double[][] edgeWeights;
+
+	private CompressedSocialGraph(SNNode[] nodes, HashMap<SNNode, Integer> nodeIds, int[][] offsets, int[][] targets, double[][] edgeWeights) {
+		this.nodes = nodes;
+		this.nodeIds = nodeIds;
+		this.offsets = offsets;
+		this.targets = targets;
+		this.edgeWeights = edgeWeights;
+	}
+
+	/**
+	 * Builds the compressed representation of the topology of the given social graph.
+	 * Edges without medium are not part of the compressed representation.
+	 *
+	 * @param socialGraph The social graph whose topology is to be compressed
+	 * @return The compressed representation of the topology of the social graph
+	 * @throws IllegalArgumentException Will be thrown when an edge of the social graph refers to a node not in the graph
+	 */
+	public static CompressedSocialGraph fromSocialGraph(SocialGraph socialGraph) throws IllegalArgumentException{
+		SNNode[] nodes = socialGraph.getNodes().toArray(new SNNode[0]);
+		Arrays.sort(nodes, new Comparator<SNNode>() {
+			public int compare(SNNode firstNode, SNNode secondNode) {
+				return String.valueOf(firstNode.getNodeLabel()).compareTo(String.valueOf(secondNode.getNodeLabel()));
+			}
+		});
+		HashMap<SNNode, Integer> nodeIds = createNodeIds(nodes);
+		int noMedia = SocialGraph.EDGEMEDIUM.values().length;
+		int[][] offsets = new int[noMedia][];
+		int[][] targets = new int[noMedia][];
+		double[][] edgeWeights = new double[noMedia][];
+		for(SocialGraph.EDGEMEDIUM edgemedium : SocialGraph.EDGEMEDIUM.values()){
+			HashMap<SNNode, Set<SNEdge>> outgoingEdges = socialGraph.outgoingEdgesMedium.get(edgemedium);
+			int[] mediumOffsets = new int[nodes.length + 1];
+			//count the edges per node
+			for(int index = 0; index < nodes.length; index++){
+				Set<SNEdge> nodeEdges = outgoingEdges.get(nodes[index]);
+				mediumOffsets[index + 1] = mediumOffsets[index] + (nodeEdges == null ? 0 : nodeEdges.size());
+			}
+			int[] mediumTargets = new int[mediumOffsets[nodes.length]];
+			double[] mediumWeights = new double[mediumOffsets[nodes.length]];
+			long[] sortBuffer = new long[0];
+			//fill the edges per node, sorted by target id
+			for(int index = 0; index < nodes.length; index++){
+				Set<SNEdge> nodeEdges = outgoingEdges.get(nodes[index]);
+				if(nodeEdges == null || nodeEdges.isEmpty()) continue;
+				SNEdge[] edgeArray = nodeEdges.toArray(new SNEdge[0]);
+				if(sortBuffer.length < edgeArray.length) sortBuffer = new long[edgeArray.length];
+				for(int edgeIndex = 0; edgeIndex < edgeArray.length; edgeIndex++){
+					Integer targetId = nodeIds.get(edgeArray[edgeIndex].getTarget());
+					if(targetId == null) throw new IllegalArgumentException("Edge "+edgeArray[edgeIndex].getEdgeLabel()+" points to a node that is not part of the social graph!");
+					//pack target id and position of the edge to sort both in one go
+					sortBuffer[edgeIndex] = ((long) targetId << 32) | edgeIndex;
+				}
+				Arrays.sort(sortBuffer, 0, edgeArray.length);
+				int offset = mediumOffsets[index];
+				for(int edgeIndex = 0; edgeIndex < edgeArray.length; edgeIndex++){
+					mediumTargets[offset + edgeIndex] = (int) (sortBuffer[edgeIndex] >>> 32);
+					mediumWeights[offset + edgeIndex] = edgeArray[(int) sortBuffer[edgeIndex]].getEdgeWeight();
+				}
+			}
+			offsets[edgemedium.ordinal()] = mediumOffsets;
+			targets[edgemedium.ordinal()] = mediumTargets;
+			edgeWeights[edgemedium.ordinal()] = mediumWeights;
+		}
+		return new CompressedSocialGraph(nodes, nodeIds, offsets, targets, edgeWeights);
+	}
+
+	/**
+	 * Builds a compressed graph from its arrays (as read from a file, see SocialGraphFile).
+	 * The arrays are taken over, not copied.
+	 *
+	 * @param nodes The nodes of the graph, ordered by their ids
+	 * @param offsets The offsets of the outgoing edges of every node per medium (indexed by the ordinal of the medium)
+	 * @param targets The target ids of the edges per medium
+	 * @param edgeWeights The weights of the edges per medium
+	 * @return The compressed graph made up of the arrays
+	 * @throws IllegalArgumentException Will be thrown when the arrays don't make up a valid compressed graph
+	 */
+	static CompressedSocialGraph fromArrays(SNNode[] nodes, int[][] offsets, int[][] targets, double[][] edgeWeights) throws IllegalArgumentException {
+		int noMedia = SocialGraph.EDGEMEDIUM.values().length;
+		if(offsets.length != noMedia || targets.length != noMedia || edgeWeights.length != noMedia) throw new IllegalArgumentException("The compressed graph is to contain edges for "+noMedia+" media!!");
+		for(int mediumIndex = 0; mediumIndex < noMedia; mediumIndex++){
+			int[] mediumOffsets = offsets[mediumIndex];
+			int[] mediumTargets = targets[mediumIndex];
+			if(mediumOffsets.length != nodes.length + 1 || mediumOffsets[0] != 0 || mediumOffsets[nodes.length] != mediumTargets.length || edgeWeights[mediumIndex].length != mediumTargets.length) throw new IllegalArgumentException("The edges of medium "+SocialGraph.EDGEMEDIUM.values()[mediumIndex]+" don't match the nodes of the compressed graph!!");
+			for(int nodeId = 0; nodeId < nodes.length; nodeId++){
+				if(mediumOffsets[nodeId] > mediumOffsets[nodeId + 1]) throw new IllegalArgumentException("The offsets of medium "+SocialGraph.EDGEMEDIUM.values()[mediumIndex]+" are not ascending!!");
+				for(int index = mediumOffsets[nodeId]; index < mediumOffsets[nodeId + 1]; index++){
+					if(mediumTargets[index] < 0 || mediumTargets[index] >= nodes.length || (index > mediumOffsets[nodeId] && mediumTargets[index] <= mediumTargets[index - 1])) throw new IllegalArgumentException("The targets of node "+nodeId+" in medium "+SocialGraph.EDGEMEDIUM.values()[mediumIndex]+" are invalid or not strictly ascending!!");
+				}
+			}
+		}
+		return new CompressedSocialGraph(nodes, createNodeIds(nodes), offsets, targets, edgeWeights);
+	}
+
+	/**
+	 * Creates a compressed graph of the same topology, but between other nodes
+	 * (sharing the arrays of this graph).
+	 *
+	 * @param otherNodes The nodes the ids of this graph are to refer to, ordered by their ids
+	 * @return The compressed graph of this topology between the other nodes
+	 * @throws IllegalArgumentException Will be thrown when the number of nodes doesn't match
+	 */
+	CompressedSocialGraph withNodes(SNNode[] otherNodes) throws IllegalArgumentException {
+		if(otherNodes.length != nodes.length) throw new IllegalArgumentException("The compressed graph has "+nodes.length+" nodes, but "+otherNodes.length+" nodes are given!!");
+		return new CompressedSocialGraph(otherNodes, createNodeIds(otherNodes), offsets, targets, edgeWeights);
+	}
+
+	private static HashMap<SNNode, Integer> createNodeIds(SNNode[] nodes) {
+		HashMap<SNNode, Integer> nodeIds = new HashMap<SNNode, Integer>(2 * nodes.length);
+		for(int index = 0; index < nodes.length; index++){
+			nodeIds.put(nodes[index], index);
+		}
+		return nodeIds;
+	}
+
+	//the arrays themselves, for writing the graph (see SocialGraphFile); not to be modified
+	int[] getOffsets(SocialGraph.EDGEMEDIUM edgemedium) {
+		return offsets[edgemedium.ordinal()];
+	}
+
+	int[] getTargets(SocialGraph.EDGEMEDIUM edgemedium) {
+		return targets[edgemedium.ordinal()];
+	}
+
+	double[] getEdgeWeights(SocialGraph.EDGEMEDIUM edgemedium) {
+		return edgeWeights[edgemedium.ordinal()];
+	}
+
+	public int getNumberOfNodes() {
+		return nodes.length;
+	}
+
+	/**
+	 * Method to derive the number of edges of the given medium in the graph
+	 *
+	 * @param edgemedium The medium of interest
+	 * @return The number of edges of the medium
+	 */
+	public int getNumberOfEdges(SocialGraph.EDGEMEDIUM edgemedium) {
+		return targets[edgemedium.ordinal()].length;
+	}
+
+	/**
+	 * Method to retrieve the dense id of a node in the graph
+	 *
+	 * @param node The node whose id is to be retrieved
+	 * @return The id of the node, or -1 if the node is not part of the graph
+	 */
+	public int getNodeId(SNNode node) {
+		Integer nodeId = nodeIds.get(node);
+		return nodeId == null ? -1 : nodeId;
+	}
+
+	/**
+	 * Method to retrieve the node corresponding to a dense id
+	 *
+	 * @param nodeId The id of the node
+	 * @return The node with the given id
+	 */
+	public SNNode getNode(int nodeId) {
+		return nodes[nodeId];
+	}
+
+	/**
+	 * Method to derive the number of outgoing edges of a node in the given medium
+	 *
+	 * @param nodeId The id of the node of interest
+	 * @param edgemedium The medium of interest
+	 * @return The out-degree of the node in the medium
+	 */
+	public int getDegree(int nodeId, SocialGraph.EDGEMEDIUM edgemedium) {
+		int[] mediumOffsets = offsets[edgemedium.ordinal()];
+		return mediumOffsets[nodeId + 1] - mediumOffsets[nodeId];
+	}
+
+	/**
+	 * Method to retrieve the id of the neighbourIndex-th neighbour (in ascending id order)
+	 * of a node in the given medium
+	 *
+	 * @param nodeId The id of the node of interest
+	 * @param edgemedium The medium of interest
+	 * @param neighbourIndex The position of the neighbour (0 <= neighbourIndex < degree)
+	 * @return The id of the respective neighbour
+	 */
+	public int getNeighbourId(int nodeId, SocialGraph.EDGEMEDIUM edgemedium, int neighbourIndex) {
+		return targets[edgemedium.ordinal()][offsets[edgemedium.ordinal()][nodeId] + neighbourIndex];
+	}
+
+	/**
+	 * Method to retrieve the weight of the edge to the neighbourIndex-th neighbour (in ascending id order)
+	 * of a node in the given medium
+	 *
+	 * @param nodeId The id of the node of interest
+	 * @param edgemedium The medium of interest
+	 * @param neighbourIndex The position of the neighbour (0 <= neighbourIndex < degree)
+	 * @return The weight of the edge towards the respective neighbour
+	 */
+	public double getEdgeWeight(int nodeId, SocialGraph.EDGEMEDIUM edgemedium, int neighbourIndex) {
+		return edgeWeights[edgemedium.ordinal()][offsets[edgemedium.ordinal()][nodeId] + neighbourIndex];
+	}
+
+	/**
+	 * Method to check whether the node with targetId is a neighbour of the node with sourceId in the given medium.
+	 * Takes logarithmic time in the degree of the source node.
+	 *
+	 * @param sourceId The id of the node the edge directs from
+	 * @param targetId The id of the node the edge directs towards
+	 * @param edgemedium The medium of interest
+	 * @return true if there is an edge of the medium from source to target, false otherwise
+	 */
+	public boolean isNeighbour(int sourceId, int targetId, SocialGraph.EDGEMEDIUM edgemedium) {
+		return getEdgePosition(sourceId, targetId, edgemedium) >= 0;
+	}
+
+	/**
+	 * Method to derive the position of the edge from the node with sourceId to the node with targetId
+	 * in the edges of the given medium (i.e. in the range of the target ids of all nodes).
+	 * Takes logarithmic time in the degree of the source node.
+	 *
+	 * @param sourceId The id of the node the edge directs from
+	 * @param targetId The id of the node the edge directs towards
+	 * @param edgemedium The medium of interest
+	 * @return The position of the edge among all edges of the medium, a negative number if there is no such edge
+	 */
+	public int getEdgePosition(int sourceId, int targetId, SocialGraph.EDGEMEDIUM edgemedium) {
+		int[] mediumOffsets = offsets[edgemedium.ordinal()];
+		int position = Arrays.binarySearch(targets[edgemedium.ordinal()], mediumOffsets[sourceId], mediumOffsets[sourceId + 1], targetId);
+		return position >= 0 ? position : -1;
+	}
+
+	/**
+	 * Method to check whether the neighbourIndex-th neighbour of a node in the given medium
+	 * is also a neighbour in a medium with a lower ordinal.
+	 * Used to iterate the neighbours of a node in all media without visiting a node twice.
+	 *
+	 * @param nodeId The id of the node of interest
+	 * @param edgemedium The medium of interest
+	 * @param neighbourIndex The position of the neighbour
+	 * @return true if the neighbour was already visited in a preceding medium
+	 */
+	public boolean isNeighbourInPrecedingMedium(int nodeId, SocialGraph.EDGEMEDIUM edgemedium, int neighbourIndex) {
+		int neighbourId = getNeighbourId(nodeId, edgemedium, neighbourIndex);
+		for(SocialGraph.EDGEMEDIUM precedingMedium : SocialGraph.EDGEMEDIUM.values()){
+			if(precedingMedium.ordinal() >= edgemedium.ordinal()) break;
+			if(isNeighbour(nodeId, neighbourId, precedingMedium)) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Method to derive the number of distinct neighbours of a node over all media
+	 *
+	 * @param nodeId The id of the node of interest
+	 * @return The number of nodes the node has an edge towards in any medium
+	 */
+	public int getAllMediaDegree(int nodeId) {
+		int degree = 0;
+		for(SocialGraph.EDGEMEDIUM edgemedium : SocialGraph.EDGEMEDIUM.values()){
+			int mediumDegree = getDegree(nodeId, edgemedium);
+			for(int neighbourIndex = 0; neighbourIndex < mediumDegree; neighbourIndex++){
+				if(!isNeighbourInPrecedingMedium(nodeId, edgemedium, neighbourIndex)) degree++;
+			}
+		}
+		return degree;
+	}
+
+	/**
+	 * Method to estimate the memory (in bytes) occupied by the compressed representation,
+	 * assuming compressed object pointers.
+	 *
+	 * @return The estimated memory footprint of the compressed graph in bytes
+	 */
+	public long estimateMemoryFootprint() {
+		long footprint = 16L + 4L * nodes.length;
+		//node id map: table slot, entry and boxed integer per node
+		footprint += nodeIds.size() * (8L + 32L + 16L);
+		for(int mediumIndex = 0; mediumIndex < offsets.length; mediumIndex++){
+			footprint += 3 * 16L + 4L * offsets[mediumIndex].length + 4L * targets[mediumIndex].length + 8L * edgeWeights[mediumIndex].length;
+		}
+		return footprint;
+	}
+}
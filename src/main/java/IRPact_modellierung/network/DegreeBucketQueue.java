@@ -0,0 +1,149 @@
+package IRPact_modellierung.network;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Set;
+import IRPact_modellierung.simulation.RandomStream;
+
+/**
+ * The DegreeBucketQueue keeps track of the (in-)degree of a set of nodes during the generation of a graph,
+ * in order to draw the least connected nodes as targets of new edges (as in regular graphs).
+ *
+ * The nodes are held in an array sorted by their degree, with the start of the nodes of each degree (bucket) kept separately.
+ * Increasing the degree of a node swaps it to the end of its bucket and moves the bucket border,
+ * so it takes constant time. Since degrees only increase, the minimal degree is tracked in amortized constant time as well.
+ * A random least connected node (excluding a set of nodes, such as the neighbours of the source node) is drawn
+ * by rejection from the bucket of the least degree, only counting the excluded nodes in the bucket
+ * when the rejection fails repeatedly (e.g. when the bucket is small).
+ *
+ * @author Simon Johanning
+ */
+public class DegreeBucketQueue {
+
+    //number of draws from a bucket before checking whether it contains any node that is not excluded
+    private static final int MAXREJECTIONS = 8;
+
+    //nodes sorted by their degree and the degree of the node at each position
+    private final SNNode[] nodesByDegree;
+    private final int[] degrees;
+    private final HashMap<SNNode, Integer> positions;
+    //position of the first node with at least the degree (the index); positions beyond the maximal degree equal the number of nodes
+    private int[] bucketStart;
+    private int minimalDegree;
+    private int maximalDegree;
+
+    /**
+     * Creates a queue of the nodes, all of them with degree 0
+     *
+     * @param nodes The nodes whose degree to keep track of
+     */
+    public DegreeBucketQueue(Collection<SNNode> nodes) {
+        nodesByDegree = nodes.toArray(new SNNode[0]);
+        degrees = new int[nodesByDegree.length];
+        positions = new HashMap<SNNode, Integer>((int) (nodesByDegree.length / 0.75f) + 1);
+        for(int position = 0; position < nodesByDegree.length; position++) positions.put(nodesByDegree[position], position);
+        bucketStart = new int[8];
+        Arrays.fill(bucketStart, 1, bucketStart.length, nodesByDegree.length);
+    }
+
+    public int size() {
+        return nodesByDegree.length;
+    }
+
+    public boolean contains(SNNode node) {
+        return positions.containsKey(node);
+    }
+
+    /**
+     * @return The least degree of any node in the queue (0 for an empty queue)
+     */
+    public int getMinimalDegree() {
+        return minimalDegree;
+    }
+
+    /**
+     * Retrieves the degree of a node in the queue
+     *
+     * @param node The node of interest
+     * @return The degree of the node
+     * @throws IllegalArgumentException Will be thrown when the node is not part of the queue
+     */
+    public int getDegree(SNNode node) throws IllegalArgumentException {
+        Integer position = positions.get(node);
+        if(position == null) throw new IllegalArgumentException("Node "+node+" is not part of the degree queue!!");
+        return degrees[position];
+    }
+
+    /**
+     * Increases the degree of a node by one (in constant time)
+     *
+     * @param node The node whose degree to increase
+     * @throws IllegalArgumentException Will be thrown when the node is not part of the queue
+     */
+    public void increaseDegree(SNNode node) throws IllegalArgumentException {
+        Integer position = positions.get(node);
+        if(position == null) throw new IllegalArgumentException("Node "+node+" is not part of the degree queue!!");
+        int degree = degrees[position];
+        if(degree + 2 >= bucketStart.length) {
+            int oldLength = bucketStart.length;
+            bucketStart = Arrays.copyOf(bucketStart, 2 * oldLength);
+            Arrays.fill(bucketStart, oldLength, bucketStart.length, nodesByDegree.length);
+        }
+        //swap the node to the last position of its bucket, which then becomes the first position of the next one
+        int lastPosition = bucketStart[degree + 1] - 1;
+        SNNode lastNode = nodesByDegree[lastPosition];
+        nodesByDegree[lastPosition] = node;
+        nodesByDegree[position] = lastNode;
+        positions.put(lastNode, position);
+        positions.put(node, lastPosition);
+        bucketStart[degree + 1] = lastPosition;
+        degrees[lastPosition] = degree + 1;
+        if(degree + 1 > maximalDegree) maximalDegree = degree + 1;
+        while(minimalDegree < maximalDegree && bucketStart[minimalDegree] == bucketStart[minimalDegree + 1]) minimalDegree++;
+    }
+
+    /**
+     * Draws one of the least connected nodes of the queue uniformly at random, not considering the excluded nodes.
+     * If all nodes of the least degree are excluded, a node is drawn from the nodes of the next higher degree and so on.
+     * The degree of the drawn node is not changed.
+     *
+     * @param excludedNodes The nodes that are not to be drawn (such as the current neighbours of the source node)
+     * @param excludedNode A further node not to be drawn (such as the source node itself); null if there is none
+     * @param random The random stream to draw from
+     * @return A least connected node that is not excluded, null if all nodes of the queue are excluded
+     */
+    public SNNode drawLeastConnectedNode(Set<SNNode> excludedNodes, SNNode excludedNode, RandomStream random) {
+        for(int degree = minimalDegree; degree <= maximalDegree; degree++) {
+            int start = bucketStart[degree];
+            int bucketSize = bucketStart[degree + 1] - start;
+            if(bucketSize == 0) continue;
+            for(int attempt = 0; attempt < MAXREJECTIONS; attempt++) {
+                SNNode candidate = nodesByDegree[start + random.nextInt(bucketSize)];
+                if(!isExcluded(candidate, excludedNodes, excludedNode)) return candidate;
+            }
+            //mostly excluded nodes in this bucket, so count the ones that are not and choose among them
+            int noExcluded = 0;
+            for(SNNode currentNode : excludedNodes) {
+                if(isInBucket(currentNode, degree)) noExcluded++;
+            }
+            if(excludedNode != null && !excludedNodes.contains(excludedNode) && isInBucket(excludedNode, degree)) noExcluded++;
+            int noEligible = bucketSize - noExcluded;
+            if(noEligible == 0) continue;
+            int eligibleIndex = random.nextInt(noEligible);
+            for(int position = start; position < start + bucketSize; position++) {
+                if(!isExcluded(nodesByDegree[position], excludedNodes, excludedNode) && eligibleIndex-- == 0) return nodesByDegree[position];
+            }
+        }
+        return null;
+    }
+
+    private boolean isInBucket(SNNode node, int degree) {
+        Integer position = positions.get(node);
+        return position != null && degrees[position] == degree;
+    }
+
+    private static boolean isExcluded(SNNode node, Set<SNNode> excludedNodes, SNNode excludedNode) {
+        return node == excludedNode || excludedNodes.contains(node);
+    }
+}
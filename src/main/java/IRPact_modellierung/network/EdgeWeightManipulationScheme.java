@@ -1,5 +1,7 @@
 package IRPact_modellierung.network;
 
+import java.io.Serializable;
+
 /**
  * Calculates an edge weight for a SNEdge based on agent group, distance and other factors.
  * This scheme determines the temporal dynamics of the edgeWeightFunction and is used
@@ -7,7 +9,7 @@ package IRPact_modellierung.network;
  *
  * @author Simon Johanning
  */
-public abstract class EdgeWeightManipulationScheme{
+public abstract class EdgeWeightManipulationScheme implements Serializable {
 
 	/**
 	 * An EdgeWeightManipulationScheme describes how the weight of an edge in the SocialGraph is determined.
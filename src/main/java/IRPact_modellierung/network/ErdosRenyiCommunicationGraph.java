@@ -1,6 +1,6 @@
 package IRPact_modellierung.network;
 
-import IRPact_modellierung.helper.LazynessHelper;
+import IRPact_modellierung.simulation.RandomNumberService;
 import IRPact_modellierung.simulation.SimulationContainer;
 
 import java.util.*;
@@ -69,41 +69,55 @@ public class ErdosRenyiCommunicationGraph extends CommunicationGraph {
 	}
 
 
+	/**
+	 * Creates k distinct edges between the nodes with equal probability (self-referential ones only if allowed).
+	 * The potential edges are indexed, and k of the indices are drawn uniformly without replacement
+	 * (or, for dense graphs, the indices of the potential edges not to create), so the creation takes time linear in k
+	 * rather than drawing nodes from the whole node set for every edge.
+	 *
+	 * @param sNConfiguration The configuration of the social graph of interest
+	 * @param initialNodes The nodes the social graph should be initialized with
+	 * @return The set of edges within the network
+	 * @throws IllegalArgumentException Will be thrown when more edges are required than the nodes admit
+	 */
 	protected Set<SNEdge> createEdges(SNConfiguration sNConfiguration, Set<SNNode> initialNodes) throws IllegalArgumentException{
-		Set<SNEdge> edgesToCreate = new HashSet<>(k);
-		//List to make sure that no two edges (of different weight / label) will be created between any two nodes
-		Map<SNNode, Set<SNNode>> protoEdgeList = new HashMap<>(initialNodes.size());
-		for(SNNode currentNode : initialNodes){
-			protoEdgeList.put(currentNode, new HashSet<>());
+		SNNode[] nodeArray = initialNodes.toArray(new SNNode[initialNodes.size()]);
+		boolean selfReferential = sNConfiguration.getTopologyManipulationScheme().isSelfReferential();
+		long noNodes = nodeArray.length;
+		//potential edges are indexed as source*|targets|+target, with the targets excluding the source if self-references aren't allowed
+		long noTargets = selfReferential ? noNodes : noNodes - 1;
+		long noPotentialEdges = noNodes * Math.max(0L, noTargets);
+		if(k < 0 || k > noPotentialEdges) throw new IllegalArgumentException("An Erdös-Rényi graph with "+k+" edges can't be created for "+noNodes+" nodes!!");
+		//for dense graphs it's cheaper to draw the edges not to create
+		boolean drawComplement = k > noPotentialEdges / 2;
+		long noIndicesToDraw = drawComplement ? noPotentialEdges - k : k;
+		Set<Long> drawnIndices = new HashSet<Long>((int) Math.min(Integer.MAX_VALUE, noIndicesToDraw / 0.75 + 1));
+		while(drawnIndices.size() < noIndicesToDraw){
+			drawnIndices.add(RandomNumberService.currentStream().nextLong(noPotentialEdges));
 		}
-		//create k edges between any nodes with equal probability
-		for(int index=0;index<k;index++){
-			boolean validEdgeFound = false;
-			//iterate until a valid edge (i.e. one that is not already a proto edge or would be selfreferential if that is forbidden) is found
-			while(!validEdgeFound){
-				//find random nodes
-				SNNode sourceNode = LazynessHelper.chooseRandomNode(initialNodes);
-				SNNode targetNode = LazynessHelper.chooseRandomNode(initialNodes);
-				//check that edge does not exist yet
-				if(!protoEdgeList.get(sourceNode).contains(targetNode)){
-					//check that nodes are distinct or self-referential loops are allowed
-					if(!sourceNode.equals(targetNode) || sNConfiguration.getTopologyManipulationScheme().isSelfReferential()){
-						//valid node is found -> add to proto nodes
-						protoEdgeList.get(sourceNode).add(targetNode);
-						validEdgeFound = true;
-					}
-				}
+		Set<SNEdge> edgesToCreate = new LinkedHashSet<>(k);
+		if(drawComplement){
+			for(long edgeIndex = 0; edgeIndex < noPotentialEdges; edgeIndex++){
+				if(!drawnIndices.contains(edgeIndex)) edgesToCreate.add(createIndexedEdge(sNConfiguration, nodeArray, noTargets, selfReferential, edgeIndex));
 			}
-		}
-		//make edges out of these proto edges
-		for(SNNode sourceNode : protoEdgeList.keySet()){
-			for(SNNode targetNode : protoEdgeList.get(sourceNode)){
-				edgesToCreate.add(new SNCommunicationEdge(sourceNode, targetNode, sNConfiguration.getEdgeWeightMappingScheme().weighEdge(sourceNode, targetNode, EDGEMEDIUM.COMMUNICATION)));
+		}else{
+			for(Long edgeIndex : drawnIndices){
+				edgesToCreate.add(createIndexedEdge(sNConfiguration, nodeArray, noTargets, selfReferential, edgeIndex));
 			}
 		}
 		return edgesToCreate;
 	}
 
+	private static SNEdge createIndexedEdge(SNConfiguration sNConfiguration, SNNode[] nodeArray, long noTargets, boolean selfReferential, long edgeIndex) {
+		int sourceIndex = (int) (edgeIndex / noTargets);
+		int targetIndex = (int) (edgeIndex % noTargets);
+		//skip the source as target
+		if(!selfReferential && targetIndex >= sourceIndex) targetIndex++;
+		SNNode sourceNode = nodeArray[sourceIndex];
+		SNNode targetNode = nodeArray[targetIndex];
+		return new SNCommunicationEdge(sourceNode, targetNode, sNConfiguration.getEdgeWeightMappingScheme().weighEdge(sourceNode, targetNode, EDGEMEDIUM.COMMUNICATION));
+	}
+
 	public int getK() {
 		return this.k;
 	}
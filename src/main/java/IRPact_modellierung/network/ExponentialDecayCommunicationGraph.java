@@ -8,7 +8,7 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
-public class ExponentialDecayCommunicationGraph extends ScalefreeCommunicationGraph {
+public class ExponentialDecayCommunicationGraph extends ScalefreeCommunicationGraph implements SpatialConnectionKernel {
 
 	private double b;
 
@@ -57,7 +57,15 @@ public class ExponentialDecayCommunicationGraph extends ScalefreeCommunicationGr
 		ConsumerAgent sourceAgent = associatedSimulationContainer.getsNMap().get(sourceNode);
 		ConsumerAgent targetAgent = associatedSimulationContainer.getsNMap().get(targetNode);
 		double distance = associatedSimulationContainer.getSpatialModel().measureDistance(sourceAgent.getCoordinates(), targetAgent.getCoordinates());
+		return weighDistance(distance);
+	}
+
+	public double weighDistance(double distance) {
 		return Math.pow(Math.E, -b * distance);
 	}
 
+	public double weighDegree(int degree) {
+		return 1.0;
+	}
+
 }
\ No newline at end of file
@@ -1,10 +1,14 @@
 package IRPact_modellierung.network;
 
+import IRPact_modellierung.simulation.RandomNumberService;
+import IRPact_modellierung.simulation.RandomStream;
 import IRPact_modellierung.simulation.SimulationContainer;
 import edu.uci.ics.jung.graph.event.GraphEvent;
 import org.apache.logging.log4j.LogManager;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 
 /**
@@ -19,6 +23,9 @@ public class GilbertCommunicationGraph extends CommunicationGraph {
 
 	private static final org.apache.logging.log4j.Logger fooLog = LogManager.getLogger("debugConsoleLogger");
 
+	//number of source nodes whose edges are created with a random stream of their own
+	private static final int SOURCESPERBLOCK = 4096;
+
 	private double p;
 
 	public double getP() {
@@ -76,30 +83,30 @@ public class GilbertCommunicationGraph extends CommunicationGraph {
 	/**
 	 * Method to add a number of nodes to an existing graph.
 	 * Considers all possible (new) communication edges in the graph, and adds them stochastically,
-	 * proportionally to the set parameter
+	 * proportionally to the set parameter.
+	 * Rather than drawing for every potential edge, the gaps between the edges to add are drawn (see drawSkip).
 	 *
 	 * @param sNConfiguration The configuration the graph is based upon
 	 * @param nodesToAdd The nodes to be added to the social graph
 	 */
 	public void addNodes(SNConfiguration sNConfiguration, Set<SNNode> nodesToAdd) {
 		if(p > 0.0) {
+			double logComplementP = Math.log(1.0 - p);
 			//new edges are the ones coming and leading to new nodes
 			for (SNNode newNode : nodesToAdd) {
+				List<SNNode> oldNodes = new ArrayList<SNNode>(getNodes());
+				oldNodes.remove(newNode);
 				addIsolatedNode(newNode);
-				for (SNNode oldNode : getNodes()) {
-					//check for incoming edge
-					if (Math.random() < p) {
-						SNCommunicationEdge edgeToAdd = new SNCommunicationEdge(oldNode, newNode, getAssociatedSimulationContainer().getSocialNetwork().getEdgeWeightManipulationScheme().weighEdge(oldNode, newNode, EDGEMEDIUM.COMMUNICATION));
-						addEdge(edgeToAdd);
-					}
-					//check for outgoing edge
-					if (Math.random() < p) {
-						SNCommunicationEdge edgeToAdd = new SNCommunicationEdge(newNode, oldNode, getAssociatedSimulationContainer().getSocialNetwork().getEdgeWeightManipulationScheme().weighEdge(newNode, oldNode, EDGEMEDIUM.COMMUNICATION));
-						addEdge(edgeToAdd);
-					}
+				//potential edges are indexed alternately as incoming and outgoing edge of an old node
+				long noPotentialEdges = 2L * oldNodes.size();
+				for(long edgeIndex = drawSkip(RandomNumberService.currentStream(), logComplementP); edgeIndex < noPotentialEdges; edgeIndex += 1 + drawSkip(RandomNumberService.currentStream(), logComplementP)) {
+					SNNode oldNode = oldNodes.get((int) (edgeIndex / 2));
+					SNNode sourceNode = (edgeIndex % 2 == 0) ? oldNode : newNode;
+					SNNode targetNode = (edgeIndex % 2 == 0) ? newNode : oldNode;
+					addEdge(new SNCommunicationEdge(sourceNode, targetNode, getAssociatedSimulationContainer().getSocialNetwork().getEdgeWeightManipulationScheme().weighEdge(sourceNode, targetNode, EDGEMEDIUM.COMMUNICATION)));
 				}
 				if (sNConfiguration.getTopologyManipulationScheme().isSelfReferential()){
-					if (Math.random() < p) addEdge(new SNCommunicationEdge(newNode, newNode, getAssociatedSimulationContainer().getSocialNetwork().getEdgeWeightManipulationScheme().weighEdge(newNode, newNode, EDGEMEDIUM.COMMUNICATION)));
+					if (RandomNumberService.nextDouble() < p) addEdge(new SNCommunicationEdge(newNode, newNode, getAssociatedSimulationContainer().getSocialNetwork().getEdgeWeightManipulationScheme().weighEdge(newNode, newNode, EDGEMEDIUM.COMMUNICATION)));
 				}
 
 			}
@@ -107,26 +114,113 @@ public class GilbertCommunicationGraph extends CommunicationGraph {
 	}
 
 	/**
-	 * For creating the edges for a set of nodes, all possible communicative edges are iterated,
-	 * and for each edge it is decided whether it will be present or not
+	 * For creating the edges for a set of nodes, all possible communicative edges are considered,
+	 * and for each edge it is decided whether it will be present or not.
+	 * Since every potential edge is present independently with probability p, the number of potential edges
+	 * between two present ones is geometrically distributed, so rather than drawing for every potential edge
+	 * only these gaps are drawn (Batagelj and Brandes), taking time linear in the number of nodes and edges.
+	 *
+	 * The source nodes are divided into blocks, each with a random stream of its own split off the current one.
+	 * The blocks can thus be processed in parallel (by setting the optional parameter 'parallelism' of the social graph),
+	 * with the created graph not depending on the parallelism.
 	 *
 	 * @param sNConfiguration The configuration of the social graph of interest
 	 * @param initialNodes The nodes the social graph should be initialized with
 	 * @return The set of (stochastically chosen) edges within the network
+	 * @throws IllegalArgumentException Will be thrown when the parallelism is not positive
 	 */
-	public Set<SNEdge> createEdges(SNConfiguration sNConfiguration, Set<SNNode> initialNodes) {
-		Set<SNEdge> edgesToAdd = new HashSet<>();
-		//iterate through all possible edges, and not which ones to set
-		int noIterations = 0;
-		for(SNNode sourceNode : initialNodes){
-			for(SNNode targetNode : initialNodes){
-				if(Math.random() < p){
-					if(!sourceNode.equals(targetNode) || sNConfiguration.getTopologyManipulationScheme().isSelfReferential()) edgesToAdd.add(new SNCommunicationEdge(sourceNode, targetNode, sNConfiguration.getEdgeWeightMappingScheme().weighEdge(sourceNode, targetNode, EDGEMEDIUM.COMMUNICATION)));
-				}
-				noIterations++;
+	public Set<SNEdge> createEdges(SNConfiguration sNConfiguration, Set<SNNode> initialNodes) throws IllegalArgumentException {
+		int parallelism = sNConfiguration.getSocialGraphParameters().containsKey("parallelism") ? (Integer) sNConfiguration.getSocialGraphParameters().get("parallelism") : 1;
+		if(parallelism < 1) throw new IllegalArgumentException("Parallelism of the Gilbert graph creation needs to be positive, but was "+parallelism+"!!");
+		SNNode[] nodeArray = initialNodes.toArray(new SNNode[initialNodes.size()]);
+		int noBlocks = (nodeArray.length + SOURCESPERBLOCK - 1) / SOURCESPERBLOCK;
+		//every task only sets the entries of its own blocks, so the list needs no synchronization
+		List<List<SNEdge>> edgesPerBlock = new ArrayList<List<SNEdge>>(Collections.<List<SNEdge>>nCopies(noBlocks, null));
+		RandomStream[] streamPerBlock = new RandomStream[noBlocks];
+		for(int block = 0; block < noBlocks; block++) streamPerBlock[block] = RandomNumberService.currentStream().split();
+		if(parallelism == 1 || noBlocks < 2) new EdgeCreationTask(sNConfiguration, nodeArray, streamPerBlock, edgesPerBlock, 0, noBlocks).compute();
+		else{
+			ForkJoinPool workerPool = new ForkJoinPool(parallelism);
+			try {
+				workerPool.invoke(new EdgeCreationTask(sNConfiguration, nodeArray, streamPerBlock, edgesPerBlock, 0, noBlocks));
+			} finally {
+				workerPool.shutdown();
 			}
 		}
-		fooLog.info("Gilbert created "+edgesToAdd.size()+" edges in "+noIterations+" iterations. p="+p);
+		int noEdges = 0;
+		for(List<SNEdge> blockEdges : edgesPerBlock) noEdges += blockEdges.size();
+		Set<SNEdge> edgesToAdd = new LinkedHashSet<>(Math.max(16, (int) (noEdges / 0.75) + 1));
+		for(List<SNEdge> blockEdges : edgesPerBlock) edgesToAdd.addAll(blockEdges);
+		fooLog.info("Gilbert created "+edgesToAdd.size()+" edges for "+nodeArray.length+" nodes in "+noBlocks+" blocks. p="+p);
 		return edgesToAdd;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Draws the number of potential edges to skip before the next present one,
+	 * i.e. a geometrically distributed number with success probability p.
+	 *
+	 * @param stream The stream to draw from
+	 * @param logComplementP The natural logarithm of 1-p
+	 * @return The number of potential edges to skip (Long.MAX_VALUE if no edge is present)
+	 */
+	static long drawSkip(RandomStream stream, double logComplementP) {
+		if(logComplementP == Double.NEGATIVE_INFINITY) return 0L;
+		double skip = Math.floor(Math.log(1.0 - stream.nextDouble()) / logComplementP);
+		return (skip >= Long.MAX_VALUE / 2) ? Long.MAX_VALUE / 2 : (long) skip;
+	}
+
+	/**
+	 * Task creating the edges of the source nodes in a range of blocks, splitting the range
+	 * until it holds a single block
+	 */
+	private class EdgeCreationTask extends RecursiveAction {
+
+		private final SNConfiguration sNConfiguration;
+		private final SNNode[] nodeArray;
+		private final RandomStream[] streamPerBlock;
+		private final List<List<SNEdge>> edgesPerBlock;
+		private final int fromBlock;
+		private final int toBlock;
+
+		private EdgeCreationTask(SNConfiguration sNConfiguration, SNNode[] nodeArray, RandomStream[] streamPerBlock, List<List<SNEdge>> edgesPerBlock, int fromBlock, int toBlock) {
+			this.sNConfiguration = sNConfiguration;
+			this.nodeArray = nodeArray;
+			this.streamPerBlock = streamPerBlock;
+			this.edgesPerBlock = edgesPerBlock;
+			this.fromBlock = fromBlock;
+			this.toBlock = toBlock;
+		}
+
+		protected void compute() {
+			if(toBlock - fromBlock > 1 && getPool() != null){
+				int middle = (fromBlock + toBlock) >>> 1;
+				invokeAll(new EdgeCreationTask(sNConfiguration, nodeArray, streamPerBlock, edgesPerBlock, fromBlock, middle), new EdgeCreationTask(sNConfiguration, nodeArray, streamPerBlock, edgesPerBlock, middle, toBlock));
+			}else{
+				for(int block = fromBlock; block < toBlock; block++) edgesPerBlock.set(block, createBlockEdges(block));
+			}
+		}
+
+		//potential edges of the block are indexed as source*|nodes|+target
+		private List<SNEdge> createBlockEdges(int block) {
+			List<SNEdge> blockEdges = new ArrayList<SNEdge>();
+			if(p <= 0.0) return blockEdges;
+			//the edge weights may be drawn as well
+			RandomStream previousStream = RandomNumberService.bindStream(streamPerBlock[block]);
+			try {
+				long noNodes = nodeArray.length;
+				long firstEdgeIndex = (long) block * SOURCESPERBLOCK * noNodes;
+				long lastEdgeIndex = Math.min(noNodes, (block + 1L) * SOURCESPERBLOCK) * noNodes;
+				double logComplementP = Math.log(1.0 - p);
+				boolean selfReferential = sNConfiguration.getTopologyManipulationScheme().isSelfReferential();
+				for(long edgeIndex = firstEdgeIndex + drawSkip(streamPerBlock[block], logComplementP); edgeIndex < lastEdgeIndex; edgeIndex += 1 + drawSkip(streamPerBlock[block], logComplementP)) {
+					SNNode sourceNode = nodeArray[(int) (edgeIndex / noNodes)];
+					SNNode targetNode = nodeArray[(int) (edgeIndex % noNodes)];
+					if(!sourceNode.equals(targetNode) || selfReferential) blockEdges.add(new SNCommunicationEdge(sourceNode, targetNode, sNConfiguration.getEdgeWeightMappingScheme().weighEdge(sourceNode, targetNode, EDGEMEDIUM.COMMUNICATION)));
+				}
+			} finally {
+				RandomNumberService.bindStream(previousStream);
+			}
+			return blockEdges;
+		}
+	}
+}
@@ -3,7 +3,7 @@ package IRPact_modellierung.network;
 import IRPact_modellierung.simulation.SimulationContainer;
 
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 public class HeterogeneousExponentialDecaySN extends HeterogeneousScalefreeCommunicationGraph {
@@ -41,7 +41,7 @@ public class HeterogeneousExponentialDecaySN extends HeterogeneousScalefreeCommu
 	}
 
 	public Set<SNEdge> createEdges(SNConfiguration sNConfiguration, Set<SNNode> initialNodes) {
-		Set<SNEdge> returnSet = new HashSet<>();
+		Set<SNEdge> returnSet = new LinkedHashSet<>();
 		return returnSet;
 	}
 }
\ No newline at end of file
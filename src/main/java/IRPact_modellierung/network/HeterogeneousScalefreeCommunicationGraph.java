@@ -1,7 +1,7 @@
 package IRPact_modellierung.network;
 
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 
@@ -47,7 +47,7 @@ public class HeterogeneousScalefreeCommunicationGraph extends CommunicationGraph
 	}
 
 	public Set<SNEdge> createEdges(SNConfiguration sNConfiguration, Set<SNNode> initialNodes) {
-		Set<SNEdge> returnSet = new HashSet<>();
+		Set<SNEdge> returnSet = new LinkedHashSet<>();
 		return  returnSet;
 	}
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package IRPact_modellierung.network;
 
+import IRPact_modellierung.simulation.RandomNumberService;
 import java.util.*;
 
 import IRPact_modellierung.agents.consumerAgents.ConsumerAgent;
@@ -129,12 +130,19 @@ public class HeterogeneousSmallWorldCommunicationGraph extends CommunicationGrap
 	 * @return The edges of a heterogeneous small world communication graph
 	 */
 	public Set<SNEdge> createEdges(SNConfiguration sNConfiguration, Set<SNNode> initialNodes) {
-		Set<SNEdge> returnSet = new HashSet<>();
+		//the edges are kept in the order they are created in, so rewiring them only depends on the seed
+		Set<SNEdge> returnSet = new LinkedHashSet<>();
 		Set<SNEdge> preliminaryEdgeSet = HeterogeneousRegularCommunicationGraph.createHeterogeneousRegularCommunicationEdges(associatedSimulationContainer, consumerGroupZMapping, sNConfiguration, initialNodes);
-		LazynessHelper.detectDoubleEdges(preliminaryEdgeSet, initialNodes);
+		LazynessHelper.detectDoubleEdges(preliminaryEdgeSet);
 		returnSet.addAll(preliminaryEdgeSet);
 		Map<SNNode, ConsumerAgent> correspondingConsumerAgent = StructureEnricher.consumerAgentByNode(associatedSimulationContainer.getConsumerAgents());
 		Map<ConsumerAgentGroup, Set<SNNode>> sNNodesByCAG = StructureEnricher.deriveNodeByCAG(consumerGroupBetaMapping.keySet(), correspondingConsumerAgent);
+		//index the nodes of each group, so new targets can be drawn in constant time
+		Map<ConsumerAgentGroup, IndexedNodeSet> indexedNodesByCAG = new HashMap<>();
+		for(Map.Entry<ConsumerAgentGroup, Set<SNNode>> cagEntry : sNNodesByCAG.entrySet()){
+			indexedNodesByCAG.put(cagEntry.getKey(), new IndexedNodeSet(cagEntry.getValue()));
+		}
+		boolean selfReferential = sNConfiguration.getTopologyManipulationScheme().isSelfReferential();
 		Map<SNNode, Set<SNNode>> preliminaryNeighbours = new HashMap<>();
 		for(SNNode currentNode : nodes){
 			preliminaryNeighbours.put(currentNode, new HashSet<>());
@@ -146,22 +154,27 @@ public class HeterogeneousSmallWorldCommunicationGraph extends CommunicationGrap
 		for (SNEdge currentEdge : preliminaryEdgeSet) {
 			ConsumerAgentGroup currentCAG = correspondingConsumerAgent.get(currentEdge.getSource()).getCorrespondingConsumerAgentGroup();
 			//stochastically determine if the edge needs to be rewired
-			if (Math.random() < consumerGroupBetaMapping.get(currentCAG)) {
+			if (RandomNumberService.nextDouble() < consumerGroupBetaMapping.get(currentCAG)) {
 				boolean validTargetNodeFound = false;
 				SNNode targetNode = null;
 				//search for a new target node for the edge that is not yet connected to the source node, proportional to the consumer agent group affinity
 				while(!validTargetNodeFound) {
 					ConsumerAgentGroup targetGroup = LazynessHelper.chooseTargetCAG(associatedSimulationContainer.getSimulationConfiguration().getAgentConfiguration().getAffinities(), currentCAG);
-					Set<SNNode> potentialTargetNodes = new HashSet<>();
-					for(SNNode currentNode : sNNodesByCAG.get(targetGroup)){
-						potentialTargetNodes.add(currentNode);
-					}
+					IndexedNodeSet groupNodes = indexedNodesByCAG.get(targetGroup);
 					//don't establish edges for node where an edge already exists
-					potentialTargetNodes.removeAll(preliminaryNeighbours.get(currentEdge.getSource()));
-					if((currentEdge.getSource() == currentEdge.getTarget()) && !sNConfiguration.getTopologyManipulationScheme().isSelfReferential()) potentialTargetNodes.remove(currentEdge.getSource());
-					if(!potentialTargetNodes.isEmpty()){
+					Set<SNNode> excludedNodes = preliminaryNeighbours.get(currentEdge.getSource());
+					boolean excludeSource = (currentEdge.getSource() == currentEdge.getTarget()) && !selfReferential;
+					int noExcludedNodes = 0;
+					for(SNNode excludedNode : excludedNodes){
+						if(groupNodes.contains(excludedNode)) noExcludedNodes++;
+					}
+					if(excludeSource && groupNodes.contains(currentEdge.getSource()) && !excludedNodes.contains(currentEdge.getSource())) noExcludedNodes++;
+					if(noExcludedNodes < groupNodes.size()){
 						validTargetNodeFound = true;
-						targetNode = LazynessHelper.chooseRandomNode(potentialTargetNodes);
+						//drawing nodes of the group until one is not excluded draws uniformly from the remaining ones, without copying the group
+						do {
+							targetNode = groupNodes.sample(RandomNumberService.currentStream());
+						} while(excludedNodes.contains(targetNode) || (excludeSource && targetNode == currentEdge.getSource()));
 					}
 				}
 				returnSet.remove(currentEdge);
@@ -0,0 +1,147 @@
+package IRPact_modellierung.network;
+
+import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import IRPact_modellierung.simulation.RandomStream;
+
+/**
+ * The IndexedNodeSet is a set of SNNodes that additionally allows to access its elements by an index,
+ * so a random element can be drawn in constant time and without copying the set.
+ * It is used for the node set and the neighbour sets of the SocialGraph.
+ *
+ * The elements are held in an array, with their position kept in a map.
+ * Removing an element moves the last element to its position (swap-remove),
+ * so the index of an element changes when other elements are removed.
+ *
+ * @author Simon Johanning
+ */
+public class IndexedNodeSet extends AbstractSet<SNNode> implements Serializable {
+
+    private SNNode[] elements;
+    private int size;
+    private final HashMap<SNNode, Integer> positions;
+    private int modificationCount;
+
+    public IndexedNodeSet() {
+        elements = new SNNode[4];
+        positions = new HashMap<SNNode, Integer>();
+    }
+
+    /**
+     * Creates an indexed set holding the given nodes
+     *
+     * @param nodes The nodes the set initially holds
+     */
+    public IndexedNodeSet(Collection<SNNode> nodes) {
+        elements = new SNNode[Math.max(4, nodes.size())];
+        positions = new HashMap<SNNode, Integer>(Math.max(16, (int) (nodes.size() / 0.75f) + 1));
+        addAll(nodes);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(Object node) {
+        return positions.containsKey(node);
+    }
+
+    public boolean add(SNNode node) {
+        if(positions.containsKey(node)) return false;
+        if(size == elements.length) elements = Arrays.copyOf(elements, 2 * size);
+        elements[size] = node;
+        positions.put(node, size);
+        size++;
+        modificationCount++;
+        return true;
+    }
+
+    public boolean remove(Object node) {
+        Integer position = positions.remove(node);
+        if(position == null) return false;
+        removeAt(position);
+        return true;
+    }
+
+    //moves the last element to the position of the removed one
+    private void removeAt(int position) {
+        size--;
+        if(position != size) {
+            elements[position] = elements[size];
+            positions.put(elements[position], position);
+        }
+        elements[size] = null;
+        modificationCount++;
+    }
+
+    public void clear() {
+        Arrays.fill(elements, 0, size, null);
+        positions.clear();
+        size = 0;
+        modificationCount++;
+    }
+
+    /**
+     * Retrieves the node at the given index
+     *
+     * @param index The index of the node, between 0 and size()-1
+     * @return The node at the index
+     * @throws IndexOutOfBoundsException Will be thrown when the index is not within the set
+     */
+    public SNNode get(int index) throws IndexOutOfBoundsException {
+        if(index < 0 || index >= size) throw new IndexOutOfBoundsException("Index "+index+" is not within the "+size+" nodes of the set!!");
+        return elements[index];
+    }
+
+    /**
+     * Draws a node of the set uniformly at random, in constant time
+     *
+     * @param random The stream to draw from
+     * @return A random node of the set
+     * @throws IllegalArgumentException Will be thrown when the set is empty
+     */
+    public SNNode sample(RandomStream random) throws IllegalArgumentException {
+        if(size == 0) throw new IllegalArgumentException("There is no node to sample from the (empty) set!!");
+        return elements[random.nextInt(size)];
+    }
+
+    /**
+     * Iterates the nodes from the last index to the first one,
+     * so removing the current node by the iterator (moving the last node to its index) doesn't skip any node.
+     *
+     * @return An iterator over the nodes of the set
+     */
+    public Iterator<SNNode> iterator() {
+        return new Iterator<SNNode>() {
+            private int nextPosition = size - 1;
+            private int lastPosition = -1;
+            private int expectedModificationCount = modificationCount;
+
+            public boolean hasNext() {
+                return nextPosition >= 0;
+            }
+
+            public SNNode next() {
+                if(modificationCount != expectedModificationCount) throw new ConcurrentModificationException();
+                if(nextPosition < 0) throw new NoSuchElementException();
+                lastPosition = nextPosition--;
+                return elements[lastPosition];
+            }
+
+            public void remove() {
+                if(lastPosition < 0) throw new IllegalStateException();
+                if(modificationCount != expectedModificationCount) throw new ConcurrentModificationException();
+                positions.remove(elements[lastPosition]);
+                removeAt(lastPosition);
+                lastPosition = -1;
+                expectedModificationCount = modificationCount;
+            }
+        };
+    }
+}
@@ -8,7 +8,7 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
-public class MannaSenYookPseudoCountCommunicationGraph extends ScalefreePseudoCountCommunicationGraph {
+public class MannaSenYookPseudoCountCommunicationGraph extends ScalefreePseudoCountCommunicationGraph implements SpatialConnectionKernel {
 
     private double alpha;
     private double beta;
@@ -71,7 +71,15 @@ public class MannaSenYookPseudoCountCommunicationGraph extends ScalefreePseudoCo
         int degree;
         if(nodeDegree.containsKey(targetNode)) degree = nodeDegree.get(targetNode);
         else degree = 0;
-        return Math.pow(degree, beta) * Math.pow(distance, alpha);
+        return weighDegree(degree) * weighDistance(distance);
+    }
+
+    public double weighDistance(double distance) {
+        return Math.pow(distance, alpha);
+    }
+
+    public double weighDegree(int degree) {
+        return Math.pow(degree, beta);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,132 @@
+package IRPact_modellierung.network;
+
+import IRPact_modellierung.agents.consumerAgents.ConsumerAgent;
+import IRPact_modellierung.simulation.SimulationContainer;
+
+import java.io.Serializable;
+import java.util.BitSet;
+
+/**
+ * The NeighbourhoodAdoptionIndex keeps, for every node of the social network and every product,
+ * the number of neighbours of the node (in any medium) that adopted the product.
+ *
+ * Rather than scanning the neighbourhood of an agent for every product considered in a decision,
+ * the counts are pushed by the ConsumerAgents themselves: when an agent adopts or unadopts a product,
+ * the count of the product is updated at every node the agent is a neighbour of.
+ * Reading the number of adopting neighbours (as done by the social norm of the decision processes) is thus a single array access.
+ *
+ * The index is derived from the CompressedSocialGraph of the simulation and the products the agents adopted.
+ * It is built on first use and rebuilt whenever the topology of the social network or the number of products changed,
+ * and it is not part of checkpoints (a restored simulation rebuilds it on first use).
+ * The index is thread-safe.
+ *
+ * @author Simon Johanning
+ */
+public class NeighbourhoodAdoptionIndex implements Serializable {
+
+    //graph the index was built for (null if the index needs to be (re)built)
+    private transient CompressedSocialGraph indexedGraph;
+    private transient int noProductsIndexed;
+    //for the node with id i, the ids of the nodes having it as neighbour are in [observerOffsets[i], observerOffsets[i+1]) of observers
+    private transient int[] observerOffsets;
+    private transient int[] observers;
+    //number of adopting neighbours, indexed by node id * noProductsIndexed + product ordinal
+    private transient int[] adoptingNeighbours;
+
+    /**
+     * Registers the adoption of a product by a consumer with the nodes the consumer is a neighbour of
+     *
+     * @param adopter The consumer adopting the product
+     * @param productOrdinal The ordinal of the product adopted (see ProductEligibilityIndex)
+     */
+    public synchronized void registerAdoption(ConsumerAgent adopter, int productOrdinal) {
+        pushToObservers(adopter, productOrdinal, 1);
+    }
+
+    /**
+     * Registers that a consumer ceased to use a product with the nodes the consumer is a neighbour of
+     *
+     * @param adopter The consumer no longer using the product
+     * @param productOrdinal The ordinal of the product no longer adopted (see ProductEligibilityIndex)
+     */
+    public synchronized void registerUnadoption(ConsumerAgent adopter, int productOrdinal) {
+        pushToObservers(adopter, productOrdinal, -1);
+    }
+
+    /**
+     * Method to retrieve the number of neighbours (in any medium, each counted once) of a consumer that adopted a product
+     *
+     * @param consumerAgent The consumer of interest
+     * @param productOrdinal The ordinal of the product of interest (see ProductEligibilityIndex)
+     * @return The number of neighbours of the consumer in the social network that adopted the product
+     * @throws IllegalArgumentException Will be thrown when the consumer is not part of the social network of its simulation
+     */
+    public synchronized int getNoAdoptingNeighbours(ConsumerAgent consumerAgent, int productOrdinal) throws IllegalArgumentException {
+        SimulationContainer simulationContainer = consumerAgent.getAssociatedSimulationContainer();
+        ensureIndexed(simulationContainer);
+        int nodeId = (consumerAgent.getCorrespondingNodeInSN() == null) ? -1 : indexedGraph.getNodeId(consumerAgent.getCorrespondingNodeInSN());
+        if(nodeId < 0) throw new IllegalArgumentException("ConsumerAgent "+consumerAgent+" is not part of the social network of the simulation!!");
+        if(productOrdinal >= noProductsIndexed) return 0;
+        return adoptingNeighbours[nodeId * noProductsIndexed + productOrdinal];
+    }
+
+    private void pushToObservers(ConsumerAgent adopter, int productOrdinal, int delta) {
+        if(indexedGraph == null || adopter.getCorrespondingNodeInSN() == null) return;
+        SocialNetwork socialNetwork = adopter.getAssociatedSimulationContainer().getSocialNetwork();
+        //changes of the topology or the products are caught up with by rebuilding the index when read next
+        if(socialNetwork == null || socialNetwork.getSocialGraph().compressedGraph != indexedGraph || productOrdinal >= noProductsIndexed) {
+            indexedGraph = null;
+            return;
+        }
+        int nodeId = indexedGraph.getNodeId(adopter.getCorrespondingNodeInSN());
+        if(nodeId < 0) return;
+        for(int index = observerOffsets[nodeId]; index < observerOffsets[nodeId + 1]; index++) {
+            adoptingNeighbours[observers[index] * noProductsIndexed + productOrdinal] += delta;
+        }
+    }
+
+    private void ensureIndexed(SimulationContainer simulationContainer) {
+        CompressedSocialGraph compressedGraph = simulationContainer.getSocialNetwork().getSocialGraph().getCompressedGraph();
+        int noProducts = simulationContainer.getProductEligibilityIndex().getNoProducts();
+        if(compressedGraph == indexedGraph && noProducts == noProductsIndexed) return;
+        int noNodes = compressedGraph.getNumberOfNodes();
+        //invert the neighbourhoods (every neighbour counted once per node, regardless of the media connecting them)
+        observerOffsets = new int[noNodes + 1];
+        for(int nodeId = 0; nodeId < noNodes; nodeId++) {
+            for(SocialGraph.EDGEMEDIUM edgemedium : SocialGraph.EDGEMEDIUM.values()) {
+                int degree = compressedGraph.getDegree(nodeId, edgemedium);
+                for(int neighbourIndex = 0; neighbourIndex < degree; neighbourIndex++) {
+                    if(!compressedGraph.isNeighbourInPrecedingMedium(nodeId, edgemedium, neighbourIndex)) observerOffsets[compressedGraph.getNeighbourId(nodeId, edgemedium, neighbourIndex) + 1]++;
+                }
+            }
+        }
+        for(int nodeId = 0; nodeId < noNodes; nodeId++) {
+            observerOffsets[nodeId + 1] += observerOffsets[nodeId];
+        }
+        observers = new int[observerOffsets[noNodes]];
+        int[] fillPositions = new int[noNodes];
+        System.arraycopy(observerOffsets, 0, fillPositions, 0, noNodes);
+        for(int nodeId = 0; nodeId < noNodes; nodeId++) {
+            for(SocialGraph.EDGEMEDIUM edgemedium : SocialGraph.EDGEMEDIUM.values()) {
+                int degree = compressedGraph.getDegree(nodeId, edgemedium);
+                for(int neighbourIndex = 0; neighbourIndex < degree; neighbourIndex++) {
+                    if(!compressedGraph.isNeighbourInPrecedingMedium(nodeId, edgemedium, neighbourIndex)) observers[fillPositions[compressedGraph.getNeighbourId(nodeId, edgemedium, neighbourIndex)]++] = nodeId;
+                }
+            }
+        }
+        //count the current adoptions of all agents
+        indexedGraph = compressedGraph;
+        noProductsIndexed = noProducts;
+        adoptingNeighbours = new int[noNodes * noProducts];
+        for(int nodeId = 0; nodeId < noNodes; nodeId++) {
+            ConsumerAgent agent = simulationContainer.getsNMap().get(compressedGraph.getNode(nodeId));
+            if(agent == null) continue;
+            BitSet adoptedProducts = agent.getAdoptedProductOrdinals();
+            for(int productOrdinal = adoptedProducts.nextSetBit(0); productOrdinal >= 0; productOrdinal = adoptedProducts.nextSetBit(productOrdinal + 1)) {
+                for(int index = observerOffsets[nodeId]; index < observerOffsets[nodeId + 1]; index++) {
+                    adoptingNeighbours[observers[index] * noProducts + productOrdinal]++;
+                }
+            }
+        }
+    }
+}
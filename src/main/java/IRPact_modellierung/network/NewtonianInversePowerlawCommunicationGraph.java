@@ -8,7 +8,7 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
-public class NewtonianInversePowerlawCommunicationGraph extends ScalefreeCommunicationGraph {
+public class NewtonianInversePowerlawCommunicationGraph extends ScalefreeCommunicationGraph implements SpatialConnectionKernel {
 
     public NewtonianInversePowerlawCommunicationGraph(SimulationContainer associatedSimulationContainer, SNConfiguration sNConfiguration, Set<SNNode> nodes, Set<SNEdge> edges, HashMap<SNNode, Set<SNNode>> neighbours) {
         super(associatedSimulationContainer, sNConfiguration, nodes, edges, neighbours);
@@ -39,7 +39,15 @@ public class NewtonianInversePowerlawCommunicationGraph extends ScalefreeCommuni
         ConsumerAgent sourceAgent = associatedSimulationContainer.getsNMap().get(sourceNode);
         ConsumerAgent targetAgent = associatedSimulationContainer.getsNMap().get(targetNode);
         double distance = associatedSimulationContainer.getSpatialModel().measureDistance(sourceAgent.getCoordinates(), targetAgent.getCoordinates());
+        return weighDistance(distance);
+    }
+
+    public double weighDistance(double distance) {
         return 1 / Math.pow(distance, 2);
     }
 
+    public double weighDegree(int degree) {
+        return 1.0;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,98 @@
+package IRPact_modellierung.network;
+
+import IRPact_modellierung.simulation.SimulationContainer;
+import org.apache.logging.log4j.LogManager;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * The PrebuiltCommunicationGraph is a graph whose topology is not generated, but taken over from the
+ * (frozen) topology of a graph generated before, such as the graph of another simulation of the same configuration.
+ *
+ * The nodes of the prebuilt topology are matched with the nodes of this graph by their labels,
+ * so the topology has to be built from nodes with the same labels (as the nodes of the consumer agents
+ * of simulations of the same configuration are). The edges of every medium are taken over with their weights.
+ * The prebuilt topology is only read, so it can be shared by any number of graphs.
+ *
+ * @author Simon Johanning
+ */
+public class PrebuiltCommunicationGraph extends CommunicationGraph {
+
+	private static final org.apache.logging.log4j.Logger fooLog = LogManager.getLogger("debugConsoleLogger");
+
+	private CompressedSocialGraph prebuiltTopology;
+
+	/**
+	 * Constructor for the PrebuiltCommunicationGraph giving the nodes in the social graph explicitly
+	 *
+	 * @param associatedSimulationContainer The container the social network is embedded in
+	 * @param sNConfiguration The configuration object of the social network
+	 * @param nodes The nodes the socialGraph is based upon
+	 * @param prebuiltTopology The topology the edges of the graph are taken over from
+	 * @throws IllegalArgumentException Will be thrown when the nodes don't match the nodes of the prebuilt topology
+	 */
+	public PrebuiltCommunicationGraph(SimulationContainer associatedSimulationContainer, SNConfiguration sNConfiguration, Set<SNNode> nodes, CompressedSocialGraph prebuiltTopology) throws IllegalArgumentException {
+		super(associatedSimulationContainer, sNConfiguration, nodes);
+		this.prebuiltTopology = prebuiltTopology;
+		Set<SNEdge> initialEdges = createEdges(sNConfiguration, nodes);
+		for(SNEdge edge : initialEdges){
+			addEdge(edge);
+		}
+		//the compressed form is the prebuilt one between the nodes of this graph, so it needn't be built from the edges
+		compressedGraph = prebuiltTopology.withNodes(matchNodes(nodes));
+		releaseEdgeIndex();
+	}
+
+	public CompressedSocialGraph getPrebuiltTopology() {
+		return prebuiltTopology;
+	}
+
+	/**
+	 * Method to create the edges of the prebuilt topology between the given nodes.
+	 *
+	 * @param sNConfiguration The configuration object of the social network
+	 * @param initialNodes The nodes the edges are to be created between
+	 * @return The edges of the prebuilt topology
+	 * @throws IllegalArgumentException Will be thrown when the nodes don't match the nodes of the prebuilt topology
+	 */
+	protected Set<SNEdge> createEdges(SNConfiguration sNConfiguration, Set<SNNode> initialNodes) throws IllegalArgumentException {
+		int noNodes = prebuiltTopology.getNumberOfNodes();
+		SNNode[] matchingNodes = matchNodes(initialNodes);
+		Set<SNEdge> edges = new LinkedHashSet<SNEdge>();
+		for(EDGEMEDIUM edgemedium : EDGEMEDIUM.values()){
+			for(int nodeId = 0; nodeId < noNodes; nodeId++){
+				int degree = prebuiltTopology.getDegree(nodeId, edgemedium);
+				for(int neighbourIndex = 0; neighbourIndex < degree; neighbourIndex++){
+					SNNode target = matchingNodes[prebuiltTopology.getNeighbourId(nodeId, edgemedium, neighbourIndex)];
+					edges.add(SNFactory.createEdge(matchingNodes[nodeId], target, prebuiltTopology.getEdgeWeight(nodeId, edgemedium, neighbourIndex), edgemedium));
+				}
+			}
+		}
+		fooLog.debug("Took over {} edges from the prebuilt topology", edges.size());
+		return edges;
+	}
+
+	/**
+	 * Method to match the nodes of the graph with the nodes of the prebuilt topology by their labels
+	 *
+	 * @param initialNodes The nodes of the graph
+	 * @return The node of the graph for every node id of the prebuilt topology
+	 * @throws IllegalArgumentException Will be thrown when the nodes don't match the nodes of the prebuilt topology
+	 */
+	private SNNode[] matchNodes(Set<SNNode> initialNodes) throws IllegalArgumentException {
+		int noNodes = prebuiltTopology.getNumberOfNodes();
+		if(initialNodes.size() != noNodes) throw new IllegalArgumentException("The prebuilt topology has "+noNodes+" nodes, but the graph is to contain "+initialNodes.size()+" nodes!!");
+		HashMap<String, SNNode> nodesByLabel = new HashMap<String, SNNode>(2 * noNodes);
+		for(SNNode node : initialNodes){
+			nodesByLabel.put(node.getNodeLabel(), node);
+		}
+		SNNode[] matchingNodes = new SNNode[noNodes];
+		for(int nodeId = 0; nodeId < noNodes; nodeId++){
+			matchingNodes[nodeId] = nodesByLabel.get(prebuiltTopology.getNode(nodeId).getNodeLabel());
+			if(matchingNodes[nodeId] == null) throw new IllegalArgumentException("Node "+prebuiltTopology.getNode(nodeId).getNodeLabel()+" of the prebuilt topology is not part of the graph!!");
+		}
+		return matchingNodes;
+	}
+}
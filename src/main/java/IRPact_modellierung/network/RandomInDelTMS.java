@@ -1,8 +1,9 @@
 package IRPact_modellierung.network;
 
+import IRPact_modellierung.simulation.RandomNumberService;
 import IRPact_modellierung.simulation.SimulationContainer;
 
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 /**
@@ -52,20 +53,20 @@ public class RandomInDelTMS extends TopologyManipulationScheme {
 	 * @param edgemedium The medium for which the topology is manipulated
 	 */
 	protected void manipulateTopology(SimulationContainer simulationContainer, SocialGraph socialGraph, SocialGraph.EDGEMEDIUM edgemedium){
-		Set<SNEdge> edgesToDelete = new HashSet<>();
-		Set<SNEdge> edgesToAdd = new HashSet<>();
+		Set<SNEdge> edgesToDelete = new LinkedHashSet<>();
+		Set<SNEdge> edgesToAdd = new LinkedHashSet<>();
 		//for every combination of nodes (i.e. potential edges of the respective medium)
 		for(SNNode currentSourceNode : socialGraph.getNodes()){
 			for(SNNode currentTargetNode : socialGraph.getNodes()){
 				//if an edge exists between both nodes, it is checked if it needs to be removed
 				if(socialGraph.neighbours.get(edgemedium).get(currentSourceNode).contains(currentTargetNode)){
-					if(Math.random() < edgeDeletionProbability){
+					if(RandomNumberService.nextDouble() < edgeDeletionProbability){
 						edgesToDelete.addAll(socialGraph.outgoingEdgesMedium.get(edgemedium).get(currentSourceNode));
 					}
 				}
 				//if no edge (of this medium) exists between the two nodes, it is checked whether one needs to be added
 				else{
-					if(Math.random() < edgeInsertionProbability){
+					if(RandomNumberService.nextDouble() < edgeInsertionProbability){
 						edgesToAdd.add(SNFactory.createEdge(currentSourceNode, currentTargetNode, simulationContainer.getSocialNetwork().getEdgeWeightManipulationScheme().weighEdge(currentSourceNode, currentTargetNode, edgemedium), edgemedium));
 					}
 				}
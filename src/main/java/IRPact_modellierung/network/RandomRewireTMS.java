@@ -1,6 +1,6 @@
 package IRPact_modellierung.network;
 
-import IRPact_modellierung.helper.LazynessHelper;
+import IRPact_modellierung.simulation.RandomNumberService;
 import IRPact_modellierung.simulation.SimulationContainer;
 
 
@@ -34,12 +34,12 @@ public class RandomRewireTMS extends TopologyManipulationScheme {
 	public void manipulateTopology(SimulationContainer simulationContainer, SocialGraph socialGraph) {
 		//for all edges in the graph, with uniform probability, see if edge needs to be rewired
 		for(SNEdge currentEdge : socialGraph.getEdges()){
-			if(Math.random() < rewireProbability){
+			if(RandomNumberService.nextDouble() < rewireProbability){
 				//for edges that are rewired, try until finding a valid edge rewiring
 				boolean validNewEdgeFound = false;
 				while(!validNewEdgeFound){
-					SNNode source = LazynessHelper.chooseRandomNode(socialGraph.getNodes());
-					SNNode target = LazynessHelper.chooseRandomNode(socialGraph.getNodes());
+					SNNode source = socialGraph.sampleNode();
+					SNNode target = socialGraph.sampleNode();
 					//An edge rewiring is valid when the new edge doesn't yet exist, and either the edge is not self-referential or self-referentiality is given
 					if(socialGraph.getNeighbours(source,currentEdge.getMedium()).isEmpty()){
 						if((source != target) || selfReferentialTopology){
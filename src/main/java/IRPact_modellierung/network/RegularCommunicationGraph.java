@@ -85,7 +85,7 @@ public class RegularCommunicationGraph extends CommunicationGraph {
 	}
 
 	public static Set<SNEdge> createStaticEdges(int z, Set<SNNode> initialNodes, EdgeWeightManipulationScheme edgeWeightMappingScheme) {
-		Set<SNEdge> edgesToCreate = new HashSet<>();
+		Set<SNEdge> edgesToCreate = new LinkedHashSet<>();
 		//initialize the nodeIDMap
 		Map<Integer, SNNode> nodeIDMap = new HashMap<>();
 		int nodeIndex = 0;
@@ -1,5 +1,6 @@
 package IRPact_modellierung.network;
 
+import java.io.Serializable;
 import java.util.HashMap;
 
 /**
@@ -9,13 +10,16 @@ import java.util.HashMap;
  *
  * @author Simon Johanning
  */
-public class SNConfiguration {
+public class SNConfiguration implements Serializable {
 
 	//General network parameters
 	private String socialGraph;
 	private HashMap<String, Object> socialGraphParameters;
 	private TopologyManipulationScheme topologyManipulationScheme;
 	private EdgeWeightManipulationScheme edgeWeightMappingScheme;
+	private HashMap<String, Object> edgeWeightMappingSchemeParameters;
+	//file the topology of the social graph is taken over from (null to generate the graph)
+	private String prebuiltGraphFile;
 
 	/**
 	 * An SNConfiguration contains the information relevant for the configuration of the social network in the simulation.
@@ -33,6 +37,7 @@ public class SNConfiguration {
 		this.socialGraphParameters = socialGraphParameters;
 		topologyManipulationScheme = SNFactory.generateSNTopologyManipulationScheme(sNTopologyManipulationScheme, sNTopologyManipulationSchemeParameters);
 		edgeWeightMappingScheme = SNFactory.generateSNEdgeWeightMapping(sNEdgeWeightMappingScheme, sNEdgeWeightMappingSchemeParameters);
+		edgeWeightMappingSchemeParameters = sNEdgeWeightMappingSchemeParameters;
 	}
 
 	public String getSocialGraph() {
@@ -50,4 +55,28 @@ public class SNConfiguration {
 	public EdgeWeightManipulationScheme getEdgeWeightMappingScheme() {
 		return edgeWeightMappingScheme;
 	}
+
+	/**
+	 * @return The parameters the EdgeWeightMappingScheme was created with
+	 */
+	public HashMap<String, Object> getEdgeWeightMappingSchemeParameters() {
+		return edgeWeightMappingSchemeParameters;
+	}
+
+	/**
+	 * @return The path of the social graph file the topology of the graph is taken over from (see SocialGraphFile), null if the graph is to be generated
+	 */
+	public String getPrebuiltGraphFile() {
+		return prebuiltGraphFile;
+	}
+
+	/**
+	 * Method to let the social graph be taken over from a social graph file rather than being generated.
+	 * When the file doesn't exist, the graph is generated and written to the file (see SNFactory.createSocialGraph).
+	 *
+	 * @param prebuiltGraphFile The path of the social graph file, null to generate the graph
+	 */
+	public void setPrebuiltGraphFile(String prebuiltGraphFile) {
+		this.prebuiltGraphFile = prebuiltGraphFile;
+	}
 }
\ No newline at end of file
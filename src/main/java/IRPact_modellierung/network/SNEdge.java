@@ -1,12 +1,14 @@
 package IRPact_modellierung.network;
 
+import java.io.Serializable;
+
 /**
  * A SNEdge represents an edge within a social network (or more precise in a SocialGraph).
  * It is a directed edge of a certain medium which formalizes the semantics of an interaction between ConsumerAgents
  *
  * @author Simon Johanning
  */
-public abstract class SNEdge {
+public abstract class SNEdge implements Serializable {
 
 	private SNNode source;
 	private SNNode target;
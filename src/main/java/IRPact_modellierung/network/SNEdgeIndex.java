@@ -0,0 +1,100 @@
+package IRPact_modellierung.network;
+
+import java.io.Serializable;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Set;
+
+/**
+ * The SNEdgeIndex indexes edges by their medium, source and target node,
+ * so that the edge between two nodes can be retrieved (or its existence checked) in constant time.
+ * It is used by the SocialGraph as well as by graph generators that need to check for existing edges
+ * before the SocialGraph holding them exists.
+ * Edges without a medium are not indexed.
+ *
+ * @author Simon Johanning
+ */
+public class SNEdgeIndex implements Serializable {
+
+	//inner maps are created when the first edge of a source node is added
+	private EnumMap<SocialGraph.EDGEMEDIUM, HashMap<SNNode, HashMap<SNNode, SNEdge>>> edgesByMedium;
+
+	/**
+	 * Creates an empty index
+	 */
+	public SNEdgeIndex() {
+		edgesByMedium = new EnumMap<SocialGraph.EDGEMEDIUM, HashMap<SNNode, HashMap<SNNode, SNEdge>>>(SocialGraph.EDGEMEDIUM.class);
+		for(SocialGraph.EDGEMEDIUM edgemedium : SocialGraph.EDGEMEDIUM.values()){
+			edgesByMedium.put(edgemedium, new HashMap<SNNode, HashMap<SNNode, SNEdge>>());
+		}
+	}
+
+	/**
+	 * Creates an index of the given edges
+	 *
+	 * @param edgesToIndex The edges to build the index from
+	 */
+	public SNEdgeIndex(Set<SNEdge> edgesToIndex) {
+		this();
+		for(SNEdge currentEdge : edgesToIndex){
+			addEdge(currentEdge);
+		}
+	}
+
+	/**
+	 * Adds an edge to the index.
+	 * An edge of the same medium between the same nodes that is indexed already is replaced.
+	 *
+	 * @param edgeToIndex The edge to add to the index
+	 * @return true if no edge of the medium between the source and the target of edgeToIndex was indexed before, false otherwise
+	 */
+	public boolean addEdge(SNEdge edgeToIndex) {
+		if(edgeToIndex.getMedium() == null) return true;
+		HashMap<SNNode, HashMap<SNNode, SNEdge>> sourceMap = edgesByMedium.get(edgeToIndex.getMedium());
+		HashMap<SNNode, SNEdge> targetMap = sourceMap.get(edgeToIndex.getSource());
+		if(targetMap == null){
+			targetMap = new HashMap<SNNode, SNEdge>();
+			sourceMap.put(edgeToIndex.getSource(), targetMap);
+		}
+		return targetMap.put(edgeToIndex.getTarget(), edgeToIndex) == null;
+	}
+
+	/**
+	 * Removes an edge from the index.
+	 * Nothing happens if another edge is indexed between the nodes of edgeToRemove.
+	 *
+	 * @param edgeToRemove The edge to remove from the index
+	 */
+	public void removeEdge(SNEdge edgeToRemove) {
+		if(edgeToRemove.getMedium() != null){
+			HashMap<SNNode, SNEdge> targetMap = edgesByMedium.get(edgeToRemove.getMedium()).get(edgeToRemove.getSource());
+			if(targetMap != null && targetMap.get(edgeToRemove.getTarget()) == edgeToRemove) targetMap.remove(edgeToRemove.getTarget());
+		}
+	}
+
+	/**
+	 * Retrieves the indexed edge between the sourceNode and the targetNode of the respectiveMedium.
+	 *
+	 * @param sourceNode The node the edge directs from
+	 * @param targetNode The node the edge directs towards
+	 * @param respectiveMedium The medium of the edge
+	 * @return The edge of the respectiveMedium from the sourceNode to the targetNode, null if no such edge is indexed
+	 */
+	public SNEdge getEdge(SNNode sourceNode, SNNode targetNode, SocialGraph.EDGEMEDIUM respectiveMedium) {
+		HashMap<SNNode, SNEdge> targetMap = edgesByMedium.get(respectiveMedium).get(sourceNode);
+		if(targetMap == null) return null;
+		else return targetMap.get(targetNode);
+	}
+
+	/**
+	 * Method to check whether an edge of the respectiveMedium is indexed between the sourceNode and the targetNode.
+	 *
+	 * @param sourceNode The node the edge directs from
+	 * @param targetNode The node the edge directs towards
+	 * @param respectiveMedium The medium of the edge
+	 * @return true if there is an edge of the respectiveMedium from the sourceNode to the targetNode, false otherwise
+	 */
+	public boolean hasEdge(SNNode sourceNode, SNNode targetNode, SocialGraph.EDGEMEDIUM respectiveMedium) {
+		return getEdge(sourceNode, targetNode, respectiveMedium) != null;
+	}
+}
@@ -1,8 +1,13 @@
 package IRPact_modellierung.network;
+import IRPact_modellierung.simulation.Configuration;
 import IRPact_modellierung.simulation.SimulationContainer;
+import org.apache.logging.log4j.LogManager;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Class to bundle all process relevant for the initialization of the SocialNetwork base on the configuration of the concrete social network
@@ -11,8 +16,13 @@ import java.util.Set;
  */
 public class SNFactory {
 
+	private static final org.apache.logging.log4j.Logger fooLog = LogManager.getLogger("debugConsoleLogger");
+	//locks of the social graph files in use, by their path
+	private static final ConcurrentHashMap<String, Object> GRAPHFILELOCKS = new ConcurrentHashMap<String, Object>();
+
 	/**
-	 * Method to initialize the SocialGraph given by the configuration
+	 * Method to initialize the SocialGraph given by the configuration.
+	 * Once generated, the topology of the graph is frozen into its compressed representation.
 	 *
 	 * @param simulationContainer The container the SocialGraph is to be included in
 	 * @param sNConfiguration The configuration object of the concrete social network of interest
@@ -20,6 +30,98 @@ public class SNFactory {
 	 * @return The initialized SocialGraph object
 	 */
 	public static SocialGraph createSocialGraph(SimulationContainer simulationContainer, SNConfiguration sNConfiguration, Set<SNNode> initialNodes) {
+		if(sNConfiguration.getPrebuiltGraphFile() != null) return createSocialGraphFromFile(simulationContainer, sNConfiguration, initialNodes, new File(sNConfiguration.getPrebuiltGraphFile()));
+		return freezeSocialGraph(instantiateSocialGraph(simulationContainer, sNConfiguration, initialNodes));
+	}
+
+	/**
+	 * Method to initialize the SocialGraph of a simulation with the topology stored in a social graph file (see SocialGraphFile).
+	 * When the file doesn't exist yet, the graph given by the configuration is generated and written to the file,
+	 * so following simulations of the configuration take it over.
+	 * The file is only taken over when its fingerprint matches the master seed, the configuration of the graph and the nodes
+	 * of the simulation (see SocialGraphFile.fingerprint); otherwise the graph is generated anew and replaces the file.
+	 * Simulations of the same JVM (such as replicates) using the same file take turns, so a graph is generated only once
+	 * for every fingerprint and the file isn't replaced while another simulation generates its graph.
+	 *
+	 * @param simulationContainer The container the SocialGraph is to be included in
+	 * @param sNConfiguration The configuration object of the concrete social network of interest
+	 * @param initialNodes The nodes the SocialGraph is initialized with
+	 * @param graphFile The file the topology is stored in
+	 * @return The initialized SocialGraph object
+	 * @throws IllegalArgumentException Will be thrown when the file can't be read or written, or its nodes don't match the nodes given
+	 */
+	private static SocialGraph createSocialGraphFromFile(SimulationContainer simulationContainer, SNConfiguration sNConfiguration, Set<SNNode> initialNodes, File graphFile) throws IllegalArgumentException {
+		Configuration simulationConfiguration = simulationContainer.getSimulationConfiguration();
+		long fingerprint = SocialGraphFile.fingerprint(simulationConfiguration.getRandomNumberService().getMasterSeed(), sNConfiguration, simulationConfiguration.getAgentConfiguration().getAffinities(), initialNodes);
+		synchronized (getGraphFileLock(graphFile)) {
+			try {
+				if(graphFile.isFile()) {
+					Long fileFingerprint = readFingerprint(graphFile);
+					if(fileFingerprint != null && fileFingerprint == fingerprint) {
+						long startTime = System.nanoTime();
+						CompressedSocialGraph prebuiltTopology = SocialGraphFile.read(graphFile);
+						fooLog.info("Read social graph with {} nodes from {} in {} ms", prebuiltTopology.getNumberOfNodes(), graphFile, (System.nanoTime() - startTime) / 1000000);
+						return createSocialGraph(simulationContainer, sNConfiguration, initialNodes, prebuiltTopology);
+					}
+					fooLog.info("Social graph file {} was generated for another seed or configuration of the graph, generating the graph anew", graphFile);
+				}
+				SocialGraph socialGraph = freezeSocialGraph(instantiateSocialGraph(simulationContainer, sNConfiguration, initialNodes));
+				SocialGraphFile.write(socialGraph.getCompressedGraph(), fingerprint, graphFile);
+				return socialGraph;
+			} catch (IOException ioe) {
+				throw new IllegalArgumentException("Social graph file "+graphFile+" can't be read or written!!\n"+ioe);
+			}
+		}
+	}
+
+	//files of another format (or version) don't match any fingerprint and are replaced
+	private static Long readFingerprint(File graphFile) throws IOException {
+		try {
+			return SocialGraphFile.readFingerprint(graphFile);
+		} catch (IllegalArgumentException iae) {
+			fooLog.info("{}", iae.getMessage());
+			return null;
+		}
+	}
+
+	private static Object getGraphFileLock(File graphFile) {
+		String path = graphFile.getAbsoluteFile().toPath().normalize().toString();
+		Object newLock = new Object();
+		Object existingLock = GRAPHFILELOCKS.putIfAbsent(path, newLock);
+		return (existingLock == null) ? newLock : existingLock;
+	}
+
+	/**
+	 * Method to initialize the SocialGraph of a simulation with a topology that was generated before (e.g. for another
+	 * simulation of the same configuration), rather than generating it anew.
+	 * The nodes are matched with the nodes of the prebuilt topology by their labels (see PrebuiltCommunicationGraph).
+	 *
+	 * @param simulationContainer The container the SocialGraph is to be included in
+	 * @param sNConfiguration The configuration object of the concrete social network of interest
+	 * @param initialNodes The nodes the SocialGraph is initialized with
+	 * @param prebuiltTopology The topology to take over, null to generate the graph given by the configuration
+	 * @return The initialized SocialGraph object
+	 * @throws IllegalArgumentException Will be thrown when the nodes don't match the nodes of the prebuilt topology
+	 */
+	public static SocialGraph createSocialGraph(SimulationContainer simulationContainer, SNConfiguration sNConfiguration, Set<SNNode> initialNodes, CompressedSocialGraph prebuiltTopology) throws IllegalArgumentException {
+		if(prebuiltTopology == null) return createSocialGraph(simulationContainer, sNConfiguration, initialNodes);
+		return freezeSocialGraph(new PrebuiltCommunicationGraph(simulationContainer, sNConfiguration, initialNodes, prebuiltTopology));
+	}
+
+	/**
+	 * Method to freeze the topology of a generated SocialGraph into its compressed representation
+	 * (unless the graph brought its compressed representation along, as a PrebuiltCommunicationGraph does)
+	 *
+	 * @param socialGraph The generated graph
+	 * @return The generated graph (with its compressed representation built)
+	 */
+	private static SocialGraph freezeSocialGraph(SocialGraph socialGraph) {
+		CompressedSocialGraph compressedGraph = socialGraph.getCompressedGraph();
+		fooLog.info("Froze social graph with {} nodes and {} edges (about {} bytes in compressed form)", compressedGraph.getNumberOfNodes(), socialGraph.getEdges().size(), compressedGraph.estimateMemoryFootprint());
+		return socialGraph;
+	}
+
+	private static SocialGraph instantiateSocialGraph(SimulationContainer simulationContainer, SNConfiguration sNConfiguration, Set<SNNode> initialNodes) {
 		switch (sNConfiguration.getSocialGraph()) {
 			case "GilbertCommunicationGraph":
 				return new GilbertCommunicationGraph(simulationContainer, sNConfiguration, initialNodes);
@@ -92,6 +194,10 @@ public class SNFactory {
 	 * @return The initialized SocialGraph object
 	 */
 	public static SocialGraph createSocialGraph(SimulationContainer simulationContainer, SNConfiguration sNConfiguration, int numberOfNodes) {
+		return freezeSocialGraph(instantiateSocialGraph(simulationContainer, sNConfiguration, numberOfNodes));
+	}
+
+	private static SocialGraph instantiateSocialGraph(SimulationContainer simulationContainer, SNConfiguration sNConfiguration, int numberOfNodes) {
 		switch (sNConfiguration.getSocialGraph()) {
 			case "GilbertCommunicationGraph":
 				return new GilbertCommunicationGraph(simulationContainer, sNConfiguration, numberOfNodes);
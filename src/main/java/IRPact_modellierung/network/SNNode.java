@@ -1,7 +1,8 @@
 package IRPact_modellierung.network;
 
+import java.io.Serializable;
 
-public class SNNode {
+public class SNNode implements Serializable {
 
 	protected String nodeLabel;
 
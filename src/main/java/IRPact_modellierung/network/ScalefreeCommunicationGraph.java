@@ -2,15 +2,21 @@ package IRPact_modellierung.network;
 
 import IRPact_modellierung.helper.LazynessHelper;
 import IRPact_modellierung.simulation.SimulationContainer;
+import org.apache.logging.log4j.LogManager;
 
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 //TODO implement
 public abstract class ScalefreeCommunicationGraph extends CommunicationGraph {
 
+	private static final org.apache.logging.log4j.Logger fooLog = LogManager.getLogger("debugConsoleLogger");
+
 	private int noInitSeeds;
 	private int noConnectedEdges;
 
@@ -68,9 +74,12 @@ public abstract class ScalefreeCommunicationGraph extends CommunicationGraph {
 	}
 
 	public Set<SNEdge> createEdges(SNConfiguration sNConfiguration, Set<SNNode> initialNodes) {
+		//distance based graphs draw their targets from a spatial index rather than from all processed nodes
+		if(isSpatiallySampleable(this, associatedSimulationContainer, noInitSeeds, 0)) return createSpatialEdges(associatedSimulationContainer, sNConfiguration, initialNodes, noInitSeeds, noConnectedEdges, 0, (SpatialConnectionKernel) this);
 		//choose a number of seed nodes to start the network
 		Set<SNNode> seedNodes = LazynessHelper.pickNNodes(initialNodes, noInitSeeds);
-		Set<SNNode> subsequentNodes = new HashSet<>();
+		//the subsequent nodes are processed in the order of the initial nodes
+		Set<SNNode> subsequentNodes = new LinkedHashSet<>();
 		//map to order nodes already processed by a constructed index
 		Map<Integer, SNNode> processedNodesIndexMap = new HashMap<>();
 		//map to hold the (in-)degree of nodes
@@ -91,17 +100,15 @@ public abstract class ScalefreeCommunicationGraph extends CommunicationGraph {
 		}
 		//construct the initial edges (as regular graph)
 		Set<SNEdge> returnSet = RegularCommunicationGraph.createStaticEdges(noInitSeeds-1, seedNodes, sNConfiguration.getEdgeWeightMappingScheme());
-		LazynessHelper.detectDoubleEdges(returnSet, initialNodes);
+		SNEdgeIndex createdEdges = LazynessHelper.detectDoubleEdges(returnSet);
 		//process all nodes not processed in the initial step
 		for(SNNode currentNode : subsequentNodes){
-			//structure to remember which nodes they already have edges to
-			Set<SNNode> currentNodeNeighbours = new HashSet<>();
 			//hook them up with the respective number of edges
 			for(int edgeIndex=0;edgeIndex<noConnectedEdges;edgeIndex++){
 				Map<Integer, Double> indexConnectionProbabilityMap = new HashMap<>();
 				for(Integer currentIndex : processedNodesIndexMap.keySet()){
 					//if an edge already exists towards the respective node, set a probability of 0
-					if(currentNodeNeighbours.contains(processedNodesIndexMap.get(currentIndex))) indexConnectionProbabilityMap.put(currentIndex, 0.0);
+					if(createdEdges.hasEdge(currentNode, processedNodesIndexMap.get(currentIndex), EDGEMEDIUM.COMMUNICATION)) indexConnectionProbabilityMap.put(currentIndex, 0.0);
 					//else derive the probability from the implementing schemes
 					else{
 						double probInSCG = calculateProbabilityConnected(currentNode, processedNodesIndexMap.get(currentIndex), nodeInDegreeMap);
@@ -111,11 +118,10 @@ public abstract class ScalefreeCommunicationGraph extends CommunicationGraph {
 				}
 				//based on the constructed probability distribution, choose a respective node
 				SNNode targetNode = processedNodesIndexMap.get(LazynessHelper.chooseIntegerByDistribution(indexConnectionProbabilityMap));
-				if(LazynessHelper.existsEdge(returnSet, currentNode, targetNode)) System.out.println("Edge between currentNode and target node "+targetNode+"exists: "+neighbours.get(currentNode));
-				//and construct an edge
-				returnSet.add(new SNCommunicationEdge(currentNode, targetNode, sNConfiguration.getEdgeWeightMappingScheme().weighEdge(currentNode, targetNode, EDGEMEDIUM.COMMUNICATION)));
-				//add the node which currentNode now posses an edge towards to the list of nodes to exclude
-				currentNodeNeighbours.add(targetNode);
+				//construct an edge and add it to the edges to exclude for currentNode
+				SNEdge createdEdge = new SNCommunicationEdge(currentNode, targetNode, sNConfiguration.getEdgeWeightMappingScheme().weighEdge(currentNode, targetNode, EDGEMEDIUM.COMMUNICATION));
+				if(!createdEdges.addEdge(createdEdge)) fooLog.warn("Double edge detected between {} and {}", currentNode, targetNode);
+				returnSet.add(createdEdge);
 				//and increase the node degree of the connected node
 				if(nodeInDegreeMap.keySet().contains(targetNode)) {
 					int targetNodeDegree = nodeInDegreeMap.get(targetNode);
@@ -131,5 +137,97 @@ public abstract class ScalefreeCommunicationGraph extends CommunicationGraph {
 		return returnSet;
 	}
 
+	/**
+	 * Checks whether the edges of a scalefree graph can be drawn by means of a spatial index (see createSpatialEdges),
+	 * i.e. whether its connection probability is described by a SpatialConnectionKernel,
+	 * the simulation has a spatial model and the degree weights of the nodes are finite.
+	 *
+	 * @param graph the graph whose edges are to be created
+	 * @param associatedSimulationContainer the container the graph is part of
+	 * @param noInitSeeds the number of seed nodes of the graph
+	 * @param initialDegree the degree a node is assigned when added to the graph
+	 * @return whether createSpatialEdges can be used for the graph
+	 */
+	static boolean isSpatiallySampleable(SocialGraph graph, SimulationContainer associatedSimulationContainer, int noInitSeeds, int initialDegree) {
+		if(!(graph instanceof SpatialConnectionKernel) || associatedSimulationContainer == null || associatedSimulationContainer.getSpatialModel() == null) return false;
+		SpatialConnectionKernel kernel = (SpatialConnectionKernel) graph;
+		for(int degree : new int[]{initialDegree, noInitSeeds - 1}) {
+			double degreeWeight = kernel.weighDegree(degree);
+			if(!(degreeWeight >= 0.0) || Double.isInfinite(degreeWeight)) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Creates the edges of a scalefree graph whose connection probability is described by a SpatialConnectionKernel.
+	 * As in createEdges, the seed nodes form a regular graph and every subsequent node is connected to
+	 * noConnectedEdges distinct nodes processed before it, with probabilities proportional to the kernel.
+	 * The targets are however drawn from a SpatialNodeIndex over the coordinates of the corresponding agents
+	 * (holding the degree weights of the processed nodes), so each edge takes (about) logarithmic rather than linear time.
+	 * The distribution of the targets is the same as when evaluating the kernel for all processed nodes.
+	 *
+	 * @param associatedSimulationContainer the container holding the agents corresponding to the nodes and the spatial model
+	 * @param sNConfiguration the configuration of the graph
+	 * @param initialNodes the nodes to connect
+	 * @param noInitSeeds the number of seed nodes
+	 * @param noConnectedEdges the number of edges each subsequent node forms
+	 * @param initialDegree the degree a node is assigned after forming its edges
+	 * @param kernel the kernel describing the connection probability
+	 * @return the edges of the graph
+	 */
+	static Set<SNEdge> createSpatialEdges(SimulationContainer associatedSimulationContainer, SNConfiguration sNConfiguration, Set<SNNode> initialNodes, int noInitSeeds, int noConnectedEdges, int initialDegree, SpatialConnectionKernel kernel) {
+		//choose a number of seed nodes to start the network
+		Set<SNNode> seedNodes = LazynessHelper.pickNNodes(initialNodes, noInitSeeds);
+		//the subsequent nodes are processed in the order of the initial nodes
+		Set<SNNode> subsequentNodes = new LinkedHashSet<>();
+		for(SNNode currentNode : initialNodes) {
+			if(!seedNodes.contains(currentNode)) subsequentNodes.add(currentNode);
+		}
+		//index the nodes and their coordinates
+		List<SNNode> indexedNodes = new ArrayList<>(initialNodes);
+		Map<SNNode, Integer> nodeIndexMap = new HashMap<>();
+		double[] xCoordinates = new double[indexedNodes.size()];
+		double[] yCoordinates = new double[indexedNodes.size()];
+		for(int nodeIndex = 0; nodeIndex < indexedNodes.size(); nodeIndex++) {
+			Point2D coordinates = associatedSimulationContainer.getsNMap().get(indexedNodes.get(nodeIndex)).getCoordinates();
+			xCoordinates[nodeIndex] = coordinates.getX();
+			yCoordinates[nodeIndex] = coordinates.getY();
+			nodeIndexMap.put(indexedNodes.get(nodeIndex), nodeIndex);
+		}
+		SpatialNodeIndex spatialNodeIndex = new SpatialNodeIndex(xCoordinates, yCoordinates, associatedSimulationContainer.getSpatialModel().getMetric());
+		//(in-)degree of the nodes, their weight in the index is the corresponding degree weight (0 for unprocessed nodes)
+		int[] nodeInDegrees = new int[indexedNodes.size()];
+		for(int nodeIndex = 0; nodeIndex < indexedNodes.size(); nodeIndex++) {
+			if(seedNodes.contains(indexedNodes.get(nodeIndex))) {
+				//initial nodes will form a regular network, i.e. already be connected to all nodes but themselves
+				nodeInDegrees[nodeIndex] = noInitSeeds - 1;
+				spatialNodeIndex.setWeight(nodeIndex, kernel.weighDegree(noInitSeeds - 1));
+			}
+		}
+		//construct the initial edges (as regular graph)
+		Set<SNEdge> returnSet = RegularCommunicationGraph.createStaticEdges(noInitSeeds-1, seedNodes, sNConfiguration.getEdgeWeightMappingScheme());
+		LazynessHelper.detectDoubleEdges(returnSet);
+		//process all nodes not processed in the initial step
+		int[] targetIndices = new int[noConnectedEdges];
+		for(SNNode currentNode : subsequentNodes) {
+			int nodeIndex = nodeIndexMap.get(currentNode);
+			SpatialNodeIndex.TargetSampler targetSampler = spatialNodeIndex.createSampler(nodeIndex, kernel);
+			for(int edgeIndex = 0; edgeIndex < noConnectedEdges; edgeIndex++) {
+				int targetIndex = targetSampler.sampleNode();
+				SNNode targetNode = indexedNodes.get(targetIndex);
+				returnSet.add(new SNCommunicationEdge(currentNode, targetNode, sNConfiguration.getEdgeWeightMappingScheme().weighEdge(currentNode, targetNode, EDGEMEDIUM.COMMUNICATION)));
+				nodeInDegrees[targetIndex]++;
+				//exclude the target from the further edges of the current node
+				targetIndices[edgeIndex] = targetIndex;
+				spatialNodeIndex.setWeight(targetIndex, 0.0);
+			}
+			for(int edgeIndex = 0; edgeIndex < noConnectedEdges; edgeIndex++) spatialNodeIndex.setWeight(targetIndices[edgeIndex], kernel.weighDegree(nodeInDegrees[targetIndices[edgeIndex]]));
+			//after all edges have been constructed, add the node to the processed ones
+			nodeInDegrees[nodeIndex] = initialDegree;
+			spatialNodeIndex.setWeight(nodeIndex, kernel.weighDegree(initialDegree));
+		}
+		return returnSet;
+	}
+
 	protected abstract double calculateProbabilityConnected(SNNode sourceNode, SNNode targetNode, Map<SNNode, Integer> nodeInDegreeMap);
 }
\ No newline at end of file
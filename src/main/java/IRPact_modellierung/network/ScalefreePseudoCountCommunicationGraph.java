@@ -2,14 +2,17 @@ package IRPact_modellierung.network;
 
 import IRPact_modellierung.helper.LazynessHelper;
 import IRPact_modellierung.simulation.SimulationContainer;
+import org.apache.logging.log4j.LogManager;
 
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 
 public abstract class ScalefreePseudoCountCommunicationGraph extends CommunicationGraph {
 
+    private static final org.apache.logging.log4j.Logger fooLog = LogManager.getLogger("debugConsoleLogger");
+
 
     private int noInitSeeds;
     private int noConnectedEdges;
@@ -76,9 +79,12 @@ public abstract class ScalefreePseudoCountCommunicationGraph extends Communicati
     }
 
     public Set<SNEdge> createEdges(SNConfiguration sNConfiguration, Set<SNNode> initialNodes) {
+        //distance based graphs draw their targets from a spatial index rather than from all processed nodes
+        if(ScalefreeCommunicationGraph.isSpatiallySampleable(this, associatedSimulationContainer, noInitSeeds, pseudoCount)) return ScalefreeCommunicationGraph.createSpatialEdges(associatedSimulationContainer, sNConfiguration, initialNodes, noInitSeeds, noConnectedEdges, pseudoCount, (SpatialConnectionKernel) this);
         //choose a number of seed nodes to start the network
         Set<SNNode> seedNodes = LazynessHelper.pickNNodes(initialNodes, noInitSeeds);
-        Set<SNNode> subsequentNodes = new HashSet<>();
+        //the subsequent nodes are processed in the order of the initial nodes
+        Set<SNNode> subsequentNodes = new LinkedHashSet<>();
         //map to order nodes already processed by a constructed index
         Map<Integer, SNNode> processedNodesIndexMap = new HashMap<>();
         //map to hold the (in-)degree of nodes
@@ -99,17 +105,15 @@ public abstract class ScalefreePseudoCountCommunicationGraph extends Communicati
         }
         //construct the initial edges (as regular graph)
         Set<SNEdge> returnSet = RegularCommunicationGraph.createStaticEdges(noInitSeeds-1, seedNodes, sNConfiguration.getEdgeWeightMappingScheme());
-        LazynessHelper.detectDoubleEdges(returnSet, initialNodes);
+        SNEdgeIndex createdEdges = LazynessHelper.detectDoubleEdges(returnSet);
         //process all nodes not processed in the initial step
         for(SNNode currentNode : subsequentNodes){
-            //structure to remember which nodes they already have edges to
-            Set<SNNode> currentNodeNeighbours = new HashSet<>();
             //hook them up with the respective number of edges
             for(int edgeIndex=0;edgeIndex<noConnectedEdges;edgeIndex++){
                 Map<Integer, Double> indexConnectionProbabilityMap = new HashMap<>();
                 for(Integer currentIndex : processedNodesIndexMap.keySet()){
                     //if an edge already exists towards the respective node, set a probability of 0
-                    if(currentNodeNeighbours.contains(processedNodesIndexMap.get(currentIndex))) indexConnectionProbabilityMap.put(currentIndex, 0.0);
+                    if(createdEdges.hasEdge(currentNode, processedNodesIndexMap.get(currentIndex), EDGEMEDIUM.COMMUNICATION)) indexConnectionProbabilityMap.put(currentIndex, 0.0);
                         //else derive the probability from the implementing schemes
                     else{
                         double probInSCG = calculateProbabilityConnected(currentNode, processedNodesIndexMap.get(currentIndex), nodeInDegreeMap);
@@ -119,11 +123,10 @@ public abstract class ScalefreePseudoCountCommunicationGraph extends Communicati
                 }
                 //based on the constructed probability distribution, choose a respective node
                 SNNode targetNode = processedNodesIndexMap.get(LazynessHelper.chooseIntegerByDistribution(indexConnectionProbabilityMap));
-                if(LazynessHelper.existsEdge(returnSet, currentNode, targetNode)) System.out.println("Edge between currentNode and target node "+targetNode+"exists: "+neighbours.get(currentNode));
-                //and construct an edge
-                returnSet.add(new SNCommunicationEdge(currentNode, targetNode, sNConfiguration.getEdgeWeightMappingScheme().weighEdge(currentNode, targetNode, SocialGraph.EDGEMEDIUM.COMMUNICATION)));
-                //add the node which currentNode now posses an edge towards to the list of nodes to exclude
-                currentNodeNeighbours.add(targetNode);
+                //construct an edge and add it to the edges to exclude for currentNode
+                SNEdge createdEdge = new SNCommunicationEdge(currentNode, targetNode, sNConfiguration.getEdgeWeightMappingScheme().weighEdge(currentNode, targetNode, SocialGraph.EDGEMEDIUM.COMMUNICATION));
+                if(!createdEdges.addEdge(createdEdge)) fooLog.warn("Double edge detected between {} and {}", currentNode, targetNode);
+                returnSet.add(createdEdge);
                 //and increase the node degree of the connected node
                 if(nodeInDegreeMap.keySet().contains(targetNode)) {
                     int targetNodeDegree = nodeInDegreeMap.get(targetNode);
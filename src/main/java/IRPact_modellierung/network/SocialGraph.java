@@ -4,6 +4,8 @@ import java.util.*;
 
 import IRPact_modellierung.SimulationEntity;
 import IRPact_modellierung.agents.consumerAgents.ConsumerAgent;
+import IRPact_modellierung.simulation.RandomNumberService;
+import IRPact_modellierung.simulation.RandomStream;
 import IRPact_modellierung.simulation.SimulationContainer;
 import org.apache.logging.log4j.LogManager;
 
@@ -14,6 +16,14 @@ import org.apache.logging.log4j.LogManager;
  *
  * The SocialGraph further manages data structures to derive the neighbours of a node (given a certain medium),
  * an to access all edges stemming from a node (for all or a specific medium).
+ * Edges are furthermore indexed by their source and target node per medium, so that the edge
+ * between two nodes can be retrieved in constant time.
+ * Nodes and neighbours are held in IndexedNodeSets, so a random node or neighbour can be drawn
+ * in constant time without copying the respective set.
+ * Once generated, the topology can be frozen into a CompressedSocialGraph, an int-indexed
+ * representation that allows to iterate neighbours without hash lookups.
+ * While the graph is frozen, the edge index is released and edges are looked up in the compressed
+ * representation instead; the index is rebuilt when the topology changes.
  *
  * @author Simon Johanning
  */
@@ -30,6 +40,12 @@ public abstract class SocialGraph extends SimulationEntity {
 	protected EnumMap<EDGEMEDIUM, HashMap<SNNode, Set<SNNode>>> neighbours;
 	protected HashMap<SNNode, Set<SNEdge>> outgoingEdges;
 	protected EnumMap<EDGEMEDIUM, HashMap<SNNode, Set<SNEdge>>> outgoingEdgesMedium;
+	//index of the edges by medium, source and target node; null while the graph is frozen
+	protected SNEdgeIndex edgeIndex;
+	//compressed representation of the topology; discarded whenever the topology changes
+	protected CompressedSocialGraph compressedGraph;
+	//edges of the compressed representation per medium, at the positions of their targets; replaces the edge index while the graph is frozen
+	protected SNEdge[][] frozenEdges;
 
 	/**
 	 * The SocialGraph is a directed graph describing the structure of interactions (corresponding to the edges) of
@@ -45,9 +61,9 @@ public abstract class SocialGraph extends SimulationEntity {
 	 */
 	public SocialGraph(SimulationContainer associatedSimulationContainer, SNConfiguration sNConfiguration, Set<SNNode> nodes, Set<SNEdge> edges, EnumMap<EDGEMEDIUM, HashMap<SNNode, Set<SNNode>>> neighbours) {
 		super(associatedSimulationContainer);
-		this.nodes = nodes;
+		this.nodes = indexNodeSet(nodes);
 		this.edges = edges;
-		this.neighbours = neighbours;
+		this.neighbours = indexNeighbourSets(this.nodes, neighbours);
 		outgoingEdges = new HashMap<SNNode, Set<SNEdge>>();
 		boolean outgoingEdgesInitialized = false;
 		outgoingEdgesMedium = new EnumMap<EDGEMEDIUM, HashMap<SNNode, Set<SNEdge>>>(EDGEMEDIUM.class);
@@ -55,8 +71,8 @@ public abstract class SocialGraph extends SimulationEntity {
 		for(EDGEMEDIUM edgemedium : EDGEMEDIUM.values()){
 			HashMap<SNNode, Set<SNEdge>> edgesMediumMap = new HashMap<SNNode, Set<SNEdge>>();
 			for(SNNode currentNode : nodes) {
-				if(!outgoingEdgesInitialized) outgoingEdges.put(currentNode, new HashSet<SNEdge>());
-				edgesMediumMap.put(currentNode, new HashSet<SNEdge>());
+				if(!outgoingEdgesInitialized) outgoingEdges.put(currentNode, new LinkedHashSet<SNEdge>());
+				edgesMediumMap.put(currentNode, new LinkedHashSet<SNEdge>());
 			}
 			if(!outgoingEdgesInitialized) outgoingEdgesInitialized = true;
 			outgoingEdgesMedium.put(edgemedium, edgesMediumMap);
@@ -70,6 +86,7 @@ public abstract class SocialGraph extends SimulationEntity {
 				outgoingEdgesMedium.put(currentEdge.getMedium(), currentInnerMap);
 			}
 		}
+		edgeIndex = new SNEdgeIndex(edges);
 	}
 
 	/**
@@ -85,7 +102,7 @@ public abstract class SocialGraph extends SimulationEntity {
 	 */
 	public SocialGraph(SimulationContainer associatedSimulationContainer, SNConfiguration sNConfiguration, Set<SNNode> initialNodes){
 		super(associatedSimulationContainer);
-		this.nodes = initialNodes;
+		this.nodes = indexNodeSet(initialNodes);
 		neighbours = new EnumMap<EDGEMEDIUM, HashMap<SNNode, Set<SNNode>>>(EDGEMEDIUM.class);
 		outgoingEdges = new HashMap<SNNode, Set<SNEdge>>();
 		boolean outgoingEdgesInitialized = false;
@@ -95,15 +112,16 @@ public abstract class SocialGraph extends SimulationEntity {
 			HashMap<SNNode, Set<SNNode>> innerNeighbourMap = new HashMap<SNNode, Set<SNNode>>();
 			HashMap<SNNode, Set<SNEdge>> edgesMediumMap = new HashMap<SNNode, Set<SNEdge>>();
 			for (SNNode currentNode : initialNodes) {
-				innerNeighbourMap.put(currentNode, new HashSet<SNNode>());
-				if(!outgoingEdgesInitialized) outgoingEdges.put(currentNode, new HashSet<SNEdge>());
-				edgesMediumMap.put(currentNode, new HashSet<SNEdge>());
+				innerNeighbourMap.put(currentNode, new IndexedNodeSet());
+				if(!outgoingEdgesInitialized) outgoingEdges.put(currentNode, new LinkedHashSet<SNEdge>());
+				edgesMediumMap.put(currentNode, new LinkedHashSet<SNEdge>());
 			}
 			neighbours.put(edgemedium, innerNeighbourMap);
 			if(!outgoingEdgesInitialized) outgoingEdgesInitialized = true;
 			outgoingEdgesMedium.put(edgemedium, edgesMediumMap);
 		}
-		this.edges = new HashSet<>();
+		this.edges = new LinkedHashSet<>();
+		edgeIndex = new SNEdgeIndex(edges);
 	}
 
 	/**
@@ -135,7 +153,7 @@ public abstract class SocialGraph extends SimulationEntity {
 	 * @return The node set the graph is to be initialized with
 	 */
 	private static Set<SNNode> createInitialNodes(int numberOfNodes){
-		HashSet<SNNode> nodes = new HashSet<SNNode>(numberOfNodes);
+		LinkedHashSet<SNNode> nodes = new LinkedHashSet<SNNode>(numberOfNodes);
 		try {
 			return createNodes(nodes, numberOfNodes);
 		} catch (IllegalArgumentException e) {
@@ -165,6 +183,99 @@ public abstract class SocialGraph extends SimulationEntity {
 	}
 
 
+	/**
+	 * Method to provide the node set in an indexed form, so that random nodes can be drawn from it.
+	 * Node sets that are already indexed are taken over as they are.
+	 *
+	 * @param nodeSet The node set of the graph
+	 * @return The node set of the graph as an IndexedNodeSet
+	 */
+	private static IndexedNodeSet indexNodeSet(Set<SNNode> nodeSet){
+		if(nodeSet instanceof IndexedNodeSet) return (IndexedNodeSet) nodeSet;
+		else return new IndexedNodeSet(nodeSet);
+	}
+
+	/**
+	 * Method to replace the neighbour sets of the given neighbourhood relations by IndexedNodeSets (in place),
+	 * so that random neighbours can be drawn from them.
+	 * Media and nodes without neighbourhood relations are given empty neighbour sets.
+	 *
+	 * @param nodeSet The nodes of the graph
+	 * @param neighbourMap The neighbourhood relations of the graph by medium
+	 * @return The neighbourhood relations with indexed neighbour sets
+	 */
+	private static EnumMap<EDGEMEDIUM, HashMap<SNNode, Set<SNNode>>> indexNeighbourSets(Set<SNNode> nodeSet, EnumMap<EDGEMEDIUM, HashMap<SNNode, Set<SNNode>>> neighbourMap){
+		for(EDGEMEDIUM edgemedium : EDGEMEDIUM.values()){
+			HashMap<SNNode, Set<SNNode>> innerNeighbourMap = neighbourMap.get(edgemedium);
+			if(innerNeighbourMap == null){
+				innerNeighbourMap = new HashMap<SNNode, Set<SNNode>>();
+				neighbourMap.put(edgemedium, innerNeighbourMap);
+			}
+			for(Map.Entry<SNNode, Set<SNNode>> currentEntry : innerNeighbourMap.entrySet()){
+				if(!(currentEntry.getValue() instanceof IndexedNodeSet)) currentEntry.setValue(new IndexedNodeSet(currentEntry.getValue()));
+			}
+			for(SNNode currentNode : nodeSet){
+				if(!innerNeighbourMap.containsKey(currentNode)) innerNeighbourMap.put(currentNode, new IndexedNodeSet());
+			}
+		}
+		return neighbourMap;
+	}
+
+	/**
+	 * Method to freeze the current topology of the graph into its compressed (CSR) representation.
+	 * Should be called once the generation of the graph is finished.
+	 *
+	 * @return The compressed representation of the current topology
+	 */
+	public CompressedSocialGraph freeze(){
+		compressedGraph = CompressedSocialGraph.fromSocialGraph(this);
+		releaseEdgeIndex();
+		return compressedGraph;
+	}
+
+	/**
+	 * Method to replace the edge index by the edges arranged along the compressed representation of the graph,
+	 * so the frozen graph doesn't hold both.
+	 * Requires the compressed representation to correspond to the current topology.
+	 */
+	protected void releaseEdgeIndex(){
+		SNEdge[][] edgesByPosition = new SNEdge[EDGEMEDIUM.values().length][];
+		for(EDGEMEDIUM edgemedium : EDGEMEDIUM.values()){
+			SNEdge[] mediumEdges = new SNEdge[compressedGraph.getNumberOfEdges(edgemedium)];
+			for(Map.Entry<SNNode, Set<SNEdge>> outgoingEntry : outgoingEdgesMedium.get(edgemedium).entrySet()){
+				int sourceId = compressedGraph.getNodeId(outgoingEntry.getKey());
+				for(SNEdge currentEdge : outgoingEntry.getValue()){
+					mediumEdges[compressedGraph.getEdgePosition(sourceId, compressedGraph.getNodeId(currentEdge.getTarget()), edgemedium)] = currentEdge;
+				}
+			}
+			edgesByPosition[edgemedium.ordinal()] = mediumEdges;
+		}
+		frozenEdges = edgesByPosition;
+		edgeIndex = null;
+	}
+
+	/**
+	 * Method to rebuild the edge index (if it was released on freezing the graph) before the topology is changed.
+	 */
+	private void restoreEdgeIndex(){
+		if(edgeIndex == null){
+			edgeIndex = new SNEdgeIndex(edges);
+			frozenEdges = null;
+		}
+	}
+
+	/**
+	 * Method to retrieve the compressed (CSR) representation of the topology of the graph.
+	 * When the topology changed since the graph was last frozen, the compressed representation is rebuilt.
+	 * Edge weights are taken over at the time of freezing.
+	 *
+	 * @return The compressed representation of the current topology
+	 */
+	public CompressedSocialGraph getCompressedGraph(){
+		if(compressedGraph == null) return freeze();
+		else return compressedGraph;
+	}
+
 	public Set<SNNode> getNodes() {
 		return this.nodes;
 	}
@@ -192,14 +303,16 @@ public abstract class SocialGraph extends SimulationEntity {
 		if (nodes.contains(nodeToAdd))
 			throw new IllegalArgumentException("Node to add is already part of the SocialGraph");
 		else {
+			restoreEdgeIndex();
+			compressedGraph = null;
 			nodes.add(nodeToAdd);
-			outgoingEdges.put(nodeToAdd, new HashSet<SNEdge>());
+			outgoingEdges.put(nodeToAdd, new LinkedHashSet<SNEdge>());
 			for (EDGEMEDIUM edgemedium : EDGEMEDIUM.values()) {
 				HashMap<SNNode, Set<SNEdge>> currentOutgoingEdges = outgoingEdgesMedium.get(edgemedium);
-				currentOutgoingEdges.put(nodeToAdd, new HashSet<SNEdge>());
+				currentOutgoingEdges.put(nodeToAdd, new LinkedHashSet<SNEdge>());
 				outgoingEdgesMedium.put(edgemedium, currentOutgoingEdges);
 				HashMap<SNNode, Set<SNNode>> currentNeighbours = neighbours.get(edgemedium);
-				currentNeighbours.put(nodeToAdd, new HashSet<SNNode>());
+				currentNeighbours.put(nodeToAdd, new IndexedNodeSet());
 				neighbours.put(edgemedium, currentNeighbours);
 			}
 		}
@@ -213,12 +326,15 @@ public abstract class SocialGraph extends SimulationEntity {
 	public void addEdge(SNEdge edgeToAdd) throws IllegalArgumentException{
 		if(edges.contains(edgeToAdd)) throw new IllegalStateException("Edge "+edgeToAdd+" is part of the graph already");
 		else if(neighbours.get(edgeToAdd.getMedium()).get(edgeToAdd.getSource()).contains(edgeToAdd.getTarget())) throw new IllegalStateException("There is already an edge of medium "+edgeToAdd.getMedium()+" from node "+edgeToAdd.getSource()+" to node "+edgeToAdd.getTarget());
+		restoreEdgeIndex();
+		compressedGraph = null;
 		edges.add(edgeToAdd);
 		outgoingEdges.get(edgeToAdd.getSource()).add(edgeToAdd);
 		if (edgeToAdd.getMedium() != null) {
 			//if the edge makes a new node a neighbour, add it to the list of neighbours (this should always occur with the current modeling! (v. 1.0)
 			if (!neighbours.get(edgeToAdd.getMedium()).get(edgeToAdd.getSource()).contains(edgeToAdd.getTarget())) neighbours.get(edgeToAdd.getMedium()).get(edgeToAdd.getSource()).add(edgeToAdd.getTarget());
 			outgoingEdgesMedium.get(edgeToAdd.getMedium()).get(edgeToAdd.getSource()).add(edgeToAdd);
+			edgeIndex.addEdge(edgeToAdd);
 		}
 	}
 
@@ -229,7 +345,7 @@ public abstract class SocialGraph extends SimulationEntity {
 	 * @return The neighbours of the node of interest (in any medium)
 	 */
 	public Set<SNNode> getAllMediaNeighbours(SNNode nodeOfInterest){
-		Set<SNNode> neighbourSet = new HashSet<>();
+		Set<SNNode> neighbourSet = new LinkedHashSet<>();
 		for(EDGEMEDIUM edgemedium : EDGEMEDIUM.values()){
 			neighbourSet.addAll(neighbours.get(edgemedium).get(nodeOfInterest));
 		}
@@ -245,10 +361,13 @@ public abstract class SocialGraph extends SimulationEntity {
 	 */
 	public void removeEdge(SNEdge edgeToRemove) throws IllegalArgumentException{
 		if(!edges.contains(edgeToRemove)) throw new IllegalArgumentException("Trying to remove edge that is not in the network!! Referred is: "+edgeToRemove.getEdgeLabel());
+		restoreEdgeIndex();
+		compressedGraph = null;
 		edges.remove(edgeToRemove);
 		if(edgeToRemove.getMedium() != null){
 			neighbours.get(edgeToRemove.getMedium()).get(edgeToRemove.getSource()).remove(edgeToRemove.getTarget());
 			outgoingEdgesMedium.get(edgeToRemove.getMedium()).get(edgeToRemove.getSource()).remove(edgeToRemove);
+			edgeIndex.removeEdge(edgeToRemove);
 		}
 		outgoingEdges.get(edgeToRemove.getSource()).remove(edgeToRemove);
 	}
@@ -372,11 +491,42 @@ public abstract class SocialGraph extends SimulationEntity {
 	 * @throws IllegalArgumentException Will be thrown when the respective edge doesn't exist
 	 */
 	public SNEdge retrieveEdge(SNNode sourceNode, SNNode targetNode, EDGEMEDIUM respectiveMedium) throws IllegalArgumentException{
-		Set<SNEdge> potentialEdges = outgoingEdgesMedium.get(respectiveMedium).get(sourceNode);
-		for(SNEdge currentEdge : potentialEdges){
-			if(currentEdge.getTarget().equals(targetNode)) return currentEdge;
-		}
-		throw new IllegalArgumentException("There is no edge of medium "+respectiveMedium+" between node "+sourceNode+" and node "+targetNode);
+		SNEdge respectiveEdge = getEdge(sourceNode, targetNode, respectiveMedium);
+		if(respectiveEdge == null) throw new IllegalArgumentException("There is no edge of medium "+respectiveMedium+" between node "+sourceNode+" and node "+targetNode);
+		else return respectiveEdge;
+	}
+
+	/**
+	 * Retrieves the edge between the sourceNode and the targetNode of the respectiveMedium in constant time
+	 * (or logarithmic in the degree of the sourceNode while the graph is frozen).
+	 * Will return null if no such edge exists.
+	 *
+	 * @param sourceNode The node the edge directs from
+	 * @param targetNode The node the edge directs towards
+	 * @param respectiveMedium The medium of the edge
+	 * @return The edge of the respectiveMedium from the sourceNode to the targetNode, null if no such edge exists
+	 */
+	public SNEdge getEdge(SNNode sourceNode, SNNode targetNode, EDGEMEDIUM respectiveMedium){
+		if(edgeIndex != null) return edgeIndex.getEdge(sourceNode, targetNode, respectiveMedium);
+		//frozen graph, the edge is looked up in the compressed representation
+		int sourceId = compressedGraph.getNodeId(sourceNode);
+		int targetId = compressedGraph.getNodeId(targetNode);
+		if(sourceId < 0 || targetId < 0) return null;
+		int edgePosition = compressedGraph.getEdgePosition(sourceId, targetId, respectiveMedium);
+		if(edgePosition < 0) return null;
+		else return frozenEdges[respectiveMedium.ordinal()][edgePosition];
+	}
+
+	/**
+	 * Method to check whether an edge of the respectiveMedium exists between the sourceNode and the targetNode.
+	 *
+	 * @param sourceNode The node the edge directs from
+	 * @param targetNode The node the edge directs towards
+	 * @param respectiveMedium The medium of the edge
+	 * @return true if there is an edge of the respectiveMedium from the sourceNode to the targetNode, false otherwise
+	 */
+	public boolean hasEdge(SNNode sourceNode, SNNode targetNode, EDGEMEDIUM respectiveMedium){
+		return getEdge(sourceNode, targetNode, respectiveMedium) != null;
 	}
 
 	/**
@@ -388,7 +538,7 @@ public abstract class SocialGraph extends SimulationEntity {
 	 * @return The set of edges of any medium from the sourceNode to the targetNode
 	 */
 	public Set<SNEdge> retrieveAllEdges(SNNode sourceNode, SNNode targetNode){
-		Set<SNEdge> returnSet = new HashSet<>();
+		Set<SNEdge> returnSet = new LinkedHashSet<>();
 		for(SNEdge currentEdge : outgoingEdges.get(sourceNode)){
 			if(currentEdge.getTarget().equals(targetNode)) returnSet.add(currentEdge);
 		}
@@ -420,6 +570,27 @@ public abstract class SocialGraph extends SimulationEntity {
 		return neighbours.get(medium).get(node);
 	}
 
+	/**
+	 * Draws a node of the graph uniformly at random in constant time
+	 *
+	 * @param random The random stream to draw from
+	 * @return A random node of the graph
+	 * @throws IllegalArgumentException Will be thrown when the graph doesn't have any nodes
+	 */
+	public SNNode sampleNode(RandomStream random) throws IllegalArgumentException{
+		return ((IndexedNodeSet) nodes).sample(random);
+	}
+
+	/**
+	 * Draws a node of the graph uniformly at random (from the current random stream)
+	 *
+	 * @return A random node of the graph
+	 * @throws IllegalArgumentException Will be thrown when the graph doesn't have any nodes
+	 */
+	public SNNode sampleNode() throws IllegalArgumentException{
+		return sampleNode(RandomNumberService.currentStream());
+	}
+
 	/**
 	 * (Network type specific) method to add a number of nodes (and the edges that go with them) to the social graph
 	 *
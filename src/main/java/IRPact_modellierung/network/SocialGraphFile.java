@@ -0,0 +1,294 @@
+package IRPact_modellierung.network;
+
+import IRPact_modellierung.agents.consumerAgents.ConsumerAgentGroup;
+import IRPact_modellierung.agents.consumerAgents.ConsumerAgentGroupAffinities;
+import org.apache.logging.log4j.LogManager;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Class to write the topology of a social graph (in its compressed form) to a compact binary file and read it back,
+ * so a graph generated once can be reused by later simulations instead of being generated anew (see SNConfiguration.getPrebuiltGraphFile).
+ *
+ * The file consists of a header (magic number, version, fingerprint, number of nodes and media, number of edges per medium),
+ * the compressed sparse row arrays of every medium (offsets, target ids and edge weights, big endian) and the labels of the nodes.
+ * The arrays are read by memory mapping the file, so reading a graph copies the arrays in bulk
+ * without creating objects per edge.
+ *
+ * The fingerprint identifies what the graph was generated from (see fingerprint), so a file generated
+ * for another seed or configuration of the graph can be told apart without reading it.
+ *
+ * @author Simon Johanning
+ */
+public class SocialGraphFile {
+
+	private static final org.apache.logging.log4j.Logger fooLog = LogManager.getLogger("debugConsoleLogger");
+
+	//"IRSG"
+	private static final int MAGICNUMBER = 0x49525347;
+	private static final int VERSION = 2;
+	//offset basis and prime of the 64 bit FNV-1a hash
+	private static final long FINGERPRINTBASIS = 0xCBF29CE484222325L;
+	private static final long FINGERPRINTPRIME = 0x100000001B3L;
+	//arrays are mapped in chunks, since a single mapping can't exceed 2GB
+	private static final int MAPPINGCHUNKSIZE = 1 << 30;
+	private static final int WRITEBUFFERSIZE = 1 << 20;
+
+	/**
+	 * Writes the topology of a compressed social graph to a file.
+	 * The file is written next to its destination and moved there once complete,
+	 * so readers never see a partially written graph.
+	 *
+	 * @param compressedGraph The graph to write
+	 * @param fingerprint The fingerprint of what the graph was generated from (see fingerprint)
+	 * @param file The file the graph is to be written to (replaced if existing)
+	 * @throws IOException Will be thrown when an error occurs writing the file
+	 */
+	public static void write(CompressedSocialGraph compressedGraph, long fingerprint, File file) throws IOException {
+		Path destination = file.getAbsoluteFile().toPath();
+		Path temporaryFile = Files.createTempFile(destination.getParent(), destination.getFileName().toString(), ".tmp");
+		try {
+			try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+				ByteBuffer buffer = ByteBuffer.allocateDirect(WRITEBUFFERSIZE);
+				SocialGraph.EDGEMEDIUM[] media = SocialGraph.EDGEMEDIUM.values();
+				buffer.putInt(MAGICNUMBER).putInt(VERSION).putLong(fingerprint).putInt(compressedGraph.getNumberOfNodes()).putInt(media.length);
+				for(SocialGraph.EDGEMEDIUM edgemedium : media){
+					buffer.putInt(compressedGraph.getNumberOfEdges(edgemedium));
+				}
+				for(SocialGraph.EDGEMEDIUM edgemedium : media){
+					writeInts(channel, buffer, compressedGraph.getOffsets(edgemedium));
+					writeInts(channel, buffer, compressedGraph.getTargets(edgemedium));
+					writeDoubles(channel, buffer, compressedGraph.getEdgeWeights(edgemedium));
+				}
+				flush(channel, buffer);
+				DataOutputStream labelStream = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+				for(int nodeId = 0; nodeId < compressedGraph.getNumberOfNodes(); nodeId++){
+					labelStream.writeUTF(compressedGraph.getNode(nodeId).getNodeLabel());
+				}
+				labelStream.flush();
+			}
+			try {
+				Files.move(temporaryFile, destination, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException amnse) {
+				Files.move(temporaryFile, destination, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temporaryFile);
+		}
+		fooLog.info("Wrote social graph with {} nodes to {}", compressedGraph.getNumberOfNodes(), destination);
+	}
+
+	/**
+	 * Reads the topology of a social graph from a file written by write.
+	 * The nodes of the graph read are plain SNNodes carrying the labels of the nodes written,
+	 * to be matched with the nodes of a simulation by their labels (see PrebuiltCommunicationGraph).
+	 *
+	 * @param file The file the graph is to be read from
+	 * @return The compressed graph read from the file
+	 * @throws IOException Will be thrown when an error occurs reading the file
+	 * @throws IllegalArgumentException Will be thrown when the file is no (valid) social graph file
+	 */
+	public static CompressedSocialGraph read(File file) throws IOException, IllegalArgumentException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			SocialGraph.EDGEMEDIUM[] media = SocialGraph.EDGEMEDIUM.values();
+			ByteBuffer header = map(channel, 0, 24 + 4L * media.length, file);
+			readFingerprint(header, file);
+			int noNodes = header.getInt();
+			int noMedia = header.getInt();
+			if(noNodes < 0 || noMedia != media.length) throw new IllegalArgumentException("Social graph file "+file+" contains "+noMedia+" media, but "+media.length+" media are known!!");
+			int[] noEdges = new int[noMedia];
+			for(int mediumIndex = 0; mediumIndex < noMedia; mediumIndex++){
+				noEdges[mediumIndex] = header.getInt();
+				if(noEdges[mediumIndex] < 0) throw new IllegalArgumentException("Social graph file "+file+" is corrupted!!");
+			}
+			long position = header.position();
+			int[][] offsets = new int[noMedia][];
+			int[][] targets = new int[noMedia][];
+			double[][] edgeWeights = new double[noMedia][];
+			for(int mediumIndex = 0; mediumIndex < noMedia; mediumIndex++){
+				offsets[mediumIndex] = new int[noNodes + 1];
+				position = readInts(channel, position, offsets[mediumIndex], file);
+				targets[mediumIndex] = new int[noEdges[mediumIndex]];
+				position = readInts(channel, position, targets[mediumIndex], file);
+				edgeWeights[mediumIndex] = new double[noEdges[mediumIndex]];
+				position = readDoubles(channel, position, edgeWeights[mediumIndex], file);
+			}
+			channel.position(position);
+			DataInputStream labelStream = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+			SNNode[] nodes = new SNNode[noNodes];
+			for(int nodeId = 0; nodeId < noNodes; nodeId++){
+				nodes[nodeId] = new SNNode(labelStream.readUTF());
+			}
+			return CompressedSocialGraph.fromArrays(nodes, offsets, targets, edgeWeights);
+		}
+	}
+
+	/**
+	 * Reads the fingerprint of the graph in a file written by write, without reading the graph
+	 *
+	 * @param file The file the graph is stored in
+	 * @return The fingerprint of what the graph was generated from
+	 * @throws IOException Will be thrown when an error occurs reading the file
+	 * @throws IllegalArgumentException Will be thrown when the file is no social graph file (of the current version)
+	 */
+	public static long readFingerprint(File file) throws IOException, IllegalArgumentException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			return readFingerprint(map(channel, 0, 16, file), file);
+		}
+	}
+
+	/**
+	 * Method to derive the fingerprint of a generated graph, i.e. a 64 bit hash of the master seed of the simulation,
+	 * the topology and its parameters, whether self-loops are allowed, the edge weight scheme and its parameters,
+	 * the affinities between the consumer agent groups (in the order of the names of the groups)
+	 * and the labels of the nodes (in their order).
+	 * Graphs generated for the same fingerprint are the same, as the generators only depend on these and the seed (for the same agents).
+	 *
+	 * @param masterSeed The master seed of the simulation the graph is generated for
+	 * @param sNConfiguration The configuration of the graph
+	 * @param affinities The affinities between the consumer agent groups of the simulation (null if there are none)
+	 * @param nodes The nodes the graph is generated for, in the order they are handed to the generator
+	 * @return The fingerprint of the graph
+	 */
+	public static long fingerprint(long masterSeed, SNConfiguration sNConfiguration, ConsumerAgentGroupAffinities affinities, Collection<SNNode> nodes) {
+		StringBuilder description = new StringBuilder();
+		description.append(masterSeed).append('|').append(sNConfiguration.getSocialGraph()).append('|');
+		appendCanonically(description, sNConfiguration.getSocialGraphParameters());
+		description.append('|').append(sNConfiguration.getTopologyManipulationScheme() != null && sNConfiguration.getTopologyManipulationScheme().isSelfReferential());
+		description.append('|').append(sNConfiguration.getEdgeWeightMappingScheme() == null ? null : sNConfiguration.getEdgeWeightMappingScheme().getClass().getName());
+		appendCanonically(description, sNConfiguration.getEdgeWeightMappingSchemeParameters());
+		description.append('|');
+		if(affinities != null) appendCanonically(description, describeAffinities(affinities));
+		long fingerprint = hash(FINGERPRINTBASIS, description);
+		for(SNNode node : nodes){
+			fingerprint = hash(fingerprint, node.getNodeLabel());
+			//separate the labels, so different splits of the same characters differ
+			fingerprint = (fingerprint ^ 0xFFFF) * FINGERPRINTPRIME;
+		}
+		return fingerprint;
+	}
+
+	private static long readFingerprint(ByteBuffer header, File file) throws IllegalArgumentException {
+		if(header.getInt() != MAGICNUMBER) throw new IllegalArgumentException("File "+file+" is no social graph file!!");
+		int version = header.getInt();
+		if(version != VERSION) throw new IllegalArgumentException("Social graph file "+file+" is of version "+version+", only version "+VERSION+" can be read!!");
+		return header.getLong();
+	}
+
+	//the groups are described by their names, so the affinities are written in the order of the names of the groups
+	private static Map<String, Map<String, Double>> describeAffinities(ConsumerAgentGroupAffinities affinities) {
+		Map<String, Map<String, Double>> affinitiesByName = new TreeMap<String, Map<String, Double>>();
+		for(Map.Entry<ConsumerAgentGroup, Map<ConsumerAgentGroup, Double>> sourceEntry : affinities.getAffinities().entrySet()){
+			Map<String, Double> targetAffinities = new TreeMap<String, Double>();
+			for(Map.Entry<ConsumerAgentGroup, Double> targetEntry : sourceEntry.getValue().entrySet()){
+				targetAffinities.put(targetEntry.getKey().getGroupName(), targetEntry.getValue());
+			}
+			affinitiesByName.put(sourceEntry.getKey().getGroupName(), targetAffinities);
+		}
+		return affinitiesByName;
+	}
+
+	//maps are written with their entries in the order of their keys, so equal parameters are described equally
+	private static void appendCanonically(StringBuilder description, Object value) {
+		if(value instanceof Map) {
+			TreeMap<String, Object> sortedMap = new TreeMap<String, Object>();
+			for(Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()){
+				sortedMap.put(String.valueOf(entry.getKey()), entry.getValue());
+			}
+			description.append('{');
+			for(Map.Entry<String, Object> entry : sortedMap.entrySet()){
+				description.append(entry.getKey()).append('=');
+				appendCanonically(description, entry.getValue());
+				description.append(',');
+			}
+			description.append('}');
+		} else if(value instanceof Collection) {
+			description.append('[');
+			for(Object element : (Collection<?>) value){
+				appendCanonically(description, element);
+				description.append(',');
+			}
+			description.append(']');
+		} else description.append(value);
+	}
+
+	private static long hash(long hash, CharSequence characters) {
+		for(int index = 0; index < characters.length(); index++){
+			hash ^= characters.charAt(index);
+			hash *= FINGERPRINTPRIME;
+		}
+		return hash;
+	}
+
+	private static long readInts(FileChannel channel, long position, int[] array, File file) throws IOException, IllegalArgumentException {
+		int maxPerChunk = MAPPINGCHUNKSIZE / 4;
+		for(int index = 0; index < array.length; index += maxPerChunk){
+			int length = Math.min(maxPerChunk, array.length - index);
+			map(channel, position, 4L * length, file).asIntBuffer().get(array, index, length);
+			position += 4L * length;
+		}
+		return position;
+	}
+
+	private static long readDoubles(FileChannel channel, long position, double[] array, File file) throws IOException, IllegalArgumentException {
+		int maxPerChunk = MAPPINGCHUNKSIZE / 8;
+		for(int index = 0; index < array.length; index += maxPerChunk){
+			int length = Math.min(maxPerChunk, array.length - index);
+			map(channel, position, 8L * length, file).asDoubleBuffer().get(array, index, length);
+			position += 8L * length;
+		}
+		return position;
+	}
+
+	private static MappedByteBuffer map(FileChannel channel, long position, long size, File file) throws IOException, IllegalArgumentException {
+		if(position + size > channel.size()) throw new IllegalArgumentException("Social graph file "+file+" is truncated!!");
+		return channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+	}
+
+	private static void writeInts(FileChannel channel, ByteBuffer buffer, int[] array) throws IOException {
+		for(int index = 0; index < array.length; ) {
+			if(buffer.remaining() < 4) flush(channel, buffer);
+			int length = Math.min(buffer.remaining() / 4, array.length - index);
+			buffer.asIntBuffer().put(array, index, length);
+			((Buffer) buffer).position(buffer.position() + 4 * length);
+			index += length;
+		}
+	}
+
+	private static void writeDoubles(FileChannel channel, ByteBuffer buffer, double[] array) throws IOException {
+		for(int index = 0; index < array.length; ) {
+			if(buffer.remaining() < 8) flush(channel, buffer);
+			int length = Math.min(buffer.remaining() / 8, array.length - index);
+			buffer.asDoubleBuffer().put(array, index, length);
+			((Buffer) buffer).position(buffer.position() + 8 * length);
+			index += length;
+		}
+	}
+
+	//the buffer is addressed as Buffer, since the covariant overrides of ByteBuffer don't exist on Java 8
+	private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+		((Buffer) buffer).flip();
+		while(buffer.hasRemaining()){
+			channel.write(buffer);
+		}
+		((Buffer) buffer).clear();
+	}
+}
@@ -1,5 +1,7 @@
 package IRPact_modellierung.network;
 
+import java.io.Serializable;
+
 /**
  * A SocialNetwork describes the structure of interaction between ConsumerAgents.
  * It is characterized through the SocialGraph, a directed graph with ConsumerAgents as nodes and
@@ -8,7 +10,7 @@ package IRPact_modellierung.network;
  *
  * @author Simon Johanning
  */
-public class SocialNetwork {
+public class SocialNetwork implements Serializable {
 
     SocialGraph socialGraph;
     EdgeWeightManipulationScheme edgeWeightManipulationScheme;
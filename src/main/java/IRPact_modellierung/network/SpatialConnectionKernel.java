@@ -0,0 +1,36 @@
+package IRPact_modellierung.network;
+
+/**
+ * A SpatialConnectionKernel describes the probability (weight) of a (scalefree) communication graph
+ * to connect a node to another one as the product of a function of the distance of the two nodes (agents)
+ * and a function of the degree of the target node.
+ * Describing the probability in this separated form allows to generate the graph by means of a spatial index
+ * (see SpatialNodeIndex), rather than evaluating the probability for every pair of nodes.
+ *
+ * The distance function needs to be monotone (non-increasing or non-decreasing) in the distance,
+ * since the probability bounds for whole regions of space are derived from its values at the
+ * minimal and maximal distance to the region.
+ *
+ * A SpatialConnectionKernel is specified as an interface since the graphs implementing it
+ * already extend (different) abstract classes.
+ *
+ * @author Simon Johanning
+ */
+public interface SpatialConnectionKernel {
+
+    /**
+     * Method to weigh the connection of two nodes based on the distance of their corresponding agents.
+     *
+     * @param distance the distance between the agents corresponding to the nodes (in the metric of the spatial model)
+     * @return the (non-negative) weight of the distance for the connection
+     */
+    double weighDistance(double distance);
+
+    /**
+     * Method to weigh the connection to a node based on its (in-)degree.
+     *
+     * @param degree the (in-)degree of the target node
+     * @return the (non-negative) weight of the degree for the connection
+     */
+    double weighDegree(int degree);
+}
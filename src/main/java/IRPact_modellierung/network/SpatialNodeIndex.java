@@ -0,0 +1,415 @@
+package IRPact_modellierung.network;
+
+import IRPact_modellierung.helper.MetricHelper;
+import IRPact_modellierung.simulation.RandomNumberService;
+
+import java.util.Arrays;
+
+/**
+ * The SpatialNodeIndex is a spatial index over the coordinates of (the agents corresponding to) the nodes
+ * of a social graph, holding a (non-negative) weight for each node.
+ * It is used to draw the target nodes of connections from a SpatialConnectionKernel without evaluating
+ * the kernel for every node, which makes the generation of distance based graphs feasible for large numbers of agents.
+ *
+ * Nodes are referred to by their index in the coordinate arrays.
+ * The index is a pyramid of uniform grids over the bounding box of the coordinates,
+ * level l dividing it into 2^l x 2^l cells, with the finest (leaf) level holding a few nodes per cell.
+ * For each cell the bounding box of the nodes in it and the sum of their weights are kept,
+ * so the weight of a node can be changed in time logarithmic in the number of nodes.
+ *
+ * The targets are drawn by a TargetSampler for a source node (see createSampler).
+ *
+ * @author Simon Johanning
+ */
+public class SpatialNodeIndex {
+
+    //number of nodes a leaf cell holds on average (at most the number of levels is limited)
+    private static final int LEAFCAPACITY = 8;
+    private static final int MAXLEVEL = 11;
+    //maximal ratio between the largest and smallest kernel value in a cell to draw from it directly
+    private static final double MAXBOUNDRATIO = 2.0;
+
+    private final double[] xCoordinates;
+    private final double[] yCoordinates;
+    private final String metric;
+    private final double minX;
+    private final double minY;
+    private final double width;
+    private final double height;
+    private final int leafLevel;
+    //nodes of the leaf cells (nodes of leaf cell c at leafNodes[leafStart[c]] to leafNodes[leafStart[c+1]-1])
+    private final int[] leafStart;
+    private final int[] leafNodes;
+    private final int[] nodeLeafCell;
+    private final double[] nodeWeights;
+    //per level and cell (indexed y*2^level + x)
+    private final double[][] cellWeights;
+    private final double[][] cellMinX;
+    private final double[][] cellMinY;
+    private final double[][] cellMaxX;
+    private final double[][] cellMaxY;
+
+    /**
+     * Creates an index over the given coordinates, with all weights being 0.
+     *
+     * @param xCoordinates the first coordinate of the nodes
+     * @param yCoordinates the second coordinate of the nodes
+     * @param metric the metric distances are measured in (see MetricHelper)
+     * @throws IllegalArgumentException thrown when the coordinates are inconsistent
+     */
+    public SpatialNodeIndex(double[] xCoordinates, double[] yCoordinates, String metric) throws IllegalArgumentException {
+        if(xCoordinates.length != yCoordinates.length) throw new IllegalArgumentException("Number of x ("+xCoordinates.length+") and y ("+yCoordinates.length+") coordinates differ!!");
+        this.xCoordinates = xCoordinates;
+        this.yCoordinates = yCoordinates;
+        this.metric = metric;
+        int noNodes = xCoordinates.length;
+        double lowestX = Double.POSITIVE_INFINITY;
+        double lowestY = Double.POSITIVE_INFINITY;
+        double highestX = Double.NEGATIVE_INFINITY;
+        double highestY = Double.NEGATIVE_INFINITY;
+        for(int node = 0; node < noNodes; node++) {
+            if(Double.isNaN(xCoordinates[node]) || Double.isInfinite(xCoordinates[node]) || Double.isNaN(yCoordinates[node]) || Double.isInfinite(yCoordinates[node])) throw new IllegalArgumentException("Coordinates of node "+node+" are not finite!!");
+            lowestX = Math.min(lowestX, xCoordinates[node]);
+            lowestY = Math.min(lowestY, yCoordinates[node]);
+            highestX = Math.max(highestX, xCoordinates[node]);
+            highestY = Math.max(highestY, yCoordinates[node]);
+        }
+        minX = noNodes > 0 ? lowestX : 0.0;
+        minY = noNodes > 0 ? lowestY : 0.0;
+        //a degenerated bounding box is treated as a unit one
+        width = noNodes > 0 && highestX > lowestX ? highestX - lowestX : 1.0;
+        height = noNodes > 0 && highestY > lowestY ? highestY - lowestY : 1.0;
+        int level = 0;
+        while(level < MAXLEVEL && (long) LEAFCAPACITY << (2 * level) < noNodes) level++;
+        leafLevel = level;
+        //assign the nodes to the leaf cells (counting sort)
+        int leafSide = 1 << leafLevel;
+        nodeLeafCell = new int[noNodes];
+        leafStart = new int[leafSide * leafSide + 1];
+        for(int node = 0; node < noNodes; node++) {
+            int cellX = Math.min(leafSide - 1, (int) ((xCoordinates[node] - minX) / width * leafSide));
+            int cellY = Math.min(leafSide - 1, (int) ((yCoordinates[node] - minY) / height * leafSide));
+            nodeLeafCell[node] = cellY * leafSide + cellX;
+            leafStart[nodeLeafCell[node] + 1]++;
+        }
+        for(int cell = 0; cell < leafSide * leafSide; cell++) leafStart[cell + 1] += leafStart[cell];
+        leafNodes = new int[noNodes];
+        int[] fillPositions = new int[leafSide * leafSide];
+        for(int node = 0; node < noNodes; node++) {
+            int cell = nodeLeafCell[node];
+            leafNodes[leafStart[cell] + fillPositions[cell]++] = node;
+        }
+        //bounding boxes of the nodes in the cells on all levels
+        nodeWeights = new double[noNodes];
+        cellWeights = new double[leafLevel + 1][];
+        cellMinX = new double[leafLevel + 1][];
+        cellMinY = new double[leafLevel + 1][];
+        cellMaxX = new double[leafLevel + 1][];
+        cellMaxY = new double[leafLevel + 1][];
+        for(int currentLevel = 0; currentLevel <= leafLevel; currentLevel++) {
+            int noCells = 1 << (2 * currentLevel);
+            cellWeights[currentLevel] = new double[noCells];
+            cellMinX[currentLevel] = filledArray(noCells, Double.POSITIVE_INFINITY);
+            cellMinY[currentLevel] = filledArray(noCells, Double.POSITIVE_INFINITY);
+            cellMaxX[currentLevel] = filledArray(noCells, Double.NEGATIVE_INFINITY);
+            cellMaxY[currentLevel] = filledArray(noCells, Double.NEGATIVE_INFINITY);
+        }
+        for(int node = 0; node < noNodes; node++) {
+            for(int currentLevel = 0; currentLevel <= leafLevel; currentLevel++) {
+                int cell = cellOfNode(node, currentLevel);
+                cellMinX[currentLevel][cell] = Math.min(cellMinX[currentLevel][cell], xCoordinates[node]);
+                cellMinY[currentLevel][cell] = Math.min(cellMinY[currentLevel][cell], yCoordinates[node]);
+                cellMaxX[currentLevel][cell] = Math.max(cellMaxX[currentLevel][cell], xCoordinates[node]);
+                cellMaxY[currentLevel][cell] = Math.max(cellMaxY[currentLevel][cell], yCoordinates[node]);
+            }
+        }
+    }
+
+    private static double[] filledArray(int length, double value) {
+        double[] array = new double[length];
+        Arrays.fill(array, value);
+        return array;
+    }
+
+    public int getNumberOfNodes() {
+        return nodeWeights.length;
+    }
+
+    public double getWeight(int node) {
+        return nodeWeights[node];
+    }
+
+    /**
+     * Sets the weight of a node, updating the weights of all cells containing it.
+     *
+     * @param node the index of the node
+     * @param weight the new (finite, non-negative) weight of the node
+     * @throws IllegalArgumentException thrown when the weight is negative or not finite
+     */
+    public void setWeight(int node, double weight) throws IllegalArgumentException {
+        if(!(weight >= 0.0) || Double.isInfinite(weight)) throw new IllegalArgumentException("Weight of node "+node+" must be finite and non-negative, but is "+weight+"!!");
+        double delta = weight - nodeWeights[node];
+        nodeWeights[node] = weight;
+        if(delta != 0.0) {
+            for(int currentLevel = 0; currentLevel <= leafLevel; currentLevel++) cellWeights[currentLevel][cellOfNode(node, currentLevel)] += delta;
+        }
+    }
+
+    /**
+     * Creates a sampler drawing nodes proportionally to the product of their weight
+     * and the distance weight (of the kernel) of their distance to the source node.
+     * The sampler reflects changes of the weights made after its creation,
+     * but its refinement is only valid as long as no weight is increased from 0.
+     *
+     * @param sourceNode the index of the node the distances are measured from
+     * @param kernel the kernel to weigh the distances by
+     * @return a sampler for the source node
+     */
+    public TargetSampler createSampler(int sourceNode, SpatialConnectionKernel kernel) {
+        return new TargetSampler(xCoordinates[sourceNode], yCoordinates[sourceNode], kernel);
+    }
+
+    private int cellOfNode(int node, int level) {
+        int shift = leafLevel - level;
+        int leafSide = 1 << leafLevel;
+        int cellX = (nodeLeafCell[node] & (leafSide - 1)) >> shift;
+        int cellY = (nodeLeafCell[node] >> leafLevel) >> shift;
+        return (cellY << level) + cellX;
+    }
+
+    private double measureDistance(double x, double y, int node) {
+        return MetricHelper.calculateNorm(xCoordinates[node] - x, yCoordinates[node] - y, metric);
+    }
+
+    //recalculates the weights of the cell (and its sub-cells) from the node weights, removing accumulated rounding errors
+    private void recalculateCellWeight(int level, int cell) {
+        double previousWeight = cellWeights[level][cell];
+        double difference = sumCellWeight(level, cell) - previousWeight;
+        for(int currentLevel = level - 1; currentLevel >= 0; currentLevel--) {
+            int parent = parentCell(cell, level, currentLevel);
+            cellWeights[currentLevel][parent] = Math.max(0.0, cellWeights[currentLevel][parent] + difference);
+        }
+    }
+
+    private double sumCellWeight(int level, int cell) {
+        double sum = 0.0;
+        if(level == leafLevel) {
+            for(int position = leafStart[cell]; position < leafStart[cell + 1]; position++) sum += nodeWeights[leafNodes[position]];
+        }
+        else {
+            for(int child = 0; child < 4; child++) sum += sumCellWeight(level + 1, childCell(cell, level, child));
+        }
+        cellWeights[level][cell] = sum;
+        return sum;
+    }
+
+    private static int childCell(int cell, int level, int child) {
+        int cellX = cell & ((1 << level) - 1);
+        int cellY = cell >> level;
+        return (((cellY << 1) + (child >> 1)) << (level + 1)) + (cellX << 1) + (child & 1);
+    }
+
+    private static int parentCell(int cell, int level, int parentLevel) {
+        int shift = level - parentLevel;
+        int cellX = (cell & ((1 << level) - 1)) >> shift;
+        int cellY = (cell >> level) >> shift;
+        return (cellY << parentLevel) + cellX;
+    }
+
+    /**
+     * A TargetSampler draws nodes for a source with a probability proportional to
+     * the weight of the node times the distance weight (from the kernel) of its distance to the source.
+     *
+     * It keeps a frontier of cells (and single nodes) covering the index, and bounds the probability mass
+     * of a cell by its weight times the largest distance weight within its bounding box.
+     * A cell is chosen proportionally to this bound, a node within it proportionally to its weight,
+     * and the node is accepted with the ratio of its distance weight to the bound (rejection sampling).
+     * Cells whose distance weights vary too much (i.e. close to the source) are refined
+     * when chosen, so acceptance is likely and only the (few) nodes close to the source are considered individually.
+     * The nodes are thus drawn exactly from the distribution induced by the kernel.
+     */
+    public class TargetSampler {
+
+        private final double sourceX;
+        private final double sourceY;
+        private final SpatialConnectionKernel kernel;
+        //frontier entries: level of the cell (-1 for single nodes), cell (or node), largest and smallest distance weight
+        private int[] entryLevels = new int[16];
+        private int[] entryCells = new int[16];
+        private double[] entryUpperBounds = new double[16];
+        private double[] entryLowerBounds = new double[16];
+        private double[] entryMasses = new double[16];
+        private int noEntries = 0;
+
+        private TargetSampler(double sourceX, double sourceY, SpatialConnectionKernel kernel) {
+            this.sourceX = sourceX;
+            this.sourceY = sourceY;
+            this.kernel = kernel;
+            if(getNumberOfNodes() > 0) addCell(0, 0);
+        }
+
+        /**
+         * Draws a node from the distribution induced by the kernel and the current weights.
+         *
+         * @return the index of the drawn node
+         * @throws IllegalStateException thrown when no node has a positive probability
+         */
+        public int sampleNode() throws IllegalStateException {
+            while(true) {
+                double totalMass = 0.0;
+                int infiniteEntry = -1;
+                for(int entry = 0; entry < noEntries; entry++) {
+                    totalMass += calculateMass(entry);
+                    if(infiniteEntry < 0 && Double.isInfinite(entryMasses[entry])) infiniteEntry = entry;
+                }
+                int chosenEntry;
+                //infinite distance weights (e.g. coinciding agents) dominate all others
+                if(infiniteEntry >= 0) chosenEntry = infiniteEntry;
+                else if(!(totalMass > 0.0)) throw new IllegalStateException("Probability map to choose from has no mass!!");
+                else chosenEntry = chooseEntry(RandomNumberService.nextDouble() * totalMass, 0);
+                //every node is proposed with a probability proportional to its weight times its distance weight (otherwise the proposal is rejected)
+                while(chosenEntry >= 0) {
+                    if(entryLevels[chosenEntry] < 0) return entryCells[chosenEntry];
+                    double upperBound = entryUpperBounds[chosenEntry];
+                    if(Double.isInfinite(upperBound) || upperBound > MAXBOUNDRATIO * entryLowerBounds[chosenEntry]) {
+                        chosenEntry = refineEntry(chosenEntry);
+                        continue;
+                    }
+                    int node = descend(entryLevels[chosenEntry], entryCells[chosenEntry]);
+                    if(node >= 0 && RandomNumberService.nextDouble() * upperBound < kernel.weighDistance(measureDistance(sourceX, sourceY, node))) return node;
+                    chosenEntry = -1;
+                }
+            }
+        }
+
+        private double calculateMass(int entry) {
+            double weight = entryLevels[entry] < 0 ? nodeWeights[entryCells[entry]] : cellWeights[entryLevels[entry]][entryCells[entry]];
+            entryMasses[entry] = weight > 0.0 && entryUpperBounds[entry] > 0.0 ? entryUpperBounds[entry] * weight : 0.0;
+            return entryMasses[entry];
+        }
+
+        //chooses an entry from the given one on by the (previously calculated) masses (-1 if the roll exceeds them)
+        private int chooseEntry(double roll, int firstEntry) {
+            double cumulatedMass = 0.0;
+            int lastPositiveEntry = -1;
+            for(int entry = firstEntry; entry < noEntries; entry++) {
+                if(entryMasses[entry] <= 0.0) continue;
+                cumulatedMass += entryMasses[entry];
+                lastPositiveEntry = entry;
+                if(roll < cumulatedMass) return entry;
+            }
+            return lastPositiveEntry;
+        }
+
+        //draws a node of the cell proportional to its weight (-1 if the cell turns out to be empty)
+        private int descend(int level, int cell) {
+            int currentLevel = level;
+            int currentCell = cell;
+            while(currentLevel < leafLevel) {
+                double childWeightSum = 0.0;
+                for(int child = 0; child < 4; child++) childWeightSum += Math.max(0.0, cellWeights[currentLevel + 1][childCell(currentCell, currentLevel, child)]);
+                if(!(childWeightSum > 0.0)) {
+                    recalculateCellWeight(currentLevel, currentCell);
+                    return -1;
+                }
+                double roll = RandomNumberService.nextDouble() * childWeightSum;
+                int chosenChild = -1;
+                for(int child = 0; child < 4; child++) {
+                    double childWeight = Math.max(0.0, cellWeights[currentLevel + 1][childCell(currentCell, currentLevel, child)]);
+                    if(childWeight <= 0.0) continue;
+                    chosenChild = child;
+                    roll -= childWeight;
+                    if(roll < 0.0) break;
+                }
+                currentCell = childCell(currentCell, currentLevel, chosenChild);
+                currentLevel++;
+            }
+            double nodeWeightSum = 0.0;
+            for(int position = leafStart[currentCell]; position < leafStart[currentCell + 1]; position++) nodeWeightSum += nodeWeights[leafNodes[position]];
+            if(!(nodeWeightSum > 0.0)) {
+                recalculateCellWeight(currentLevel, currentCell);
+                return -1;
+            }
+            double roll = RandomNumberService.nextDouble() * nodeWeightSum;
+            int chosenNode = -1;
+            for(int position = leafStart[currentCell]; position < leafStart[currentCell + 1]; position++) {
+                if(nodeWeights[leafNodes[position]] <= 0.0) continue;
+                chosenNode = leafNodes[position];
+                roll -= nodeWeights[chosenNode];
+                if(roll < 0.0) break;
+            }
+            return chosenNode;
+        }
+
+        //replaces the entry by its sub-cells (or single nodes for leaf cells) holding weight,
+        //and chooses one of them proportional to their share of the mass of the entry (-1 for the remaining share)
+        private int refineEntry(int entry) {
+            int level = entryLevels[entry];
+            int cell = entryCells[entry];
+            double entryMass = entryMasses[entry];
+            removeEntry(entry);
+            int firstEntry = noEntries;
+            if(level == leafLevel) {
+                for(int position = leafStart[cell]; position < leafStart[cell + 1]; position++) {
+                    int node = leafNodes[position];
+                    if(nodeWeights[node] > 0.0) {
+                        double distanceWeight = kernel.weighDistance(measureDistance(sourceX, sourceY, node));
+                        addEntry(-1, node, distanceWeight, distanceWeight);
+                    }
+                }
+            }
+            else {
+                for(int child = 0; child < 4; child++) {
+                    int childCell = childCell(cell, level, child);
+                    if(cellWeights[level + 1][childCell] > 0.0) addCell(level + 1, childCell);
+                }
+            }
+            double refinedMass = 0.0;
+            for(int refinedEntry = firstEntry; refinedEntry < noEntries; refinedEntry++) {
+                refinedMass += calculateMass(refinedEntry);
+                if(Double.isInfinite(entryMasses[refinedEntry])) return refinedEntry;
+            }
+            //an infinite bound without infinite refinements gives no proposal (the masses are recalculated)
+            if(Double.isInfinite(entryMass)) return -1;
+            double roll = RandomNumberService.nextDouble() * entryMass;
+            return roll < refinedMass ? chooseEntry(roll, firstEntry) : -1;
+        }
+
+        private void addCell(int level, int cell) {
+            if(cellMinX[level][cell] > cellMaxX[level][cell]) return;
+            //(per axis) smallest and largest distance of the source to the bounding box of the cell
+            double nearestX = Math.max(0.0, Math.max(cellMinX[level][cell] - sourceX, sourceX - cellMaxX[level][cell]));
+            double nearestY = Math.max(0.0, Math.max(cellMinY[level][cell] - sourceY, sourceY - cellMaxY[level][cell]));
+            double farthestX = Math.max(Math.abs(sourceX - cellMinX[level][cell]), Math.abs(sourceX - cellMaxX[level][cell]));
+            double farthestY = Math.max(Math.abs(sourceY - cellMinY[level][cell]), Math.abs(sourceY - cellMaxY[level][cell]));
+            //the distance weight is monotone, so its extremes are attained at the extreme distances
+            double nearestWeight = kernel.weighDistance(MetricHelper.calculateNorm(nearestX, nearestY, metric));
+            double farthestWeight = kernel.weighDistance(MetricHelper.calculateNorm(farthestX, farthestY, metric));
+            addEntry(level, cell, Math.max(nearestWeight, farthestWeight), Math.min(nearestWeight, farthestWeight));
+        }
+
+        private void addEntry(int level, int cell, double upperBound, double lowerBound) {
+            if(noEntries == entryLevels.length) {
+                entryLevels = Arrays.copyOf(entryLevels, 2 * noEntries);
+                entryCells = Arrays.copyOf(entryCells, 2 * noEntries);
+                entryUpperBounds = Arrays.copyOf(entryUpperBounds, 2 * noEntries);
+                entryLowerBounds = Arrays.copyOf(entryLowerBounds, 2 * noEntries);
+                entryMasses = Arrays.copyOf(entryMasses, 2 * noEntries);
+            }
+            entryLevels[noEntries] = level;
+            entryCells[noEntries] = cell;
+            entryUpperBounds[noEntries] = upperBound;
+            entryLowerBounds[noEntries] = lowerBound;
+            noEntries++;
+        }
+
+        private void removeEntry(int entry) {
+            noEntries--;
+            entryLevels[entry] = entryLevels[noEntries];
+            entryCells[entry] = entryCells[noEntries];
+            entryUpperBounds[entry] = entryUpperBounds[noEntries];
+            entryLowerBounds[entry] = entryLowerBounds[noEntries];
+            entryMasses[entry] = entryMasses[noEntries];
+        }
+    }
+}
@@ -2,6 +2,8 @@ package IRPact_modellierung.network;
 
 import IRPact_modellierung.simulation.SimulationContainer;
 
+import java.io.Serializable;
+
 /**
  * A TopologyManipulationScheme describes how the topology of a SocialGraph changes over time.
  * It describes whether edges from a node to itself are allowed (selfReferentialTopology)
@@ -9,7 +11,7 @@ import IRPact_modellierung.simulation.SimulationContainer;
  *
  * @author Simon Johanning
  */
-public abstract class TopologyManipulationScheme{
+public abstract class TopologyManipulationScheme implements Serializable {
 
 	protected boolean selfReferentialTopology;
 
@@ -2,6 +2,8 @@ package IRPact_modellierung.perception;
 
 import org.apache.logging.log4j.LogManager;
 
+import java.io.Serializable;
+
 /**
  * Building on Kiesling, the model incorporates the possibility to use a histogram for the structuring the perception of actors in bins.
  Since the bins are equidistant (equal width), the histogram is bounded by its nature between a /minValue/ and a /maxValue/.
@@ -9,7 +11,7 @@ import org.apache.logging.log4j.LogManager;
  However, this Historam class is of a more general nature and can be used in other contexts as well
  @author Simon Johanning
  */
-public abstract class Histogram {
+public abstract class Histogram implements Serializable {
 
 	private static final org.apache.logging.log4j.Logger fooLog = LogManager.getLogger("debugConsoleLogger");
 
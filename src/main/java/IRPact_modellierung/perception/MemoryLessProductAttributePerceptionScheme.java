@@ -2,6 +2,8 @@ package IRPact_modellierung.perception;
 
 import IRPact_modellierung.products.ProductAttribute;
 
+import java.io.Serializable;
+
 /**
  * The MemoryLessProductAttributePerceptionScheme is a ProductAttributePerceptionScheme
  * that doesn't model a ConsumerAgents memory for ProductAttribute perceptions.
@@ -10,7 +12,7 @@ import IRPact_modellierung.products.ProductAttribute;
  *
  * @author Simon Johanning
  */
-public class MemoryLessProductAttributePerceptionScheme implements ProductAttributePerceptionScheme{
+public class MemoryLessProductAttributePerceptionScheme implements ProductAttributePerceptionScheme, Serializable {
 
     private ProductAttribute associatedProductAttribute;
     private double currentPerception;
@@ -4,6 +4,8 @@ import IRPact_modellierung.agents.consumerAgents.ConsumerAgentGroup;
 import IRPact_modellierung.products.ProductAttribute;
 import IRPact_modellierung.simulation.Configuration;
 
+import java.io.Serializable;
+
 /**
  * A PerceptionInitializationScheme describes how the (initial) perception of a ProductAttribute is derived.
  * As part of a PerceptionSchemeConfiguration, it describes the initial parameterization of the respetive
@@ -11,7 +13,7 @@ import IRPact_modellierung.simulation.Configuration;
  *
  * @author Simon Johanning
  */
-public abstract class PerceptionInitializationScheme {
+public abstract class PerceptionInitializationScheme implements Serializable {
 
     /**
      * Method describing how the initial value of the perception is determined
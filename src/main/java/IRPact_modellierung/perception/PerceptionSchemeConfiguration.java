@@ -1,5 +1,6 @@
 package IRPact_modellierung.perception;
 
+import java.io.Serializable;
 import java.util.Map;
 
 /**
@@ -11,7 +12,7 @@ import java.util.Map;
  *
  * @author Simon Johanning
  */
-public class PerceptionSchemeConfiguration {
+public class PerceptionSchemeConfiguration implements Serializable {
 
     protected String associatedPerceptionScheme;
     protected Map<String, Object> perceptionSchemeParameters;
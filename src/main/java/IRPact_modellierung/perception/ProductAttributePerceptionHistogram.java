@@ -6,23 +6,30 @@ import IRPact_modellierung.simulation.Configuration;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * A histogram describing how product attributes are perceived by actors (generally of type ConsumerAgent).
  * This class brings together the concepts of product attribute perception and of histogram.
  * While product attribute perception is the model mechanism this class intends to capture, the histogram is the data structure it is based upon.
  * Perceptions of the corresponding ProductAttribute are stored in bins corresponding to the values in a given range (based on the histograms mininum and maximum value, as well as the number of histogram bins)
  *
+ * Since the bins are equidistant, the bin of a value is calculated from its position in the range of the histogram
+ * and the bins are held in primitive arrays (indexed by bin).
+ * As the heights of the bins incorporate the time values were added at, the perception doesn't change between modifications
+ * and is thus cached until the histogram is modified.
+ *
  * @author Simon Johanning
  */
 public class ProductAttributePerceptionHistogram extends Histogram implements ProductAttributePerceptionScheme{
 
 	private static final Logger fooLog = LogManager.getLogger("debugConsoleLogger");
 
-	private Map<Integer, HistogramBin> binValues;
+	private double binWidth;
+	private double[] binHeights;
+	private double[] binMidValues;
+	private double[] binTimeStamps;
 	private ProductAttribute associatedProductAttribute;
+	private double cachedPerception;
+	private boolean perceptionValid;
 
 	/**
 	 * A ProductAttributePerceptionHistogram models the perception of a product attribute with the use of a histogram (as data structure).
@@ -36,63 +43,84 @@ public class ProductAttributePerceptionHistogram extends Histogram implements Pr
 	 * @param histogramInitializationScheme The HistogramInitializationScheme used to provide the initial value of the histogram
 	 * @param associatedAgentGroup The ConsumerAgentGroup of the ConsumerAgent using this histogram
 	 * @param configuration The configuration of the simulation
+	 * @throws IllegalArgumentException Will be thrown when the histogram has no bins
 	 */
-	public ProductAttributePerceptionHistogram(double lambda, int noBins, double minValue, double maxValue, ProductAttribute associatedProductAttribute, HistogramInitializationScheme histogramInitializationScheme, ConsumerAgentGroup associatedAgentGroup, Configuration configuration) {
+	public ProductAttributePerceptionHistogram(double lambda, int noBins, double minValue, double maxValue, ProductAttribute associatedProductAttribute, HistogramInitializationScheme histogramInitializationScheme, ConsumerAgentGroup associatedAgentGroup, Configuration configuration) throws IllegalArgumentException {
 		//create the associated histogram
 		super(lambda, noBins, minValue, maxValue);
+		if(noBins < 1) throw new IllegalArgumentException("A histogram needs at least one bin, but "+noBins+" were configured!!");
 		this.associatedProductAttribute = associatedProductAttribute;
-		binValues = new HashMap<Integer, HistogramBin>(noBins);
+		binWidth = (this.maxValue-this.minValue) / noBins;
+		binHeights = new double[noBins];
+		binMidValues = new double[noBins];
+		binTimeStamps = new double[noBins];
 		for(int binIndex=0; binIndex<noBins;binIndex++){
-			fooLog.debug("Creating bin {} in range [{},{}] with papHistogram min {}, max {}", binIndex,this.minValue+(binIndex*((double) ((this.maxValue-this.minValue) / noBins))), this.minValue+((binIndex+1)*((double) ((this.maxValue-this.minValue) / noBins))), this.minValue, this.maxValue);
-			HistogramBin currentBin = new HistogramBin(this.minValue+(binIndex*((this.maxValue-this.minValue) / noBins)), this.minValue+((binIndex+1)*((this.maxValue-this.minValue) / noBins)), this) ;
-			binValues.put(binIndex, currentBin);
+			binMidValues[binIndex] = getBinMinValue(binIndex)+(getBinMaxValue(binIndex)-getBinMinValue(binIndex))/2;
 		}
+		fooLog.debug("Created {} bins of width {} with papHistogram min {}, max {}", noBins, binWidth, this.minValue, this.maxValue);
 		//initialize the histogram with the initial value
 		modifyValue(histogramInitializationScheme.determineInitialValue(associatedProductAttribute, associatedAgentGroup, configuration), 1.0, 0.0);
 	}
 
-	/*public ProductAttributePerceptionHistogram(double lambda, int noBins, double minValue, double maxValue, ProductAttribute associatedProductAttribute, double initialValue, HistogramInitializationScheme histogramInitializationScheme) {
-		super(lambda, noBins, minValue, maxValue);
-		this.associatedProductAttribute = associatedProductAttribute;
-		binValues = new HashMap<Integer, HistogramBin>(noBins);
-		for(int binIndex=1; binIndex<=noBins;binIndex++){
-			fooLog.debug("Creating bin {} in range [{},{}] with papHistogram min {}, max {}", binIndex,this.minValue+(binIndex*((double) ((this.maxValue-this.minValue) / noBins))), this.minValue+((binIndex+1)*((double) ((this.maxValue-this.minValue) / noBins))), this.minValue, this.maxValue);
-			HistogramBin currentBin = new HistogramBin(this.minValue+(binIndex*((this.maxValue-this.minValue) / noBins)), this.minValue+((binIndex+1)*((this.maxValue-this.minValue) / noBins)), this) ;
-			binValues.put(binIndex, currentBin);
-		}
-		fooLog.debug("Adding initial value {} to papHistogram for PA {}",initialValue, associatedProductAttribute.getCorrespondingProductGroupAttribute().getName());
-		addValue(initialValue, 1.0, 0.0);
-	}*/
+	public ProductAttribute getAssociatedProductAttribute() {
+		return this.associatedProductAttribute;
+	}
 
-	public Map<Integer, HistogramBin> getBinValues() {
-		return this.binValues;
+	public double getBinHeight(int binIndex) {
+		return binHeights[binIndex];
 	}
 
-	public ProductAttribute getAssociatedProductAttribute() {
-		return this.associatedProductAttribute;
+	public double getBinMinValue(int binIndex) {
+		return minValue+(binIndex*binWidth);
+	}
+
+	public double getBinMaxValue(int binIndex) {
+		return minValue+((binIndex+1)*binWidth);
 	}
 
 	/**
-	 * method to modify the value of the histogram in adding the productAttributePerceptionValue to the histogram in the corresponding bin with weight weight at simulation time timeStamp
+	 * Method to retrieve the simulation time a value was last added to the bin
+	 *
+	 * @param binIndex The index of the bin of interest
+	 * @return The time of the last modification of the bin (0.0 if it was never modified)
+	 */
+	public double getBinTimeStamp(int binIndex) {
+		return binTimeStamps[binIndex];
+	}
+
+	/**
+	 * Method to determine the bin a value falls into. The bins include both of their bounds,
+	 * with values on the bound between two bins belonging to the lower one.
+	 *
+	 * @param value The value to find the bin for
+	 * @return The index of the bin the value falls into, or -1 if it is outside of the range of the histogram
+	 */
+	public int getBinIndex(double value) {
+		if(!(value >= getBinMinValue(0) && value <= getBinMaxValue(noBins-1))) return -1;
+		int binIndex = Math.min((int) ((value-minValue)/binWidth), noBins-1);
+		//correct for rounding at the bin bounds
+		while(binIndex > 0 && value <= getBinMinValue(binIndex)) binIndex--;
+		while(binIndex < noBins-1 && value > getBinMaxValue(binIndex)) binIndex++;
+		return binIndex;
+	}
+
+	/**
+	 * method to modify the value of the histogram in adding the productAttributePerceptionValue to the histogram in the corresponding bin with weight weight at simulation time timeStamp.
+	 * New information is incorporated on an exponentially increasing / decreasing fashion (lambda > 0 / lambda <0) with the weight scaling multiplically
 	 * 
 	 * @param productAttributePerceptionValue The numerical value associated with the perception of the product attribute
 	 * @param weight The weight associated with the product perception
 	 * @param timeStamp The simulation time the productAttributePerceptionValue is added
 	 */
 	public void modifyValue(double productAttributePerceptionValue, double weight, double timeStamp) {
-		boolean validBinFound = false;
-		fooLog.debug("In addValue with papValue {} and {} binValues", productAttributePerceptionValue, binValues.keySet().size());
-		//find the bin corresponding to the productAttributePerceptionValue
-		for(Integer index : binValues.keySet()){
-			fooLog.debug("for bin {}: bin min value is {}, bin max value is {}, value to add is {} ",index,  binValues.get(index).getBinMinValue(), binValues.get(index).getBinMaxValue(), productAttributePerceptionValue);
-			if((productAttributePerceptionValue >= binValues.get(index).getBinMinValue()) && (productAttributePerceptionValue <= binValues.get(index).getBinMaxValue())){
-				fooLog.debug("Adding value ({}) with weight {} to bin {}", productAttributePerceptionValue, weight, index);
-				binValues.get(index).addValueToBin(weight, timeStamp);
-				validBinFound = true;
-				break;
-			}
+		int binIndex = getBinIndex(productAttributePerceptionValue);
+		if(binIndex < 0) fooLog.error("ERROR!!! perceived value {} does not fall into a bin!!! The value is outside of the allowed range of [{},{}]", productAttributePerceptionValue, minValue, maxValue);
+		else {
+			fooLog.debug("Adding value ({}) with weight {} to bin {}", productAttributePerceptionValue, weight, binIndex);
+			binHeights[binIndex] += weight*Math.exp(timeStamp*lambda);
+			binTimeStamps[binIndex] = timeStamp;
+			perceptionValid = false;
 		}
-		if(!validBinFound) fooLog.error("ERROR!!! perceived value {} does not fall into a bin!!! The value is outside of the allowed range of [{},{}]", productAttributePerceptionValue, minValue, maxValue);
 	}
 
 	/**
@@ -100,22 +128,24 @@ public class ProductAttributePerceptionHistogram extends Histogram implements Pr
 	 * Values associated with each bin are the median value of the bin weighted (multiplicatively) with the height of the bin.
 	 * Method sums over all values associated with the bins and normalizes with the total height of all bins..
 	 * Thus a normalized weighted (by bin height) average for the histogram is calculated as product attribute perception.
+	 * The average is only recalculated when the histogram was modified since the last call.
 	 *
 	 * @param systemTime The time the value is calculated at
 	 */
 	public double calculateProductAttributePerception(double systemTime) {
-		double binSum = 0.0;
-		double totalHeight = 0.0;
-		fooLog.debug("calculateProductAttributePerception for {} binValues with min: {} and max: {}",getBinValues().keySet().size(), minValue, maxValue);
-		for(Integer binIndex : binValues.keySet()){
-			//binSum += binValues.get(binIndex).getBinHeight()*(minValue+((double) binIndex - 0.5)*((maxValue-minValue)/noBins));
-			binSum += binValues.get(binIndex).getBinHeight()*(binValues.get(binIndex).getBinMinValue()+(binValues.get(binIndex).getBinMaxValue()-binValues.get(binIndex).getBinMinValue())/2);
-			fooLog.debug("Adding {} to the binSum to amount it to {} for bin {}",binValues.get(binIndex).getBinHeight()*(minValue+((double) binIndex - 0.5)*((maxValue-minValue)/noBins)), binSum, binIndex);
-			totalHeight += binValues.get(binIndex).getBinHeight();
+		if(!perceptionValid) {
+			double binSum = 0.0;
+			double totalHeight = 0.0;
+			for(int binIndex = 0; binIndex < noBins; binIndex++){
+				binSum += binHeights[binIndex]*binMidValues[binIndex];
+				totalHeight += binHeights[binIndex];
+			}
+			fooLog.debug("Calculating product perception with binsum {} and totalheight {}", binSum, totalHeight);
+			if(totalHeight == 0.0) fooLog.error("ERROR!!! totalHeight is 0 and thus product perception will be NaN");
+			cachedPerception = binSum/totalHeight;
+			perceptionValid = true;
 		}
-		fooLog.debug("Calculating product perception with binsum {} and totalheight {}", binSum, totalHeight);
-		if(totalHeight == 0.0) fooLog.error("ERROR!!! totalHeight is 0 and thus product perception will be NaN");
-		return binSum/totalHeight;
+		return cachedPerception;
 	}
 
 }
\ No newline at end of file
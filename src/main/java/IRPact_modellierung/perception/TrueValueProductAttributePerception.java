@@ -4,6 +4,8 @@ import IRPact_modellierung.products.ProductAttribute;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.Serializable;
+
 /**
  * The TrueValueProductAttributePerception is a ProductAttributePerceptionScheme
  * that represents the perception of a ProductAttribute as a single numerical value
@@ -14,7 +16,7 @@ import org.apache.logging.log4j.Logger;
  *
  * @author Simon Johanning
  */
-public class TrueValueProductAttributePerception implements ProductAttributePerceptionScheme {
+public class TrueValueProductAttributePerception implements ProductAttributePerceptionScheme, Serializable {
 
     private static final Logger fooLog = LogManager.getLogger("debugConsoleLogger");
 
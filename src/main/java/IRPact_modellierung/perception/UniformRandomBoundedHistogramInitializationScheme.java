@@ -1,5 +1,6 @@
 package IRPact_modellierung.perception;
 
+import IRPact_modellierung.simulation.RandomNumberService;
 import IRPact_modellierung.agents.consumerAgents.ConsumerAgentGroup;
 import IRPact_modellierung.products.ProductAttribute;
 import IRPact_modellierung.simulation.Configuration;
@@ -21,6 +22,6 @@ public class UniformRandomBoundedHistogramInitializationScheme extends Histogram
      * @return a uniformly drawn value within [histogramLowerBound, histogramUpperBound]
      */
     public double determineInitialValue(ProductAttribute correspondingProductAttribute, ConsumerAgentGroup associatedAgentGroup, Configuration configuration) {
-        return (Math.random()*(correspondingProductAttribute.getCorrespondingProductGroupAttribute().getValue().getUpperBound()-correspondingProductAttribute.getCorrespondingProductGroupAttribute().getValue().getLowerBound()) + correspondingProductAttribute.getCorrespondingProductGroupAttribute().getValue().getLowerBound());
+        return (RandomNumberService.nextDouble()*(correspondingProductAttribute.getCorrespondingProductGroupAttribute().getValue().getUpperBound()-correspondingProductAttribute.getCorrespondingProductGroupAttribute().getValue().getLowerBound()) + correspondingProductAttribute.getCorrespondingProductGroupAttribute().getValue().getLowerBound());
     }
 }
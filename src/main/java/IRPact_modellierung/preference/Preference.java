@@ -1,5 +1,7 @@
 package IRPact_modellierung.preference;
 
+import java.io.Serializable;
+
 //TODO find out why I should care whether the same value is concerned
 
 /**
@@ -9,7 +11,7 @@ package IRPact_modellierung.preference;
  *
  * @author Simon Johanning
  */
-public class Preference implements Comparable<Preference> {
+public class Preference implements Comparable<Preference>, Serializable {
 
 	private Value value;
 	private double strength;
@@ -39,7 +41,7 @@ public class Preference implements Comparable<Preference> {
 	}
 
 	public String toString(){
-		return ("The strength of value "+value.getName()+" is "+strength);
+		return ("The strength of value "+value.getName()+" is "+getStrength());
 	}
 
 	/**
@@ -50,8 +52,8 @@ public class Preference implements Comparable<Preference> {
 	 * @return will return -1 if this preference is weaker, 0 if they are just as strong and 1 if it is stronger than the reference preference
 	 */
 	public int compareTo(Preference referencePreference) {
-		if(strength < referencePreference.getStrength()) return -1;
-		else if(strength == referencePreference.getStrength()) return 0;
+		if(getStrength() < referencePreference.getStrength()) return -1;
+		else if(getStrength() == referencePreference.getStrength()) return 0;
 		else return 1;
 	}
 }
\ No newline at end of file
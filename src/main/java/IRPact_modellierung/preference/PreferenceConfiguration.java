@@ -1,7 +1,11 @@
 package IRPact_modellierung.preference;
 
+import IRPact_modellierung.products.ProductGroupAttribute;
 import org.apache.logging.log4j.LogManager;
 
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -10,15 +14,23 @@ import java.util.Set;
 /**
  * Class that describes the configuration of the preference setup of the simulation
  *
+ * The mapping strengths of the ProductGroupAttributeValueMappings are additionally held in a dense
+ * matrix indexed by the ordinals of the product group attributes and values,
+ * which is derived whenever the mapping is (re)configured and used in the evaluation of utilities.
+ *
  * @author
  */
-public class PreferenceConfiguration {
+public class PreferenceConfiguration implements Serializable {
 
 	private static final org.apache.logging.log4j.Logger fooLog = LogManager.getLogger("debugConsoleLogger");
 
 	private Set<ProductGroupAttributeValueMapping> preferenceProductAttributeMapping;
 	private double preferenceHomogenizingFactor;
 	private Set<Value> valuesUsed;
+	//dense ordinals of the product group attributes and values in the mapping and the matrix of mapping strengths indexed by them (NaN if not mapped)
+	private HashMap<ProductGroupAttribute, Integer> productGroupAttributeIndices;
+	private HashMap<Value, Integer> valueIndices;
+	private double[][] mappingStrengthMatrix;
 
 	/**
 	 * A PreferenceConfiguration consists of the mapping of ProductGroupAttributes to Values (as a ProductGroupAttributeValueMapping data structure), a preferenceHomogenizationFactor indicating how strongly the preference between two agents will be homogenized, and the values used in the productGroupAttributeValueMapping
@@ -31,6 +43,7 @@ public class PreferenceConfiguration {
 		this.preferenceProductAttributeMapping = productGroupAttributeValueMapping;
 		this.preferenceHomogenizingFactor = preferenceHomogenizingFactor;
 		this.valuesUsed = valuesUsed;
+		indexMappingStrengths();
 	}
 
 	/**
@@ -46,6 +59,7 @@ public class PreferenceConfiguration {
 		for(ProductGroupAttributeValueMapping papMapping : productGroupAttributeValueMapping){
 			valuesUsed.add(papMapping.getValue());
 		}
+		indexMappingStrengths();
 	}
 
 	/**
@@ -60,12 +74,88 @@ public class PreferenceConfiguration {
 		for(ProductGroupAttributeValueMapping papMapping : productGroupAttributeValueMapping){
 			valuesUsed.add(papMapping.getValue());
 		}
+		indexMappingStrengths();
+	}
+
+	/**
+	 * Method to derive the dense ordinals of the product group attributes and values
+	 * as well as the matrix of mapping strengths from the ProductGroupAttributeValueMappings.
+	 * Needs to be invoked whenever the mapping is changed.
+	 */
+	private void indexMappingStrengths() {
+		productGroupAttributeIndices = new HashMap<ProductGroupAttribute, Integer>();
+		valueIndices = new HashMap<Value, Integer>();
+		for(ProductGroupAttributeValueMapping pgavMapping : preferenceProductAttributeMapping){
+			if(!productGroupAttributeIndices.containsKey(pgavMapping.getProductGroupAttribute())) productGroupAttributeIndices.put(pgavMapping.getProductGroupAttribute(), productGroupAttributeIndices.size());
+			if(!valueIndices.containsKey(pgavMapping.getValue())) valueIndices.put(pgavMapping.getValue(), valueIndices.size());
+		}
+		double[][] strengths = new double[productGroupAttributeIndices.size()][valueIndices.size()];
+		for(double[] pgaStrengths : strengths){
+			Arrays.fill(pgaStrengths, Double.NaN);
+		}
+		for(ProductGroupAttributeValueMapping pgavMapping : preferenceProductAttributeMapping){
+			strengths[productGroupAttributeIndices.get(pgavMapping.getProductGroupAttribute())][valueIndices.get(pgavMapping.getValue())] = pgavMapping.getMappingStrength();
+		}
+		mappingStrengthMatrix = strengths;
 	}
 
 	public Set<ProductGroupAttributeValueMapping> getProductGroupAttributePreferenceMapping() {
 		return this.preferenceProductAttributeMapping;
 	}
 
+	/**
+	 * Method to reconfigure the mapping between product group attributes and values.
+	 * The matrix of mapping strengths is derived anew.
+	 *
+	 * @param productGroupAttributeValueMapping The new mapping of ProductGroupAttributes to Values
+	 */
+	public void setProductGroupAttributePreferenceMapping(Set<ProductGroupAttributeValueMapping> productGroupAttributeValueMapping) {
+		this.preferenceProductAttributeMapping = productGroupAttributeValueMapping;
+		indexMappingStrengths();
+	}
+
+	/**
+	 * Method to derive the matrix of mapping strengths anew after the set of ProductGroupAttributeValueMappings
+	 * has been modified in place.
+	 */
+	public void invalidateMappingStrengths() {
+		indexMappingStrengths();
+	}
+
+	/**
+	 * Method to retrieve the ordinal of a product group attribute within the matrix of mapping strengths
+	 *
+	 * @param productGroupAttribute The product group attribute of interest
+	 * @return The ordinal of the product group attribute, or -1 if it is not part of the mapping
+	 */
+	public int getProductGroupAttributeIndex(ProductGroupAttribute productGroupAttribute) {
+		Integer index = productGroupAttributeIndices.get(productGroupAttribute);
+		return index == null ? -1 : index;
+	}
+
+	/**
+	 * Method to retrieve the ordinal of a value within the matrix of mapping strengths
+	 *
+	 * @param value The value of interest
+	 * @return The ordinal of the value, or -1 if it is not part of the mapping
+	 */
+	public int getValueIndex(Value value) {
+		Integer index = valueIndices.get(value);
+		return index == null ? -1 : index;
+	}
+
+	/**
+	 * Method to retrieve the matrix of mapping strengths, indexed by the ordinals of the
+	 * product group attribute (first dimension) and the value (second dimension).
+	 * Entries for combinations without mapping are NaN.
+	 * The matrix is shared and must not be modified.
+	 *
+	 * @return The matrix of mapping strengths
+	 */
+	public double[][] getMappingStrengthMatrix() {
+		return mappingStrengthMatrix;
+	}
+
 	public double getPreferenceHomogenizingFactor() {
 		return this.preferenceHomogenizingFactor;
 	}
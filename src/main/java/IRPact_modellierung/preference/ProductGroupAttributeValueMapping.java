@@ -2,6 +2,8 @@ package IRPact_modellierung.preference;
 
 import IRPact_modellierung.products.ProductGroupAttribute;
 
+import java.io.Serializable;
+
 /**
  * A ProductGroupAttributeValueMapping represents the correlation between a ProductGroupAttribute and Value.
  * Its is generally used in the evaluation of the utility of a product, in deriving the importance of
@@ -11,7 +13,7 @@ import IRPact_modellierung.products.ProductGroupAttribute;
  *
  * @author Simon Johanning
  */
-public class ProductGroupAttributeValueMapping {
+public class ProductGroupAttributeValueMapping implements Serializable {
 
 	private ProductGroupAttribute productGroupAttribute;
 	private Value value;
@@ -1,5 +1,7 @@
 package IRPact_modellierung.preference;
 
+import java.io.Serializable;
+
 /**
  * A value is a very simple data structure to represent a value in the ethical sense,
  * as an aspiration for right conduct and good life.
@@ -9,7 +11,7 @@ package IRPact_modellierung.preference;
  *
  * @author Simon Johanning
  */
-public class Value {
+public class Value implements Serializable {
 
 	private String name;
 
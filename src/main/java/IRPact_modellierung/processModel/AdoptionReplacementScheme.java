@@ -4,6 +4,8 @@ import IRPact_modellierung.agents.consumerAgents.ConsumerAgent;
 import IRPact_modellierung.products.Product;
 import IRPact_modellierung.simulation.SimulationContainer;
 
+import java.io.Serializable;
+
 /**
  * An AdoptionReplacementScheme models the process of replacing an adopted product that was discontinued
  * on the market. It describes how ConsumerAgents respond to discontinuations and whether / how quickly
@@ -11,7 +13,7 @@ import IRPact_modellierung.simulation.SimulationContainer;
  *
  * @author Simon Johanning
  */
-public abstract class AdoptionReplacementScheme {
+public abstract class AdoptionReplacementScheme implements Serializable {
 
     /**
      * This method describes how ConsumerAgents behave when they
@@ -1,8 +1,10 @@
 package IRPact_modellierung.processModel;
 
 import IRPact_modellierung.agents.consumerAgents.ConsumerAgent;
+import IRPact_modellierung.decision.ConsumerAgentAdoptionDecisionProcess;
 import IRPact_modellierung.events.NeedEvent;
 import IRPact_modellierung.helper.LazynessHelper;
+import IRPact_modellierung.metrics.SimulationMetrics;
 import IRPact_modellierung.needs.Need;
 import IRPact_modellierung.products.Product;
 import IRPact_modellierung.simulation.SimulationContainer;
@@ -38,7 +40,7 @@ public class BetterProductReadoptionScheme extends AdoptionReplacementScheme{
         //get all (potentially) unsatisfied needs of the agent
         Set<Need> unsatisfiedNeeds = LazynessHelper.getUnsatisfiedNeeds(consumerAgentConcerned);
         //select the needs related to the product (that the readoption of the product affects)
-        Set<Need> needsToSatisfy = new HashSet<>();
+        Set<Need> needsToSatisfy = new LinkedHashSet<>();
         for (Need lackedNeed : productConcerned.getPartOfProductGroup().getNeedsSatisfied()) {
             if (unsatisfiedNeeds.contains(lackedNeed)) needsToSatisfy.add(lackedNeed);
         }
@@ -58,10 +60,15 @@ public class BetterProductReadoptionScheme extends AdoptionReplacementScheme{
      * @param productToBeRemoved The product that gets removed from the simulation
      */
     public void removeProductFromAgents(SimulationContainer simulationContainer, Product productToBeRemoved) {
+        SimulationMetrics metrics = simulationContainer.getMetrics();
         for(ConsumerAgent consumerAgent : simulationContainer.getConsumerAgents()){
             if(LazynessHelper.anyAdoptedProductRefersToProduct(consumerAgent.getAdoptedProducts(), productToBeRemoved)) {
                 try {
-                    if(consumerAgent.getDecisionProcessEmployed().betterProductAvailable(consumerAgent.getAssociatedSimulationContainer(), consumerAgent, productToBeRemoved, consumerAgent.getAssociatedSimulationContainer().getActiveProducts(), simulationContainer.getTimeModel().getSimulationTime())) {
+                    ConsumerAgentAdoptionDecisionProcess decisionProcess = consumerAgent.getDecisionProcessEmployed();
+                    long decisionStart = metrics.startTimer();
+                    boolean betterProductAvailable = decisionProcess.betterProductAvailable(consumerAgent.getAssociatedSimulationContainer(), consumerAgent, productToBeRemoved, consumerAgent.getAssociatedSimulationContainer().getActiveProducts(), simulationContainer.getTimeModel().getSimulationTime());
+                    metrics.recordDecision(decisionProcess, decisionStart);
+                    if(betterProductAvailable) {
                         fooLog.debug("Product {} wants to be removed at simulation time {}", productToBeRemoved, simulationContainer.getTimeModel().getSimulationTime());
                         //wiping the product means unadopting it, becoming unaware of it and losing all perceptions about it
                         consumerAgent.wipeProduct(productToBeRemoved);
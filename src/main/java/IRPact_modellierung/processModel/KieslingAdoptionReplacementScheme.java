@@ -8,8 +8,8 @@ import IRPact_modellierung.products.Product;
 import IRPact_modellierung.simulation.SimulationContainer;
 import org.apache.logging.log4j.LogManager;
 
-import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -42,7 +42,7 @@ public class KieslingAdoptionReplacementScheme extends AdoptionReplacementScheme
         //get all (potentially) unsatisfied needs of the agent
         Set<Need> unsatisfiedNeeds = LazynessHelper.getUnsatisfiedNeeds(consumerAgentConcerned);
         //select the needs related to the product (that the readoption of the product affects)
-        Set<Need> needsToSatisfy = new HashSet<>();
+        Set<Need> needsToSatisfy = new LinkedHashSet<>();
         for (Need lackedNeed : productConcerned.getPartOfProductGroup().getNeedsSatisfied()) {
             if (unsatisfiedNeeds.contains(lackedNeed)) needsToSatisfy.add(lackedNeed);
         }
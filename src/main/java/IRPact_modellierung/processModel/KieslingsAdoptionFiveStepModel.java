@@ -4,7 +4,6 @@ import IRPact_modellierung.agents.companyAgents.CompanyAgent;
 import IRPact_modellierung.agents.consumerAgents.ConsumerAgent;
 import IRPact_modellierung.agents.posAgents.POSAgent;
 import IRPact_modellierung.events.CommunicationEvent;
-import IRPact_modellierung.events.EventScheduler;
 import IRPact_modellierung.events.NeedEvent;
 import IRPact_modellierung.events.PostPurchaseEvaluationEvent;
 import IRPact_modellierung.messaging.Message;
@@ -53,18 +52,16 @@ public class KieslingsAdoptionFiveStepModel extends RogersFiveStepModelDiscrete
 
     protected void processKnowledgeStep(ConsumerAgent currentAgent, double simulationTime) {
         //schedule communication events
-        EventScheduler eventScheduler = currentAgent.getAssociatedSimulationContainer().getEventScheduler();
         //Messages are created by the agent message scheme
         Set<Message> messagesToSend = currentAgent.getCorrespondingConsumerAgentGroup().getCommunicationScheme().getCorrespondingMessageScheme().createMessages(currentAgent.getAssociatedSimulationContainer(), currentAgent);
         //schedule these messages
         for(Message messageToSchedule : messagesToSend) {
-            eventScheduler.scheduleEvent(new CommunicationEvent(messageToSchedule, simulationTime, currentAgent.getAssociatedSimulationContainer()));
+            scheduleEvent(currentAgent, new CommunicationEvent(messageToSchedule, simulationTime, currentAgent.getAssociatedSimulationContainer()));
         }
     }
 
     protected void processPersuasionStep(ConsumerAgent currentAgent, double simulationTime) {
         //schedule need events
-        EventScheduler eventScheduler = currentAgent.getAssociatedSimulationContainer().getEventScheduler();
         /*Map<Need, Double> needMap = currentAgent.getCorrespondingConsumerAgentGroup().getNeedMap();
         List<NeedNeedIndicatorMap> scheduledOrder = new LinkedList<NeedNeedIndicatorMap>();
         //for each need check if it arises
@@ -81,7 +78,7 @@ public class KieslingsAdoptionFiveStepModel extends RogersFiveStepModelDiscrete
         List<NeedEvent> needsList = currentAgent.getCorrespondingConsumerAgentGroup().getNeedDevelopmentScheme().createNeedEvents(currentAgent.getAssociatedSimulationContainer(), currentAgent);
         fooLog.debug("needs list for agent {} is {}", currentAgent, needsList);
         for (NeedEvent aNeedsList : needsList) {
-            eventScheduler.scheduleEvent(aNeedsList);
+            scheduleEvent(currentAgent, aNeedsList);
         }
     }
 
@@ -94,10 +91,9 @@ public class KieslingsAdoptionFiveStepModel extends RogersFiveStepModelDiscrete
     }
 
     protected void processConfirmationStep(ConsumerAgent currentAgent, double simulationTime) {
-        EventScheduler eventScheduler = currentAgent.getAssociatedSimulationContainer().getEventScheduler();
         for(AdoptedProduct adoptedProduct : currentAgent.getAdoptedProducts()){
             //when product is still around, schedule a PPE event
-            if(!currentAgent.getAssociatedSimulationContainer().getHistoricalProducts().contains(adoptedProduct.getCorrespondingProduct())) eventScheduler.scheduleEvent(new PostPurchaseEvaluationEvent(currentAgent.getAssociatedSimulationContainer(), adoptedProduct.getCorrespondingProduct(), currentAgent, simulationTime));
+            if(!currentAgent.getAssociatedSimulationContainer().getHistoricalProducts().contains(adoptedProduct.getCorrespondingProduct())) scheduleEvent(currentAgent, new PostPurchaseEvaluationEvent(currentAgent.getAssociatedSimulationContainer(), adoptedProduct.getCorrespondingProduct(), currentAgent, simulationTime));
         }
     }
 }
@@ -9,7 +9,8 @@ import IRPact_modellierung.products.Product;
 import IRPact_modellierung.simulation.SimulationContainer;
 import org.apache.logging.log4j.LogManager;
 
-import java.util.HashSet;
+import java.io.Serializable;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -21,7 +22,7 @@ import java.util.Set;
  *
  * @author Simon Johanning
  */
-public abstract class ProcessModel {
+public abstract class ProcessModel implements Serializable {
 
     private AdoptionReplacementScheme adoptionReplacementScheme;
     private static final org.apache.logging.log4j.Logger fooLog = LogManager.getLogger("debugConsoleLogger");
@@ -91,24 +92,17 @@ public abstract class ProcessModel {
     /**
      * Helper method that checks if any consumer agent has a product adopted whose
      * expiration date past.
-     * If this is the case, the product will be removed from the list of adopted products of that agent
+     * If this is the case, the product will be removed from the list of adopted products of that agent.
+     * The expired products are taken from the expiration queue of the simulation,
+     * so only the products actually expired are touched.
      *
      * @param simulationContainer The container the simulation runs in
      */
     public void checkForProductExpiration(SimulationContainer simulationContainer){
-        for(ConsumerAgent currentAgent : simulationContainer.getConsumerAgents()){
-            fooLog.debug("Checking expiration for agent {}",currentAgent);
-            Set<AdoptedProduct> productsToRemove = new HashSet<>();
-            for(AdoptedProduct adoptedProduct : currentAgent.getAdoptedProducts()){
-                fooLog.debug("Checking expiration for product {} of agent {}",adoptedProduct, currentAgent);
-                if(adoptedProduct.productExpired(simulationContainer.getTimeModel().getSimulationTime())){
-                    productsToRemove.add(adoptedProduct);
-                }
-            }
-            //Products need to removed after the fact to prevent concurrent arraylist errors
-            for(AdoptedProduct productToRemove : productsToRemove){
-                currentAgent.removeAdoptedProduct(productToRemove);
-            }
+        List<AdoptedProduct> expiredProducts = simulationContainer.getExpirationQueue().pollExpired(simulationContainer.getTimeModel().getSimulationTime());
+        for(AdoptedProduct expiredProduct : expiredProducts){
+            fooLog.debug("Product {} of agent {} expired", expiredProduct, expiredProduct.getProductAdopter());
+            expiredProduct.getProductAdopter().removeAdoptedProduct(expiredProduct);
         }
     }
 
@@ -1,15 +1,23 @@
 package IRPact_modellierung.processModel;
 
 import IRPact_modellierung.agents.consumerAgents.ConsumerAgent;
-import IRPact_modellierung.events.CommunicationEvent;
+import IRPact_modellierung.events.Event;
 import IRPact_modellierung.events.EventScheduler;
-import IRPact_modellierung.events.NeedEvent;
-import IRPact_modellierung.events.PostPurchaseEvaluationEvent;
+import IRPact_modellierung.metrics.SimulationMetrics;
+import IRPact_modellierung.simulation.RandomNumberService;
 import IRPact_modellierung.simulation.SimulationContainer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
+import IRPact_modellierung.simulation.RandomStream;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * The (abstract) RogersFiveStepModelDiscrete process model
@@ -20,14 +28,63 @@ import java.util.Set;
  *
  * After each step, all events scheduled for this time are processed, and the model proceeds to the next step.
  *
+ * Optionally (see setParallelism), the agents of a phase are processed in parallel on a ForkJoinPool.
+ * Events produced in the phases (scheduled via scheduleEvent) are then collected per agent and
+ * scheduled after the phase in the order the agents would have been processed sequentially,
+ * so the order of events does not depend on the number or scheduling of worker threads.
+ * In parallel mode, implementations of the phases must not modify state shared between agents
+ * other than by scheduling events.
+ *
  * @author Simon Johanning
  */
 public abstract class RogersFiveStepModelDiscrete extends ProcessModel {
 
     private static final Logger fooLog = LogManager.getLogger("debugConsoleLogger");
 
+    //Number of agents below which a task of a parallel phase is not split further
+    private static final int AGENTSPERTASK = 64;
+
+    private enum PHASE {
+        KNOWLEDGE, PERSUASION, DECISION, IMPLEMENTATION, CONFIRMATION;
+
+        //name of the latency histogram of the phase in the simulation metrics
+        private final String metricName = SimulationMetrics.PHASEPREFIX + name();
+    }
+
+    private int parallelism;
+    //pool and buffers are not part of checkpoints, but recreated when a checkpoint is read
+    private transient ForkJoinPool workerPool;
+    //Buffer for the events scheduled by the agent currently processed by a worker thread (null when processing sequentially)
+    private transient ThreadLocal<List<Event>> agentEventBuffer = new ThreadLocal<List<Event>>();
+
     public RogersFiveStepModelDiscrete(AdoptionReplacementScheme adoptionReplacementScheme) {
         super(adoptionReplacementScheme);
+        parallelism = 1;
+        workerPool = null;
+    }
+
+    /**
+     * Sets the number of worker threads the phases of the process model are processed with.
+     * With a parallelism of 1, agents are processed sequentially in the calling thread.
+     *
+     * @param parallelism The number of worker threads to process the agents of a phase with
+     * @throws IllegalArgumentException Will be thrown when the parallelism is not positive
+     */
+    public void setParallelism(int parallelism) throws IllegalArgumentException{
+        if(parallelism < 1) throw new IllegalArgumentException("Parallelism of the process model needs to be positive, but was "+parallelism+"!!");
+        if(workerPool != null) workerPool.shutdown();
+        this.parallelism = parallelism;
+        workerPool = (parallelism == 1) ? null : new ForkJoinPool(parallelism);
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        agentEventBuffer = new ThreadLocal<List<Event>>();
+        workerPool = (parallelism == 1) ? null : new ForkJoinPool(parallelism);
     }
 
     /**
@@ -41,40 +98,139 @@ public abstract class RogersFiveStepModelDiscrete extends ProcessModel {
     public void processConsumerAgents(Set<ConsumerAgent> consumerAgentsToProcess, SimulationContainer simulationContainer, double simulationTime) {
         checkForProductExpiration(simulationContainer);
         processMessages(simulationContainer.getEventScheduler(), simulationTime);
-        //fooLog.info("\nBefore knowledge step in step {}\n-------------------", simulationTime);
-        //process knowledge step for all agents
-        for(ConsumerAgent currentAgent : consumerAgentsToProcess){
-            processKnowledgeStep(currentAgent, simulationTime);
+        ConsumerAgent[] agentOrder = null;
+        if(workerPool != null){
+            agentOrder = consumerAgentsToProcess.toArray(new ConsumerAgent[consumerAgentsToProcess.size()]);
+            //build the (lazily created) compressed graph up front rather than concurrently in the workers
+            if(simulationContainer.getSocialNetwork() != null) simulationContainer.getSocialNetwork().getSocialGraph().getCompressedGraph();
         }
-        //fooLog.info("\nBefore processing communication messages in step {}\n-------------------", simulationTime);
+        //process knowledge step for all agents
+        processPhase(PHASE.KNOWLEDGE, consumerAgentsToProcess, agentOrder, simulationContainer, simulationTime);
         //process all messages from knowledge step
         processMessages(simulationContainer.getEventScheduler(), simulationTime);
-       // fooLog.info("\nBefore persuasion step in step {}\n-------------------", simulationTime);
         //process persuasion step for all agents
-        for(ConsumerAgent currentAgent : consumerAgentsToProcess){
-            processPersuasionStep(currentAgent, simulationTime);
-        }
-        //fooLog.info("\nBefore processing need events step in step {}\n-------------------", simulationTime);
+        processPhase(PHASE.PERSUASION, consumerAgentsToProcess, agentOrder, simulationContainer, simulationTime);
         //process all messages from persuasion step
         processMessages(simulationContainer.getEventScheduler(), simulationTime);
-       // fooLog.info("\nBefore empty substeps\n-------------------\n------------------------\n", simulationTime);
         //process decision step for all agents
-        for(ConsumerAgent currentAgent : consumerAgentsToProcess){
-            processDecisionStep(currentAgent, simulationTime);
-        }
+        processPhase(PHASE.DECISION, consumerAgentsToProcess, agentOrder, simulationContainer, simulationTime);
         processMessages(simulationContainer.getEventScheduler(), simulationTime);
         //process implementation step for all agents
-        for(ConsumerAgent currentAgent : consumerAgentsToProcess){
-            processImplementationStep(currentAgent, simulationTime);
-        }
+        processPhase(PHASE.IMPLEMENTATION, consumerAgentsToProcess, agentOrder, simulationContainer, simulationTime);
         processMessages(simulationContainer.getEventScheduler(), simulationTime);
         //process confirmation step for all agents
-        for(ConsumerAgent currentAgent : consumerAgentsToProcess){
-            processConfirmationStep(currentAgent, simulationTime);
-        }
+        processPhase(PHASE.CONFIRMATION, consumerAgentsToProcess, agentOrder, simulationContainer, simulationTime);
         processMessages(simulationContainer.getEventScheduler(), simulationTime);
     }
 
+    /**
+     * Method to schedule an event produced by an agent within one of the phases.
+     * When processing sequentially, the event is scheduled right away, otherwise
+     * it is scheduled after all agents of the phase have been processed.
+     *
+     * @param currentAgent The agent processed in the phase
+     * @param eventToSchedule The event produced
+     * @throws IllegalArgumentException Will be thrown when event has been scheduled before or is scheduled for the past
+     */
+    protected void scheduleEvent(ConsumerAgent currentAgent, Event eventToSchedule) throws IllegalArgumentException{
+        List<Event> eventBuffer = agentEventBuffer.get();
+        if(eventBuffer != null) eventBuffer.add(eventToSchedule);
+        else currentAgent.getAssociatedSimulationContainer().getEventScheduler().scheduleEvent(eventToSchedule);
+    }
+
+    /**
+     * Processes a phase for all agents, either sequentially or on the worker pool.
+     * In the latter case, the events produced are scheduled per agent in the order given by agentOrder.
+     * The duration of the phase is recorded in the metrics of the simulation.
+     */
+    private void processPhase(PHASE phase, Set<ConsumerAgent> consumerAgentsToProcess, ConsumerAgent[] agentOrder, SimulationContainer simulationContainer, double simulationTime) {
+        SimulationMetrics metrics = simulationContainer.getMetrics();
+        long phaseStart = metrics.startTimer();
+        if(workerPool == null){
+            for(ConsumerAgent currentAgent : consumerAgentsToProcess){
+                processPhase(phase, currentAgent, simulationTime);
+            }
+        }else{
+            //every task only sets the entries of its own agents, so the list needs no synchronization
+            List<List<Event>> eventsPerAgent = new ArrayList<List<Event>>(Collections.<List<Event>>nCopies(agentOrder.length, null));
+            workerPool.invoke(new PhaseTask(phase, agentOrder, eventsPerAgent, 0, agentOrder.length, simulationTime));
+            EventScheduler eventScheduler = simulationContainer.getEventScheduler();
+            for(List<Event> agentEvents : eventsPerAgent){
+                for(Event agentEvent : agentEvents){
+                    eventScheduler.scheduleEvent(agentEvent);
+                }
+            }
+        }
+        metrics.stopTimer(phase.metricName, phaseStart);
+    }
+
+    private void processPhase(PHASE phase, ConsumerAgent currentAgent, double simulationTime) {
+        //draws made while processing the agent come from its own stream, independent of the processing order
+        RandomStream previousStream = (currentAgent.getRandomStream() == null) ? null : RandomNumberService.bindStream(currentAgent.getRandomStream());
+        try {
+            switch (phase){
+                case KNOWLEDGE:
+                    processKnowledgeStep(currentAgent, simulationTime);
+                    break;
+                case PERSUASION:
+                    processPersuasionStep(currentAgent, simulationTime);
+                    break;
+                case DECISION:
+                    processDecisionStep(currentAgent, simulationTime);
+                    break;
+                case IMPLEMENTATION:
+                    processImplementationStep(currentAgent, simulationTime);
+                    break;
+                case CONFIRMATION:
+                    processConfirmationStep(currentAgent, simulationTime);
+                    break;
+            }
+        } finally {
+            if(currentAgent.getRandomStream() != null) RandomNumberService.bindStream(previousStream);
+        }
+    }
+
+    /**
+     * Task processing a phase for a range of agents, splitting the range
+     * until it holds no more than AGENTSPERTASK agents
+     */
+    private class PhaseTask extends RecursiveAction {
+
+        private final PHASE phase;
+        private final ConsumerAgent[] agentOrder;
+        private final List<List<Event>> eventsPerAgent;
+        private final int fromIndex;
+        private final int toIndex;
+        private final double simulationTime;
+
+        private PhaseTask(PHASE phase, ConsumerAgent[] agentOrder, List<List<Event>> eventsPerAgent, int fromIndex, int toIndex, double simulationTime) {
+            this.phase = phase;
+            this.agentOrder = agentOrder;
+            this.eventsPerAgent = eventsPerAgent;
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+            this.simulationTime = simulationTime;
+        }
+
+        protected void compute() {
+            if(toIndex - fromIndex > AGENTSPERTASK){
+                int middle = (fromIndex + toIndex) >>> 1;
+                invokeAll(new PhaseTask(phase, agentOrder, eventsPerAgent, fromIndex, middle, simulationTime), new PhaseTask(phase, agentOrder, eventsPerAgent, middle, toIndex, simulationTime));
+            }else{
+                for(int index = fromIndex; index < toIndex; index++){
+                    List<Event> eventBuffer = new ArrayList<Event>();
+                    agentEventBuffer.set(eventBuffer);
+                    try {
+                        processPhase(phase, agentOrder[index], simulationTime);
+                    } finally {
+                        agentEventBuffer.remove();
+                    }
+                    eventsPerAgent.set(index, eventBuffer);
+                }
+            }
+        }
+    }
+
     /**
      * Method to process the knowledge step of a ConsumerAgent
      * within Rogers Five Step Model
@@ -124,18 +280,25 @@ public abstract class RogersFiveStepModelDiscrete extends ProcessModel {
      * Method to process all current events within the event scheduler.
      * Will process events according to their order within the event scheduler
      * as long as events for this time step exist.
+     * The depth of the queue, the number of events per type and the processing time are recorded in the metrics of the simulation.
      *
      * @param eventScheduler The event scheduler to process elements from
      * @param simulationTime The current time of the simulation
      */
     protected void processMessages(EventScheduler eventScheduler, double simulationTime){
+        SimulationMetrics metrics = eventScheduler.getAssociatedSimulationContainer().getMetrics();
+        metrics.recordValue(SimulationMetrics.QUEUEDEPTH, eventScheduler.getNoScheduledEvents());
         boolean validElementTop = eventScheduler.existsNextEvent();
         if(validElementTop && (eventScheduler.topNextEvent().getScheduledForTime() > simulationTime)) validElementTop = false;
+        long processingStart = metrics.startTimer();
         while(validElementTop){
             fooLog.debug("About to process element {}", eventScheduler.topNextEvent());
-            eventScheduler.popNextEvent().processEvent(simulationTime);
+            Event currentEvent = eventScheduler.popNextEvent();
+            currentEvent.processEvent(simulationTime);
+            metrics.countEvent(currentEvent);
             if(!eventScheduler.existsNextEvent()) validElementTop = false;
             if(validElementTop && (eventScheduler.topNextEvent().getScheduledForTime() > simulationTime)) validElementTop = false;
         }
+        metrics.stopTimer(SimulationMetrics.EVENTPROCESSING, processingStart);
     }
 }
@@ -4,7 +4,6 @@ import IRPact_modellierung.agents.companyAgents.CompanyAgent;
 import IRPact_modellierung.agents.consumerAgents.ConsumerAgent;
 import IRPact_modellierung.agents.posAgents.POSAgent;
 import IRPact_modellierung.events.CommunicationEvent;
-import IRPact_modellierung.events.EventScheduler;
 import IRPact_modellierung.events.NeedEvent;
 import IRPact_modellierung.messaging.CommunicationScheme;
 import IRPact_modellierung.messaging.Message;
@@ -54,17 +53,16 @@ public class SchwarzProcessModel extends RogersFiveStepModelDiscrete{
         Set<Message> agentMessages = communicationScheme.getCorrespondingMessageScheme().createMessages(currentAgent.getAssociatedSimulationContainer(), currentAgent);
         Set<CommunicationEvent> agentCommunicationEvents = communicationScheme.createCommunicationEvents(agentMessages, simulationTime, currentAgent.getAssociatedSimulationContainer());
         for(CommunicationEvent currentEvent : agentCommunicationEvents) {
-            currentAgent.getAssociatedSimulationContainer().getEventScheduler().scheduleEvent(currentEvent);
+            scheduleEvent(currentAgent, currentEvent);
         }
     }
 
     protected void processPersuasionStep(ConsumerAgent currentAgent, double simulationTime) {
         //schedule need events
-        EventScheduler eventScheduler = currentAgent.getAssociatedSimulationContainer().getEventScheduler();
         List<NeedEvent> needsList = currentAgent.getCorrespondingConsumerAgentGroup().getNeedDevelopmentScheme().createNeedEvents(currentAgent.getAssociatedSimulationContainer(), currentAgent);
         fooLog.debug("needs list for agent {} is {}", currentAgent, needsList);
         for (NeedEvent needEvent : needsList) {
-            eventScheduler.scheduleEvent(needEvent);
+            scheduleEvent(currentAgent, needEvent);
         }
     }
 
@@ -2,18 +2,22 @@ package IRPact_modellierung.products;
 
 import IRPact_modellierung.agents.consumerAgents.ConsumerAgent;
 
+import java.io.Serializable;
+
 /**
  * An AdoptedProduct represents the adopted instance of a product by a consumer agent
  * at a given time, together with the lifespan of the adopted instance.
  *
  * @author Simon Johanning
  */
-public class AdoptedProduct {
+public class AdoptedProduct implements Serializable {
 
     private Product correspondingProduct;
     private ConsumerAgent productAdopter;
     private double adoptionTime;
     private double productLifetime;
+    //position in the expiration queue of the simulation, -1 when not queued
+    private int expirationQueuePosition = -1;
 
     /**
      * The correspondingProduct is adopted by the productAdopter at adoptionTime for productLifetime.
@@ -53,4 +57,12 @@ public class AdoptedProduct {
     public double getProductLifetime() {
         return productLifetime;
     }
+
+    int getExpirationQueuePosition() {
+        return expirationQueuePosition;
+    }
+
+    void setExpirationQueuePosition(int expirationQueuePosition) {
+        this.expirationQueuePosition = expirationQueuePosition;
+    }
 }
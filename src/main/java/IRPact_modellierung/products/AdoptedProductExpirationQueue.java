@@ -0,0 +1,132 @@
+package IRPact_modellierung.products;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The AdoptedProductExpirationQueue keeps track of the products adopted in a simulation ordered by their expiration date
+ * (adoption time + lifetime), so the expired products can be found without checking every adopted product of every agent.
+ *
+ * It is a binary min-heap of the adopted products, where every adopted product knows its position in the heap,
+ * so products can be added and removed (e.g. when a product is wiped) in logarithmic time.
+ * Retrieving the expired products takes time proportional to the number of products expired (times the logarithm
+ * of the number of adopted products). The queue is maintained by the ConsumerAgents of the simulation
+ * and is safe to be used by several threads at once.
+ *
+ * @author Simon Johanning
+ */
+public class AdoptedProductExpirationQueue implements Serializable {
+
+    private AdoptedProduct[] heap;
+    private int size;
+
+    public AdoptedProductExpirationQueue() {
+        heap = new AdoptedProduct[16];
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized boolean contains(AdoptedProduct adoptedProduct) {
+        int position = adoptedProduct.getExpirationQueuePosition();
+        return position >= 0 && position < size && heap[position] == adoptedProduct;
+    }
+
+    /**
+     * Adds an adopted product to the queue
+     *
+     * @param adoptedProduct The product adopted
+     * @throws IllegalArgumentException Will be thrown when the product is already part of the queue
+     */
+    public synchronized void add(AdoptedProduct adoptedProduct) throws IllegalArgumentException {
+        if(contains(adoptedProduct)) throw new IllegalArgumentException("Adopted product "+adoptedProduct+" is already part of the expiration queue!!");
+        if(size == heap.length) heap = Arrays.copyOf(heap, 2 * size);
+        heap[size] = adoptedProduct;
+        adoptedProduct.setExpirationQueuePosition(size);
+        size++;
+        siftUp(size - 1);
+    }
+
+    /**
+     * Removes an adopted product from the queue (if it is part of it)
+     *
+     * @param adoptedProduct The product no longer adopted
+     * @return true if the product was part of the queue
+     */
+    public synchronized boolean remove(AdoptedProduct adoptedProduct) {
+        if(!contains(adoptedProduct)) return false;
+        removeAt(adoptedProduct.getExpirationQueuePosition());
+        return true;
+    }
+
+    /**
+     * Removes all products expired at the given time from the queue
+     *
+     * @param systemTime The current time of the simulation
+     * @return The products expired, in order of their expiration date
+     */
+    public synchronized List<AdoptedProduct> pollExpired(double systemTime) {
+        List<AdoptedProduct> expiredProducts = new ArrayList<AdoptedProduct>();
+        while(size > 0 && heap[0].productExpired(systemTime)) {
+            expiredProducts.add(heap[0]);
+            removeAt(0);
+        }
+        return expiredProducts;
+    }
+
+    /**
+     * @return The earliest expiration date of the products in the queue, positive infinity if it is empty
+     */
+    public synchronized double getNextExpirationDate() {
+        return size == 0 ? Double.POSITIVE_INFINITY : heap[0].productExpirationDate();
+    }
+
+    private void removeAt(int position) {
+        AdoptedProduct removedProduct = heap[position];
+        size--;
+        if(position != size) {
+            heap[position] = heap[size];
+            heap[position].setExpirationQueuePosition(position);
+            heap[size] = null;
+            siftDown(position);
+            siftUp(position);
+        } else heap[size] = null;
+        removedProduct.setExpirationQueuePosition(-1);
+    }
+
+    private void siftUp(int position) {
+        AdoptedProduct adoptedProduct = heap[position];
+        while(position > 0) {
+            int parent = (position - 1) >>> 1;
+            if(compare(heap[parent], adoptedProduct) <= 0) break;
+            heap[position] = heap[parent];
+            heap[position].setExpirationQueuePosition(position);
+            position = parent;
+        }
+        heap[position] = adoptedProduct;
+        adoptedProduct.setExpirationQueuePosition(position);
+    }
+
+    private void siftDown(int position) {
+        AdoptedProduct adoptedProduct = heap[position];
+        while(true) {
+            int child = 2 * position + 1;
+            if(child >= size) break;
+            if(child + 1 < size && compare(heap[child + 1], heap[child]) < 0) child++;
+            if(compare(heap[child], adoptedProduct) >= 0) break;
+            heap[position] = heap[child];
+            heap[position].setExpirationQueuePosition(position);
+            position = child;
+        }
+        heap[position] = adoptedProduct;
+        adoptedProduct.setExpirationQueuePosition(position);
+    }
+
+    //products without a (valid) expiration date (NaN) are ordered last and never expire
+    private static int compare(AdoptedProduct firstProduct, AdoptedProduct secondProduct) {
+        return Double.compare(firstProduct.productExpirationDate(), secondProduct.productExpirationDate());
+    }
+}
@@ -2,6 +2,7 @@ package IRPact_modellierung.products;
 
 import IRPact_modellierung.distributions.UnivariateDistribution;
 
+import java.io.Serializable;
 import java.util.Map;
 
 /**
@@ -15,7 +16,7 @@ import java.util.Map;
  *
  * @author Simon Johanning
  */
-public class FixedProductDescription {
+public class FixedProductDescription implements Serializable {
 
     private Map<ProductGroupAttribute, Double> productAttributeValues;
     private String name;
@@ -23,6 +23,7 @@ public class Product extends SimulationEntity {
 	private ProductGroup partOfProductGroup;
 	private String name;
 	private UnivariateDistribution productLifetimeDistribution;
+	private int productOrdinal = -1;
 
 	/**
 	 * This method constructs a product of qualifier name, with the qualities described by the productAttributes,
@@ -55,6 +56,7 @@ public class Product extends SimulationEntity {
 
 	public void setIntroducedToMarket(boolean introducedToMarket) {
 		this.introducedToMarket = introducedToMarket;
+		if(productOrdinal >= 0) associatedSimulationContainer.getProductEligibilityIndex().updateMarketIntroduction(this);
 	}
 
 	public ProductGroup getPartOfProductGroup() {
@@ -68,4 +70,15 @@ public class Product extends SimulationEntity {
 	public UnivariateDistribution getProductLifetimeDistribution() {
 		return productLifetimeDistribution;
 	}
+
+	/**
+	 * @return The ordinal of the product within its simulation (see ProductEligibilityIndex), -1 if it is not registered
+	 */
+	public int getProductOrdinal() {
+		return productOrdinal;
+	}
+
+	void setProductOrdinal(int productOrdinal) {
+		this.productOrdinal = productOrdinal;
+	}
 }
\ No newline at end of file
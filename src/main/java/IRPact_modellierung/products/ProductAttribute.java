@@ -1,5 +1,7 @@
 package IRPact_modellierung.products;
 
+import java.io.Serializable;
+
 /**
  * A ProductAttribute describes a specific quality of a Product,
  * based on the ProductGroupAttribute it corresponds to.
@@ -7,7 +9,7 @@ package IRPact_modellierung.products;
  *
  * @author Simon Johanning
  */
-public class ProductAttribute {
+public class ProductAttribute implements Serializable {
 
 	private double value;
 	private ProductGroupAttribute correspondingProductGroupAttribute;
@@ -0,0 +1,65 @@
+package IRPact_modellierung.products;
+
+import java.util.AbstractSet;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The ProductBitSetView is a read-only view of a bit set of product ordinals (see ProductEligibilityIndex) as a set of products.
+ *
+ * The view doesn't copy the bit set, so it reflects every change of the bit set. This way, a single view can be reused
+ * for every decision of an agent without allocating a new set of products each time; consequently, the set passed
+ * to a decision process is only valid for the duration of the decision. Products are iterated in the order of their ordinals.
+ *
+ * @author Simon Johanning
+ */
+public class ProductBitSetView extends AbstractSet<Product> {
+
+    private ProductEligibilityIndex productIndex;
+    private BitSet productOrdinals;
+
+    /**
+     * @param productIndex The index assigning the ordinals of the products
+     * @param productOrdinals The bit set of the product ordinals to be viewed
+     */
+    public ProductBitSetView(ProductEligibilityIndex productIndex, BitSet productOrdinals) {
+        this.productIndex = productIndex;
+        this.productOrdinals = productOrdinals;
+    }
+
+    public BitSet getProductOrdinals() {
+        return productOrdinals;
+    }
+
+    public Iterator<Product> iterator() {
+        return new Iterator<Product>() {
+            private int nextOrdinal = productOrdinals.nextSetBit(0);
+
+            public boolean hasNext() {
+                return nextOrdinal >= 0;
+            }
+
+            public Product next() {
+                if(nextOrdinal < 0) throw new NoSuchElementException();
+                Product product = productIndex.getProduct(nextOrdinal);
+                nextOrdinal = productOrdinals.nextSetBit(nextOrdinal + 1);
+                return product;
+            }
+        };
+    }
+
+    public int size() {
+        return productOrdinals.cardinality();
+    }
+
+    public boolean isEmpty() {
+        return productOrdinals.isEmpty();
+    }
+
+    public boolean contains(Object object) {
+        if(!(object instanceof Product)) return false;
+        int ordinal = ((Product) object).getProductOrdinal();
+        return ordinal >= 0 && productOrdinals.get(ordinal) && productIndex.getProduct(ordinal) == object;
+    }
+}
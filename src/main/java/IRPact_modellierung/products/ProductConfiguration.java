@@ -1,5 +1,6 @@
 package IRPact_modellierung.products;
 
+import java.io.Serializable;
 import java.util.*;
 
 import IRPact_modellierung.events.*;
@@ -10,7 +11,7 @@ import org.apache.logging.log4j.LogManager;
  *
  * @author Simon Johanning
  */
-public class ProductConfiguration {
+public class ProductConfiguration implements Serializable {
 
 	private static final org.apache.logging.log4j.Logger fooLog = LogManager.getLogger("debugConsoleLogger");
 
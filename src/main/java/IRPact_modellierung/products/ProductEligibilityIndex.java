@@ -0,0 +1,154 @@
+package IRPact_modellierung.products;
+
+import IRPact_modellierung.agents.consumerAgents.ConsumerAgent;
+import IRPact_modellierung.needs.Need;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+
+/**
+ * The ProductEligibilityIndex assigns dense ordinals to the products of a simulation, so sets of products
+ * can be represented as bit sets (indexed by the ordinals of the products).
+ *
+ * Besides the ordinals, it keeps the products satisfying each need, the products of each product group
+ * and the products currently introduced to the market as bit sets. Together with the bit sets of the products
+ * a ConsumerAgent is aware of and has adopted, the products eligible for the adoption decision on a need
+ * are derived by a few word-wise operations on bit sets, rather than by filtering sets of products step by step (see NeedEvent).
+ *
+ * Products are registered by the SimulationContainer when they are added to the simulation
+ * and report changes of their market introduction to the index themselves.
+ * The index is thread-safe.
+ *
+ * @author Simon Johanning
+ */
+public class ProductEligibilityIndex implements Serializable {
+
+    private ArrayList<Product> productsByOrdinal;
+    private BitSet productsOnMarket;
+    private BitSet productsWithPrerequisites;
+    private HashMap<Need, BitSet> productsForNeed;
+    private HashMap<ProductGroup, BitSet> productsInGroup;
+
+    public ProductEligibilityIndex() {
+        productsByOrdinal = new ArrayList<Product>();
+        productsOnMarket = new BitSet();
+        productsWithPrerequisites = new BitSet();
+        productsForNeed = new HashMap<Need, BitSet>();
+        productsInGroup = new HashMap<ProductGroup, BitSet>();
+    }
+
+    /**
+     * Registers a product with the index, assigning the next ordinal to it.
+     * Products already registered keep their ordinal.
+     *
+     * @param product The product to register
+     * @return The ordinal of the product
+     * @throws IllegalArgumentException Will be thrown when the product is registered with another index
+     */
+    public synchronized int registerProduct(Product product) throws IllegalArgumentException {
+        int ordinal = product.getProductOrdinal();
+        if(ordinal >= 0) {
+            if(ordinal < productsByOrdinal.size() && productsByOrdinal.get(ordinal) == product) return ordinal;
+            throw new IllegalArgumentException("Product "+product.getName()+" is already registered with the ordinal "+ordinal+" of another simulation!!");
+        }
+        ordinal = productsByOrdinal.size();
+        productsByOrdinal.add(product);
+        product.setProductOrdinal(ordinal);
+        ProductGroup productGroup = product.getPartOfProductGroup();
+        getOrCreateBits(productsInGroup, productGroup).set(ordinal);
+        for(Need need : productGroup.getNeedsSatisfied()) {
+            getOrCreateBits(productsForNeed, need).set(ordinal);
+        }
+        if(!productGroup.getPrerequisiteProductGroups().isEmpty()) productsWithPrerequisites.set(ordinal);
+        productsOnMarket.set(ordinal, product.isIntroducedToMarket());
+        return ordinal;
+    }
+
+    /**
+     * @return The number of products registered
+     */
+    public synchronized int getNoProducts() {
+        return productsByOrdinal.size();
+    }
+
+    /**
+     * @param ordinal The ordinal of the product of interest
+     * @return The product with the given ordinal
+     * @throws IndexOutOfBoundsException Will be thrown when no product has the ordinal
+     */
+    public synchronized Product getProduct(int ordinal) throws IndexOutOfBoundsException {
+        return productsByOrdinal.get(ordinal);
+    }
+
+    /**
+     * @param product The product of interest
+     * @return The ordinal of the product
+     * @throws IllegalArgumentException Will be thrown when the product is not registered with this index
+     */
+    public synchronized int getOrdinal(Product product) throws IllegalArgumentException {
+        int ordinal = product.getProductOrdinal();
+        if(ordinal < 0 || ordinal >= productsByOrdinal.size() || productsByOrdinal.get(ordinal) != product) throw new IllegalArgumentException("Product "+product.getName()+" is not registered with the index of this simulation!!");
+        return ordinal;
+    }
+
+    /**
+     * Updates the index after the product was introduced to or taken from the market
+     *
+     * @param product The product whose market introduction changed
+     */
+    public synchronized void updateMarketIntroduction(Product product) {
+        productsOnMarket.set(getOrdinal(product), product.isIntroducedToMarket());
+    }
+
+    /**
+     * Method to derive the products eligible for the adoption decision of a consumer on a need,
+     * i.e. the products the consumer is aware of, that are introduced to the market, that satisfy the need,
+     * that are not adopted by the consumer already and that are not excluded by the product dependencies
+     * (all prerequisite product groups need to be adopted, no adopted product may exclude the product group).
+     *
+     * @param consumerAgent The consumer the decision is made by
+     * @param need The need the decision is made on
+     * @param eligibleProducts The bit set the ordinals of the eligible products are written to (overwriting its content)
+     */
+    public synchronized void selectEligibleProducts(ConsumerAgent consumerAgent, Need need, BitSet eligibleProducts) {
+        eligibleProducts.clear();
+        BitSet needBits = productsForNeed.get(need);
+        if(needBits == null) return;
+        BitSet adoptedProducts = consumerAgent.getAdoptedProductOrdinals();
+        eligibleProducts.or(consumerAgent.getAwareProductOrdinals());
+        eligibleProducts.and(productsOnMarket);
+        eligibleProducts.and(needBits);
+        eligibleProducts.andNot(adoptedProducts);
+        //remove the product groups excluded by the adopted products
+        for(int ordinal = adoptedProducts.nextSetBit(0); ordinal >= 0 && !eligibleProducts.isEmpty(); ordinal = adoptedProducts.nextSetBit(ordinal + 1)) {
+            for(ProductGroup excludedGroup : productsByOrdinal.get(ordinal).getPartOfProductGroup().getExcludeProductGroup()) {
+                BitSet excludedProducts = productsInGroup.get(excludedGroup);
+                if(excludedProducts != null) eligibleProducts.andNot(excludedProducts);
+            }
+        }
+        //remove the products whose prerequisites are not adopted (only products with prerequisites need to be checked)
+        if(!eligibleProducts.intersects(productsWithPrerequisites)) return;
+        for(int ordinal = eligibleProducts.nextSetBit(0); ordinal >= 0; ordinal = eligibleProducts.nextSetBit(ordinal + 1)) {
+            if(productsWithPrerequisites.get(ordinal) && !allPrerequisitesAdopted(productsByOrdinal.get(ordinal).getPartOfProductGroup(), adoptedProducts)) eligibleProducts.clear(ordinal);
+        }
+    }
+
+    private boolean allPrerequisitesAdopted(ProductGroup productGroup, BitSet adoptedProducts) {
+        for(ProductGroup prerequisiteGroup : productGroup.getPrerequisiteProductGroups()) {
+            BitSet prerequisiteProducts = productsInGroup.get(prerequisiteGroup);
+            if(prerequisiteProducts == null || !adoptedProducts.intersects(prerequisiteProducts)) return false;
+        }
+        return true;
+    }
+
+    private static <K> BitSet getOrCreateBits(HashMap<K, BitSet> bitsByKey, K key) {
+        BitSet bits = bitsByKey.get(key);
+        if(bits == null) {
+            bits = new BitSet();
+            bitsByKey.put(key, bits);
+        }
+        return bits;
+    }
+}
@@ -5,6 +5,7 @@ import IRPact_modellierung.events.MarketIntroductionEventDescription;
 import IRPact_modellierung.events.ProductDiscontinuationEvent;
 import IRPact_modellierung.events.ProductDiscontinuationEventDescription;
 import IRPact_modellierung.helper.LazynessHelper;
+import IRPact_modellierung.helper.OrderHelper;
 import IRPact_modellierung.helper.StructureEnricher;
 import IRPact_modellierung.simulation.Configuration;
 import IRPact_modellierung.simulation.SimulationContainer;
@@ -34,12 +35,14 @@ public class ProductFactory {
 	 * @throws IllegalArgumentException Will be thrown when the product groups to create products of has no lifetime distribution set
 	 */
 	public static Set<Product> createProducts(ProductGroup productGroup, Configuration configuration, SimulationContainer simulationContainer) throws IllegalArgumentException{
-		HashSet<Product> products = new HashSet<Product>();
+		LinkedHashSet<Product> products = new LinkedHashSet<Product>();
+		//product attributes are drawn in the order of their names, so every copy of the group draws the same values
+		List<ProductGroupAttribute> productGroupAttributes = OrderHelper.sortProductGroupAttributes(productGroup.getProductGroupAttributes());
 		//instantiate stochastic products
 		for(int index=0; index<configuration.getProductConfiguration().getNoProductsPerGroup().get(productGroup); index++){
 			//instantiate product group attributes
-			HashSet<ProductAttribute> productAttributes = new HashSet<ProductAttribute>();
-			for(ProductGroupAttribute pga : productGroup.getProductGroupAttributes()){
+			LinkedHashSet<ProductAttribute> productAttributes = new LinkedHashSet<ProductAttribute>();
+			for(ProductGroupAttribute pga : productGroupAttributes){
 				productAttributes.add(new ProductAttribute(pga.getValue().draw(), pga));
 			}
 			String productName = productGroup.getGroupName()+"_"+index;
@@ -48,9 +51,9 @@ public class ProductFactory {
 		}
 		fooLog.debug("Attempting to create fixed products for product group {}", productGroup.getGroupName());
 		//add fixed products
-		for(FixedProductDescription fixedProduct : productGroup.getFixedProducts()){
-			HashSet<ProductAttribute> productAttributes = new HashSet<ProductAttribute>();
-			for(ProductGroupAttribute pga : fixedProduct.getProductAttributeValues().keySet()){
+		for(FixedProductDescription fixedProduct : OrderHelper.sortFixedProductDescriptions(productGroup.getFixedProducts())){
+			LinkedHashSet<ProductAttribute> productAttributes = new LinkedHashSet<ProductAttribute>();
+			for(ProductGroupAttribute pga : OrderHelper.sortProductGroupAttributes(fixedProduct.getProductAttributeValues().keySet())){
 				productAttributes.add(new ProductAttribute(fixedProduct.getProductAttributeValues().get(pga),pga));
 			}
 			fooLog.debug("FixedProduct with name {}",fixedProduct.getName());
@@ -70,7 +73,7 @@ public class ProductFactory {
 	 * @return The MarketIntroductionEvents specified in the productConfiguration
 	 */
 	public static Set<MarketIntroductionEvent> createMarketIntroductionEvents(ProductConfiguration productConfiguration, SimulationContainer simulationContainer){
-		HashSet<MarketIntroductionEvent> mies = new HashSet<MarketIntroductionEvent>();
+		LinkedHashSet<MarketIntroductionEvent> mies = new LinkedHashSet<MarketIntroductionEvent>();
 		//add products introduced at a later time
 		for(MarketIntroductionEventDescription mied : productConfiguration.getMarketIntroductionEvents()){
 			//create the product the MIE should target
@@ -95,7 +98,7 @@ public class ProductFactory {
 	 * @return A set of all PDEs within the simulation
 	 */
 	public static Set<ProductDiscontinuationEvent> createProductDiscontinuationEvents(SimulationContainer simulationContainer, List<ProductDiscontinuationEventDescription> productDiscontinuationEvents) {
-		Set<ProductDiscontinuationEvent> pdes = new HashSet<>();
+		Set<ProductDiscontinuationEvent> pdes = new LinkedHashSet<>();
 		Map<String, Product> productMap = StructureEnricher.attachProductNamesProducts(simulationContainer.getProducts());
 		Iterator<ProductDiscontinuationEventDescription> pdeIterator = productDiscontinuationEvents.iterator();
 		while(pdeIterator.hasNext()){
@@ -1,5 +1,6 @@
 package IRPact_modellierung.products;
 
+import java.io.Serializable;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -15,7 +16,7 @@ import IRPact_modellierung.needs.Need;
  *
  * @author Simon Johanning
  */
-public class ProductGroup {
+public class ProductGroup implements Serializable {
 
 	private Set<ProductGroupAttribute> productGroupAttributes;
 	private String groupName;
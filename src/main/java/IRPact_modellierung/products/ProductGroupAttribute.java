@@ -4,6 +4,8 @@ import IRPact_modellierung.distributions.BoundedUnivariateDistribution;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.Serializable;
+
 /**
  * A ProductGroupAttribute describes a quality (and their attributes)
  * of a ProductGroup.
@@ -13,7 +15,7 @@ import org.apache.logging.log4j.Logger;
  *
  * @author Simon Johanning
  */
-public class ProductGroupAttribute {
+public class ProductGroupAttribute implements Serializable {
 
 	private static final Logger fooLog = LogManager.getLogger("debugConsoleLogger");
 
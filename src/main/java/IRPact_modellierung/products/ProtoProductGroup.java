@@ -4,6 +4,7 @@ import IRPact_modellierung.decision.ConsumerAgentAdoptionDecisionProcess;
 import IRPact_modellierung.distributions.UnivariateDistribution;
 import IRPact_modellierung.helper.StructureEnricher;
 
+import java.io.Serializable;
 import java.util.Set;
 
 
@@ -21,7 +22,7 @@ import java.util.Set;
  *
  * @author Simon Johanning
  */
-public class ProtoProductGroup {
+public class ProtoProductGroup implements Serializable {
 
     private Set<ProductGroupAttribute> productGroupAttributes;
     private String groupName;
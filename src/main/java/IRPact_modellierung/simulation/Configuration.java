@@ -11,9 +11,10 @@ import IRPact_modellierung.products.ProductConfiguration;
 import IRPact_modellierung.agents.AgentConfiguration;
 import IRPact_modellierung.space.SpatialConfiguration;
 
+import java.io.Serializable;
 import java.util.Map;
 
-public class Configuration {
+public class Configuration implements Serializable {
 
 	private ProductConfiguration productConfiguration;
 	private AgentConfiguration agentConfiguration;
@@ -25,8 +26,16 @@ public class Configuration {
 	private DecisionConfiguration decisionConfiguration;
 	private Map<String, Distribution> distributionMap;
 	private InformationScheme informationScheme;
+	private RandomNumberService randomNumberService;
 
+	/**
+	 * Creates a configuration with a random master seed
+	 */
 	public Configuration(ProductConfiguration productConfiguration, AgentConfiguration agentConfiguration, SpatialConfiguration spatialConfiguration, TemporalConfiguration temporalConfiguration, SNConfiguration sNConfiguration, PreferenceConfiguration preferenceConfiguration, ProcessModel processModel, DecisionConfiguration decisionConfiguration, Map<String, Distribution> distributionMap, InformationScheme informationScheme) {
+		this(productConfiguration, agentConfiguration, spatialConfiguration, temporalConfiguration, sNConfiguration, preferenceConfiguration, processModel, decisionConfiguration, distributionMap, informationScheme, new RandomNumberService(RandomNumberService.createRandomSeed()));
+	}
+
+	public Configuration(ProductConfiguration productConfiguration, AgentConfiguration agentConfiguration, SpatialConfiguration spatialConfiguration, TemporalConfiguration temporalConfiguration, SNConfiguration sNConfiguration, PreferenceConfiguration preferenceConfiguration, ProcessModel processModel, DecisionConfiguration decisionConfiguration, Map<String, Distribution> distributionMap, InformationScheme informationScheme, RandomNumberService randomNumberService) {
 		this.productConfiguration = productConfiguration;
 		this.agentConfiguration = agentConfiguration;
 		this.spatialConfiguration = spatialConfiguration;
@@ -37,6 +46,7 @@ public class Configuration {
 		this.decisionConfiguration = decisionConfiguration;
 		this.distributionMap = distributionMap;
 		this.informationScheme = informationScheme;
+		this.randomNumberService = randomNumberService;
 	}
 
 	public ProductConfiguration getProductConfiguration() {
@@ -78,4 +88,12 @@ public class Configuration {
 	public InformationScheme getInformationScheme() {
 		return informationScheme;
 	}
+
+	public RandomNumberService getRandomNumberService() {
+		return randomNumberService;
+	}
+
+	public void setRandomNumberService(RandomNumberService randomNumberService) {
+		this.randomNumberService = randomNumberService;
+	}
 }
\ No newline at end of file
@@ -0,0 +1,192 @@
+package IRPact_modellierung.simulation;
+
+import cern.jet.random.engine.RandomEngine;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+
+/**
+ * The RandomNumberService provides the random numbers used within a simulation.
+ *
+ * All streams of a simulation are derived from its master seed, so a simulation can be reproduced
+ * by providing the same master seed (see ConfigLoader). Every thread draws from the stream currently
+ * bound to it: the simulation stream (bound by bindToCurrentThread) or, while a ConsumerAgent is processed
+ * by the process model, the stream of that agent. As the stream of an agent is derived from its ID,
+ * the numbers it draws do not depend on the order in which agents are processed or the worker
+ * thread processing them.
+ * Threads without a bound stream draw from an unseeded stream of their own,
+ * which corresponds to the behaviour of Math.random. This is only allowed as long as no seeded
+ * service was created; afterwards drawing without a bound stream is an error, since the draws
+ * could not be reproduced from the master seed.
+ *
+ * Streams are RandomStreams and thus not thread-safe; a stream must only be bound to one thread at a time.
+ * Their state is part of checkpoints (see SimulationCheckpoint), so a simulation restored from a checkpoint
+ * draws the same numbers as the simulation continued after writing it.
+ *
+ * @author Simon Johanning
+ */
+public class RandomNumberService implements Serializable {
+
+    private static final long GOLDENGAMMA = 0x9E3779B97F4A7C15L;
+
+    private static final RandomStream unseededRoot = new RandomStream(createRandomSeed());
+    private static final ThreadLocal<RandomStream> unseededStream = new ThreadLocal<RandomStream>() {
+        protected RandomStream initialValue() {
+            synchronized (unseededRoot) {
+                return unseededRoot.split();
+            }
+        }
+    };
+    private static final ThreadLocal<RandomStream> boundStream = new ThreadLocal<RandomStream>();
+    //set once the first seeded service is created, from then on draws require a bound stream
+    private static volatile boolean seededServiceCreated = false;
+    private static final RandomEngine streamEngine = new StreamRandomEngine();
+
+    private final long masterSeed;
+    private final RandomStream simulationStream;
+
+    /**
+     * Creates a random number service whose streams are derived from the master seed
+     *
+     * @param masterSeed The seed all random numbers in the simulation are derived from
+     */
+    public RandomNumberService(long masterSeed) {
+        this.masterSeed = masterSeed;
+        this.simulationStream = new RandomStream(mix(masterSeed));
+        seededServiceCreated = true;
+    }
+
+    /**
+     * Method to create a seed for simulations that don't specify one
+     *
+     * @return A seed that differs between invocations
+     */
+    public static long createRandomSeed() {
+        return mix(System.nanoTime() ^ System.currentTimeMillis() * GOLDENGAMMA);
+    }
+
+    public long getMasterSeed() {
+        return masterSeed;
+    }
+
+    /**
+     * Binds the simulation stream to the calling thread, so that all draws
+     * in this thread are derived from the master seed
+     */
+    public void bindToCurrentThread() {
+        boundStream.set(simulationStream);
+    }
+
+    /**
+     * Creates a stream for the entity with the given key, derived from the master seed.
+     * Equal keys result in equal streams. The stream is derived from a 64 bit hash of the key
+     * (rather than String.hashCode), so different keys practically never share a stream.
+     *
+     * @param key The (unique) key of the entity the stream is for
+     * @return A stream for the entity
+     */
+    public RandomStream createStream(String key) {
+        return new RandomStream(mix(masterSeed + GOLDENGAMMA * mix(hashKey(key))));
+    }
+
+    /**
+     * Binds a stream to the calling thread
+     *
+     * @param stream The stream to bind, or null to unbind the current stream
+     * @return The stream bound before (to be restored after use)
+     */
+    public static RandomStream bindStream(RandomStream stream) {
+        RandomStream previousStream = boundStream.get();
+        if(stream == null) boundStream.remove();
+        else boundStream.set(stream);
+        return previousStream;
+    }
+
+    /**
+     * Method to retrieve the stream the calling thread draws from
+     *
+     * @return The stream bound to the thread, or an unseeded stream if none is bound and no seeded service was created
+     * @throws IllegalStateException Will be thrown when no stream is bound to the thread, but a seeded service was created
+     */
+    public static RandomStream currentStream() throws IllegalStateException {
+        RandomStream stream = boundStream.get();
+        if(stream != null) return stream;
+        else if(seededServiceCreated) throw new IllegalStateException("No random stream is bound to thread "+Thread.currentThread().getName()+", so its draws could not be reproduced from the master seed!!");
+        else return unseededStream.get();
+    }
+
+    /**
+     * Draws a uniformly distributed value in [0,1) from the current stream (replacement for Math.random)
+     *
+     * @return A uniformly distributed value in [0,1)
+     */
+    public static double nextDouble() {
+        return currentStream().nextDouble();
+    }
+
+    /**
+     * Draws a uniformly distributed integer in [0,bound) from the current stream
+     *
+     * @param bound The (exclusive) upper bound of the integer
+     * @return A uniformly distributed integer in [0,bound)
+     */
+    public static int nextInt(int bound) {
+        return currentStream().nextInt(bound);
+    }
+
+    /**
+     * Method to retrieve a COLT random engine drawing from the current stream of the calling thread,
+     * to be used by the distributions based on the COLT library
+     *
+     * @return A random engine drawing from the current stream
+     */
+    public static RandomEngine getRandomEngine() {
+        return streamEngine;
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        seededServiceCreated = true;
+    }
+
+    //64 bit FNV-1a hash of the characters of the key
+    private static long hashKey(String key) {
+        long hash = 0xCBF29CE484222325L;
+        for(int index = 0; index < key.length(); index++) {
+            hash ^= key.charAt(index);
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    //finalizer of MurmurHash3 for spreading seeds
+    private static long mix(long seed) {
+        seed = (seed ^ (seed >>> 33)) * 0xFF51AFD7ED558CCDL;
+        seed = (seed ^ (seed >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return seed ^ (seed >>> 33);
+    }
+
+    /**
+     * COLT random engine without a state of its own, drawing from the stream of the calling thread
+     */
+    private static final class StreamRandomEngine extends RandomEngine {
+
+        public int nextInt() {
+            return currentStream().nextInt();
+        }
+
+        public double raw() {
+            //COLT engines draw from (0,1)
+            double value;
+            do {
+                value = currentStream().nextDouble();
+            } while(value == 0.0);
+            return value;
+        }
+
+        public double nextDouble() {
+            return raw();
+        }
+    }
+}
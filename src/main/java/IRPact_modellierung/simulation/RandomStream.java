@@ -0,0 +1,125 @@
+package IRPact_modellierung.simulation;
+
+import java.io.Serializable;
+
+/**
+ * A RandomStream is a SplitMix64 generator whose state is held in two explicit fields (the seed and the gamma
+ * added to it for every draw), so it can be stored in checkpoints and continues with the same numbers when restored.
+ *
+ * The generator is the one of java.util.SplittableRandom: a stream created with a seed and split streams draw the same
+ * numbers as the corresponding SplittableRandom would, including the bounded draws.
+ *
+ * Like a SplittableRandom, a stream is not thread-safe; it must only be drawn from by one thread at a time.
+ *
+ * @author Simon Johanning
+ */
+public final class RandomStream implements Serializable {
+
+    private static final long GOLDENGAMMA = 0x9E3779B97F4A7C15L;
+    private static final double DOUBLEUNIT = 0x1.0p-53;
+
+    private long seed;
+    private final long gamma;
+
+    /**
+     * Creates a stream starting with the given seed
+     *
+     * @param seed The initial seed of the stream
+     */
+    public RandomStream(long seed) {
+        this(seed, GOLDENGAMMA);
+    }
+
+    private RandomStream(long seed, long gamma) {
+        this.seed = seed;
+        this.gamma = gamma;
+    }
+
+    /**
+     * Creates a new stream from this one (advancing this stream), whose numbers are independent of the ones of this stream
+     *
+     * @return The new stream
+     */
+    public RandomStream split() {
+        return new RandomStream(nextLong(), mixGamma(nextSeed()));
+    }
+
+    public long nextLong() {
+        return mix64(nextSeed());
+    }
+
+    public int nextInt() {
+        return mix32(nextSeed());
+    }
+
+    /**
+     * Draws a uniformly distributed integer in [0,bound)
+     *
+     * @param bound The (exclusive) upper bound of the integer
+     * @return A uniformly distributed integer in [0,bound)
+     * @throws IllegalArgumentException Will be thrown when the bound is not positive
+     */
+    public int nextInt(int bound) throws IllegalArgumentException {
+        if(bound <= 0) throw new IllegalArgumentException("The bound of a random integer must be positive, but is "+bound+"!!");
+        int value = mix32(nextSeed());
+        int mask = bound - 1;
+        if((bound & mask) == 0) value &= mask;
+        else {
+            //reject the candidates that are over-represented
+            for(int candidate = value >>> 1; candidate + mask - (value = candidate % bound) < 0; candidate = mix32(nextSeed()) >>> 1);
+        }
+        return value;
+    }
+
+    /**
+     * Draws a uniformly distributed long in [0,bound)
+     *
+     * @param bound The (exclusive) upper bound of the long
+     * @return A uniformly distributed long in [0,bound)
+     * @throws IllegalArgumentException Will be thrown when the bound is not positive
+     */
+    public long nextLong(long bound) throws IllegalArgumentException {
+        if(bound <= 0L) throw new IllegalArgumentException("The bound of a random long must be positive, but is "+bound+"!!");
+        long value = mix64(nextSeed());
+        long mask = bound - 1L;
+        if((bound & mask) == 0L) value &= mask;
+        else {
+            //reject the candidates that are over-represented
+            for(long candidate = value >>> 1; candidate + mask - (value = candidate % bound) < 0L; candidate = mix64(nextSeed()) >>> 1);
+        }
+        return value;
+    }
+
+    /**
+     * Draws a uniformly distributed value in [0,1)
+     *
+     * @return A uniformly distributed value in [0,1)
+     */
+    public double nextDouble() {
+        return (mix64(nextSeed()) >>> 11) * DOUBLEUNIT;
+    }
+
+    private long nextSeed() {
+        return seed += gamma;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int mix32(long z) {
+        z = (z ^ (z >>> 33)) * 0x62A9D9ED799705F5L;
+        return (int) (((z ^ (z >>> 28)) * 0xCB24D0A5C88C35B3L) >>> 32);
+    }
+
+    //gammas need to be odd and have enough bit transitions to spread the seeds
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        int noTransitions = Long.bitCount(z ^ (z >>> 1));
+        return (noTransitions < 24) ? z ^ 0xAAAAAAAAAAAAAAAAL : z;
+    }
+}
@@ -0,0 +1,231 @@
+package IRPact_modellierung.simulation;
+
+import IRPact_modellierung.io.ConfigLoader;
+import IRPact_modellierung.io.output.ReplicationOutputScheme;
+import IRPact_modellierung.io.output.ReplicationStatistics;
+import IRPact_modellierung.network.CompressedSocialGraph;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The ReplicationRunner runs several replicates of a simulation (i.e. simulations of the same configuration
+ * with different seeds) within one JVM in order to derive statistics (such as confidence intervals) across the replicates.
+ *
+ * The configuration is loaded once and copied for every replicate (by serialization), so every replicate runs
+ * in a SimulationContainer of its own, isolated from the other replicates. The seed of the replicate with index i is
+ * the master seed of the configuration plus i, so the first replicate equals the simulation run on its own (see SimulationManager).
+ * The replicates run concurrently on a pool of a bounded number of threads and hand the observations of every step
+ * to the ReplicationStatistics shared by all replicates (see ReplicationOutputScheme), which reduces it in the order of the replicates.
+ * Together with the seeds only depending on the index of the replicates, the statistics are thus the same for any parallelism.
+ *
+ * Optionally, the topology of the social graph is generated only once (with the seed of the first replicate)
+ * and shared by all replicates (see PrebuiltCommunicationGraph). This saves the time of generating the graph
+ * for every replicate, but the variation due to the graph generation is then not part of the statistics.
+ *
+ * @author Simon Johanning
+ */
+public class ReplicationRunner {
+
+    private static final Logger fooLog = LogManager.getLogger("debugConsoleLogger");
+    private static final String CONFIGPATHPREFIX = "./target/configuration/";
+    private static final String CONFIGPATH = "Schwarz";
+
+    private final byte[] serializedConfiguration;
+    private final long masterSeed;
+    private final int parallelism;
+    private boolean shareSocialGraph;
+
+    /**
+     * Creates a runner for replicates of the given configuration.
+     * The configuration is copied, so it must not have been used to create a simulation before.
+     *
+     * @param configuration The configuration the replicates are based on
+     * @param parallelism The (maximal) number of replicates to run at the same time
+     * @throws IllegalArgumentException Will be thrown when the parallelism is not positive or the configuration can't be copied
+     */
+    public ReplicationRunner(Configuration configuration, int parallelism) throws IllegalArgumentException {
+        if(parallelism < 1) throw new IllegalArgumentException("The number of replicates to run at the same time needs to be positive (is "+parallelism+")!!");
+        this.parallelism = parallelism;
+        this.masterSeed = configuration.getRandomNumberService().getMasterSeed();
+        try {
+            ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+            ObjectOutputStream objectStream = new ObjectOutputStream(byteStream);
+            objectStream.writeObject(configuration);
+            objectStream.close();
+            serializedConfiguration = byteStream.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("The configuration can't be copied for the replicates!!", e);
+        }
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public boolean isShareSocialGraph() {
+        return shareSocialGraph;
+    }
+
+    /**
+     * @param shareSocialGraph Whether the topology of the social graph is to be generated once and shared by all replicates
+     */
+    public void setShareSocialGraph(boolean shareSocialGraph) {
+        this.shareSocialGraph = shareSocialGraph;
+    }
+
+    /**
+     * Method to derive the seed of a replicate
+     *
+     * @param masterSeed The master seed of the configuration
+     * @param replicate The index of the replicate
+     * @return The master seed of the replicate
+     */
+    public static long getReplicateSeed(long masterSeed, int replicate) {
+        return masterSeed + replicate;
+    }
+
+    /**
+     * Runs the given number of replicates and waits for all of them to finish
+     *
+     * @param noReplicates The number of replicates to run
+     * @return The statistics across all replicates
+     * @throws IllegalArgumentException Will be thrown when the number of replicates is negative
+     */
+    public ReplicationStatistics runReplicates(int noReplicates) throws IllegalArgumentException {
+        return runReplicates(noReplicates, new ReplicationStatistics());
+    }
+
+    /**
+     * Runs the given number of replicates and waits for all of them to finish.
+     * The statistics can be inspected by other threads while the replicates are running.
+     * They must not have been used for other replicates before, as the replicates are identified by their index.
+     *
+     * @param noReplicates The number of replicates to run
+     * @param replicationStatistics The statistics the outcome of the replicates is reduced into
+     * @return The statistics across all replicates
+     * @throws IllegalArgumentException Will be thrown when the number of replicates is negative
+     */
+    public ReplicationStatistics runReplicates(int noReplicates, ReplicationStatistics replicationStatistics) throws IllegalArgumentException {
+        if(noReplicates < 0) throw new IllegalArgumentException("The number of replicates to run is negative ("+noReplicates+")!!");
+        CompressedSocialGraph sharedTopology = null;
+        if(shareSocialGraph && noReplicates > 0) {
+            RandomStream previousStream = RandomNumberService.bindStream(null);
+            try {
+                sharedTopology = SimulationFactory.createSimulation(copyConfiguration(0)).getSocialNetwork().getSocialGraph().getCompressedGraph();
+            } finally {
+                RandomNumberService.bindStream(previousStream);
+            }
+            fooLog.info("Generated the social graph shared by all replicates ({} nodes)", sharedTopology.getNumberOfNodes());
+        }
+        ForkJoinPool replicatePool = new ForkJoinPool(parallelism);
+        try {
+            replicatePool.invoke(new ReplicateTask(0, noReplicates, sharedTopology, replicationStatistics));
+        } finally {
+            replicatePool.shutdown();
+        }
+        return replicationStatistics;
+    }
+
+    /**
+     * Method to create an isolated copy of the configuration for a replicate
+     *
+     * @param replicate The index of the replicate
+     * @return A copy of the configuration with the seed of the replicate
+     * @throws IllegalStateException Will be thrown when the configuration can't be restored
+     */
+    private Configuration copyConfiguration(int replicate) throws IllegalStateException {
+        try {
+            ObjectInputStream objectStream = new ObjectInputStream(new ByteArrayInputStream(serializedConfiguration));
+            Configuration configuration = (Configuration) objectStream.readObject();
+            objectStream.close();
+            configuration.setRandomNumberService(new RandomNumberService(getReplicateSeed(masterSeed, replicate)));
+            return configuration;
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalStateException("The configuration of replicate "+replicate+" can't be restored!!", e);
+        }
+    }
+
+    /**
+     * Method to run a single replicate in the calling thread
+     *
+     * @param replicate The index of the replicate
+     * @param sharedTopology The topology of the social graph shared by the replicates, null if every replicate generates its own
+     * @param replicationStatistics The statistics the outcome of the replicate is reduced into
+     */
+    private void runReplicate(int replicate, CompressedSocialGraph sharedTopology, ReplicationStatistics replicationStatistics) {
+        RandomStream previousStream = RandomNumberService.bindStream(null);
+        try {
+            SimulationContainer simulationContainer = SimulationFactory.createSimulation(copyConfiguration(replicate), sharedTopology);
+            simulationContainer.getTimeModel().setOutputScheme(new ReplicationOutputScheme(replicationStatistics, replicate));
+            simulationContainer.getTimeModel().startSimulation();
+            fooLog.info("Replicate {} finished ({} of the replicates finished)", replicate, replicationStatistics.getNoFinishedReplicates());
+        } finally {
+            RandomNumberService.bindStream(previousStream);
+        }
+    }
+
+    /**
+     * Task running a range of replicates, splitting the range until it holds a single replicate
+     */
+    private class ReplicateTask extends RecursiveAction {
+
+        private final int fromReplicate;
+        private final int toReplicate;
+        private final CompressedSocialGraph sharedTopology;
+        private final ReplicationStatistics replicationStatistics;
+
+        private ReplicateTask(int fromReplicate, int toReplicate, CompressedSocialGraph sharedTopology, ReplicationStatistics replicationStatistics) {
+            this.fromReplicate = fromReplicate;
+            this.toReplicate = toReplicate;
+            this.sharedTopology = sharedTopology;
+            this.replicationStatistics = replicationStatistics;
+        }
+
+        protected void compute() {
+            if(toReplicate - fromReplicate > 1){
+                int middle = (fromReplicate + toReplicate) >>> 1;
+                invokeAll(new ReplicateTask(fromReplicate, middle, sharedTopology, replicationStatistics), new ReplicateTask(middle, toReplicate, sharedTopology, replicationStatistics));
+            }else if(toReplicate > fromReplicate){
+                runReplicate(fromReplicate, sharedTopology, replicationStatistics);
+            }
+        }
+    }
+
+    /**
+     * Runs replicates of a configuration and logs the mean number of adopters across the replicates.
+     * The arguments are the name of the configuration (as for the SimulationManager), the number of replicates,
+     * the number of replicates to run at the same time (default: number of processors)
+     * and whether the replicates share the social graph (default: false).
+     *
+     * @param args The arguments of the runner
+     */
+    public static void main(String[] args){
+        try {
+            String configPath = CONFIGPATHPREFIX + ((args.length == 0 || args[0].equals("")) ? CONFIGPATH : args[0]) + "/";
+            int noReplicates = (args.length > 1) ? Integer.parseInt(args[1]) : 10;
+            int parallelism = (args.length > 2) ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+            Configuration simulationConfiguration = ConfigLoader.loadCompiledConfiguration(configPath);
+            fooLog.info("Configuration loaded sucessfully");
+            ReplicationRunner replicationRunner = new ReplicationRunner(simulationConfiguration, parallelism);
+            replicationRunner.setShareSocialGraph(args.length > 3 && Boolean.parseBoolean(args[3]));
+            ReplicationStatistics replicationStatistics = replicationRunner.runReplicates(noReplicates);
+            for(Double timeStamp : replicationStatistics.getTimeStamps()){
+                for(String measure : replicationStatistics.getMeasures()){
+                    fooLog.info("{} at time {}: {} +- {} (over {} replicates)", measure, timeStamp, replicationStatistics.getMean(timeStamp, measure), replicationStatistics.getConfidenceHalfWidth(timeStamp, measure), replicationStatistics.getNoObservations(timeStamp, measure));
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+        System.out.println("Program finished successfully");
+    }
+}
@@ -0,0 +1,93 @@
+package IRPact_modellierung.simulation;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The SimulationCheckpoint writes the complete state of a simulation (the SimulationContainer and everything
+ * reachable from it, such as the agents with their adopted products, perceptions and awareness, the social graph,
+ * the pending events, the time model and the state of the random streams) to a (compressed) binary file,
+ * and restores a simulation from such a file.
+ * A restored simulation continues with the step following the checkpoint when started (see DiscreteTimeModel),
+ * drawing the same random numbers as the simulation that wrote the checkpoint.
+ * Many simulations can be restored from the same checkpoint, e.g. to run different scenarios after a common warm-up period.
+ *
+ * Checkpoints are meant to be written between two steps of the simulation and use Java serialization,
+ * so they can only be read by the same version of the model they were written with.
+ * Output schemes are not part of a checkpoint; a restored simulation writes to the DefaultOutputScheme until another one is set.
+ *
+ * @author Simon Johanning
+ */
+public class SimulationCheckpoint {
+
+    private static final Logger fooLog = LogManager.getLogger("debugConsoleLogger");
+
+    //"IRPC" in ASCII
+    private static final int MAGICNUMBER = 0x49525043;
+    private static final int FORMATVERSION = 2;
+
+    /**
+     * Writes a checkpoint of the simulation to the given file, replacing the file if it exists.
+     * The checkpoint is written to a temporary file first, so an existing checkpoint is only replaced by a complete one.
+     * Writing a checkpoint doesn't change the simulation, which continues the same way as without the checkpoint.
+     *
+     * @param simulationContainer The container of the simulation to write a checkpoint of
+     * @param checkpointFile The file to write the checkpoint to
+     * @throws IOException Will be thrown when the checkpoint can't be written
+     */
+    public static void write(SimulationContainer simulationContainer, File checkpointFile) throws IOException {
+        File absoluteFile = checkpointFile.getAbsoluteFile();
+        if(absoluteFile.getParentFile() != null) Files.createDirectories(absoluteFile.getParentFile().toPath());
+        File temporaryFile = new File(absoluteFile.getPath()+".tmp");
+        DataOutputStream headerStream = new DataOutputStream(new FileOutputStream(temporaryFile));
+        try {
+            headerStream.writeInt(MAGICNUMBER);
+            headerStream.writeInt(FORMATVERSION);
+            headerStream.flush();
+            ObjectOutputStream objectStream = new ObjectOutputStream(new BufferedOutputStream(new GZIPOutputStream(headerStream, 1 << 16), 1 << 16));
+            objectStream.writeObject(simulationContainer);
+            objectStream.close();
+        } finally {
+            headerStream.close();
+        }
+        Files.move(temporaryFile.toPath(), absoluteFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        fooLog.debug("Checkpoint with {} consumer agents written to {}", simulationContainer.getConsumerAgents().size(), absoluteFile);
+    }
+
+    /**
+     * Restores a simulation from a checkpoint file
+     *
+     * @param checkpointFile The file the checkpoint was written to
+     * @return The container of the restored simulation
+     * @throws IOException Will be thrown when the file can't be read or is no (compatible) checkpoint
+     */
+    public static SimulationContainer read(File checkpointFile) throws IOException {
+        DataInputStream headerStream = new DataInputStream(new FileInputStream(checkpointFile));
+        try {
+            if(headerStream.readInt() != MAGICNUMBER) throw new IOException("File "+checkpointFile+" is no simulation checkpoint!!");
+            int formatVersion = headerStream.readInt();
+            if(formatVersion != FORMATVERSION) throw new IOException("Checkpoint "+checkpointFile+" has format version "+formatVersion+", but only version "+FORMATVERSION+" can be read!!");
+            ObjectInputStream objectStream = new ObjectInputStream(new BufferedInputStream(new GZIPInputStream(headerStream, 1 << 16), 1 << 16));
+            return (SimulationContainer) objectStream.readObject();
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Checkpoint "+checkpointFile+" doesn't contain a simulation of this model version!!", e);
+        } finally {
+            headerStream.close();
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package IRPact_modellierung.simulation;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
 import java.util.*;
 
 import IRPact_modellierung.agents.companyAgents.CompanyAgent;
+import IRPact_modellierung.agents.consumerAgents.AdoptionTally;
 import IRPact_modellierung.agents.consumerAgents.ConsumerAgent;
+import IRPact_modellierung.agents.consumerAgents.ConsumerAgentStore;
 import IRPact_modellierung.network.SocialNetwork;
 import IRPact_modellierung.preference.Value;
 import IRPact_modellierung.agents.policyAgent.PolicyAgent;
@@ -12,10 +17,14 @@ import IRPact_modellierung.events.EventScheduler;
 import IRPact_modellierung.helper.LazynessHelper;
 import IRPact_modellierung.messaging.CompanyAgentMessageScheme;
 import IRPact_modellierung.messaging.ConsumerAgentMessageScheme;
+import IRPact_modellierung.metrics.SimulationMetrics;
 import IRPact_modellierung.needs.Need;
+import IRPact_modellierung.network.NeighbourhoodAdoptionIndex;
 import IRPact_modellierung.network.SNNode;
+import IRPact_modellierung.products.AdoptedProductExpirationQueue;
 import IRPact_modellierung.products.FixedProductDescription;
 import IRPact_modellierung.products.Product;
+import IRPact_modellierung.products.ProductEligibilityIndex;
 import IRPact_modellierung.space.SpatialModel;
 import IRPact_modellierung.time.TimeModel;
 import org.apache.logging.log4j.LogManager;
@@ -23,7 +32,7 @@ import org.apache.logging.log4j.Logger;
 
 //TODO URGENT check what simulation container needs
 
-public class SimulationContainer {
+public class SimulationContainer implements Serializable {
 
 	private static final Logger fooLog = LogManager.getLogger("debugConsoleLogger");
 
@@ -43,6 +52,14 @@ public class SimulationContainer {
 	private Set<CompanyAgent> companyAgents;
 	private PolicyAgent policyAgent;
 	private Set<Need> needsInSimulation;
+	private AdoptionTally adoptionTally;
+	private AdoptedProductExpirationQueue expirationQueue;
+	private ProductEligibilityIndex productEligibilityIndex;
+	private NeighbourhoodAdoptionIndex neighbourhoodAdoptionIndex;
+	private ConsumerAgentStore consumerAgentStore;
+	private int noAgentBatches;
+	//metrics describe a single run, so they are not part of checkpoints
+	private transient SimulationMetrics metrics;
 
 	public SimulationContainer(Set<Product> products, Set<ConsumerAgent> consumerAgents, SocialNetwork socialNetwork, Set<POSAgent> posAgents, SpatialModel spatialModel, TimeModel timeModel, Set<Value> valuesUsed, Configuration simulationConfiguration, EventScheduler eventScheduler, Map<FixedProductDescription, Product> fixedProductMap, Map<SNNode, ConsumerAgent> sNMap, Set<CompanyAgent> companyAgents) {
 		this.products = products;
@@ -60,6 +77,13 @@ public class SimulationContainer {
 		this.companyAgents = companyAgents;
 		this.policyAgent = null;
 		needsInSimulation = LazynessHelper.aggregateNeeds(simulationConfiguration.getProductConfiguration().getProductGroups());
+		adoptionTally = new AdoptionTally();
+		expirationQueue = new AdoptedProductExpirationQueue();
+		productEligibilityIndex = new ProductEligibilityIndex();
+		neighbourhoodAdoptionIndex = new NeighbourhoodAdoptionIndex();
+		consumerAgentStore = new ConsumerAgentStore();
+		metrics = new SimulationMetrics();
+		registerProducts(products);
 		casNMap = new HashMap<>();
 		for(SNNode currentNode : sNMap.keySet()){
 			casNMap.put(sNMap.get(currentNode), currentNode);
@@ -75,6 +99,12 @@ public class SimulationContainer {
 		companyAgents = new HashSet<CompanyAgent>();
 		policyAgent = null;
 		needsInSimulation = LazynessHelper.aggregateNeeds(simulationConfiguration.getProductConfiguration().getProductGroups());
+		adoptionTally = new AdoptionTally();
+		expirationQueue = new AdoptedProductExpirationQueue();
+		productEligibilityIndex = new ProductEligibilityIndex();
+		neighbourhoodAdoptionIndex = new NeighbourhoodAdoptionIndex();
+		consumerAgentStore = new ConsumerAgentStore();
+		metrics = new SimulationMetrics();
 	}
 
 	public Set<Product> getProducts() {
@@ -113,6 +143,7 @@ public class SimulationContainer {
 
 	public void setProducts(Set<Product> products) {
 		this.products = products;
+		registerProducts(products);
 	}
 
 	public void setConsumerAgents(Set<ConsumerAgent> consumerAgents) {
@@ -181,6 +212,15 @@ public class SimulationContainer {
 
 	public void addProduct(Product productToAdd){
 		products.add(productToAdd);
+		productEligibilityIndex.registerProduct(productToAdd);
+	}
+
+	//products keep their ordinals when they are removed from the simulation
+	private void registerProducts(Set<Product> productsToRegister) {
+		if(productsToRegister == null) return;
+		for(Product product : productsToRegister){
+			productEligibilityIndex.registerProduct(product);
+		}
 	}
 
 	public void activateProduct(Product productToActivate){
@@ -220,5 +260,80 @@ public class SimulationContainer {
 		return needsInSimulation;
 	}
 
+	/**
+	 * Method to retrieve the tally of adopters and aware consumers per ConsumerAgentGroup and Product,
+	 * which is kept up to date by the ConsumerAgents of the simulation.
+	 *
+	 * @return The adoption tally of the simulation
+	 */
+	public AdoptionTally getAdoptionTally() {
+		return adoptionTally;
+	}
+
+	/**
+	 * Method to retrieve the queue of the products adopted in the simulation ordered by their expiration date,
+	 * which is kept up to date by the ConsumerAgents of the simulation.
+	 *
+	 * @return The expiration queue of the simulation
+	 */
+	public AdoptedProductExpirationQueue getExpirationQueue() {
+		return expirationQueue;
+	}
+
+	/**
+	 * Method to retrieve the index of the products of the simulation, assigning the ordinals of the products
+	 * and keeping the products per need and on the market as bit sets (see ProductEligibilityIndex).
+	 *
+	 * @return The product eligibility index of the simulation
+	 */
+	public ProductEligibilityIndex getProductEligibilityIndex() {
+		return productEligibilityIndex;
+	}
+
+	/**
+	 * Method to retrieve the number of adopting neighbours per node of the social network and product,
+	 * which is kept up to date by the ConsumerAgents of the simulation (see NeighbourhoodAdoptionIndex).
+	 *
+	 * @return The neighbourhood adoption index of the simulation
+	 */
+	public NeighbourhoodAdoptionIndex getNeighbourhoodAdoptionIndex() {
+		return neighbourhoodAdoptionIndex;
+	}
+
+	/**
+	 * Method to retrieve the store holding the attributes and preferences of the ConsumerAgents of the simulation
+	 * (column-wise, indexed by the agent index of the agents).
+	 *
+	 * @return The consumer agent store of the simulation
+	 */
+	public ConsumerAgentStore getConsumerAgentStore() {
+		return consumerAgentStore;
+	}
+
+	/**
+	 * Method to retrieve the number for the next batch of consumer agents created in this simulation,
+	 * which is part of the IDs of the agents (see SynchronousConsumerAgentFactory).
+	 *
+	 * @return The number of batches of consumer agents created in this simulation before
+	 */
+	public int nextAgentBatchNumber() {
+		return noAgentBatches++;
+	}
+
+	/**
+	 * Method to retrieve the registry of the performance metrics of the simulation (such as the durations of steps and phases,
+	 * see SimulationMetrics). The metrics are not serialized; a restored simulation starts with empty metrics.
+	 *
+	 * @return The metrics of the simulation
+	 */
+	public SimulationMetrics getMetrics() {
+		return metrics;
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		metrics = new SimulationMetrics();
+	}
+
 
 }
\ No newline at end of file
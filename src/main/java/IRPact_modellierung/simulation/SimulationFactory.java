@@ -5,8 +5,10 @@ import IRPact_modellierung.agents.posAgents.POSAgent;
 import IRPact_modellierung.agents.posAgents.POSAgentFactory;
 import IRPact_modellierung.events.*;
 import IRPact_modellierung.helper.LazynessHelper;
+import IRPact_modellierung.helper.OrderHelper;
 import IRPact_modellierung.helper.StructureEnricher;
 import IRPact_modellierung.helper.ValueConversionHelper;
+import IRPact_modellierung.network.CompressedSocialGraph;
 import IRPact_modellierung.network.SNFactory;
 import IRPact_modellierung.network.SNNode;
 import IRPact_modellierung.network.SocialNetwork;
@@ -20,6 +22,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.core.config.Scheduled;
 
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 /**
@@ -35,7 +38,20 @@ public class SimulationFactory {
 	private static final org.apache.logging.log4j.Logger fooLog = LogManager.getLogger("debugConsoleLogger");
 
 	public static SimulationContainer createSimulation(Configuration configuration) {
-		if (configuration.getTemporalConfiguration().isSynchronous()) return createDiscreteSynchronousSimulation(configuration);
+		return createSimulation(configuration, null);
+	}
+
+	/**
+	 * Method to create a simulation whose social graph takes over a topology generated before
+	 * (e.g. shared by several replicates of a simulation, see ReplicationRunner) instead of generating it.
+	 *
+	 * @param configuration The configuration of the model the simulation is based upon.
+	 * @param prebuiltTopology The topology of the social graph, null to generate the social graph given by the configuration
+	 * @return The container the simulation runs in
+	 */
+	public static SimulationContainer createSimulation(Configuration configuration, CompressedSocialGraph prebuiltTopology) {
+		configuration.getRandomNumberService().bindToCurrentThread();
+		if (configuration.getTemporalConfiguration().isSynchronous()) return createDiscreteSynchronousSimulation(configuration, prebuiltTopology);
 		else return createASynchronousSimulation(configuration);
 	}
 
@@ -48,11 +64,12 @@ public class SimulationFactory {
 	 * Method to create a simulation container for a discrete time model and synchronous agents based on the given configuration.
 	 *
 	 * @param configuration The configuration of the model the simulation is based upon.
+	 * @param prebuiltTopology The topology of the social graph, null to generate the social graph given by the configuration
 	 * @return The container the simulation runs in
 	 * @throws IllegalArgumentException Will be thrown when one of the methods called in this throws an IllegalArgumentException
 	 * @throws UnsupportedOperationException Will be thrown when one of the methods called in this throws an UnsupportedOperationException
 	 */
-	private static SimulationContainer createDiscreteSynchronousSimulation(Configuration configuration) throws UnsupportedOperationException, IllegalArgumentException{
+	private static SimulationContainer createDiscreteSynchronousSimulation(Configuration configuration, CompressedSocialGraph prebuiltTopology) throws UnsupportedOperationException, IllegalArgumentException{
 		try {
 			SimulationContainer container = new SimulationContainer(configuration);
 			//set temporal model
@@ -61,9 +78,9 @@ public class SimulationFactory {
 			container.setSpatialModel(SpatialFactory.createSpatialModel(configuration.getSpatialConfiguration(), container));
 			//set event scheduler
 			container.setEventScheduler(new DiscreteEventScheduler(container));
-			//Set all generated products of the simulation
-			HashSet<Product> products = new HashSet<Product>();
-			for(ProductGroup productGroup : configuration.getProductConfiguration().getProductGroups()){
+			//Set all generated products of the simulation (in the order they are created, as are the agents and their nodes)
+			LinkedHashSet<Product> products = new LinkedHashSet<Product>();
+			for(ProductGroup productGroup : OrderHelper.sortProductGroups(configuration.getProductConfiguration().getProductGroups())){
                 Set<Product> productsOfProductGroup = ProductFactory.createProducts(productGroup, configuration, container);
                 fooLog.debug("Finished creating the products {}",productsOfProductGroup);
                 for(Product productInPG : productsOfProductGroup) {
@@ -79,8 +96,9 @@ public class SimulationFactory {
 			container.setProducts(products);
 			Set<ProductDiscontinuationEvent> pdes = ProductFactory.createProductDiscontinuationEvents(container, configuration.getProductConfiguration().getProductDiscontinuationEvents());
 			//set all consumer agents of the simulation
-			HashSet<ConsumerAgent> consumerAgents = new HashSet<ConsumerAgent>();
-			for(ConsumerAgentGroup consumerAgentGroup : configuration.getAgentConfiguration().getConsumerAgentGroups()){
+			LinkedHashSet<ConsumerAgent> consumerAgents = new LinkedHashSet<ConsumerAgent>();
+			//groups are created in order of their names, so the agents get the same IDs in every copy of the configuration
+			for(ConsumerAgentGroup consumerAgentGroup : OrderHelper.sortConsumerAgentGroups(configuration.getAgentConfiguration().getConsumerAgentGroups())){
                 fooLog.debug("Attempting to create consumers for consumer group {} of which there should be {}",consumerAgentGroup.getGroupName(),configuration.getAgentConfiguration().getNoAgentsPerGroup().get(consumerAgentGroup));
                 Set<SynchronousConsumerAgent> agentsInCAG = SynchronousConsumerAgentFactory.createConsumers(consumerAgentGroup, configuration.getAgentConfiguration().getNoAgentsPerGroup().get(consumerAgentGroup), container, configuration);
                 consumerAgentGroup.setConsumerAgentsInGroup(ValueConversionHelper.synchronousConsumerAgentsToConsumerAgents(agentsInCAG));
@@ -107,7 +125,7 @@ public class SimulationFactory {
                 container.setPosAgents(posAgents);
             }
 			//set social network
-			container.setSocialNetwork(new SocialNetwork(SNFactory.createSocialGraph(container, configuration.getSNConfiguration(), getAssociatedSNNodes(consumerAgents)), configuration.getSNConfiguration().getEdgeWeightMappingScheme(), configuration.getSNConfiguration().getTopologyManipulationScheme()));
+			container.setSocialNetwork(new SocialNetwork(SNFactory.createSocialGraph(container, configuration.getSNConfiguration(), getAssociatedSNNodes(consumerAgents), prebuiltTopology), configuration.getSNConfiguration().getEdgeWeightMappingScheme(), configuration.getSNConfiguration().getTopologyManipulationScheme()));
 			//add scheduled events to event scheduler
 			Set<ScriptedEvent> scheduledEvents = new HashSet<>();
 			scheduledEvents.addAll(mies);
@@ -124,8 +142,8 @@ public class SimulationFactory {
 		}
 	}
 
-	private static Set<SNNode> getAssociatedSNNodes(HashSet<ConsumerAgent> consumerAgents) {
-		HashSet<SNNode> nodes = new HashSet<SNNode>(consumerAgents.size());
+	private static Set<SNNode> getAssociatedSNNodes(Set<ConsumerAgent> consumerAgents) {
+		LinkedHashSet<SNNode> nodes = new LinkedHashSet<SNNode>(consumerAgents.size());
 		for(ConsumerAgent consumerAgent : consumerAgents){
 			nodes.add(consumerAgent.getCorrespondingNodeInSN());
 		}
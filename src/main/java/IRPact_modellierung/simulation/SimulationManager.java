@@ -2,8 +2,11 @@ package IRPact_modellierung.simulation;
 
 import IRPact_modellierung.io.ConfigLoader;
 import IRPact_modellierung.io.output.*;
+import IRPact_modellierung.metrics.SimulationMetrics;
+import IRPact_modellierung.time.DiscreteTimeModel;
 import org.apache.logging.log4j.LogManager;
 
+import java.io.File;
 import java.io.IOException;
 
 
@@ -12,18 +15,55 @@ public class SimulationManager {
     private static final org.apache.logging.log4j.Logger LOG = LogManager.getLogger("debugConsoleLogger");
     private static final String CONFIGPATHPREFIX = "./target/configuration/";
     private static final String CONFIGPATH = "Schwarz";
+    private static final String ADOPTIONTABLE = "adoptionPattern";
 
     public static void main(String[] args){
         try {
             String configPath;
+            String configName = (args.length == 0 || args[0].equals("")) ? CONFIGPATH : args[0];
             if(args.length == 0) configPath = CONFIGPATHPREFIX + CONFIGPATH + "/";
             else if(args[0].equals("")) configPath = CONFIGPATHPREFIX + CONFIGPATH + "/";
             else configPath = CONFIGPATHPREFIX + args[0] + "/";
-            Configuration simulationConfiguration = ConfigLoader.loadConfiguration(configPath);
-            LOG.info("Configuration loaded sucessfully");
-            SimulationContainer simulationContainer = SimulationFactory.createSimulation(simulationConfiguration);
-            LOG.info("Simulation created");
-            simulationContainer.getTimeModel().setOutputScheme(new SN1OutputScheme());
+            //a simulation restored from the checkpoint given as eighth argument continues after the step of the checkpoint,
+            //a new one is created from the configuration otherwise
+            SimulationContainer simulationContainer;
+            if(args.length > 7 && !args[7].equals("")) {
+                simulationContainer = SimulationCheckpoint.read(new File(args[7]));
+                LOG.info("Simulation restored from checkpoint {}", args[7]);
+            } else {
+                Configuration simulationConfiguration = ConfigLoader.loadCompiledConfiguration(configPath);
+                LOG.info("Configuration loaded sucessfully");
+                simulationContainer = SimulationFactory.createSimulation(simulationConfiguration);
+                LOG.info("Simulation created");
+            }
+            //metrics can be inspected via JMX and dumped per step to the file given as second argument (JSON lines for .json files, CSV otherwise)
+            SimulationMetrics metrics = simulationContainer.getMetrics();
+            metrics.registerMBean(configName);
+            if(args.length > 1 && !args[1].equals("")) metrics.setStepDump(new File(args[1]), args[1].endsWith(".json") ? SimulationMetrics.DUMPFORMAT.JSON : SimulationMetrics.DUMPFORMAT.CSV);
+            //the adoptions are written to the SQLite data base given as third argument (in the background), to the log otherwise
+            OutputScheme outputScheme;
+            if(args.length > 2 && !args[2].equals("")) {
+                outputScheme = new SQLiteOutputScheme(args[2], ADOPTIONTABLE, true);
+                LOG.info("Writing adoptions to table {} of data base {}", ADOPTIONTABLE, args[2]);
+            } else outputScheme = new SN1OutputScheme();
+            //the state of all agents is sampled into the snapshot file given as fourth argument (in the background),
+            //every n-th step with n given as fifth argument (default: every step);
+            //snapshots in the file from the first step of the run on (e.g. after the checkpoint resumed from) are replaced
+            if(args.length > 3 && !args[3].equals("")) {
+                int samplingInterval = (args.length > 4 && !args[4].equals("")) ? Integer.parseInt(args[4]) : 1;
+                double resumeTime = (simulationContainer.getTimeModel() instanceof DiscreteTimeModel) ? ((DiscreteTimeModel) simulationContainer.getTimeModel()).getNextStep() : 0.0;
+                outputScheme = new AgentStateSnapshotOutputScheme(outputScheme, new File(args[3]), samplingInterval, resumeTime, true);
+                LOG.info("Writing agent state snapshots every {} steps to {}", samplingInterval, args[3]);
+            }
+            //checkpoints are written to the directory given as sixth argument,
+            //every n-th step with n given as seventh argument (default: every step)
+            if(args.length > 5 && !args[5].equals("")) {
+                if(!(simulationContainer.getTimeModel() instanceof DiscreteTimeModel)) throw new IllegalArgumentException("Checkpoints can only be written for discrete time models!!");
+                int checkpointInterval = (args.length > 6 && !args[6].equals("")) ? Integer.parseInt(args[6]) : 1;
+                ((DiscreteTimeModel) simulationContainer.getTimeModel()).setCheckpointing(args[5], checkpointInterval);
+                LOG.info("Writing checkpoints every {} steps to {}", checkpointInterval, args[5]);
+            }
+            simulationContainer.getTimeModel().setOutputScheme(outputScheme);
             simulationContainer.getTimeModel().startSimulation();
             LOG.info("Thats it folks, the show is over");
         } catch (IOException e) {
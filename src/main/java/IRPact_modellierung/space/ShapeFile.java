@@ -1,6 +1,8 @@
 package IRPact_modellierung.space;
 
-public class ShapeFile {
+import java.io.Serializable;
+
+public class ShapeFile implements Serializable {
 
     private String placeholder;
 
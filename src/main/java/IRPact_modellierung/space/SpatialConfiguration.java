@@ -1,5 +1,6 @@
 package IRPact_modellierung.space;
 
+import java.io.Serializable;
 import java.util.HashMap;
 
 /**
@@ -8,7 +9,7 @@ import java.util.HashMap;
  *
  * @author Simon Johanning
  */
-public class SpatialConfiguration {
+public class SpatialConfiguration implements Serializable {
 
 	private String spatialModelQualifier;
 	private HashMap<String, Object> spatialModelParameters;
@@ -1,12 +1,17 @@
 package IRPact_modellierung.time;
 
-import IRPact_modellierung.agents.consumerAgents.ConsumerAgent;
 import IRPact_modellierung.events.DiscreteEventScheduler;
+import IRPact_modellierung.events.Event;
+import IRPact_modellierung.metrics.SimulationMetrics;
 import IRPact_modellierung.processModel.ProcessModel;
+import IRPact_modellierung.simulation.SimulationCheckpoint;
 import IRPact_modellierung.simulation.SimulationContainer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.File;
+import java.io.IOException;
+
 /**
  * A DiscreteTimeModel describes a temporal model that is organized in a
  * finite number of steps, in which the respective events and processes are executed.
@@ -18,6 +23,8 @@ import org.apache.logging.log4j.Logger;
  *
  * After its execution it will run for the specified number of steps,
  * invoking the step() method, which describes its dynamics.
+ * The simulation can be paused after any step (see simulateUntil) and, optionally,
+ * writes checkpoints periodically (see setCheckpointing).
  *
  * @author Simon Johanning
  */
@@ -28,6 +35,11 @@ public class DiscreteTimeModel extends TimeModel {
 	private int numberTotalSteps;
 	private boolean synchronousTimeRegime;
 	private DiscreteEventScheduler eventScheduler;
+	//the step to execute next (steps before have been executed, e.g. before a checkpoint was written)
+	private int nextStep;
+	//directory periodic checkpoints are written to, and the number of steps between them (0 for no checkpoints)
+	private String checkpointDirectory;
+	private int checkpointInterval;
 	//TODO regard synchronousity
 
 	/**
@@ -45,6 +57,8 @@ public class DiscreteTimeModel extends TimeModel {
 		this.numberTotalSteps = numberTotalSteps;
 		simulationTime = 0.0;
 		this.synchronousTimeRegime = synchronousTimeRegime;
+		nextStep = 0;
+		checkpointInterval = 0;
 	}
 
 	public int getNumberTotalSteps() {
@@ -55,21 +69,79 @@ public class DiscreteTimeModel extends TimeModel {
 		return this.synchronousTimeRegime;
 	}
 
+	public int getNextStep() {
+		return nextStep;
+	}
+
+	/**
+	 * Configures the simulation to write a checkpoint (see SimulationCheckpoint) to the given directory
+	 * every checkpointInterval steps, so that it can be resumed after a crash.
+	 * The checkpoint written after step s is named checkpoint_step_s.irpc.
+	 *
+	 * @param checkpointDirectory The directory to write the checkpoints to
+	 * @param checkpointInterval The number of steps between two checkpoints (0 to write no checkpoints)
+	 * @throws IllegalArgumentException Will be thrown when the interval is negative
+	 */
+	public void setCheckpointing(String checkpointDirectory, int checkpointInterval) throws IllegalArgumentException {
+		if(checkpointInterval < 0) throw new IllegalArgumentException("The number of steps between checkpoints is negative ("+checkpointInterval+")!!");
+		this.checkpointDirectory = checkpointDirectory;
+		this.checkpointInterval = checkpointInterval;
+	}
+
 	/**
 	 * This method starts the simulation, and calls the step()
 	 * method the number of times specified.
+	 * For a simulation restored from a checkpoint, it continues with the step after the checkpoint.
 	 *
 	 * It thus describes the discrete temporal dynamics.
+	 * After the last step (or when a step fails), the output scheme and the metrics of the simulation are closed.
 	 */
 	public void startSimulation() {
+		try {
+			simulateUntil(numberTotalSteps);
+		} finally {
+			//also when a step fails, so the results written so far are flushed
+			outputScheme.closeOutput();
+			associatedSimulationContainer.getMetrics().close();
+		}
+	}
+
+	/**
+	 * This method runs the steps from the next step to execute up to (and including) the lastStep
+	 * (or the last step of the simulation, if earlier). The output scheme is not closed,
+	 * so the simulation can be paused, e.g. to write a checkpoint after a warm-up period,
+	 * and continued afterwards.
+	 *
+	 * @param lastStep The last step to execute
+	 */
+	public void simulateUntil(int lastStep) {
 		//instantiate (and schedule initial events)
 		eventScheduler = (DiscreteEventScheduler) associatedSimulationContainer.getEventScheduler();
-		fooLog.info("Before first step the state is:\n");
+		associatedSimulationContainer.getSimulationConfiguration().getRandomNumberService().bindToCurrentThread();
+		if(nextStep == 0) fooLog.info("Before first step the state is:\n");
 		//outputScheme.writeConsumerAdoption(associatedSimulationContainer.getConsumerAgents(), simulationTime);
-		for(int step=0;step<=numberTotalSteps;step++){
-			simulationTime = (double) step;
+		while(nextStep <= Math.min(lastStep, numberTotalSteps)){
+			simulationTime = (double) nextStep;
 			fooLog.info("\n\nSimulation time is {}\n\n",simulationTime);
 			step();
+			nextStep++;
+			if((checkpointInterval > 0) && (nextStep % checkpointInterval == 0)) writeCheckpoint(nextStep - 1);
+		}
+	}
+
+	/**
+	 * Writes a checkpoint of the simulation after the given step to the checkpoint directory.
+	 * A checkpoint that can't be written is logged, but doesn't end the simulation.
+	 *
+	 * @param step The step after which the checkpoint is written
+	 */
+	private void writeCheckpoint(int step) {
+		File checkpointFile = new File(checkpointDirectory, "checkpoint_step_"+step+".irpc");
+		try {
+			SimulationCheckpoint.write(associatedSimulationContainer, checkpointFile);
+			fooLog.info("Wrote checkpoint after step {} to {}", step, checkpointFile);
+		} catch (IOException ioe) {
+			fooLog.error("Checkpoint after step {} could not be written to {}: {}", step, checkpointFile, ioe.getMessage());
 		}
 	}
 
@@ -79,26 +151,33 @@ public class DiscreteTimeModel extends TimeModel {
 	 * 2. Executing all events around for this step
 	 * 3. Invoking the process model
 	 * 4. Printing adoption status of the agents according to the output scheme
+	 * 5. Finishing the step in the metrics of the simulation
 	 *
 	 */
 	private void step(){
 		double timeBefore = System.currentTimeMillis();
-		for(ConsumerAgent currentConsumer : associatedSimulationContainer.getConsumerAgents()) {
-			outputScheme.writeConsumerAgentState(currentConsumer, simulationTime);
-		}
+		SimulationMetrics metrics = associatedSimulationContainer.getMetrics();
+		long stepStart = metrics.startTimer();
+		outputScheme.writeConsumerAgentStates(associatedSimulationContainer.getConsumerAgents(), simulationTime);
 		//process scheduled events
 		boolean eventScheduledForThisStep = eventScheduler.existsNextEvent();
+		long processingStart = metrics.startTimer();
 		while(eventScheduledForThisStep){
 			if(eventScheduler.existsNextEvent()){
 				if((int) eventScheduler.topNextEvent().getScheduledForTime() == (int) Math.floor(simulationTime)){
 					fooLog.debug("Scheduled event {} is scheduled for time {}, simulation time is {}", eventScheduler.topNextEvent(),  eventScheduler.topNextEvent().getScheduledForTime(), simulationTime);
-					eventScheduler.popNextEvent().processEvent(simulationTime);
+					Event currentEvent = eventScheduler.popNextEvent();
+					currentEvent.processEvent(simulationTime);
+					metrics.countEvent(currentEvent);
 				}
 				else eventScheduledForThisStep = false;
 			}else eventScheduledForThisStep = false;
 		}
+		metrics.stopTimer(SimulationMetrics.EVENTPROCESSING, processingStart);
 		processModel.processConsumerAgents(associatedSimulationContainer.getConsumerAgents(), associatedSimulationContainer, simulationTime);
 		outputScheme.writeConsumerAdoption(associatedSimulationContainer.getConsumerAgents(), simulationTime);
+		metrics.stopTimer(SimulationMetrics.STEPLATENCY, stepStart);
+		metrics.finishStep(nextStep, simulationTime);
 		fooLog.info("Step {} took {}s to execute\n\n", simulationTime, (System.currentTimeMillis()-timeBefore)/1000);
 	}
 }
\ No newline at end of file
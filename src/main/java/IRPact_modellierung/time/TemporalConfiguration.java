@@ -1,12 +1,14 @@
 package IRPact_modellierung.time;
 
+import java.io.Serializable;
+
 /**
  * Object to configure the TimeModel of the simulation.
  * Contains all relevant information to start the simulation
  *
  * @author Simon Johanning
  */
-public class TemporalConfiguration {
+public class TemporalConfiguration implements Serializable {
 
 	private double simulationLength;
 	private TimeModel.TEMPORALMODE timeModel;
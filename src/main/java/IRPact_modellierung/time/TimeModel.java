@@ -6,6 +6,9 @@ import IRPact_modellierung.SimulationEntity;
 import IRPact_modellierung.processModel.ProcessModel;
 import IRPact_modellierung.simulation.SimulationContainer;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+
 /**
  * The TimeModel governs the model dynamics within IRPact.
  * It is superordinate to the process model and the component
@@ -23,7 +26,8 @@ public abstract class TimeModel extends SimulationEntity {
 
 	protected ProcessModel processModel;
 	protected double simulationTime;
-	protected OutputScheme outputScheme;
+	//output is written to files or databases that are not part of checkpoints; a restored model writes to the default output until another scheme is set
+	protected transient OutputScheme outputScheme;
 
 	public enum TEMPORALMODE {
 		DISCRETE, CONTINUOUS
@@ -56,6 +60,15 @@ public abstract class TimeModel extends SimulationEntity {
 		this.outputScheme = outputScheme;
 	}
 
+	public OutputScheme getOutputScheme() {
+		return outputScheme;
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		outputScheme = new DefaultOutputScheme();
+	}
+
 	/**
 	 * Method that starts the simulation.
 	 * Will set off the model dynamics.
@@ -0,0 +1,323 @@
+package IRPact_modellierung.benchmark;
+
+import IRPact_modellierung.agents.consumerAgents.ConsumerAgent;
+import IRPact_modellierung.io.ConfigLoader;
+import IRPact_modellierung.io.output.DefaultOutputScheme;
+import IRPact_modellierung.needs.Need;
+import IRPact_modellierung.network.SNConfiguration;
+import IRPact_modellierung.simulation.Configuration;
+import IRPact_modellierung.simulation.SimulationContainer;
+import IRPact_modellierung.simulation.SimulationFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Fixture creating synthetic simulations of a given number of consumer agents for the benchmarks and tests.
+ *
+ * The scenario consists of three consumer agent groups of (roughly) equal size and one product group 'heating'
+ * with three fixed products satisfying the need 'heat'. Half of the agents initially own the standard product,
+ * so the other half has an unsatisfied need. All agents are aware of all products.
+ * The configuration files are written to a temporary directory and loaded through the ConfigLoader,
+ * so the simulation is set up exactly like a configured one. The master seed is fixed, so all runs
+ * of a benchmark work on the same simulation.
+ *
+ * @author Simon Johanning
+ */
+public class SyntheticScenario {
+
+    public static final String[] CONSUMERAGENTGROUPS = {"Pioneers", "Mainstream", "Laggards"};
+    public static final String[] PRODUCTGROUPATTRIBUTES = {"price", "ecology", "comfort"};
+    public static final String[] VALUES = {"thrift", "environmentalism", "convenience"};
+    public static final String PRODUCTGROUP = "heating";
+    public static final String NEED = "heat";
+    public static final long MASTERSEED = 4711L;
+    //average degree of the generated social graphs
+    private static final int DEGREE = 10;
+
+    private final int noAgents;
+    private String decisionProcess = "Kiesling";
+    private String perceptionScheme = "perceptionHistogram";
+    private String topology = "RegularCommunicationGraph";
+    private double simulationLength = 0.0;
+
+    /**
+     * Creates a scenario with the given number of agents, using the Kiesling decision process,
+     * histogram perception and a regular social graph over one simulated year
+     *
+     * @param noAgents The number of consumer agents in the simulation
+     */
+    public SyntheticScenario(int noAgents) {
+        if(noAgents < CONSUMERAGENTGROUPS.length) throw new IllegalArgumentException("The scenario needs at least "+CONSUMERAGENTGROUPS.length+" agents!!");
+        this.noAgents = noAgents;
+    }
+
+    public int getNoAgents() {
+        return noAgents;
+    }
+
+    public void setDecisionProcess(String decisionProcess) {
+        this.decisionProcess = decisionProcess;
+    }
+
+    public void setPerceptionScheme(String perceptionScheme) {
+        this.perceptionScheme = perceptionScheme;
+    }
+
+    public void setTopology(String topology) {
+        this.topology = topology;
+    }
+
+    public void setSimulationLength(double simulationLength) {
+        this.simulationLength = simulationLength;
+    }
+
+    /**
+     * Creates the simulation container of the scenario, with the DefaultOutputScheme set
+     *
+     * @return The set up container of the scenario
+     * @throws IOException Will be thrown when the configuration can't be written or loaded
+     */
+    public SimulationContainer createSimulation() throws IOException {
+        SimulationContainer container = SimulationFactory.createSimulation(loadConfiguration());
+        container.getTimeModel().setOutputScheme(new DefaultOutputScheme());
+        return container;
+    }
+
+    /**
+     * Writes the configuration of the scenario to a temporary directory and loads it from there.
+     * As products and agents are attached to the configuration when a simulation is created,
+     * every simulation needs a freshly loaded configuration.
+     *
+     * @return The loaded configuration
+     * @throws IOException Will be thrown when the configuration can't be written or loaded
+     */
+    public Configuration loadConfiguration() throws IOException {
+        Path configDirectory = Files.createTempDirectory("irpactBenchmark");
+        try {
+            writeConfiguration(configDirectory.toFile());
+            return ConfigLoader.loadConfiguration(configDirectory.toString()+File.separator);
+        } finally {
+            try (Stream<Path> files = Files.walk(configDirectory)) {
+                files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
+    /**
+     * Method to retrieve the need all products of the scenario satisfy
+     *
+     * @param container The container of the scenario
+     * @return The need 'heat' of the scenario
+     */
+    public static Need findNeed(SimulationContainer container) {
+        for(Need need : container.getNeedsInSimulation()) {
+            if(need.getName().equals(NEED)) return need;
+        }
+        throw new IllegalStateException("The simulation doesn't contain the need "+NEED+"!!");
+    }
+
+    /**
+     * Picks a reproducible random sample of agents, independent of the iteration order of the agent sets
+     *
+     * @param candidates The agents to pick from
+     * @param sampleSize The (maximal) size of the sample
+     * @return The sample of at most sampleSize agents
+     */
+    public static List<ConsumerAgent> pickAgents(Collection<ConsumerAgent> candidates, int sampleSize) {
+        List<ConsumerAgent> agents = new ArrayList<ConsumerAgent>(candidates);
+        agents.sort(Comparator.comparing(ConsumerAgent::getAgentID));
+        Collections.shuffle(agents, new Random(MASTERSEED));
+        return agents.subList(0, Math.min(sampleSize, agents.size()));
+    }
+
+    /**
+     * Creates the configuration of a social graph of the given topology for a graph of the given size,
+     * with parameters chosen for an average degree of about ten
+     *
+     * @param topology The identifier of the SocialGraph (as in the SocialNetworkConfiguration)
+     * @param noAgents The number of nodes of the graph
+     * @return The SNConfiguration for the topology
+     */
+    public static SNConfiguration createSNConfiguration(String topology, int noAgents) {
+        return new SNConfiguration(topology, createSocialGraphParameters(topology, noAgents), "RandomRewireTMS", createTopologyManipulationParameters(), "ConstantEdgeWeightManipulationScheme", map("edgeWeight", 1.0));
+    }
+
+    private static HashMap<String, Object> createSocialGraphParameters(String topology, int noAgents) {
+        switch (topology) {
+            case "GilbertCommunicationGraph":
+                return map("p", DEGREE / (double) (noAgents - 1));
+            case "ErdosRenyiCommunicationGraph":
+                return map("k", DEGREE * noAgents / 2);
+            case "RegularCommunicationGraph":
+                return map("z", DEGREE);
+            case "HeterogeneousRegularCommunicationGraph":
+                return map("consumerGroupZMapping", groupMap(DEGREE));
+            case "HeterogeneousSmallWorldCommunicationGraph":
+                return map("consumerGroupZMapping", groupMap(DEGREE), "consumerGroupBetaMapping", groupMap(0.1));
+            case "NewtonianInversePowerlawCommunicationGraph":
+                return map("noInitSeeds", DEGREE, "noConnectedEdges", DEGREE / 2);
+            case "ExponentialDecayCommunicationGraph":
+                return map("noInitSeeds", DEGREE, "noConnectedEdges", DEGREE / 2, "b", 10.0);
+            case "MannaSenYookCommunicationGraph":
+                return map("noInitSeeds", DEGREE, "noConnectedEdges", DEGREE / 2, "alpha", 1.0, "beta", 1.0);
+            case "MannaSenYookPseudoCountCommunicationGraph":
+                return map("noInitSeeds", DEGREE, "noConnectedEdges", DEGREE / 2, "pseudoCount", 1, "alpha", 1.0, "beta", 1.0);
+            default:
+                throw new IllegalArgumentException("No benchmark parameters for the topology "+topology+" known!!");
+        }
+    }
+
+    private static HashMap<String, Object> createTopologyManipulationParameters() {
+        return map("rewireProbability", 0.0, "selfReferentialTopology", false);
+    }
+
+    private void writeConfiguration(File configDirectory) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.writeValue(new File(configDirectory, "RandomNumberConfiguration.json"), map("masterSeed", MASTERSEED));
+        mapper.writeValue(new File(configDirectory, "Distributions.json"), createDistributions());
+        mapper.writeValue(new File(configDirectory, "DecisionConfiguration.json"), createDecisionConfiguration());
+        File productGroupDirectory = new File(configDirectory, "productGroups");
+        productGroupDirectory.mkdir();
+        mapper.writeValue(new File(productGroupDirectory, PRODUCTGROUP+".json"), createProductGroup());
+        mapper.writeValue(new File(configDirectory, "ProductConfiguration.json"), map("noProductsPerGroup", map(PRODUCTGROUP, 0), "marketIntroductionEvents", new ArrayList<Object>(), "productDiscontinuationEvents", new ArrayList<Object>()));
+        File consumerAgentGroupDirectory = new File(configDirectory, "consumerAgentGroups");
+        consumerAgentGroupDirectory.mkdir();
+        for(String consumerAgentGroup : CONSUMERAGENTGROUPS) mapper.writeValue(new File(consumerAgentGroupDirectory, consumerAgentGroup+".json"), createConsumerAgentGroup());
+        new File(configDirectory, "companyAgents").mkdir();
+        new File(configDirectory, "posAgents").mkdir();
+        mapper.writeValue(new File(configDirectory, "PolicyAgent.json"), map("ConsumerPolicyScheme", "DefaultConsumerPolicyScheme", "MarketEvaluationScheme", "DefaultMarketEvaluationScheme", "ProductPolicyScheme", "DefaultProductPolicyScheme", "RegulatoryPolicyScheme", "DefaultRegulatoryPolicyScheme", "informationAuthority", 1.0));
+        mapper.writeValue(new File(configDirectory, "AgentConfiguration.json"), createAgentConfiguration());
+        mapper.writeValue(new File(configDirectory, "PreferenceConfiguration.json"), createPreferenceConfiguration());
+        mapper.writeValue(new File(configDirectory, "SpatialConfiguration.json"), map("spatialModel", "CenteredUnitSquareSpatialModel", "parameters", map("metric", "euclideanMetric")));
+        mapper.writeValue(new File(configDirectory, "TemporalConfiguration.json"), map("simulationLength", simulationLength, "synchronousity", true, "timeModel", "discrete"));
+        mapper.writeValue(new File(configDirectory, "SocialNetworkConfiguration.json"), map("SocialGraph", map("topology", topology, "parameters", createSocialGraphParameters(topology, noAgents)), "TopologyManipulationScheme", map("scheme", "RandomRewireTMS", "parameters", createTopologyManipulationParameters()), "EdgeWeightManipulationScheme", map("scheme", "ConstantEdgeWeightManipulationScheme", "parameters", map("edgeWeight", 1.0))));
+        mapper.writeValue(new File(configDirectory, "ProcessModelConfiguration.json"), map("processModelToEmploy", "KieslingsAdoptionFiveStepModel", "adoptionReplacementScheme", "KieslingAdoptionReplacementScheme"));
+        mapper.writeValue(new File(configDirectory, "InformationConfiguration.json"), map("informationScheme", "NoInformationScheme", "informationParameter", map()));
+    }
+
+    private List<Object> createDistributions() {
+        return Arrays.<Object>asList(
+                distribution("uniformlyTrue", "BooleanDistribution", map("true", 1.0, "false", 0.0)),
+                distribution("attributeDistribution", "FiniteMassPointsDiscreteDistribution", map("0.2", 0.25, "0.4", 0.25, "0.6", 0.25, "0.8", 0.25)),
+                distribution("valueDistribution", "FiniteMassPointsDiscreteDistribution", map("0.3", 0.5, "0.7", 0.5)),
+                distribution("lifetimeDistribution", "FiniteMassPointsDiscreteDistribution", map("15.0", 1.0)),
+                distribution("messageDistribution", "FiniteMassPointsDiscreteDistribution", map("3.0", 1.0)),
+                distribution("perceptionDistribution", "FiniteMassPointsDiscreteDistribution", map("0.5", 1.0)),
+                distribution("halfDistribution", "FiniteMassPointsDiscreteDistribution", map("0.5", 1.0)),
+                distribution("noneDistribution", "FiniteMassPointsDiscreteDistribution", map("0.0", 1.0)),
+                distribution("spatialDistribution", "DummySpatialDistribution", map()));
+    }
+
+    private Map<String, Object> createDecisionConfiguration() {
+        Map<String, Object> importanceAttitudeMap = new LinkedHashMap<String, Object>();
+        for(String consumerAgentGroup : CONSUMERAGENTGROUPS) importanceAttitudeMap.put(consumerAgentGroup, map(PRODUCTGROUP, 0.5));
+        return map("Kiesling", map("rangeEpsilon", 0.1, "utilityFunctionEmployed", "linear"),
+                "TakeTheBest", map("utilityFunctionEmployed", "linear"),
+                "SchwarzTakeTheBest", map("utilityFunctionEmployed", "linear"),
+                "DeliberativeDecision", map("utilityFunctionEmployed", "linear", "importanceAttitudeMap", importanceAttitudeMap));
+    }
+
+    private Map<String, Object> createProductGroup() {
+        List<Object> productGroupAttributes = new ArrayList<Object>();
+        for(String attribute : PRODUCTGROUPATTRIBUTES) productGroupAttributes.add(map("name", attribute, "value", "attributeDistribution", "mutability", false, "observability", 1.0));
+        return map("productGroupAttributes", productGroupAttributes,
+                "prerequisiteProductGroups", new ArrayList<Object>(),
+                "excludedProductGroups", new ArrayList<Object>(),
+                "productLifetimeDistribution", "lifetimeDistribution",
+                "fixedProducts", Arrays.<Object>asList(
+                        fixedProduct("oilHeating", 0.2, 0.2, 0.8),
+                        fixedProduct("heatPump", 0.8, 0.8, 0.6),
+                        fixedProduct("pelletHeating", 0.6, 0.6, 0.4)),
+                "satisfiesNeeds", Arrays.<Object>asList(NEED),
+                "standardProduct", "oilHeating");
+    }
+
+    private Map<String, Object> createConsumerAgentGroup() {
+        Map<String, Object> perceptionSchemes = new LinkedHashMap<String, Object>();
+        for(String attribute : PRODUCTGROUPATTRIBUTES) perceptionSchemes.put(attribute, createPerceptionScheme());
+        Map<String, Object> values = new LinkedHashMap<String, Object>();
+        for(String value : VALUES) values.put(value, "valueDistribution");
+        //the deliberative decision process relies on the subjective norm of the agents
+        return map("consumerAgentGroupAttributes", Arrays.<Object>asList(map("name", "subjectiveNorm", "value", "halfDistribution")),
+                "informationAuthority", 1.0,
+                "consumerAgentCommunicationScheme", map("communicationScheme", "ImmediateCommunicationScheme", "consumerAgentMessageScheme", map("messageScheme", "DefaultConsumerAgentMessageScheme", "numberMessagesSentPerTimeUnit", "messageDistribution")),
+                "productGroupAwarenessDistribution", map(PRODUCTGROUP, "uniformlyTrue"),
+                "fixedProductsAwarenessDistribution", map("oilHeating", "uniformlyTrue", "heatPump", "uniformlyTrue", "pelletHeating", "uniformlyTrue"),
+                "perceptionSchemeConfiguration", map(PRODUCTGROUP, perceptionSchemes),
+                "decisionProcessEmployed", decisionProcess,
+                "consumerAgentGroupValues", values,
+                "spatialDistribution", "spatialDistribution",
+                "needDevelopmentScheme", "DefaultNeedDevelopmentScheme",
+                "needIndicatorMap", map(NEED, 0.01),
+                "initialProductConfiguration", map("oilHeating", "halfDistribution", "heatPump", "noneDistribution", "pelletHeating", "noneDistribution"));
+    }
+
+    private Map<String, Object> createPerceptionScheme() {
+        if(perceptionScheme.equals("perceptionHistogram")) return map("perceptionScheme", perceptionScheme, "parameters", map("noBins", 10, "lambda", 0.1, "histogramMin", 0.0, "histogramMax", 1.0, "histogramInitializationScheme", "TrueValueInitializationScheme"));
+        else if(perceptionScheme.equals("MemoryLessProductAttributePerceptionScheme")) return map("perceptionScheme", perceptionScheme, "parameters", map("initialPerception", "perceptionDistribution"));
+        else return map("perceptionScheme", perceptionScheme, "parameters", map());
+    }
+
+    private Map<String, Object> createAgentConfiguration() {
+        Map<String, Object> noAgentsPerGroup = new LinkedHashMap<String, Object>();
+        Map<String, Object> affinities = new LinkedHashMap<String, Object>();
+        for(int index = 0; index < CONSUMERAGENTGROUPS.length; index++) {
+            //the first group takes the remainder
+            noAgentsPerGroup.put(CONSUMERAGENTGROUPS[index], noAgents / CONSUMERAGENTGROUPS.length + (index == 0 ? noAgents % CONSUMERAGENTGROUPS.length : 0));
+            Map<String, Object> groupAffinities = new LinkedHashMap<String, Object>();
+            for(String targetGroup : CONSUMERAGENTGROUPS) groupAffinities.put(targetGroup, 1.0 / CONSUMERAGENTGROUPS.length);
+            affinities.put(CONSUMERAGENTGROUPS[index], groupAffinities);
+        }
+        return map("noAgentsPerGroup", noAgentsPerGroup, "consumerAgentGroupAffinities", affinities);
+    }
+
+    private Map<String, Object> createPreferenceConfiguration() {
+        //every value is mapped to every attribute (the take the best heuristics require this), most strongly to its own
+        List<Object> mapping = new ArrayList<Object>();
+        for(int attributeIndex = 0; attributeIndex < PRODUCTGROUPATTRIBUTES.length; attributeIndex++) {
+            for(int valueIndex = 0; valueIndex < VALUES.length; valueIndex++) {
+                mapping.add(map("productGroupAttribute", PRODUCTGROUPATTRIBUTES[attributeIndex], "value", VALUES[valueIndex], "mappingStrength", attributeIndex == valueIndex ? 1.0 : 0.2));
+            }
+        }
+        return map("preferenceProductAttributeMapping", mapping, "preferenceHomogenizingFactor", 0.1);
+    }
+
+    private static Map<String, Object> fixedProduct(String name, double price, double ecology, double comfort) {
+        double[] attributeValues = {price, ecology, comfort};
+        List<Object> productAttributes = new ArrayList<Object>();
+        for(int index = 0; index < PRODUCTGROUPATTRIBUTES.length; index++) productAttributes.add(map("correspondingProductGroupAttribute", PRODUCTGROUPATTRIBUTES[index], "value", attributeValues[index]));
+        return map("name", name, "productAttributes", productAttributes);
+    }
+
+    private static Map<String, Object> distribution(String name, String distribution, Map<String, Object> parameters) {
+        return map("name", name, "distribution", distribution, "parameters", parameters);
+    }
+
+    private static HashMap<String, Object> groupMap(Object value) {
+        HashMap<String, Object> groupMap = new HashMap<String, Object>();
+        for(String consumerAgentGroup : CONSUMERAGENTGROUPS) groupMap.put(consumerAgentGroup, value);
+        return groupMap;
+    }
+
+    //helper to denote the (nested) JSON objects of the configuration as alternating keys and values
+    private static LinkedHashMap<String, Object> map(Object... keysAndValues) {
+        LinkedHashMap<String, Object> map = new LinkedHashMap<String, Object>();
+        for(int index = 0; index < keysAndValues.length; index += 2) map.put((String) keysAndValues[index], keysAndValues[index+1]);
+        return map;
+    }
+}
@@ -0,0 +1,108 @@
+package IRPact_modellierung.events;
+
+import IRPact_modellierung.products.ProductConfiguration;
+import IRPact_modellierung.simulation.Configuration;
+import IRPact_modellierung.simulation.SimulationContainer;
+import IRPact_modellierung.time.DiscreteTimeModel;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests that the EventQueue (and the schedulers using it) return events scheduled for the same time
+ * in the order they were added, as the stable sorted list used by the schedulers before did.
+ *
+ * @author Simon Johanning
+ */
+public class EventQueueTest extends TestCase {
+
+    private static final int NOEVENTS = 2000;
+
+    private SimulationContainer container;
+
+    protected void setUp() {
+        ProductConfiguration productConfiguration = new ProductConfiguration(new HashSet<>(), new ArrayList<>(), new ArrayList<>(), null);
+        Configuration configuration = new Configuration(productConfiguration, null, null, null, null, null, null, null, null, null);
+        container = new SimulationContainer(configuration);
+        container.setTimeModel(new DiscreteTimeModel(container, null, 1, true));
+    }
+
+    public void testEventsOfSameTimeArePolledInInsertionOrder() {
+        List<Event> events = createEvents(NOEVENTS, 5, 1L);
+        EventQueue queue = new EventQueue(1);
+        for(Event event : events) queue.add(event);
+        assertEquals(stableSort(events), queue.toOrderedList());
+        List<Event> polledEvents = new ArrayList<>();
+        while(!queue.isEmpty()) polledEvents.add(queue.poll());
+        assertEquals(stableSort(events), polledEvents);
+    }
+
+    public void testInterleavedAddingAndPollingKeepsInsertionOrder() {
+        List<Event> events = createEvents(NOEVENTS, 3, 2L);
+        EventQueue queue = new EventQueue();
+        List<Event> addedEvents = new ArrayList<>();
+        List<Event> polledEvents = new ArrayList<>();
+        Random random = new Random(3L);
+        for(Event event : events){
+            queue.add(event);
+            addedEvents.add(event);
+            if(random.nextInt(3) == 0) polledEvents.add(queue.poll());
+        }
+        while(!queue.isEmpty()) polledEvents.add(queue.poll());
+        //every polled event precedes all events still queued, ties broken by insertion order
+        for(int index = 1; index < polledEvents.size(); index++){
+            Event previousEvent = polledEvents.get(index - 1);
+            Event event = polledEvents.get(index);
+            if(previousEvent.getScheduledForTime() == event.getScheduledForTime()){
+                assertTrue(addedEvents.indexOf(previousEvent) < addedEvents.indexOf(event));
+            }
+        }
+        assertEquals(events.size(), polledEvents.size());
+    }
+
+    public void testSchedulerPopsEventsOfSameTimeInSchedulingOrder() {
+        List<Event> events = createEvents(NOEVENTS, 4, 4L);
+        DiscreteEventScheduler scheduler = new DiscreteEventScheduler(container);
+        for(Event event : events) scheduler.scheduleEvent(event);
+        assertEquals(stableSort(events).get(0), scheduler.topNextEvent());
+        List<Event> poppedEvents = new ArrayList<>();
+        while(scheduler.existsNextEvent()) poppedEvents.add(scheduler.popNextEvent());
+        assertEquals(stableSort(events), poppedEvents);
+    }
+
+    public void testEmptyQueueThrows() {
+        EventQueue queue = new EventQueue();
+        try {
+            queue.poll();
+            fail("Polling an empty queue should throw");
+        } catch (IndexOutOfBoundsException ioobe) {
+            //expected
+        }
+    }
+
+    private List<Event> createEvents(int noEvents, int noTimes, long seed) {
+        Random random = new Random(seed);
+        List<Event> events = new ArrayList<>(noEvents);
+        for(int index = 0; index < noEvents; index++){
+            events.add(new Event(container, (double) random.nextInt(noTimes)) {
+                public void processEvent(double systemTime) {}
+            });
+        }
+        return events;
+    }
+
+    private static List<Event> stableSort(List<Event> events) {
+        List<Event> sortedEvents = new ArrayList<>(events);
+        Collections.sort(sortedEvents, new Comparator<Event>() {
+            public int compare(Event firstEvent, Event secondEvent) {
+                return Double.compare(firstEvent.getScheduledForTime(), secondEvent.getScheduledForTime());
+            }
+        });
+        return sortedEvents;
+    }
+}
@@ -0,0 +1,103 @@
+package IRPact_modellierung.io.output;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Tests that reopening a snapshot file cuts off a chunk left incomplete by a crashed run,
+ * and that a run resumed from a checkpoint replaces the snapshots written after the checkpoint.
+ *
+ * @author Simon Johanning
+ */
+public class AgentStateSnapshotFileTest extends TestCase {
+
+    private static final int NOAGENTS = 100;
+    private static final int NOSTEPS = 5;
+    private static final int RESUMESTEP = 3;
+
+    private File snapshotFile;
+
+    protected void setUp() throws IOException {
+        snapshotFile = File.createTempFile("irpactSnapshots", ".iras");
+        snapshotFile.delete();
+    }
+
+    protected void tearDown() {
+        snapshotFile.delete();
+    }
+
+    public void testIncompleteChunkIsCutOff() throws IOException {
+        writeSnapshots(0, NOSTEPS, 0, Double.POSITIVE_INFINITY);
+        long completeLength = snapshotFile.length();
+        appendIncompleteChunk();
+        writeSnapshots(NOSTEPS, NOSTEPS + 1, 0, Double.POSITIVE_INFINITY);
+        List<AgentStateSnapshotFile.Snapshot> snapshots = readSnapshots();
+        assertEquals(NOSTEPS + 1, snapshots.size());
+        for(int step = 0; step <= NOSTEPS; step++) assertEquals((double) step, snapshots.get(step).getTimeStamp());
+        assertTrue(snapshotFile.length() > completeLength);
+    }
+
+    public void testResumedRunReplacesLaterSnapshots() throws IOException {
+        //the crashed run got beyond the checkpoint after RESUMESTEP - 1 and left a chunk incomplete
+        writeSnapshots(0, NOSTEPS, 0, Double.POSITIVE_INFINITY);
+        appendIncompleteChunk();
+        writeSnapshots(RESUMESTEP, NOSTEPS, 1, RESUMESTEP);
+        List<AgentStateSnapshotFile.Snapshot> snapshots = readSnapshots();
+        assertEquals(NOSTEPS, snapshots.size());
+        for(int step = 0; step < NOSTEPS; step++){
+            assertEquals((double) step, snapshots.get(step).getTimeStamp());
+            assertEquals(step >= RESUMESTEP ? 1 : 0, snapshots.get(step).getBitColumn("run").cardinality());
+        }
+    }
+
+    private void writeSnapshots(int fromStep, int toStep, int run, double resumeTime) throws IOException {
+        AgentStateSnapshotFile.Writer writer = new AgentStateSnapshotFile.Writer(snapshotFile, resumeTime, false);
+        try {
+            for(int step = fromStep; step < toStep; step++){
+                AgentStateSnapshotFile.Snapshot snapshot = new AgentStateSnapshotFile.Snapshot(step, NOAGENTS);
+                BitSet runColumn = new BitSet();
+                if(run > 0) runColumn.set(run);
+                snapshot.addBitColumn("run", runColumn);
+                float[] values = new float[NOAGENTS];
+                for(int agentIndex = 0; agentIndex < NOAGENTS; agentIndex++) values[agentIndex] = step * agentIndex;
+                snapshot.addFloatColumn("value", values);
+                writer.writeSnapshot(snapshot);
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    private void appendIncompleteChunk() throws IOException {
+        RandomAccessFile file = new RandomAccessFile(snapshotFile, "rw");
+        try {
+            file.seek(file.length());
+            //"CHNK", time stamp and lengths of a chunk whose data is missing
+            file.writeInt(0x43484e4b);
+            file.writeDouble(NOSTEPS);
+            file.writeInt(1000);
+            file.writeInt(500);
+            file.write(new byte[100]);
+        } finally {
+            file.close();
+        }
+    }
+
+    private List<AgentStateSnapshotFile.Snapshot> readSnapshots() throws IOException {
+        List<AgentStateSnapshotFile.Snapshot> snapshots = new ArrayList<>();
+        AgentStateSnapshotFile.Reader reader = new AgentStateSnapshotFile.Reader(snapshotFile);
+        try {
+            AgentStateSnapshotFile.Snapshot snapshot;
+            while((snapshot = reader.readSnapshot()) != null) snapshots.add(snapshot);
+        } finally {
+            reader.close();
+        }
+        return snapshots;
+    }
+}
@@ -0,0 +1,132 @@
+package IRPact_modellierung.io.output;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests that the ReplicationStatistics reduce the observations in the order of the index of the replicates,
+ * so the statistics don't depend on the order the observations arrive in.
+ *
+ * @author Simon Johanning
+ */
+public class ReplicationStatisticsTest extends TestCase {
+
+    private static final int NOREPLICATES = 7;
+    private static final int NOTIMESTAMPS = 20;
+    private static final String[] MEASURES = {"adopters", "awareness"};
+
+    public void testStatisticsDoNotDependOnArrivalOrder() {
+        double[][][] observations = createObservations();
+        ReplicationStatistics inOrder = new ReplicationStatistics();
+        for(int replicate = 0; replicate < NOREPLICATES; replicate++) addReplicate(inOrder, replicate, observations[replicate]);
+        for(List<Integer> finishOrder : Arrays.asList(Arrays.asList(6, 5, 4, 3, 2, 1, 0), Arrays.asList(3, 0, 6, 1, 5, 2, 4))){
+            ReplicationStatistics shuffled = new ReplicationStatistics();
+            for(int replicate : finishOrder) addReplicate(shuffled, replicate, observations[replicate]);
+            assertEquals(describe(inOrder), describe(shuffled));
+        }
+        //the replicates running at the same time, each hands over the observations of a time stamp in turn
+        ReplicationStatistics interleaved = new ReplicationStatistics();
+        Random random = new Random(42L);
+        int[] nextTimeStamps = new int[NOREPLICATES];
+        List<Integer> runningReplicates = new ArrayList<>();
+        for(int replicate = 0; replicate < NOREPLICATES; replicate++) runningReplicates.add(replicate);
+        while(!runningReplicates.isEmpty()){
+            int replicate = runningReplicates.get(random.nextInt(runningReplicates.size()));
+            int timeStamp = nextTimeStamps[replicate]++;
+            for(int measure = 0; measure < MEASURES.length; measure++) interleaved.addObservation(replicate, timeStamp, MEASURES[measure], observations[replicate][timeStamp][measure]);
+            if(nextTimeStamps[replicate] == NOTIMESTAMPS){
+                interleaved.finishReplicate(replicate);
+                runningReplicates.remove(Integer.valueOf(replicate));
+            }
+        }
+        assertEquals(describe(inOrder), describe(interleaved));
+        assertEquals(NOREPLICATES, inOrder.getNoObservations(0.0, MEASURES[0]));
+    }
+
+    public void testObservationsAreHeldBackUntilPrecedingReplicatesObserved() {
+        ReplicationStatistics statistics = new ReplicationStatistics();
+        statistics.addObservation(2, 0.0, MEASURES[0], 2.0);
+        statistics.addObservation(1, 0.0, MEASURES[0], 1.0);
+        assertEquals(0, statistics.getNoObservations(0.0, MEASURES[0]));
+        statistics.addObservation(0, 0.0, MEASURES[0], 0.0);
+        assertEquals(3, statistics.getNoObservations(0.0, MEASURES[0]));
+        assertEquals(1.0, statistics.getMean(0.0, MEASURES[0]));
+        //a running replicate holds back the later time stamps of others, a finished one doesn't
+        statistics.addObservation(1, 1.0, MEASURES[0], 1.0);
+        assertEquals(0, statistics.getNoObservations(1.0, MEASURES[0]));
+        statistics.finishReplicate(1);
+        statistics.finishReplicate(2);
+        assertEquals(2, statistics.getNoFinishedReplicates());
+        assertEquals(0, statistics.getNoReducedReplicates());
+        statistics.finishReplicate(0);
+        assertEquals(3, statistics.getNoReducedReplicates());
+        assertEquals(1, statistics.getNoObservations(1.0, MEASURES[0]));
+    }
+
+    public void testObservationCannotBeAddedTwice() {
+        ReplicationStatistics statistics = new ReplicationStatistics();
+        statistics.addObservation(0, 0.0, MEASURES[0], 0.0);
+        statistics.addObservation(2, 0.0, MEASURES[0], 2.0);
+        for(int replicate : new int[]{0, 2}){
+            try {
+                statistics.addObservation(replicate, 0.0, MEASURES[0], 1.0);
+                fail("Observing the same measure of replicate "+replicate+" twice should throw");
+            } catch (IllegalArgumentException iae) {
+                //expected
+            }
+        }
+        statistics.finishReplicate(1);
+        try {
+            statistics.addObservation(1, 1.0, MEASURES[0], 1.0);
+            fail("Observing in a finished replicate should throw");
+        } catch (IllegalArgumentException iae) {
+            //expected
+        }
+        try {
+            statistics.finishReplicate(1);
+            fail("Finishing a replicate twice should throw");
+        } catch (IllegalArgumentException iae) {
+            //expected
+        }
+    }
+
+    private static void addReplicate(ReplicationStatistics statistics, int replicate, double[][] observations) {
+        for(int timeStamp = 0; timeStamp < NOTIMESTAMPS; timeStamp++){
+            for(int measure = 0; measure < MEASURES.length; measure++) statistics.addObservation(replicate, timeStamp, MEASURES[measure], observations[timeStamp][measure]);
+        }
+        statistics.finishReplicate(replicate);
+    }
+
+    private static double[][][] createObservations() {
+        Random random = new Random(4711L);
+        double[][][] observations = new double[NOREPLICATES][NOTIMESTAMPS][MEASURES.length];
+        for(int replicate = 0; replicate < NOREPLICATES; replicate++){
+            for(int timeStamp = 0; timeStamp < NOTIMESTAMPS; timeStamp++){
+                for(int measure = 0; measure < MEASURES.length; measure++) observations[replicate][timeStamp][measure] = random.nextDouble() * 1000.0 / 3.0;
+            }
+        }
+        return observations;
+    }
+
+    /**
+     * Describes the statistics bit exactly, so statistics only differing in rounding differ in their description
+     *
+     * @param statistics The statistics to describe
+     * @return The count, mean and standard deviation of every measure and time stamp
+     */
+    public static String describe(ReplicationStatistics statistics) {
+        StringBuilder description = new StringBuilder();
+        for(double timeStamp : statistics.getTimeStamps()){
+            for(String measure : statistics.getMeasures()){
+                description.append(timeStamp).append(' ').append(measure).append(' ').append(statistics.getNoObservations(timeStamp, measure))
+                        .append(' ').append(Double.toHexString(statistics.getMean(timeStamp, measure)))
+                        .append(' ').append(Double.toHexString(statistics.getStandardDeviation(timeStamp, measure))).append('\n');
+            }
+        }
+        return description.toString();
+    }
+}
@@ -0,0 +1,55 @@
+package IRPact_modellierung.network;
+
+import IRPact_modellierung.agents.consumerAgents.ConsumerAgent;
+import IRPact_modellierung.benchmark.SyntheticScenario;
+import IRPact_modellierung.io.output.OutputScheme;
+import IRPact_modellierung.products.Product;
+import IRPact_modellierung.simulation.SimulationContainer;
+import IRPact_modellierung.time.DiscreteTimeModel;
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Tests that the NeighbourhoodAdoptionIndex counts the same adopting neighbours
+ * as scanning the neighbours of every agent in the social graph, in every step of a simulation.
+ *
+ * @author Simon Johanning
+ */
+public class NeighbourhoodAdoptionIndexTest extends TestCase {
+
+    private static final int NOAGENTS = 300;
+    private static final int SIMULATIONLENGTH = 15;
+
+    public void testCountsEqualBruteForceCount() throws IOException {
+        for(String topology : new String[]{"RegularCommunicationGraph", "HeterogeneousSmallWorldCommunicationGraph", "MannaSenYookCommunicationGraph"}){
+            SyntheticScenario scenario = new SyntheticScenario(NOAGENTS);
+            scenario.setTopology(topology);
+            scenario.setSimulationLength(SIMULATIONLENGTH);
+            SimulationContainer container = scenario.createSimulation();
+            DiscreteTimeModel timeModel = (DiscreteTimeModel) container.getTimeModel();
+            timeModel.setOutputScheme(new OutputScheme() {
+                public void writeConsumerAgentState(ConsumerAgent consumerAgent, double timeStamp) {}
+                public void writeConsumerAdoption(Set<ConsumerAgent> consumerAgents, double timeStamp) {}
+            });
+            int noAdoptingNeighbourhoods = 0;
+            for(int step = 0; step <= SIMULATIONLENGTH; step++){
+                timeModel.simulateUntil(step);
+                SocialGraph socialGraph = container.getSocialNetwork().getSocialGraph();
+                for(ConsumerAgent consumerAgent : container.getConsumerAgents()){
+                    for(Product product : container.getProducts()){
+                        int bruteForceCount = 0;
+                        for(SNNode neighbour : socialGraph.getAllMediaNeighbours(consumerAgent.getCorrespondingNodeInSN())){
+                            if(container.getsNMap().get(neighbour).getAdoptedProductOrdinals().get(product.getProductOrdinal())) bruteForceCount++;
+                        }
+                        int indexCount = container.getNeighbourhoodAdoptionIndex().getNoAdoptingNeighbours(consumerAgent, product.getProductOrdinal());
+                        assertEquals(topology+" at "+step, bruteForceCount, indexCount);
+                        if(indexCount > 0) noAdoptingNeighbourhoods++;
+                    }
+                }
+            }
+            assertTrue(topology, noAdoptingNeighbourhoods > 0);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package IRPact_modellierung.network;
+
+import IRPact_modellierung.agents.consumerAgents.ConsumerAgentGroup;
+import IRPact_modellierung.agents.consumerAgents.ConsumerAgentGroupAffinities;
+import IRPact_modellierung.benchmark.SyntheticScenario;
+import IRPact_modellierung.simulation.Configuration;
+import IRPact_modellierung.simulation.RandomNumberService;
+import IRPact_modellierung.simulation.SimulationFactory;
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests writing social graphs to files and reading them back,
+ * as well as the reuse of graph files by the simulation depending on their fingerprint
+ * and what the fingerprint depends on.
+ *
+ * @author Simon Johanning
+ */
+public class SocialGraphFileTest extends TestCase {
+
+    private static final int NOAGENTS = 300;
+
+    private File graphFile;
+
+    protected void setUp() throws IOException {
+        graphFile = File.createTempFile("irpactGraph", ".irsg");
+    }
+
+    protected void tearDown() {
+        graphFile.delete();
+    }
+
+    public void testRoundTrip() throws IOException {
+        for(String topology : new String[]{"HeterogeneousSmallWorldCommunicationGraph", "MannaSenYookCommunicationGraph"}){
+            CompressedSocialGraph compressedGraph = createGraph(topology, SyntheticScenario.MASTERSEED, null);
+            SocialGraphFile.write(compressedGraph, 42L, graphFile);
+            assertEquals(42L, SocialGraphFile.readFingerprint(graphFile));
+            assertEquals(topology, describe(compressedGraph), describe(SocialGraphFile.read(graphFile)));
+        }
+    }
+
+    public void testOtherVersionIsRejected() throws IOException {
+        SocialGraphFile.write(createGraph("RegularCommunicationGraph", SyntheticScenario.MASTERSEED, null), 42L, graphFile);
+        RandomAccessFile file = new RandomAccessFile(graphFile, "rw");
+        try {
+            file.seek(4);
+            file.writeInt(1);
+        } finally {
+            file.close();
+        }
+        try {
+            SocialGraphFile.read(graphFile);
+            fail("Reading a file of another version should throw");
+        } catch (IllegalArgumentException iae) {
+            //expected
+        }
+    }
+
+    public void testFileIsReusedForSameFingerprintOnly() throws IOException {
+        String topology = "HeterogeneousRegularCommunicationGraph";
+        String generatedGraph = describe(createGraph(topology, SyntheticScenario.MASTERSEED, null));
+        String otherSeedGraph = describe(createGraph(topology, SyntheticScenario.MASTERSEED + 1, null));
+        assertFalse(generatedGraph.equals(otherSeedGraph));
+        graphFile.delete();
+        //the first simulation writes the file, the second one reads it
+        assertEquals(generatedGraph, describe(createGraph(topology, SyntheticScenario.MASTERSEED, graphFile)));
+        long fingerprint = SocialGraphFile.readFingerprint(graphFile);
+        assertEquals(generatedGraph, describe(createGraph(topology, SyntheticScenario.MASTERSEED, graphFile)));
+        assertEquals(fingerprint, SocialGraphFile.readFingerprint(graphFile));
+        //another seed doesn't fit the file, so the graph is generated anew and replaces the file
+        assertEquals(otherSeedGraph, describe(createGraph(topology, SyntheticScenario.MASTERSEED + 1, graphFile)));
+        assertFalse(fingerprint == SocialGraphFile.readFingerprint(graphFile));
+        assertEquals(otherSeedGraph, describe(SocialGraphFile.read(graphFile)));
+    }
+
+    public void testFingerprintCoversEdgeWeightsAndAffinities() throws IOException {
+        Configuration configuration = new SyntheticScenario(NOAGENTS).loadConfiguration();
+        ConsumerAgentGroupAffinities affinities = configuration.getAgentConfiguration().getAffinities();
+        List<SNNode> nodes = new ArrayList<>();
+        for(int index = 0; index < 10; index++) nodes.add(new SNConsumerNode("Node_" + index));
+        long fingerprint = SocialGraphFile.fingerprint(SyntheticScenario.MASTERSEED, createConfiguration(1.0), affinities, nodes);
+        assertEquals(fingerprint, SocialGraphFile.fingerprint(SyntheticScenario.MASTERSEED, createConfiguration(1.0), affinities, nodes));
+        assertFalse(fingerprint == SocialGraphFile.fingerprint(SyntheticScenario.MASTERSEED, createConfiguration(0.5), affinities, nodes));
+        //the same affinities in another order have the same fingerprint, other affinities don't
+        List<ConsumerAgentGroup> groups = new ArrayList<>(affinities.getAffinities().keySet());
+        assertTrue(groups.size() > 1);
+        Collections.reverse(groups);
+        Map<ConsumerAgentGroup, Map<ConsumerAgentGroup, Double>> reversedAffinities = new LinkedHashMap<>();
+        for(ConsumerAgentGroup sourceGroup : groups){
+            Map<ConsumerAgentGroup, Double> targetAffinities = new LinkedHashMap<>();
+            for(ConsumerAgentGroup targetGroup : groups) targetAffinities.put(targetGroup, affinities.getAffinities(sourceGroup).get(targetGroup));
+            reversedAffinities.put(sourceGroup, targetAffinities);
+        }
+        assertEquals(fingerprint, SocialGraphFile.fingerprint(SyntheticScenario.MASTERSEED, createConfiguration(1.0), new ConsumerAgentGroupAffinities(reversedAffinities), nodes));
+        Map<ConsumerAgentGroup, Double> firstAffinities = reversedAffinities.get(groups.get(0));
+        firstAffinities.put(groups.get(1), firstAffinities.get(groups.get(1)) + 0.125);
+        assertFalse(fingerprint == SocialGraphFile.fingerprint(SyntheticScenario.MASTERSEED, createConfiguration(1.0), new ConsumerAgentGroupAffinities(reversedAffinities), nodes));
+    }
+
+    private static SNConfiguration createConfiguration(double edgeWeight) {
+        HashMap<String, Object> graphParameters = new HashMap<>();
+        graphParameters.put("z", 4);
+        HashMap<String, Object> topologyParameters = new HashMap<>();
+        topologyParameters.put("rewireProbability", 0.0);
+        topologyParameters.put("selfReferentialTopology", false);
+        HashMap<String, Object> edgeWeightParameters = new HashMap<>();
+        edgeWeightParameters.put("edgeWeight", edgeWeight);
+        return new SNConfiguration("RegularCommunicationGraph", graphParameters, "RandomRewireTMS", topologyParameters, "ConstantEdgeWeightManipulationScheme", edgeWeightParameters);
+    }
+
+    private static CompressedSocialGraph createGraph(String topology, long masterSeed, File graphFile) throws IOException {
+        SyntheticScenario scenario = new SyntheticScenario(NOAGENTS);
+        scenario.setTopology(topology);
+        Configuration configuration = scenario.loadConfiguration();
+        configuration.setRandomNumberService(new RandomNumberService(masterSeed));
+        if(graphFile != null) configuration.getSNConfiguration().setPrebuiltGraphFile(graphFile.getPath());
+        return SimulationFactory.createSimulation(configuration).getSocialNetwork().getSocialGraph().getCompressedGraph();
+    }
+
+    /**
+     * Describes a compressed graph by the labels of its nodes and their neighbours (by id, in order) and edge weights for every medium
+     *
+     * @param compressedGraph The graph to describe
+     * @return The description of the graph
+     */
+    static String describe(CompressedSocialGraph compressedGraph) {
+        StringBuilder description = new StringBuilder();
+        for(int nodeId = 0; nodeId < compressedGraph.getNumberOfNodes(); nodeId++){
+            description.append(compressedGraph.getNode(nodeId).getNodeLabel()).append(':');
+            for(SocialGraph.EDGEMEDIUM edgemedium : SocialGraph.EDGEMEDIUM.values()){
+                for(int neighbourIndex = 0; neighbourIndex < compressedGraph.getDegree(nodeId, edgemedium); neighbourIndex++){
+                    description.append(edgemedium.ordinal()).append('>').append(compressedGraph.getNeighbourId(nodeId, edgemedium, neighbourIndex))
+                            .append('@').append(Double.toHexString(compressedGraph.getEdgeWeight(nodeId, edgemedium, neighbourIndex))).append(',');
+                }
+            }
+            description.append('\n');
+        }
+        return description.toString();
+    }
+}
@@ -0,0 +1,87 @@
+package IRPact_modellierung.network;
+
+import IRPact_modellierung.benchmark.SyntheticScenario;
+import IRPact_modellierung.simulation.Configuration;
+import IRPact_modellierung.simulation.RandomNumberService;
+import IRPact_modellierung.simulation.SimulationFactory;
+import junit.framework.TestCase;
+
+import java.io.IOException;
+
+/**
+ * Tests that the generated social graphs only depend on the master seed (for the same configuration),
+ * i.e. not on identity hash codes of the nodes and edges or the thread generating them.
+ * Besides the edges, the order of the neighbours of every node is compared, as the simulation iterates them in this order.
+ *
+ * @author Simon Johanning
+ */
+public class SocialGraphGenerationTest extends TestCase {
+
+    private static final int NOAGENTS = 300;
+    private static final String[] TOPOLOGIES = {"GilbertCommunicationGraph", "ErdosRenyiCommunicationGraph", "RegularCommunicationGraph",
+            "HeterogeneousRegularCommunicationGraph", "HeterogeneousSmallWorldCommunicationGraph", "NewtonianInversePowerlawCommunicationGraph",
+            "ExponentialDecayCommunicationGraph", "MannaSenYookCommunicationGraph", "MannaSenYookPseudoCountCommunicationGraph"};
+
+    public void testGraphsOnlyDependOnSeed() throws Exception {
+        for(final String topology : TOPOLOGIES){
+            String graph = describe(createGraph(topology, SyntheticScenario.MASTERSEED));
+            //shift the identity hash codes of the objects created afterwards
+            Object[] objects = new Object[10000];
+            for(int index = 0; index < objects.length; index++){
+                objects[index] = new Object();
+                System.identityHashCode(objects[index]);
+            }
+            assertEquals(topology, graph, describe(createGraph(topology, SyntheticScenario.MASTERSEED)));
+            final String[] otherThreadGraph = new String[1];
+            final Exception[] otherThreadException = new Exception[1];
+            Thread generatingThread = new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        otherThreadGraph[0] = describe(createGraph(topology, SyntheticScenario.MASTERSEED));
+                    } catch (Exception e) {
+                        otherThreadException[0] = e;
+                    }
+                }
+            });
+            generatingThread.start();
+            generatingThread.join();
+            if(otherThreadException[0] != null) throw otherThreadException[0];
+            assertEquals(topology, graph, otherThreadGraph[0]);
+        }
+    }
+
+    public void testGraphsDependOnSeed() throws IOException {
+        for(String topology : new String[]{"GilbertCommunicationGraph", "HeterogeneousSmallWorldCommunicationGraph", "MannaSenYookCommunicationGraph"}){
+            assertFalse(topology, describe(createGraph(topology, SyntheticScenario.MASTERSEED)).equals(describe(createGraph(topology, SyntheticScenario.MASTERSEED + 1))));
+        }
+    }
+
+    private static SocialGraph createGraph(String topology, long masterSeed) throws IOException {
+        SyntheticScenario scenario = new SyntheticScenario(NOAGENTS);
+        scenario.setTopology(topology);
+        Configuration configuration = scenario.loadConfiguration();
+        configuration.setRandomNumberService(new RandomNumberService(masterSeed));
+        return SimulationFactory.createSimulation(configuration).getSocialNetwork().getSocialGraph();
+    }
+
+    /**
+     * Describes a social graph by its nodes and their neighbours (in the order of the graph) and edge weights for every medium,
+     * as well as its compressed form
+     *
+     * @param socialGraph The graph to describe
+     * @return The description of the graph
+     */
+    private static String describe(SocialGraph socialGraph) {
+        StringBuilder description = new StringBuilder();
+        for(SNNode node : socialGraph.getNodes()){
+            description.append(node.getNodeLabel()).append(':');
+            for(SocialGraph.EDGEMEDIUM edgemedium : SocialGraph.EDGEMEDIUM.values()){
+                for(SNNode neighbour : socialGraph.getNeighbours(node, edgemedium)){
+                    description.append(edgemedium.ordinal()).append('>').append(neighbour.getNodeLabel()).append(',');
+                }
+            }
+            description.append('\n');
+        }
+        return description.append(SocialGraphFileTest.describe(socialGraph.getCompressedGraph())).toString();
+    }
+}
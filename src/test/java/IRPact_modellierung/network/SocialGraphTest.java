@@ -0,0 +1,74 @@
+package IRPact_modellierung.network;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tests that edges are retrieved the same way from a frozen social graph (whose edge index is released)
+ * as from a graph that is not frozen, and that a frozen graph can still be modified.
+ *
+ * @author Simon Johanning
+ */
+public class SocialGraphTest extends TestCase {
+
+    private static final int NONODES = 200;
+    private static final int Z = 6;
+
+    public void testFrozenGraphRetrievesSameEdges() {
+        SocialGraph socialGraph = createGraph();
+        List<SNEdge> edges = new ArrayList<>(socialGraph.getEdges());
+        socialGraph.freeze();
+        assertNull(socialGraph.edgeIndex);
+        for(SNEdge edge : edges){
+            assertSame(edge, socialGraph.getEdge(edge.getSource(), edge.getTarget(), edge.getMedium()));
+            assertFalse(socialGraph.hasEdge(edge.getSource(), edge.getTarget(), SocialGraph.EDGEMEDIUM.TRUST));
+        }
+        for(SNNode source : socialGraph.getNodes()){
+            for(SNNode target : socialGraph.getNodes()){
+                assertEquals(socialGraph.getNeighbours(source, SocialGraph.EDGEMEDIUM.COMMUNICATION).contains(target), socialGraph.hasEdge(source, target, SocialGraph.EDGEMEDIUM.COMMUNICATION));
+            }
+        }
+    }
+
+    public void testFrozenGraphCanBeModified() {
+        SocialGraph socialGraph = createGraph();
+        socialGraph.freeze();
+        SNEdge modifiedEdge = socialGraph.getEdges().iterator().next();
+        SNNode newTarget = null;
+        for(SNNode node : socialGraph.getNodes()){
+            if(node != modifiedEdge.getSource() && !socialGraph.hasEdge(modifiedEdge.getSource(), node, SocialGraph.EDGEMEDIUM.COMMUNICATION)) {
+                newTarget = node;
+                break;
+            }
+        }
+        socialGraph.modifyEdgeTarget(modifiedEdge, newTarget);
+        assertNotNull(socialGraph.edgeIndex);
+        assertNull(socialGraph.getEdge(modifiedEdge.getSource(), modifiedEdge.getTarget(), SocialGraph.EDGEMEDIUM.COMMUNICATION));
+        SNEdge newEdge = socialGraph.getEdge(modifiedEdge.getSource(), newTarget, SocialGraph.EDGEMEDIUM.COMMUNICATION);
+        assertNotNull(newEdge);
+        //freezing again releases the index, the modified topology is kept
+        CompressedSocialGraph compressedGraph = socialGraph.getCompressedGraph();
+        assertNull(socialGraph.edgeIndex);
+        assertSame(newEdge, socialGraph.getEdge(modifiedEdge.getSource(), newTarget, SocialGraph.EDGEMEDIUM.COMMUNICATION));
+        assertFalse(compressedGraph.isNeighbour(compressedGraph.getNodeId(modifiedEdge.getSource()), compressedGraph.getNodeId(modifiedEdge.getTarget()), SocialGraph.EDGEMEDIUM.COMMUNICATION));
+    }
+
+    private static SocialGraph createGraph() {
+        HashMap<String, Object> graphParameters = new HashMap<>();
+        graphParameters.put("z", Z);
+        HashMap<String, Object> topologyParameters = new HashMap<>();
+        topologyParameters.put("rewireProbability", 0.0);
+        topologyParameters.put("selfReferentialTopology", false);
+        HashMap<String, Object> edgeWeightParameters = new HashMap<>();
+        edgeWeightParameters.put("edgeWeight", 1.0);
+        SNConfiguration configuration = new SNConfiguration("RegularCommunicationGraph", graphParameters, "RandomRewireTMS", topologyParameters, "ConstantEdgeWeightManipulationScheme", edgeWeightParameters);
+        Set<SNNode> nodes = new LinkedHashSet<>();
+        for(int index = 0; index < NONODES; index++) nodes.add(new SNConsumerNode("Node_" + index));
+        return new RegularCommunicationGraph(null, configuration, nodes);
+    }
+}
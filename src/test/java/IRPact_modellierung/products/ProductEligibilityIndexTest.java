@@ -0,0 +1,68 @@
+package IRPact_modellierung.products;
+
+import IRPact_modellierung.agents.consumerAgents.ConsumerAgent;
+import IRPact_modellierung.benchmark.SyntheticScenario;
+import IRPact_modellierung.helper.FilterHelper;
+import IRPact_modellierung.io.output.OutputScheme;
+import IRPact_modellierung.needs.Need;
+import IRPact_modellierung.simulation.SimulationContainer;
+import IRPact_modellierung.time.DiscreteTimeModel;
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tests that the products selected from the bit sets of the ProductEligibilityIndex are the ones
+ * (in the same order) selected by the chain of product filters used before,
+ * with the adopted products excluded (which the check in FilterHelper.filterUnadoptableProducts failed to do).
+ *
+ * @author Simon Johanning
+ */
+public class ProductEligibilityIndexTest extends TestCase {
+
+    private static final int NOAGENTS = 300;
+    private static final int SIMULATIONLENGTH = 25;
+
+    public void testSelectionEqualsFilterChain() throws IOException {
+        SyntheticScenario scenario = new SyntheticScenario(NOAGENTS);
+        scenario.setSimulationLength(SIMULATIONLENGTH);
+        SimulationContainer container = scenario.createSimulation();
+        DiscreteTimeModel timeModel = (DiscreteTimeModel) container.getTimeModel();
+        timeModel.setOutputScheme(new OutputScheme() {
+            public void writeConsumerAgentState(ConsumerAgent consumerAgent, double timeStamp) {}
+            public void writeConsumerAdoption(Set<ConsumerAgent> consumerAgents, double timeStamp) {}
+        });
+        int noEligibleSelections = 0;
+        int noExcludedAdoptions = 0;
+        for(int step = 0; step <= SIMULATIONLENGTH; step += 5){
+            timeModel.simulateUntil(step);
+            for(ConsumerAgent consumerAgent : container.getConsumerAgents()){
+                for(Need need : container.getNeedsInSimulation()){
+                    Set<Product> filteredProducts = FilterHelper.filterUnadoptableProducts(FilterHelper.filterProductsForNeed(FilterHelper.filterUnintroducedProducts(FilterHelper.selectKnownProducts(consumerAgent.getProductAwarenessMap())), need), consumerAgent);
+                    for(Iterator<Product> productIterator = filteredProducts.iterator(); productIterator.hasNext();){
+                        if(isAdopted(consumerAgent, productIterator.next())){
+                            productIterator.remove();
+                            noExcludedAdoptions++;
+                        }
+                    }
+                    List<Product> selectedProducts = new ArrayList<>(consumerAgent.selectEligibleProducts(need));
+                    assertEquals(consumerAgent.getAgentID()+" at "+step, new ArrayList<>(filteredProducts), selectedProducts);
+                    if(!selectedProducts.isEmpty()) noEligibleSelections++;
+                }
+            }
+        }
+        assertTrue(noEligibleSelections > 0);
+        assertTrue(noExcludedAdoptions > 0);
+    }
+
+    private static boolean isAdopted(ConsumerAgent consumerAgent, Product product) {
+        for(AdoptedProduct adoptedProduct : consumerAgent.getAdoptedProducts()){
+            if(adoptedProduct.getCorrespondingProduct() == product) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,40 @@
+package IRPact_modellierung.simulation;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests that threads draw from the stream bound to them, and that drawing without a bound stream
+ * is rejected once a seeded service exists.
+ *
+ * @author Simon Johanning
+ */
+public class RandomNumberServiceTest extends TestCase {
+
+    private RandomStream previousStream;
+
+    protected void setUp() {
+        previousStream = RandomNumberService.bindStream(null);
+    }
+
+    protected void tearDown() {
+        RandomNumberService.bindStream(previousStream);
+    }
+
+    public void testBoundStreamIsDrawnFrom() {
+        RandomNumberService randomNumberService = new RandomNumberService(4711L);
+        RandomNumberService.bindStream(randomNumberService.createStream("agent"));
+        double firstDraw = RandomNumberService.nextDouble();
+        RandomNumberService.bindStream(randomNumberService.createStream("agent"));
+        assertEquals(firstDraw, RandomNumberService.nextDouble());
+    }
+
+    public void testDrawWithoutBoundStreamIsRejected() {
+        new RandomNumberService(4711L);
+        try {
+            RandomNumberService.nextDouble();
+            fail("Drawing without a bound stream should throw once a seeded service exists");
+        } catch (IllegalStateException ise) {
+            //expected
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package IRPact_modellierung.simulation;
+
+import IRPact_modellierung.benchmark.SyntheticScenario;
+import IRPact_modellierung.io.output.ReplicationStatisticsTest;
+import junit.framework.TestCase;
+
+import java.io.IOException;
+
+/**
+ * Tests that the statistics of replicates don't depend on the number of replicates run at the same time.
+ *
+ * @author Simon Johanning
+ */
+public class ReplicationRunnerTest extends TestCase {
+
+    private static final int NOAGENTS = 150;
+    private static final int NOREPLICATES = 5;
+    private static final double SIMULATIONLENGTH = 8.0;
+
+    public void testStatisticsDoNotDependOnParallelism() throws IOException {
+        for(String decisionProcess : new String[]{"Kiesling", "DeliberativeDecision"}){
+            SyntheticScenario scenario = createScenario(decisionProcess);
+            String sequential = ReplicationStatisticsTest.describe(new ReplicationRunner(scenario.loadConfiguration(), 1).runReplicates(NOREPLICATES));
+            String parallel = ReplicationStatisticsTest.describe(new ReplicationRunner(scenario.loadConfiguration(), 3).runReplicates(NOREPLICATES));
+            assertTrue(sequential.length() > 0);
+            assertEquals(decisionProcess, sequential, parallel);
+        }
+    }
+
+    private static SyntheticScenario createScenario(String decisionProcess) {
+        SyntheticScenario scenario = new SyntheticScenario(NOAGENTS);
+        scenario.setTopology("HeterogeneousRegularCommunicationGraph");
+        scenario.setDecisionProcess(decisionProcess);
+        scenario.setSimulationLength(SIMULATIONLENGTH);
+        return scenario;
+    }
+}
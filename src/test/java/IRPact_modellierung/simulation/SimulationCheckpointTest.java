@@ -0,0 +1,129 @@
+package IRPact_modellierung.simulation;
+
+import IRPact_modellierung.agents.consumerAgents.ConsumerAgent;
+import IRPact_modellierung.benchmark.SyntheticScenario;
+import IRPact_modellierung.io.output.OutputScheme;
+import IRPact_modellierung.perception.ProductAttributePerceptionScheme;
+import IRPact_modellierung.products.AdoptedProduct;
+import IRPact_modellierung.products.Product;
+import IRPact_modellierung.time.DiscreteTimeModel;
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Tests that a simulation restored from a checkpoint continues exactly like the simulation the checkpoint was written of,
+ * i.e. the adoptions, awareness and perceptions of all agents are the same in every step after the checkpoint,
+ * and that writing a checkpoint doesn't change the simulation it is written of.
+ *
+ * @author Simon Johanning
+ */
+public class SimulationCheckpointTest extends TestCase {
+
+    private static final int NOAGENTS = 200;
+    private static final double SIMULATIONLENGTH = 12.0;
+    private static final int CHECKPOINTSTEP = 5;
+
+    private File checkpointFile;
+
+    protected void setUp() throws IOException {
+        checkpointFile = File.createTempFile("irpactCheckpoint", ".irpc");
+    }
+
+    protected void tearDown() {
+        checkpointFile.delete();
+    }
+
+    public void testRestoredSimulationContinuesIdentically() throws IOException {
+        for(String decisionProcess : new String[]{"Kiesling", "DeliberativeDecision"}){
+            SyntheticScenario scenario = new SyntheticScenario(NOAGENTS);
+            scenario.setDecisionProcess(decisionProcess);
+            scenario.setSimulationLength(SIMULATIONLENGTH);
+            SimulationContainer original = scenario.createSimulation();
+            DiscreteTimeModel timeModel = (DiscreteTimeModel) original.getTimeModel();
+            StateRecorder originalStates = new StateRecorder();
+            timeModel.setOutputScheme(originalStates);
+            timeModel.simulateUntil(CHECKPOINTSTEP);
+            SimulationCheckpoint.write(original, checkpointFile);
+            timeModel.startSimulation();
+
+            //the checkpoint can be restored several times, every restored simulation continuing the same way
+            for(int restore = 0; restore < 2; restore++){
+                SimulationContainer restored = SimulationCheckpoint.read(checkpointFile);
+                StateRecorder restoredStates = new StateRecorder();
+                restored.getTimeModel().setOutputScheme(restoredStates);
+                restored.getTimeModel().startSimulation();
+                assertFalse(restoredStates.states.isEmpty());
+                List<String> continuedStates = originalStates.states.subList(originalStates.states.size() - restoredStates.states.size(), originalStates.states.size());
+                assertEquals(decisionProcess, continuedStates, restoredStates.states);
+            }
+        }
+    }
+
+    public void testWritingCheckpointDoesNotChangeSimulation() throws IOException {
+        List<List<String>> runStates = new ArrayList<>();
+        for(boolean writeCheckpoint : new boolean[]{false, true}){
+            SyntheticScenario scenario = new SyntheticScenario(NOAGENTS);
+            scenario.setSimulationLength(SIMULATIONLENGTH);
+            SimulationContainer simulation = scenario.createSimulation();
+            DiscreteTimeModel timeModel = (DiscreteTimeModel) simulation.getTimeModel();
+            StateRecorder states = new StateRecorder();
+            timeModel.setOutputScheme(states);
+            timeModel.simulateUntil(CHECKPOINTSTEP);
+            if(writeCheckpoint) SimulationCheckpoint.write(simulation, checkpointFile);
+            timeModel.startSimulation();
+            runStates.add(states.states);
+        }
+        assertEquals(runStates.get(0), runStates.get(1));
+    }
+
+    public void testNoCheckpointIsRejected() throws IOException {
+        try {
+            SimulationCheckpoint.read(checkpointFile);
+            fail("Reading an empty file should throw");
+        } catch (IOException ioe) {
+            //expected
+        }
+    }
+
+    /**
+     * Output scheme describing the state of all agents at every time step
+     */
+    private static class StateRecorder extends OutputScheme {
+
+        private final List<String> states = new ArrayList<>();
+
+        public void writeConsumerAgentState(ConsumerAgent consumerAgent, double timeStamp) {}
+
+        public void writeConsumerAdoption(Set<ConsumerAgent> consumerAgents, double timeStamp) {
+            TreeMap<String, ConsumerAgent> agentsById = new TreeMap<>();
+            for(ConsumerAgent consumerAgent : consumerAgents) agentsById.put(consumerAgent.getAgentID(), consumerAgent);
+            StringBuilder state = new StringBuilder().append(timeStamp);
+            for(ConsumerAgent consumerAgent : agentsById.values()){
+                state.append('\n').append(consumerAgent.getAgentID()).append(':');
+                for(AdoptedProduct adoptedProduct : consumerAgent.getAdoptedProducts()){
+                    state.append(adoptedProduct.getCorrespondingProduct().getName()).append('@').append(adoptedProduct.getAdoptionTime()).append(',');
+                }
+                TreeMap<String, Boolean> awareness = new TreeMap<>();
+                for(Map.Entry<Product, Boolean> productAwareness : consumerAgent.getProductAwarenessMap().entrySet()){
+                    awareness.put(productAwareness.getKey().getName(), productAwareness.getValue());
+                }
+                state.append(awareness);
+                List<Double> perceptions = new ArrayList<>();
+                for(ProductAttributePerceptionScheme perceptionScheme : consumerAgent.getPerceivedProductAttributeValues().values()){
+                    perceptions.add(perceptionScheme.calculateProductAttributePerception(timeStamp));
+                }
+                Collections.sort(perceptions);
+                for(double perception : perceptions) state.append(Double.toHexString(perception)).append(',');
+            }
+            states.add(state.toString());
+        }
+    }
+}